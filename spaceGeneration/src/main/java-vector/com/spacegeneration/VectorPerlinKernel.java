@@ -0,0 +1,75 @@
+package com.spacegeneration;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD version of the inner loop of FastNoise.FillPerlin2D, built with the incubating Vector
+ * API. Each lane evaluates one column of a row: the four corner dot products and the three
+ * interpolations run lane-wise, with the same float operations in the same order as
+ * FastNoise.SinglePerlin and without fused multiply-adds.
+ * <p>
+ * Only loaded through {@link VectorPerlin}, see there for the fallback rules.
+ */
+final class VectorPerlinKernel implements VectorPerlin.Kernel {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public int lanes() {
+        return FLOATS.length();
+    }
+
+    @Override
+    public void fillRow(float[] gradients, float[] xs, float[] xd0, float[] xd1, int w,
+            float ys, float yd0, float yd1, float[] out, int index) {
+        FloatVector ysV = FloatVector.broadcast(FLOATS, ys);
+        FloatVector yd0V = FloatVector.broadcast(FLOATS, yd0);
+        FloatVector yd1V = FloatVector.broadcast(FLOATS, yd1);
+
+        int bound = FLOATS.loopBound(w);
+        int col = 0;
+        for (; col < bound; col += FLOATS.length()) {
+            FloatVector xd0V = FloatVector.fromArray(FLOATS, xd0, col);
+            FloatVector xd1V = FloatVector.fromArray(FLOATS, xd1, col);
+            FloatVector xsV = FloatVector.fromArray(FLOATS, xs, col);
+
+            FloatVector d00 = dot(gradients, 0, w, col, xd0V, yd0V);
+            FloatVector d10 = dot(gradients, 2, w, col, xd1V, yd0V);
+            FloatVector d01 = dot(gradients, 4, w, col, xd0V, yd1V);
+            FloatVector d11 = dot(gradients, 6, w, col, xd1V, yd1V);
+
+            FloatVector xf0 = lerp(d00, d10, xsV);
+            FloatVector xf1 = lerp(d01, d11, xsV);
+            lerp(xf0, xf1, ysV).intoArray(out, index + col);
+        }
+
+        for (; col < w; col++) {
+            float xf0 = lerp(dot(gradients, 0, w, col, xd0[col], yd0), dot(gradients, 2, w, col, xd1[col], yd0), xs[col]);
+            float xf1 = lerp(dot(gradients, 4, w, col, xd0[col], yd1), dot(gradients, 6, w, col, xd1[col], yd1), xs[col]);
+            out[index + col] = lerp(xf0, xf1, ys);
+        }
+    }
+
+    /**
+     * Dot product of the distances to a corner with the corner's gradient, whose x and y
+     * components are the blocks {@code block} and {@code block + 1} of the gradient array.
+     */
+    private static FloatVector dot(float[] gradients, int block, int w, int col, FloatVector xd, FloatVector yd) {
+        FloatVector gx = FloatVector.fromArray(FLOATS, gradients, block * w + col);
+        FloatVector gy = FloatVector.fromArray(FLOATS, gradients, (block + 1) * w + col);
+        return xd.mul(gx).add(yd.mul(gy));
+    }
+
+    private static float dot(float[] gradients, int block, int w, int col, float xd, float yd) {
+        return xd * gradients[block * w + col] + yd * gradients[(block + 1) * w + col];
+    }
+
+    private static FloatVector lerp(FloatVector a, FloatVector b, FloatVector t) {
+        return a.add(t.mul(b.sub(a)));
+    }
+
+    private static float lerp(float a, float b, float t) {
+        return a + t * (b - a);
+    }
+}
@@ -0,0 +1,95 @@
+package com.spacegeneration;
+
+/**
+ * Interpolates a grid of samples taken every step-th pixel back up to every pixel, with
+ * Catmull-Rom bicubic interpolation. The interpolation goes through the samples, so pixels on
+ * the grid keep their exact values, and between them it follows the curvature of the field,
+ * which for slowly changing noise is much closer to the real values than repeating each
+ * sample over its pixels.
+ * <p>
+ * Every pixel needs the two samples on each side of it, so the grid has a border of one
+ * sample: grid sample (i, j) lies at pixel ((i - 1) * step, (j - 1) * step), and a width x
+ * height image needs a grid of {@link #gridSize}(width, step) x {@link #gridSize}(height,
+ * step) samples. The image is interpolated in bands of rows, separably: each grid row the
+ * band needs is interpolated across once, then every pixel is interpolated down from four of
+ * those rows.
+ */
+public final class BicubicUpsampler {
+
+    private final int step;
+    private final int width;
+    private final int gridWidth;
+    private final float[][] weights;
+    private float[] across;
+
+    /**
+     * Creates an upsampler for images of the given width from a grid of the given step.
+     */
+    public BicubicUpsampler(int width, int step) {
+        this.step = step;
+        this.width = width;
+        this.gridWidth = gridSize(width, step);
+        this.weights = new float[step][];
+        for (int phase = 0; phase < step; phase++) {
+            weights[phase] = catmullRom(phase / (float) step);
+        }
+    }
+
+    /**
+     * Returns the samples the grid needs along a side of the given number of pixels.
+     */
+    public static int gridSize(int pixels, int step) {
+        return (pixels - 1) / step + 4;
+    }
+
+    /**
+     * Returns the weights of the samples before, at, after and two after a point that lies
+     * the fraction t of the way from the sample at to the sample after.
+     */
+    static float[] catmullRom(float t) {
+        float t2 = t * t;
+        float t3 = t2 * t;
+        return new float[] {
+            0.5f * (-t3 + 2 * t2 - t),
+            0.5f * (3 * t3 - 5 * t2 + 2),
+            0.5f * (-3 * t3 + 4 * t2 + t),
+            0.5f * (t3 - t2)
+        };
+    }
+
+    /**
+     * Interpolates rows firstRow to firstRow + rows - 1 of the image into
+     * out[offset + row * width + x], from grid[j * gridWidth + i].
+     */
+    public void upsample(float[] grid, int firstRow, int rows, float[] out, int offset) {
+        if (rows <= 0) { return; }
+
+        int firstGridRow = firstRow / step;
+        int gridRows = (firstRow + rows - 1) / step - firstGridRow + 4;
+        if (across == null || across.length < gridRows * width) {
+            across = new float[gridRows * width];
+        }
+        for (int j = 0; j < gridRows; j++) {
+            interpolateAcross(grid, (firstGridRow + j) * gridWidth, across, j * width);
+        }
+
+        for (int row = 0; row < rows; row++) {
+            int y = firstRow + row;
+            float[] w = weights[y % step];
+            int above = (y / step - firstGridRow) * width;
+            int index = offset + row * width;
+            for (int x = 0; x < width; x++) {
+                out[index + x] = w[0] * across[above + x] + w[1] * across[above + width + x]
+                        + w[2] * across[above + 2 * width + x] + w[3] * across[above + 3 * width + x];
+            }
+        }
+    }
+
+    private void interpolateAcross(float[] grid, int gridRow, float[] out, int offset) {
+        for (int x = 0; x < width; x++) {
+            float[] w = weights[x % step];
+            int left = gridRow + x / step;
+            out[offset + x] = w[0] * grid[left] + w[1] * grid[left + 1] + w[2] * grid[left + 2] + w[3] * grid[left + 3];
+        }
+    }
+}
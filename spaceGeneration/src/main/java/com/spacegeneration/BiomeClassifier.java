@@ -0,0 +1,204 @@
+package com.spacegeneration;
+
+import java.awt.Color;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Picks the colour of every land pixel from three noise channels: temperature and moisture
+ * choose one of the land type palettes of landLayerData.json as the pixel's biome, and the
+ * height chooses the layer within that palette, with the same layer boundaries the land
+ * used when a whole planet had a single land type.
+ * <p>
+ * Biomes by climate: cold land is Snowy, hot land is Desert when dry and Island when wet,
+ * and temperate land is Rocky when dry and Regular otherwise. A biome whose land type is
+ * missing from the palettes falls back to the first palette.
+ * <p>
+ * To classify every pixel of a planet, build a {@link HeightColorTable} for its height range
+ * once and classify through that.
+ * <p>
+ * Every layer colour of every palette also has a colour index, with index
+ * {@value #NO_LAYER_INDEX} for the background, so the land can be stored as one byte per
+ * pixel and drawn through {@link #createColorModel()}.
+ */
+public final class BiomeClassifier {
+
+    public static final String REGULAR = "Regular";
+    public static final String ISLAND = "Island";
+    public static final String DESERT = "Desert";
+    public static final String SNOWY = "Snowy";
+    public static final String ROCKY = "Rocky";
+
+    static final float COLD = -0.2f;
+    static final float HOT = 0.2f;
+    static final float DRY = -0.1f;
+
+    /**
+     * Colour of a pixel whose height is above every layer, the land background.
+     */
+    static final int NO_LAYER_RGB = Color.BLACK.getRGB();
+    static final int NO_LAYER_INDEX = 0;
+
+    private final String[] names;
+    private final double[][] layerValues;
+    private final int[][] layerRgb;
+    private final int[][] layerIndex;
+    private final int[] colorRgb;
+
+    private final int regular;
+    private final int island;
+    private final int desert;
+    private final int snowy;
+    private final int rocky;
+
+    /**
+     * Creates a classifier for the given land types, where layerValues[type] are the layer
+     * boundaries as fractions of the height range and layerColors[type] the hex colours.
+     */
+    public BiomeClassifier(String[] names, double[][] layerValues, String[][] layerColors) {
+        this(palettes(names, layerValues, layerColors));
+    }
+
+    /**
+     * Creates a classifier for the given land palettes, see {@link LandPaletteRegistry}.
+     */
+    public BiomeClassifier(List<LandPalette> palettes) {
+        this.names = new String[palettes.size()];
+        this.layerValues = new double[palettes.size()][];
+        this.layerRgb = new int[palettes.size()][];
+        for (int type = 0; type < palettes.size(); type++) {
+            LandPalette palette = palettes.get(type);
+            this.names[type] = palette.getName();
+            this.layerValues[type] = palette.getLayerValues();
+            this.layerRgb[type] = palette.getLayerRgb();
+        }
+
+        this.layerIndex = new int[palettes.size()][];
+        int colors = NO_LAYER_INDEX + 1;
+        for (int type = 0; type < palettes.size(); type++) {
+            colors += layerRgb[type].length;
+        }
+        this.colorRgb = new int[colors];
+        colorRgb[NO_LAYER_INDEX] = NO_LAYER_RGB;
+        int index = NO_LAYER_INDEX + 1;
+        for (int type = 0; type < palettes.size(); type++) {
+            layerIndex[type] = new int[layerRgb[type].length];
+            for (int layer = 0; layer < layerRgb[type].length; layer++) {
+                layerIndex[type][layer] = index;
+                colorRgb[index++] = layerRgb[type][layer];
+            }
+        }
+
+        regular = indexOf(REGULAR);
+        island = indexOf(ISLAND);
+        desert = indexOf(DESERT);
+        snowy = indexOf(SNOWY);
+        rocky = indexOf(ROCKY);
+    }
+
+    private static List<LandPalette> palettes(String[] names, double[][] layerValues, String[][] layerColors) {
+        List<LandPalette> palettes = new ArrayList<LandPalette>(names.length);
+        for (int type = 0; type < names.length; type++) {
+            palettes.add(new LandPalette(names[type], layerValues[type], layerColors[type]));
+        }
+        return palettes;
+    }
+
+    public int getBiomeCount() {
+        return names.length;
+    }
+
+    public String getBiomeName(int biome) {
+        return names[biome];
+    }
+
+    /**
+     * Returns the land type used for the given climate, both in the range of Perlin noise.
+     */
+    public int biomeOf(float moisture, float temperature) {
+        if (temperature < COLD) { return snowy; }
+        if (temperature > HOT) { return (moisture < DRY)? desert : island; }
+        return (moisture < DRY)? rocky : regular;
+    }
+
+    /**
+     * Returns the ARGB colour of a pixel. The height is compared against the layer boundaries
+     * scaled to the height range that starts at minimum, like the land panel always did.
+     */
+    public int classify(float height, float minimum, float range, float moisture, float temperature) {
+        return colorRgb[classifyIndex(height, minimum, range, moisture, temperature)];
+    }
+
+    /**
+     * Returns the colour index of a pixel, see {@link #classify}.
+     */
+    public int classifyIndex(float height, float minimum, float range, float moisture, float temperature) {
+        int biome = biomeOf(moisture, temperature);
+        double[] values = layerValues[biome];
+        for (int layer = 0; layer < values.length; layer++) {
+            if (height > minimum + (range * values[layer])) { continue; }
+
+            return layerIndex[biome][layer];
+        }
+        return NO_LAYER_INDEX;
+    }
+
+    /**
+     * Returns the number of colour indices, the background and every layer of every palette.
+     */
+    public int getColorCount() {
+        return colorRgb.length;
+    }
+
+    public int getColorRgb(int index) {
+        return colorRgb[index];
+    }
+
+    /**
+     * Returns a hash of the palettes and climate thresholds that is the same in every run, so land classified with
+     * them can be told apart from land of other palettes, see {@link TerrainCache}.
+     */
+    public long getFingerprint() {
+        long hash = 1125899906842597L;
+        hash = 31 * hash + Float.floatToIntBits(COLD);
+        hash = 31 * hash + Float.floatToIntBits(HOT);
+        hash = 31 * hash + Float.floatToIntBits(DRY);
+        for (int type = 0; type < names.length; type++) {
+            hash = 31 * hash + names[type].hashCode();
+            for (int layer = 0; layer < layerValues[type].length; layer++) {
+                hash = 31 * hash + Double.doubleToLongBits(layerValues[type][layer]);
+                hash = 31 * hash + layerRgb[type][layer];
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns an 8 bit colour model that maps the colour indices to their colours.
+     *
+     * @throws IllegalStateException if the palettes have more than 255 layers together
+     */
+    public IndexColorModel createColorModel() {
+        if (colorRgb.length > 256) {
+            throw new IllegalStateException(colorRgb.length + " colours do not fit an 8 bit colour model");
+        }
+        return new IndexColorModel(8, colorRgb.length, colorRgb, 0, false, -1, DataBuffer.TYPE_BYTE);
+    }
+
+    /**
+     * Returns the lookup table that classifies heights of the range that starts at minimum
+     * like {@link #classify}, for painting a whole planet.
+     */
+    public HeightColorTable colorTable(float minimum, float range) {
+        return new HeightColorTable(this, layerValues, layerIndex, colorRgb, minimum, range);
+    }
+
+    private int indexOf(String name) {
+        for (int type = 0; type < names.length; type++) {
+            if (names[type].equals(name)) { return type; }
+        }
+        return 0;
+    }
+}
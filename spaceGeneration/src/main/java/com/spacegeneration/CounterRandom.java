@@ -0,0 +1,55 @@
+package com.spacegeneration;
+
+/**
+ * Stateless, counter-based random numbers for {@link GenerationVersion#v2} universes. Instead
+ * of drawing numbers one after another from a shared generator, every number is a hash of
+ * where it is used: a key for the thing being generated and the index of the draw. Keys are
+ * split off their parent key by a value, such as the region's x and then its y, the kind of
+ * entity and its index, so any planet, star or moon can be derived directly, in any order and
+ * on any thread, and always comes out the same.
+ * <p>
+ * Hashing is the finalizer of SplitMix64, which turns consecutive inputs into unrelated
+ * 64-bit outputs.
+ */
+public final class CounterRandom {
+
+    static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private CounterRandom() {
+    }
+
+    /**
+     * Returns the key split off the parent key by the given value.
+     */
+    public static long key(long parent, long value) {
+        return mix(parent + mix(value + GOLDEN_GAMMA));
+    }
+
+    /**
+     * Returns the draw-th number of the key, uniform from 0 to bound - 1. Like
+     * java.util.Random, throws IllegalArgumentException if bound is not positive.
+     */
+    public static int nextInt(long key, int draw, int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive, not " + bound);
+        }
+        long bits = mix(key + GOLDEN_GAMMA * (draw + 1L));
+        return (int) (((bits >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Returns the draw-th number of the key as 32 random bits.
+     */
+    public static int nextInt(long key, int draw) {
+        return (int) (mix(key + GOLDEN_GAMMA * (draw + 1L)) >>> 32);
+    }
+
+    /**
+     * The SplitMix64 finalizer, a bijection of the 64-bit numbers.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
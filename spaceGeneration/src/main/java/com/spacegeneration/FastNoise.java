@@ -1,5 +1,7 @@
 package com.spacegeneration;
 
+import java.util.Random;
+
 /**
  * This is NOT my own work and is actually an opensource Github library that
  * is designed for noise generation.
@@ -14,6 +16,7 @@ public class FastNoise {
 	public enum FractalType {FBM, Billow, RigidMulti}
 	public enum CellularDistanceFunction {Euclidean, Manhattan, Natural}
 	public enum CellularReturnType {CellValue, NoiseLookup, Distance, Distance2, Distance2Add, Distance2Sub, Distance2Mul, Distance2Div}
+	public enum HashType {Prime, Permutation}
 
 	private int m_seed = 1337;
 	private float m_frequency = (float) 0.01;
@@ -27,15 +30,56 @@ public class FastNoise {
 
 	private float m_fractalBounding;
 
+	private CellularDistanceFunction m_cellularDistanceFunction = CellularDistanceFunction.Euclidean;
+	private CellularReturnType m_cellularReturnType = CellularReturnType.CellValue;
+	private FastNoise m_cellularNoiseLookup = null;
+
+	private HashType m_hashType = HashType.Prime;
+	// Seed the permutation table is built from, which only differs from m_seed after SetOctaveSeed
+	private int m_permSeed = 1337;
+	private int[] m_perm;
+	private int[] m_permHash;
+
 	public FastNoise() {
 		this(1337);
 	}
 
 	public FastNoise(int seed) {
 		m_seed = seed;
+		m_permSeed = seed;
+		CalculateFractalBounding();
+	}
+
+	// Creates a noise generator with the settings captured in the given snapshot
+	public FastNoise(NoiseConfig config) {
+		m_seed = config.getSeed();
+		m_permSeed = config.getPermutationSeed();
+		m_frequency = config.getFrequency();
+		m_interp = config.getInterp();
+		m_noiseType = config.getNoiseType();
+		m_octaves = config.getOctaves();
+		m_lacunarity = config.getLacunarity();
+		m_gain = config.getGain();
+		m_fractalType = config.getFractalType();
+		m_cellularDistanceFunction = config.getCellularDistanceFunction();
+		m_cellularReturnType = config.getCellularReturnType();
+		if (config.getCellularNoiseLookup() != null) {
+			m_cellularNoiseLookup = new FastNoise(config.getCellularNoiseLookup());
+		}
+		SetHashType(config.getHashType());
 		CalculateFractalBounding();
 	}
 
+	// Returns an immutable snapshot of the current settings.
+	// FastNoise itself has no locking: the Get/Fill methods only read the settings, so one instance
+	// may be shared between threads as long as none of the setters are called while it is in use.
+	// Parallel work should build its own instance from a snapshot, see ParallelNoiseFill.
+	public NoiseConfig GetConfig() {
+		return new NoiseConfig(m_seed, m_frequency, m_interp, m_noiseType, m_octaves, m_lacunarity, m_gain, m_fractalType,
+				m_cellularDistanceFunction, m_cellularReturnType,
+				m_cellularNoiseLookup == null ? null : m_cellularNoiseLookup.GetConfig(), m_hashType, m_permSeed);
+	}
+
 	// Returns the seed used by this object
 	public int GetSeed() {
 		return m_seed;
@@ -45,6 +89,17 @@ public class FastNoise {
 	// Default: 1337
 	public void SetSeed(int seed) {
 		m_seed = seed;
+		m_permSeed = seed;
+		if (m_hashType == HashType.Permutation) {
+			BuildPermutation();
+		}
+	}
+
+	// Sets the seed of a single octave of a fractal of this generator: GetNoise then returns what the
+	// fractal functions add as the octave whose seed this is. With the Prime hash that is the same as
+	// SetSeed, with the Permutation hash the table of the current seed is kept and only offset.
+	public void SetOctaveSeed(int seed) {
+		m_seed = seed;
 	}
 
 	// Sets frequency for all noise types
@@ -96,35 +151,52 @@ public class FastNoise {
 		m_fractalType = fractalType;
 	}
 
-	private static class Float2 {
-		public final float x, y;
+	// Sets distance function used in cellular noise calculations
+	// Default: Euclidean
+	public void SetCellularDistanceFunction(CellularDistanceFunction cellularDistanceFunction) {
+		m_cellularDistanceFunction = cellularDistanceFunction;
+	}
 
-		public Float2(float x, float y) {
-			this.x = x;
-			this.y = y;
-		}
+	// Sets return type from cellular noise calculations
+	// Note: NoiseLookup requires another FastNoise object be set with SetCellularNoiseLookup() to function
+	// Default: CellValue
+	public void SetCellularReturnType(CellularReturnType cellularReturnType) {
+		m_cellularReturnType = cellularReturnType;
 	}
 
-	private static class Float3 {
-		public final float x, y, z;
+	// Noise used to calculate a cell value if cellular return type is NoiseLookup
+	// The lookup value is acquired through GetNoise() so ensure you SetNoiseType() on the noise lookup, value, Perlin or simplex is recommended
+	public void SetCellularNoiseLookup(FastNoise noise) {
+		m_cellularNoiseLookup = noise;
+	}
 
-		public Float3(float x, float y, float z) {
-			this.x = x;
-			this.y = y;
-			this.z = z;
+	// Sets how lattice points are hashed to gradients and cell offsets in Perlin, Simplex and Cellular noise
+	// - Prime: multiply hash of the coordinates, the seed and a few primes
+	// - Permutation: lookups into permutation tables shuffled by the seed, the lattice repeats every 256 cells
+	// The two give different noise for the same seed. Value, White and Cubic noise always use the prime hash.
+	// Default: Prime
+	public void SetHashType(HashType hashType) {
+		m_hashType = hashType;
+		if (hashType == HashType.Permutation) {
+			BuildPermutation();
+		} else {
+			m_perm = null;
+			m_permHash = null;
 		}
 	}
 
-	private static final Float2[] GRAD_2D = {
-		new Float2(-1, -1), new Float2(1, -1), new Float2(-1, 1), new Float2(1, 1),
-		new Float2(0, -1), new Float2(-1, 0), new Float2(0, 1), new Float2(1, 0),
+	// Gradients are stored flat and interleaved, (x, y) pairs in 2D and (x, y, z, 0) quads in 3D,
+	// so a lookup is two or three loads from one cache line instead of a pointer chase per gradient
+	private static final float[] GRAD_2D = {
+		-1, -1, 1, -1, -1, 1, 1, 1,
+		0, -1, -1, 0, 0, 1, 1, 0,
 	};
 
-	private static final Float3[] GRAD_3D = {
-		new Float3(1, 1, 0), new Float3(-1, 1, 0), new Float3(1, -1, 0), new Float3(-1, -1, 0),
-		new Float3(1, 0, 1), new Float3(-1, 0, 1), new Float3(1, 0, -1), new Float3(-1, 0, -1),
-		new Float3(0, 1, 1), new Float3(0, -1, 1), new Float3(0, 1, -1), new Float3(0, -1, -1),
-		new Float3(1, 1, 0), new Float3(0, -1, 1), new Float3(-1, 1, 0), new Float3(0, -1, -1),
+	private static final float[] GRAD_3D = {
+		1, 1, 0, 0, -1, 1, 0, 0, 1, -1, 0, 0, -1, -1, 0, 0,
+		1, 0, 1, 0, -1, 0, 1, 0, 1, 0, -1, 0, -1, 0, -1, 0,
+		0, 1, 1, 0, 0, -1, 1, 0, 0, 1, -1, 0, 0, -1, -1, 0,
+		1, 1, 0, 0, 0, -1, 1, 0, -1, 1, 0, 0, 0, -1, -1, 0,
 	};
 
 	private static int FastFloor(float f) {
@@ -145,6 +217,15 @@ public class FastNoise {
 		return t * t * t * (t * (t * 6 - 15) + 10);
 	}
 
+	private static int FastRound(float f) {
+		return (f >= 0) ? (int) (f + (float) 0.5) : (int) (f - (float) 0.5);
+	}
+
+	private static float CubicLerp(float a, float b, float c, float d, float t) {
+		float p = (d - c) - (a - b);
+		return t * t * t * p + t * t * ((a - b) - p) + t * (c - a) + b;
+	}
+
 	private void CalculateFractalBounding() {
 		float amp = m_gain;
 		float ampFractal = 1;
@@ -188,20 +269,23 @@ public class FastNoise {
 		return (n * n * n * 60493) / (float) 2147483648.0;
 	}
 
-	private static float GradCoord2D(int seed, int x, int y, float xd, float yd) {
+	private static int PrimeHash2D(int seed, int x, int y) {
 		int hash = seed;
 		hash ^= X_PRIME * x;
 		hash ^= Y_PRIME * y;
 
+		return FinishPrimeHash(hash);
+	}
+
+	// Mixes the seed and coordinates that PrimeHash2D combined into the hash
+	private static int FinishPrimeHash(int hash) {
 		hash = hash * hash * hash * 60493;
 		hash = (hash >> 13) ^ hash;
 
-		Float2 g = GRAD_2D[hash & 7];
-
-		return xd * g.x + yd * g.y;
+		return hash;
 	}
 
-	private static float GradCoord3D(int seed, int x, int y, int z, float xd, float yd, float zd) {
+	private static int PrimeHash3D(int seed, int x, int y, int z) {
 		int hash = seed;
 		hash ^= X_PRIME * x;
 		hash ^= Y_PRIME * y;
@@ -210,9 +294,70 @@ public class FastNoise {
 		hash = hash * hash * hash * 60493;
 		hash = (hash >> 13) ^ hash;
 
-		Float3 g = GRAD_3D[hash & 15];
+		return hash;
+	}
+
+	// Permutation Table Hashing
+	// m_perm holds a seeded shuffle of 0-255 twice over, so the sum of a coordinate and a previous lookup
+	// never needs wrapping, and m_permHash a random 32 bit hash per entry, both built from m_permSeed.
+	// The seed passed to the hash functions, which the fractals increase per octave, selects an offset
+	// from m_permSeed into the first lookup.
+	private final static int PERM_SIZE = 256;
+	private final static int PERM_MASK = PERM_SIZE - 1;
+
+	private void BuildPermutation() {
+		Random random = new Random(m_permSeed);
+		int[] perm = new int[PERM_SIZE * 2];
+		int[] permHash = new int[PERM_SIZE * 2];
+
+		for (int i = 0; i < PERM_SIZE; i++) {
+			perm[i] = i;
+		}
+		for (int i = PERM_SIZE - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = perm[i];
+			perm[i] = perm[j];
+			perm[j] = swap;
+		}
+		for (int i = 0; i < PERM_SIZE; i++) {
+			perm[i + PERM_SIZE] = perm[i];
+			permHash[i] = random.nextInt();
+			permHash[i + PERM_SIZE] = permHash[i];
+		}
+
+		m_perm = perm;
+		m_permHash = permHash;
+	}
+
+	private int Hash2D(int seed, int x, int y) {
+		if (m_hashType == HashType.Permutation) {
+			return m_permHash[(x & PERM_MASK) + m_perm[(y & PERM_MASK) + ((seed - m_permSeed) & PERM_MASK)]];
+		}
+		return PrimeHash2D(seed, x, y);
+	}
+
+	private int Hash3D(int seed, int x, int y, int z) {
+		if (m_hashType == HashType.Permutation) {
+			return m_permHash[(x & PERM_MASK) + m_perm[(y & PERM_MASK) + m_perm[(z & PERM_MASK) + ((seed - m_permSeed) & PERM_MASK)]]];
+		}
+		return PrimeHash3D(seed, x, y, z);
+	}
+
+	// Returns the offset of the gradient of a lattice point in GRAD_2D
+	private int GradIndex2D(int seed, int x, int y) {
+		return (Hash2D(seed, x, y) & 7) << 1;
+	}
+
+	private float GradCoord2D(int seed, int x, int y, float xd, float yd) {
+		int g = GradIndex2D(seed, x, y);
+
+		return xd * GRAD_2D[g] + yd * GRAD_2D[g | 1];
+	}
+
+	private float GradCoord3D(int seed, int x, int y, int z, float xd, float yd, float zd) {
+		int g = (Hash3D(seed, x, y, z) & 15) << 2;
 
-		return xd * g.x + yd * g.y + zd * g.z;
+		return xd * GRAD_3D[g] + yd * GRAD_3D[g | 1] + zd * GRAD_3D[g | 2];
 	}
 
 	public float GetNoise(float x, float y, float z) {
@@ -220,6 +365,10 @@ public class FastNoise {
 		y *= m_frequency;
 		z *= m_frequency;
 
+		return SingleNoise(x, y, z);
+	}
+
+	private float SingleNoise(float x, float y, float z) {
 		switch (m_noiseType) {
 			case Value:
 				return SingleValue(m_seed, x, y, z);
@@ -247,8 +396,43 @@ public class FastNoise {
 					default:
 						return 0;
 				}
+			case Simplex:
+				return SingleSimplex(m_seed, x, y, z);
+			case SimplexFractal:
+				switch (m_fractalType) {
+					case FBM:
+						return SingleSimplexFractalFBM(x, y, z);
+					case Billow:
+						return SingleSimplexFractalBillow(x, y, z);
+					case RigidMulti:
+						return SingleSimplexFractalRigidMulti(x, y, z);
+					default:
+						return 0;
+				}
+			case Cellular:
+				switch (m_cellularReturnType) {
+					case CellValue:
+					case NoiseLookup:
+					case Distance:
+						return SingleCellular(x, y, z);
+					default:
+						return SingleCellular2Edge(x, y, z);
+				}
 			case WhiteNoise:
 				return GetWhiteNoise(x, y, z);
+			case Cubic:
+				return SingleCubic(m_seed, x, y, z);
+			case CubicFractal:
+				switch (m_fractalType) {
+					case FBM:
+						return SingleCubicFractalFBM(x, y, z);
+					case Billow:
+						return SingleCubicFractalBillow(x, y, z);
+					case RigidMulti:
+						return SingleCubicFractalRigidMulti(x, y, z);
+					default:
+						return 0;
+				}
 			default:
 				return 0;
 		}
@@ -258,9 +442,24 @@ public class FastNoise {
 		x *= m_frequency;
 		y *= m_frequency;
 
+		return SingleNoise(x, y);
+	}
+
+	private float SingleNoise(float x, float y) {
 		switch (m_noiseType) {
 			case Value:
 				return SingleValue(m_seed, x, y);
+			case ValueFractal:
+				switch (m_fractalType) {
+					case FBM:
+						return SingleValueFractalFBM(x, y);
+					case Billow:
+						return SingleValueFractalBillow(x, y);
+					case RigidMulti:
+						return SingleValueFractalRigidMulti(x, y);
+					default:
+						return 0;
+				}
 			case Perlin:
 				return SinglePerlin(m_seed, x, y);
 			case PerlinFractal:
@@ -274,8 +473,43 @@ public class FastNoise {
 					default:
 						return 0;
 				}
+			case Simplex:
+				return SingleSimplex(m_seed, x, y);
+			case SimplexFractal:
+				switch (m_fractalType) {
+					case FBM:
+						return SingleSimplexFractalFBM(x, y);
+					case Billow:
+						return SingleSimplexFractalBillow(x, y);
+					case RigidMulti:
+						return SingleSimplexFractalRigidMulti(x, y);
+					default:
+						return 0;
+				}
+			case Cellular:
+				switch (m_cellularReturnType) {
+					case CellValue:
+					case NoiseLookup:
+					case Distance:
+						return SingleCellular(x, y);
+					default:
+						return SingleCellular2Edge(x, y);
+				}
 			case WhiteNoise:
 				return GetWhiteNoise(x, y);
+			case Cubic:
+				return SingleCubic(m_seed, x, y);
+			case CubicFractal:
+				switch (m_fractalType) {
+					case FBM:
+						return SingleCubicFractalFBM(x, y);
+					case Billow:
+						return SingleCubicFractalBillow(x, y);
+					case RigidMulti:
+						return SingleCubicFractalRigidMulti(x, y);
+					default:
+						return 0;
+				}
 			default:
 				return 0;
 		}
@@ -437,6 +671,70 @@ public class FastNoise {
 		return Lerp(yf0, yf1, zs);
 	}
 
+	public float GetValueFractal(float x, float y) {
+		x *= m_frequency;
+		y *= m_frequency;
+
+		switch (m_fractalType) {
+			case FBM:
+				return SingleValueFractalFBM(x, y);
+			case Billow:
+				return SingleValueFractalBillow(x, y);
+			case RigidMulti:
+				return SingleValueFractalRigidMulti(x, y);
+			default:
+				return 0;
+		}
+	}
+
+	private float SingleValueFractalFBM(float x, float y) {
+		int seed = m_seed;
+		float sum = SingleValue(seed, x, y);
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+
+			amp *= m_gain;
+			sum += SingleValue(++seed, x, y) * amp;
+		}
+
+		return sum * m_fractalBounding;
+	}
+
+	private float SingleValueFractalBillow(float x, float y) {
+		int seed = m_seed;
+		float sum = Math.abs(SingleValue(seed, x, y)) * 2 - 1;
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+
+			amp *= m_gain;
+			sum += (Math.abs(SingleValue(++seed, x, y)) * 2 - 1) * amp;
+		}
+
+		return sum * m_fractalBounding;
+	}
+
+	private float SingleValueFractalRigidMulti(float x, float y) {
+		int seed = m_seed;
+		float sum = 1 - Math.abs(SingleValue(seed, x, y));
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+
+			amp *= m_gain;
+			sum -= (1 - Math.abs(SingleValue(++seed, x, y))) * amp;
+		}
+
+		return sum;
+	}
+
 	public float GetValue(float x, float y) {
 		return SingleValue(m_seed, x * m_frequency, y * m_frequency);
 	}
@@ -690,4 +988,1264 @@ public class FastNoise {
 
 		return Lerp(xf0, xf1, ys);
 	}
-}
\ No newline at end of file
+
+	// Simplex Noise
+	public float GetSimplexFractal(float x, float y, float z) {
+		x *= m_frequency;
+		y *= m_frequency;
+		z *= m_frequency;
+		switch (m_fractalType) {
+			case FBM:
+				return SingleSimplexFractalFBM(x, y, z);
+			case Billow:
+				return SingleSimplexFractalBillow(x, y, z);
+			case RigidMulti:
+				return SingleSimplexFractalRigidMulti(x, y, z);
+			default:
+				return 0;
+		}
+	}
+
+	private float SingleSimplexFractalFBM(float x, float y, float z) {
+		int seed = m_seed;
+		float sum = SingleSimplex(seed, x, y, z);
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+			z *= m_lacunarity;
+			amp *= m_gain;
+			sum += SingleSimplex(++seed, x, y, z) * amp;
+		}
+
+		return sum * m_fractalBounding;
+	}
+
+	private float SingleSimplexFractalBillow(float x, float y, float z) {
+		int seed = m_seed;
+		float sum = Math.abs(SingleSimplex(seed, x, y, z)) * 2 - 1;
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+			z *= m_lacunarity;
+			amp *= m_gain;
+			sum += (Math.abs(SingleSimplex(++seed, x, y, z)) * 2 - 1) * amp;
+		}
+
+		return sum * m_fractalBounding;
+	}
+
+	private float SingleSimplexFractalRigidMulti(float x, float y, float z) {
+		int seed = m_seed;
+		float sum = 1 - Math.abs(SingleSimplex(seed, x, y, z));
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+			z *= m_lacunarity;
+			amp *= m_gain;
+			sum -= (1 - Math.abs(SingleSimplex(++seed, x, y, z))) * amp;
+		}
+
+		return sum;
+	}
+
+	public float GetSimplex(float x, float y, float z) {
+		return SingleSimplex(m_seed, x * m_frequency, y * m_frequency, z * m_frequency);
+	}
+
+	private final static float F3 = (float) (1.0 / 3.0);
+	private final static float G3 = (float) (1.0 / 6.0);
+	private final static float G33 = G3 * 3 - 1;
+
+	private float SingleSimplex(int seed, float x, float y, float z) {
+		float t = (x + y + z) * F3;
+		int i = FastFloor(x + t);
+		int j = FastFloor(y + t);
+		int k = FastFloor(z + t);
+
+		t = (i + j + k) * G3;
+		float x0 = x - (i - t);
+		float y0 = y - (j - t);
+		float z0 = z - (k - t);
+
+		int i1, j1, k1;
+		int i2, j2, k2;
+
+		if (x0 >= y0) {
+			if (y0 >= z0) {
+				i1 = 1; j1 = 0; k1 = 0; i2 = 1; j2 = 1; k2 = 0;
+			} else if (x0 >= z0) {
+				i1 = 1; j1 = 0; k1 = 0; i2 = 1; j2 = 0; k2 = 1;
+			} else { // x0 < z0
+				i1 = 0; j1 = 0; k1 = 1; i2 = 1; j2 = 0; k2 = 1;
+			}
+		} else { // x0 < y0
+			if (y0 < z0) {
+				i1 = 0; j1 = 0; k1 = 1; i2 = 0; j2 = 1; k2 = 1;
+			} else if (x0 < z0) {
+				i1 = 0; j1 = 1; k1 = 0; i2 = 0; j2 = 1; k2 = 1;
+			} else { // x0 >= z0
+				i1 = 0; j1 = 1; k1 = 0; i2 = 1; j2 = 1; k2 = 0;
+			}
+		}
+
+		float x1 = x0 - i1 + G3;
+		float y1 = y0 - j1 + G3;
+		float z1 = z0 - k1 + G3;
+		float x2 = x0 - i2 + F3;
+		float y2 = y0 - j2 + F3;
+		float z2 = z0 - k2 + F3;
+		float x3 = x0 + G33;
+		float y3 = y0 + G33;
+		float z3 = z0 + G33;
+
+		float n0, n1, n2, n3;
+
+		t = (float) 0.6 - x0 * x0 - y0 * y0 - z0 * z0;
+		if (t < 0) n0 = 0;
+		else {
+			t *= t;
+			n0 = t * t * GradCoord3D(seed, i, j, k, x0, y0, z0);
+		}
+
+		t = (float) 0.6 - x1 * x1 - y1 * y1 - z1 * z1;
+		if (t < 0) n1 = 0;
+		else {
+			t *= t;
+			n1 = t * t * GradCoord3D(seed, i + i1, j + j1, k + k1, x1, y1, z1);
+		}
+
+		t = (float) 0.6 - x2 * x2 - y2 * y2 - z2 * z2;
+		if (t < 0) n2 = 0;
+		else {
+			t *= t;
+			n2 = t * t * GradCoord3D(seed, i + i2, j + j2, k + k2, x2, y2, z2);
+		}
+
+		t = (float) 0.6 - x3 * x3 - y3 * y3 - z3 * z3;
+		if (t < 0) n3 = 0;
+		else {
+			t *= t;
+			n3 = t * t * GradCoord3D(seed, i + 1, j + 1, k + 1, x3, y3, z3);
+		}
+
+		return 32 * (n0 + n1 + n2 + n3);
+	}
+
+	public float GetSimplexFractal(float x, float y) {
+		x *= m_frequency;
+		y *= m_frequency;
+		switch (m_fractalType) {
+			case FBM:
+				return SingleSimplexFractalFBM(x, y);
+			case Billow:
+				return SingleSimplexFractalBillow(x, y);
+			case RigidMulti:
+				return SingleSimplexFractalRigidMulti(x, y);
+			default:
+				return 0;
+		}
+	}
+
+	private float SingleSimplexFractalFBM(float x, float y) {
+		int seed = m_seed;
+		float sum = SingleSimplex(seed, x, y);
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+			amp *= m_gain;
+			sum += SingleSimplex(++seed, x, y) * amp;
+		}
+
+		return sum * m_fractalBounding;
+	}
+
+	private float SingleSimplexFractalBillow(float x, float y) {
+		int seed = m_seed;
+		float sum = Math.abs(SingleSimplex(seed, x, y)) * 2 - 1;
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+			amp *= m_gain;
+			sum += (Math.abs(SingleSimplex(++seed, x, y)) * 2 - 1) * amp;
+		}
+
+		return sum * m_fractalBounding;
+	}
+
+	private float SingleSimplexFractalRigidMulti(float x, float y) {
+		int seed = m_seed;
+		float sum = 1 - Math.abs(SingleSimplex(seed, x, y));
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+			amp *= m_gain;
+			sum -= (1 - Math.abs(SingleSimplex(++seed, x, y))) * amp;
+		}
+
+		return sum;
+	}
+
+	public float GetSimplex(float x, float y) {
+		return SingleSimplex(m_seed, x * m_frequency, y * m_frequency);
+	}
+
+	private final static float F2 = (float) (1.0 / 2.0);
+	private final static float G2 = (float) (1.0 / 4.0);
+
+	// Only the three corners of the enclosing triangle contribute, against four for 2D Perlin
+	private float SingleSimplex(int seed, float x, float y) {
+		float t = (x + y) * F2;
+		int i = FastFloor(x + t);
+		int j = FastFloor(y + t);
+
+		t = (i + j) * G2;
+		float X0 = i - t;
+		float Y0 = j - t;
+
+		float x0 = x - X0;
+		float y0 = y - Y0;
+
+		int i1, j1;
+		if (x0 > y0) {
+			i1 = 1;
+			j1 = 0;
+		} else {
+			i1 = 0;
+			j1 = 1;
+		}
+
+		float x1 = x0 - i1 + G2;
+		float y1 = y0 - j1 + G2;
+		float x2 = x0 - 1 + F2;
+		float y2 = y0 - 1 + F2;
+
+		float n0, n1, n2;
+
+		t = (float) 0.5 - x0 * x0 - y0 * y0;
+		if (t < 0) n0 = 0;
+		else {
+			t *= t;
+			n0 = t * t * GradCoord2D(seed, i, j, x0, y0);
+		}
+
+		t = (float) 0.5 - x1 * x1 - y1 * y1;
+		if (t < 0) n1 = 0;
+		else {
+			t *= t;
+			n1 = t * t * GradCoord2D(seed, i + i1, j + j1, x1, y1);
+		}
+
+		t = (float) 0.5 - x2 * x2 - y2 * y2;
+		if (t < 0) n2 = 0;
+		else {
+			t *= t;
+			n2 = t * t * GradCoord2D(seed, i + 1, j + 1, x2, y2);
+		}
+
+		return 50 * (n0 + n1 + n2);
+	}
+
+	// Cubic Noise
+	public float GetCubicFractal(float x, float y, float z) {
+		x *= m_frequency;
+		y *= m_frequency;
+		z *= m_frequency;
+		switch (m_fractalType) {
+			case FBM:
+				return SingleCubicFractalFBM(x, y, z);
+			case Billow:
+				return SingleCubicFractalBillow(x, y, z);
+			case RigidMulti:
+				return SingleCubicFractalRigidMulti(x, y, z);
+			default:
+				return 0;
+		}
+	}
+
+	private float SingleCubicFractalFBM(float x, float y, float z) {
+		int seed = m_seed;
+		float sum = SingleCubic(seed, x, y, z);
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+			z *= m_lacunarity;
+			amp *= m_gain;
+			sum += SingleCubic(++seed, x, y, z) * amp;
+		}
+
+		return sum * m_fractalBounding;
+	}
+
+	private float SingleCubicFractalBillow(float x, float y, float z) {
+		int seed = m_seed;
+		float sum = Math.abs(SingleCubic(seed, x, y, z)) * 2 - 1;
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+			z *= m_lacunarity;
+			amp *= m_gain;
+			sum += (Math.abs(SingleCubic(++seed, x, y, z)) * 2 - 1) * amp;
+		}
+
+		return sum * m_fractalBounding;
+	}
+
+	private float SingleCubicFractalRigidMulti(float x, float y, float z) {
+		int seed = m_seed;
+		float sum = 1 - Math.abs(SingleCubic(seed, x, y, z));
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+			z *= m_lacunarity;
+			amp *= m_gain;
+			sum -= (1 - Math.abs(SingleCubic(++seed, x, y, z))) * amp;
+		}
+
+		return sum;
+	}
+
+	public float GetCubic(float x, float y, float z) {
+		return SingleCubic(m_seed, x * m_frequency, y * m_frequency, z * m_frequency);
+	}
+
+	private final static float CUBIC_3D_BOUNDING = 1 / (float) (1.5 * 1.5 * 1.5);
+
+	private static float SingleCubic(int seed, float x, float y, float z) {
+		int x1 = FastFloor(x);
+		int y1 = FastFloor(y);
+		int z1 = FastFloor(z);
+
+		int x0 = x1 - 1;
+		int y0 = y1 - 1;
+		int z0 = z1 - 1;
+		int x2 = x1 + 1;
+		int y2 = y1 + 1;
+		int z2 = z1 + 1;
+		int x3 = x1 + 2;
+		int y3 = y1 + 2;
+		int z3 = z1 + 2;
+
+		float xs = x - (float) x1;
+		float ys = y - (float) y1;
+		float zs = z - (float) z1;
+
+		return CubicLerp(
+			CubicLerp(
+				CubicLerp(ValCoord3D(seed, x0, y0, z0), ValCoord3D(seed, x1, y0, z0), ValCoord3D(seed, x2, y0, z0), ValCoord3D(seed, x3, y0, z0), xs),
+				CubicLerp(ValCoord3D(seed, x0, y1, z0), ValCoord3D(seed, x1, y1, z0), ValCoord3D(seed, x2, y1, z0), ValCoord3D(seed, x3, y1, z0), xs),
+				CubicLerp(ValCoord3D(seed, x0, y2, z0), ValCoord3D(seed, x1, y2, z0), ValCoord3D(seed, x2, y2, z0), ValCoord3D(seed, x3, y2, z0), xs),
+				CubicLerp(ValCoord3D(seed, x0, y3, z0), ValCoord3D(seed, x1, y3, z0), ValCoord3D(seed, x2, y3, z0), ValCoord3D(seed, x3, y3, z0), xs),
+				ys),
+			CubicLerp(
+				CubicLerp(ValCoord3D(seed, x0, y0, z1), ValCoord3D(seed, x1, y0, z1), ValCoord3D(seed, x2, y0, z1), ValCoord3D(seed, x3, y0, z1), xs),
+				CubicLerp(ValCoord3D(seed, x0, y1, z1), ValCoord3D(seed, x1, y1, z1), ValCoord3D(seed, x2, y1, z1), ValCoord3D(seed, x3, y1, z1), xs),
+				CubicLerp(ValCoord3D(seed, x0, y2, z1), ValCoord3D(seed, x1, y2, z1), ValCoord3D(seed, x2, y2, z1), ValCoord3D(seed, x3, y2, z1), xs),
+				CubicLerp(ValCoord3D(seed, x0, y3, z1), ValCoord3D(seed, x1, y3, z1), ValCoord3D(seed, x2, y3, z1), ValCoord3D(seed, x3, y3, z1), xs),
+				ys),
+			CubicLerp(
+				CubicLerp(ValCoord3D(seed, x0, y0, z2), ValCoord3D(seed, x1, y0, z2), ValCoord3D(seed, x2, y0, z2), ValCoord3D(seed, x3, y0, z2), xs),
+				CubicLerp(ValCoord3D(seed, x0, y1, z2), ValCoord3D(seed, x1, y1, z2), ValCoord3D(seed, x2, y1, z2), ValCoord3D(seed, x3, y1, z2), xs),
+				CubicLerp(ValCoord3D(seed, x0, y2, z2), ValCoord3D(seed, x1, y2, z2), ValCoord3D(seed, x2, y2, z2), ValCoord3D(seed, x3, y2, z2), xs),
+				CubicLerp(ValCoord3D(seed, x0, y3, z2), ValCoord3D(seed, x1, y3, z2), ValCoord3D(seed, x2, y3, z2), ValCoord3D(seed, x3, y3, z2), xs),
+				ys),
+			CubicLerp(
+				CubicLerp(ValCoord3D(seed, x0, y0, z3), ValCoord3D(seed, x1, y0, z3), ValCoord3D(seed, x2, y0, z3), ValCoord3D(seed, x3, y0, z3), xs),
+				CubicLerp(ValCoord3D(seed, x0, y1, z3), ValCoord3D(seed, x1, y1, z3), ValCoord3D(seed, x2, y1, z3), ValCoord3D(seed, x3, y1, z3), xs),
+				CubicLerp(ValCoord3D(seed, x0, y2, z3), ValCoord3D(seed, x1, y2, z3), ValCoord3D(seed, x2, y2, z3), ValCoord3D(seed, x3, y2, z3), xs),
+				CubicLerp(ValCoord3D(seed, x0, y3, z3), ValCoord3D(seed, x1, y3, z3), ValCoord3D(seed, x2, y3, z3), ValCoord3D(seed, x3, y3, z3), xs),
+				ys),
+			zs) * CUBIC_3D_BOUNDING;
+	}
+
+	public float GetCubicFractal(float x, float y) {
+		x *= m_frequency;
+		y *= m_frequency;
+		switch (m_fractalType) {
+			case FBM:
+				return SingleCubicFractalFBM(x, y);
+			case Billow:
+				return SingleCubicFractalBillow(x, y);
+			case RigidMulti:
+				return SingleCubicFractalRigidMulti(x, y);
+			default:
+				return 0;
+		}
+	}
+
+	private float SingleCubicFractalFBM(float x, float y) {
+		int seed = m_seed;
+		float sum = SingleCubic(seed, x, y);
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+			amp *= m_gain;
+			sum += SingleCubic(++seed, x, y) * amp;
+		}
+
+		return sum * m_fractalBounding;
+	}
+
+	private float SingleCubicFractalBillow(float x, float y) {
+		int seed = m_seed;
+		float sum = Math.abs(SingleCubic(seed, x, y)) * 2 - 1;
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+			amp *= m_gain;
+			sum += (Math.abs(SingleCubic(++seed, x, y)) * 2 - 1) * amp;
+		}
+
+		return sum * m_fractalBounding;
+	}
+
+	private float SingleCubicFractalRigidMulti(float x, float y) {
+		int seed = m_seed;
+		float sum = 1 - Math.abs(SingleCubic(seed, x, y));
+		float amp = 1;
+
+		for (int i = 1; i < m_octaves; i++) {
+			x *= m_lacunarity;
+			y *= m_lacunarity;
+			amp *= m_gain;
+			sum -= (1 - Math.abs(SingleCubic(++seed, x, y))) * amp;
+		}
+
+		return sum;
+	}
+
+	public float GetCubic(float x, float y) {
+		return SingleCubic(m_seed, x * m_frequency, y * m_frequency);
+	}
+
+	private final static float CUBIC_2D_BOUNDING = 1 / (float) (1.5 * 1.5);
+
+	private static float SingleCubic(int seed, float x, float y) {
+		int x1 = FastFloor(x);
+		int y1 = FastFloor(y);
+
+		int x0 = x1 - 1;
+		int y0 = y1 - 1;
+		int x2 = x1 + 1;
+		int y2 = y1 + 1;
+		int x3 = x1 + 2;
+		int y3 = y1 + 2;
+
+		float xs = x - (float) x1;
+		float ys = y - (float) y1;
+
+		return CubicLerp(
+			CubicLerp(ValCoord2D(seed, x0, y0), ValCoord2D(seed, x1, y0), ValCoord2D(seed, x2, y0), ValCoord2D(seed, x3, y0), xs),
+			CubicLerp(ValCoord2D(seed, x0, y1), ValCoord2D(seed, x1, y1), ValCoord2D(seed, x2, y1), ValCoord2D(seed, x3, y1), xs),
+			CubicLerp(ValCoord2D(seed, x0, y2), ValCoord2D(seed, x1, y2), ValCoord2D(seed, x2, y2), ValCoord2D(seed, x3, y2), xs),
+			CubicLerp(ValCoord2D(seed, x0, y3), ValCoord2D(seed, x1, y3), ValCoord2D(seed, x2, y3), ValCoord2D(seed, x3, y3), xs),
+			ys) * CUBIC_2D_BOUNDING;
+	}
+
+	// Cellular Noise
+	// Each unit cell holds one feature point, moved away from the cell centre by up to CELL_JITTER
+	// on every axis. The offsets come from ten bits of the cell hash per axis, so no tables are needed.
+	private final static float CELL_JITTER = (float) 0.45;
+
+	private static float CellOffset(int hash, int axis) {
+		return (((hash >> (axis * 10)) & 1023) - (float) 511.5) * (CELL_JITTER / (float) 511.5);
+	}
+
+	public float GetCellular(float x, float y, float z) {
+		x *= m_frequency;
+		y *= m_frequency;
+		z *= m_frequency;
+		switch (m_cellularReturnType) {
+			case CellValue:
+			case NoiseLookup:
+			case Distance:
+				return SingleCellular(x, y, z);
+			default:
+				return SingleCellular2Edge(x, y, z);
+		}
+	}
+
+	private float SingleCellular(float x, float y, float z) {
+		int xr = FastRound(x);
+		int yr = FastRound(y);
+		int zr = FastRound(z);
+
+		float distance = 999999;
+		int xc = 0, yc = 0, zc = 0;
+
+		switch (m_cellularDistanceFunction) {
+			default:
+			case Euclidean:
+				for (int xi = xr - 1; xi <= xr + 1; xi++) {
+					for (int yi = yr - 1; yi <= yr + 1; yi++) {
+						for (int zi = zr - 1; zi <= zr + 1; zi++) {
+							int hash = Hash3D(m_seed, xi, yi, zi);
+							float vecX = xi - x + CellOffset(hash, 0);
+							float vecY = yi - y + CellOffset(hash, 1);
+							float vecZ = zi - z + CellOffset(hash, 2);
+
+							float newDistance = vecX * vecX + vecY * vecY + vecZ * vecZ;
+
+							if (newDistance < distance) {
+								distance = newDistance;
+								xc = xi;
+								yc = yi;
+								zc = zi;
+							}
+						}
+					}
+				}
+				break;
+			case Manhattan:
+				for (int xi = xr - 1; xi <= xr + 1; xi++) {
+					for (int yi = yr - 1; yi <= yr + 1; yi++) {
+						for (int zi = zr - 1; zi <= zr + 1; zi++) {
+							int hash = Hash3D(m_seed, xi, yi, zi);
+							float vecX = xi - x + CellOffset(hash, 0);
+							float vecY = yi - y + CellOffset(hash, 1);
+							float vecZ = zi - z + CellOffset(hash, 2);
+
+							float newDistance = Math.abs(vecX) + Math.abs(vecY) + Math.abs(vecZ);
+
+							if (newDistance < distance) {
+								distance = newDistance;
+								xc = xi;
+								yc = yi;
+								zc = zi;
+							}
+						}
+					}
+				}
+				break;
+			case Natural:
+				for (int xi = xr - 1; xi <= xr + 1; xi++) {
+					for (int yi = yr - 1; yi <= yr + 1; yi++) {
+						for (int zi = zr - 1; zi <= zr + 1; zi++) {
+							int hash = Hash3D(m_seed, xi, yi, zi);
+							float vecX = xi - x + CellOffset(hash, 0);
+							float vecY = yi - y + CellOffset(hash, 1);
+							float vecZ = zi - z + CellOffset(hash, 2);
+
+							float newDistance = (Math.abs(vecX) + Math.abs(vecY) + Math.abs(vecZ)) + (vecX * vecX + vecY * vecY + vecZ * vecZ);
+
+							if (newDistance < distance) {
+								distance = newDistance;
+								xc = xi;
+								yc = yi;
+								zc = zi;
+							}
+						}
+					}
+				}
+				break;
+		}
+
+		switch (m_cellularReturnType) {
+			case CellValue:
+				return ValCoord3D(m_seed, xc, yc, zc);
+
+			case NoiseLookup:
+				int hash = Hash3D(m_seed, xc, yc, zc);
+				return m_cellularNoiseLookup.GetNoise(xc + CellOffset(hash, 0), yc + CellOffset(hash, 1), zc + CellOffset(hash, 2));
+
+			case Distance:
+				return distance - 1;
+			default:
+				return 0;
+		}
+	}
+
+	private float SingleCellular2Edge(float x, float y, float z) {
+		int xr = FastRound(x);
+		int yr = FastRound(y);
+		int zr = FastRound(z);
+
+		float distance = 999999;
+		float distance2 = 999999;
+
+		switch (m_cellularDistanceFunction) {
+			default:
+			case Euclidean:
+				for (int xi = xr - 1; xi <= xr + 1; xi++) {
+					for (int yi = yr - 1; yi <= yr + 1; yi++) {
+						for (int zi = zr - 1; zi <= zr + 1; zi++) {
+							int hash = Hash3D(m_seed, xi, yi, zi);
+							float vecX = xi - x + CellOffset(hash, 0);
+							float vecY = yi - y + CellOffset(hash, 1);
+							float vecZ = zi - z + CellOffset(hash, 2);
+
+							float newDistance = vecX * vecX + vecY * vecY + vecZ * vecZ;
+
+							distance2 = Math.max(Math.min(distance2, newDistance), distance);
+							distance = Math.min(distance, newDistance);
+						}
+					}
+				}
+				break;
+			case Manhattan:
+				for (int xi = xr - 1; xi <= xr + 1; xi++) {
+					for (int yi = yr - 1; yi <= yr + 1; yi++) {
+						for (int zi = zr - 1; zi <= zr + 1; zi++) {
+							int hash = Hash3D(m_seed, xi, yi, zi);
+							float vecX = xi - x + CellOffset(hash, 0);
+							float vecY = yi - y + CellOffset(hash, 1);
+							float vecZ = zi - z + CellOffset(hash, 2);
+
+							float newDistance = Math.abs(vecX) + Math.abs(vecY) + Math.abs(vecZ);
+
+							distance2 = Math.max(Math.min(distance2, newDistance), distance);
+							distance = Math.min(distance, newDistance);
+						}
+					}
+				}
+				break;
+			case Natural:
+				for (int xi = xr - 1; xi <= xr + 1; xi++) {
+					for (int yi = yr - 1; yi <= yr + 1; yi++) {
+						for (int zi = zr - 1; zi <= zr + 1; zi++) {
+							int hash = Hash3D(m_seed, xi, yi, zi);
+							float vecX = xi - x + CellOffset(hash, 0);
+							float vecY = yi - y + CellOffset(hash, 1);
+							float vecZ = zi - z + CellOffset(hash, 2);
+
+							float newDistance = (Math.abs(vecX) + Math.abs(vecY) + Math.abs(vecZ)) + (vecX * vecX + vecY * vecY + vecZ * vecZ);
+
+							distance2 = Math.max(Math.min(distance2, newDistance), distance);
+							distance = Math.min(distance, newDistance);
+						}
+					}
+				}
+				break;
+		}
+
+		switch (m_cellularReturnType) {
+			case Distance2:
+				return distance2 - 1;
+			case Distance2Add:
+				return distance2 + distance - 1;
+			case Distance2Sub:
+				return distance2 - distance - 1;
+			case Distance2Mul:
+				return distance2 * distance - 1;
+			case Distance2Div:
+				return distance / distance2 - 1;
+			default:
+				return 0;
+		}
+	}
+
+	public float GetCellular(float x, float y) {
+		x *= m_frequency;
+		y *= m_frequency;
+		switch (m_cellularReturnType) {
+			case CellValue:
+			case NoiseLookup:
+			case Distance:
+				return SingleCellular(x, y);
+			default:
+				return SingleCellular2Edge(x, y);
+		}
+	}
+
+	private float SingleCellular(float x, float y) {
+		int xr = FastRound(x);
+		int yr = FastRound(y);
+
+		float distance = 999999;
+		int xc = 0, yc = 0;
+
+		switch (m_cellularDistanceFunction) {
+			default:
+			case Euclidean:
+				for (int xi = xr - 1; xi <= xr + 1; xi++) {
+					for (int yi = yr - 1; yi <= yr + 1; yi++) {
+						int hash = Hash2D(m_seed, xi, yi);
+						float vecX = xi - x + CellOffset(hash, 0);
+						float vecY = yi - y + CellOffset(hash, 1);
+
+						float newDistance = vecX * vecX + vecY * vecY;
+
+						if (newDistance < distance) {
+							distance = newDistance;
+							xc = xi;
+							yc = yi;
+						}
+					}
+				}
+				break;
+			case Manhattan:
+				for (int xi = xr - 1; xi <= xr + 1; xi++) {
+					for (int yi = yr - 1; yi <= yr + 1; yi++) {
+						int hash = Hash2D(m_seed, xi, yi);
+						float vecX = xi - x + CellOffset(hash, 0);
+						float vecY = yi - y + CellOffset(hash, 1);
+
+						float newDistance = Math.abs(vecX) + Math.abs(vecY);
+
+						if (newDistance < distance) {
+							distance = newDistance;
+							xc = xi;
+							yc = yi;
+						}
+					}
+				}
+				break;
+			case Natural:
+				for (int xi = xr - 1; xi <= xr + 1; xi++) {
+					for (int yi = yr - 1; yi <= yr + 1; yi++) {
+						int hash = Hash2D(m_seed, xi, yi);
+						float vecX = xi - x + CellOffset(hash, 0);
+						float vecY = yi - y + CellOffset(hash, 1);
+
+						float newDistance = (Math.abs(vecX) + Math.abs(vecY)) + (vecX * vecX + vecY * vecY);
+
+						if (newDistance < distance) {
+							distance = newDistance;
+							xc = xi;
+							yc = yi;
+						}
+					}
+				}
+				break;
+		}
+
+		switch (m_cellularReturnType) {
+			case CellValue:
+				return ValCoord2D(m_seed, xc, yc);
+
+			case NoiseLookup:
+				int hash = Hash2D(m_seed, xc, yc);
+				return m_cellularNoiseLookup.GetNoise(xc + CellOffset(hash, 0), yc + CellOffset(hash, 1));
+
+			case Distance:
+				return distance - 1;
+			default:
+				return 0;
+		}
+	}
+
+	private float SingleCellular2Edge(float x, float y) {
+		int xr = FastRound(x);
+		int yr = FastRound(y);
+
+		float distance = 999999;
+		float distance2 = 999999;
+
+		switch (m_cellularDistanceFunction) {
+			default:
+			case Euclidean:
+				for (int xi = xr - 1; xi <= xr + 1; xi++) {
+					for (int yi = yr - 1; yi <= yr + 1; yi++) {
+						int hash = Hash2D(m_seed, xi, yi);
+						float vecX = xi - x + CellOffset(hash, 0);
+						float vecY = yi - y + CellOffset(hash, 1);
+
+						float newDistance = vecX * vecX + vecY * vecY;
+
+						distance2 = Math.max(Math.min(distance2, newDistance), distance);
+						distance = Math.min(distance, newDistance);
+					}
+				}
+				break;
+			case Manhattan:
+				for (int xi = xr - 1; xi <= xr + 1; xi++) {
+					for (int yi = yr - 1; yi <= yr + 1; yi++) {
+						int hash = Hash2D(m_seed, xi, yi);
+						float vecX = xi - x + CellOffset(hash, 0);
+						float vecY = yi - y + CellOffset(hash, 1);
+
+						float newDistance = Math.abs(vecX) + Math.abs(vecY);
+
+						distance2 = Math.max(Math.min(distance2, newDistance), distance);
+						distance = Math.min(distance, newDistance);
+					}
+				}
+				break;
+			case Natural:
+				for (int xi = xr - 1; xi <= xr + 1; xi++) {
+					for (int yi = yr - 1; yi <= yr + 1; yi++) {
+						int hash = Hash2D(m_seed, xi, yi);
+						float vecX = xi - x + CellOffset(hash, 0);
+						float vecY = yi - y + CellOffset(hash, 1);
+
+						float newDistance = (Math.abs(vecX) + Math.abs(vecY)) + (vecX * vecX + vecY * vecY);
+
+						distance2 = Math.max(Math.min(distance2, newDistance), distance);
+						distance = Math.min(distance, newDistance);
+					}
+				}
+				break;
+		}
+
+		switch (m_cellularReturnType) {
+			case Distance2:
+				return distance2 - 1;
+			case Distance2Add:
+				return distance2 + distance - 1;
+			case Distance2Sub:
+				return distance2 - distance - 1;
+			case Distance2Mul:
+				return distance2 * distance - 1;
+			case Distance2Div:
+				return distance / distance2 - 1;
+			default:
+				return 0;
+		}
+	}
+
+	// Bulk Grid Evaluation
+
+	// Fills out[offset + row * stride + col] with GetNoise(x0 + col, y0 + row) for the current noise type.
+	// Perlin, Value and Cubic walk the lattice one cell at a time, the other types evaluate every sample
+	// but reuse the scaled coordinates of each column and row. The result is bit-identical to GetNoise.
+	public void FillNoise2D(float[] out, int offset, int x0, int y0, int w, int h, int stride) {
+		if (w <= 0 || h <= 0) return;
+
+		switch (m_noiseType) {
+			case Perlin:
+				FillPerlin2D(out, offset, x0, y0, w, h, stride);
+				return;
+			case Value:
+				FillValue2D(out, offset, x0, y0, w, h, stride);
+				return;
+			case Cubic:
+				FillCubic2D(out, offset, x0, y0, w, h, stride);
+				return;
+			default:
+				break;
+		}
+
+		float[] xf = new float[w];
+		for (int col = 0; col < w; col++) {
+			xf[col] = (float) (x0 + col) * m_frequency;
+		}
+		for (int row = 0; row < h; row++) {
+			float y = (float) (y0 + row) * m_frequency;
+			int index = offset + row * stride;
+			for (int col = 0; col < w; col++) {
+				out[index + col] = SingleNoise(xf[col], y);
+			}
+		}
+	}
+
+	// Value noise counterpart of FillPerlin2D, bit-identical to GetValue
+	private void FillValue2D(float[] out, int offset, int x0, int y0, int w, int h, int stride) {
+		int[] cellX = new int[w];
+		float[] xs = new float[w];
+		int minCellX = Integer.MAX_VALUE;
+		int maxCellX = Integer.MIN_VALUE;
+		for (int col = 0; col < w; col++) {
+			float x = (float) (x0 + col) * m_frequency;
+			int cx = FastFloor(x);
+			cellX[col] = cx;
+			xs[col] = InterpAxis(x - cx);
+			minCellX = Math.min(minCellX, cx);
+			maxCellX = Math.max(maxCellX, cx);
+		}
+
+		int latticeWidth = maxCellX - minCellX + 2;
+		float[] values0 = new float[latticeWidth];
+		float[] values1 = new float[latticeWidth];
+		boolean haveCellRow = false;
+		int cachedCellY = 0;
+
+		for (int row = 0; row < h; row++) {
+			float y = (float) (y0 + row) * m_frequency;
+			int cy = FastFloor(y);
+			float ys = InterpAxis(y - cy);
+
+			if (!haveCellRow || cy != cachedCellY) {
+				for (int i = 0; i < latticeWidth; i++) {
+					values0[i] = ValCoord2D(m_seed, minCellX + i, cy);
+					values1[i] = ValCoord2D(m_seed, minCellX + i, cy + 1);
+				}
+				cachedCellY = cy;
+				haveCellRow = true;
+			}
+
+			int index = offset + row * stride;
+			for (int col = 0; col < w; col++) {
+				int c = cellX[col] - minCellX;
+				float xf0 = Lerp(values0[c], values0[c + 1], xs[col]);
+				float xf1 = Lerp(values1[c], values1[c + 1], xs[col]);
+
+				out[index + col] = Lerp(xf0, xf1, ys);
+			}
+		}
+	}
+
+	// Cubic noise counterpart of FillPerlin2D, bit-identical to GetCubic.
+	// The 4x4 neighbourhood of lattice values is kept for the current cell row.
+	private void FillCubic2D(float[] out, int offset, int x0, int y0, int w, int h, int stride) {
+		int[] cellX = new int[w];
+		float[] xs = new float[w];
+		int minCellX = Integer.MAX_VALUE;
+		int maxCellX = Integer.MIN_VALUE;
+		for (int col = 0; col < w; col++) {
+			float x = (float) (x0 + col) * m_frequency;
+			int cx = FastFloor(x);
+			cellX[col] = cx;
+			xs[col] = x - (float) cx;
+			minCellX = Math.min(minCellX, cx);
+			maxCellX = Math.max(maxCellX, cx);
+		}
+
+		// Lattice columns minCellX - 1 to maxCellX + 2 for the rows cy - 1 to cy + 2
+		int latticeWidth = maxCellX - minCellX + 4;
+		float[][] values = new float[4][latticeWidth];
+		boolean haveCellRow = false;
+		int cachedCellY = 0;
+
+		for (int row = 0; row < h; row++) {
+			float y = (float) (y0 + row) * m_frequency;
+			int cy = FastFloor(y);
+			float ys = y - (float) cy;
+
+			if (!haveCellRow || cy != cachedCellY) {
+				for (int r = 0; r < 4; r++) {
+					for (int i = 0; i < latticeWidth; i++) {
+						values[r][i] = ValCoord2D(m_seed, minCellX - 1 + i, cy - 1 + r);
+					}
+				}
+				cachedCellY = cy;
+				haveCellRow = true;
+			}
+			float[] v0 = values[0];
+			float[] v1 = values[1];
+			float[] v2 = values[2];
+			float[] v3 = values[3];
+
+			int index = offset + row * stride;
+			for (int col = 0; col < w; col++) {
+				int c = cellX[col] - minCellX;
+				float t = xs[col];
+
+				out[index + col] = CubicLerp(
+					CubicLerp(v0[c], v0[c + 1], v0[c + 2], v0[c + 3], t),
+					CubicLerp(v1[c], v1[c + 1], v1[c + 2], v1[c + 3], t),
+					CubicLerp(v2[c], v2[c + 1], v2[c + 2], v2[c + 3], t),
+					CubicLerp(v3[c], v3[c + 1], v3[c + 2], v3[c + 3], t),
+					ys) * CUBIC_2D_BOUNDING;
+			}
+		}
+	}
+
+	// Fills out[row * stride + col] with GetPerlin(x0 + col, y0 + row) for every col < w, row < h.
+	// The grid is walked one lattice cell at a time: interpolation weights are computed once per
+	// column and per row, and the four corner gradients once per cell, instead of once per sample.
+	// The result is bit-identical to calling GetPerlin for every sample.
+	public void FillPerlin2D(float[] out, int x0, int y0, int w, int h, int stride) {
+		FillPerlin2D(out, 0, x0, y0, w, h, stride);
+	}
+
+	// Same as above, writing the first sample to out[offset]
+	public void FillPerlin2D(float[] out, int offset, int x0, int y0, int w, int h, int stride) {
+		if (w <= 0 || h <= 0) return;
+
+		int[] cellX = new int[w];
+		int[] runEnd = new int[w];
+		float[] xs = new float[w];
+		float[] xd0 = new float[w];
+		float[] xd1 = new float[w];
+
+		int minCellX = Integer.MAX_VALUE;
+		int maxCellX = Integer.MIN_VALUE;
+		for (int col = 0; col < w; col++) {
+			float x = (float) (x0 + col) * m_frequency;
+			int cx = FastFloor(x);
+			cellX[col] = cx;
+			xs[col] = InterpAxis(x - cx);
+			xd0[col] = x - cx;
+			xd1[col] = xd0[col] - 1;
+			minCellX = Math.min(minCellX, cx);
+			maxCellX = Math.max(maxCellX, cx);
+		}
+		for (int col = w - 1; col >= 0; col--) {
+			runEnd[col] = (col + 1 < w && cellX[col + 1] == cellX[col]) ? runEnd[col + 1] : col + 1;
+		}
+
+		// Gradients of the lattice rows below (0) and above (1) the current cell row
+		int latticeWidth = maxCellX - minCellX + 2;
+		float[] gradX0 = new float[latticeWidth];
+		float[] gradY0 = new float[latticeWidth];
+		float[] gradX1 = new float[latticeWidth];
+		float[] gradY1 = new float[latticeWidth];
+		float[] termY0 = new float[latticeWidth];
+		float[] termY1 = new float[latticeWidth];
+
+		boolean haveCellRow = false;
+		int cachedCellY = 0;
+		// Rows at least one vector wide go to the SIMD kernel when this JVM can run it
+		VectorPerlin.Kernel vectorKernel = VectorPerlin.kernel();
+		float[] columnGradients = vectorKernel != null && w >= vectorKernel.lanes() ? new float[8 * w] : null;
+
+		for (int row = 0; row < h; row++) {
+			float y = (float) (y0 + row) * m_frequency;
+			int cy = FastFloor(y);
+			float ys = InterpAxis(y - cy);
+			float yd0 = y - cy;
+			float yd1 = yd0 - 1;
+
+			if (!haveCellRow || cy != cachedCellY) {
+				for (int i = 0; i < latticeWidth; i++) {
+					int g0 = GradIndex2D(m_seed, minCellX + i, cy);
+					int g1 = GradIndex2D(m_seed, minCellX + i, cy + 1);
+					gradX0[i] = GRAD_2D[g0];
+					gradY0[i] = GRAD_2D[g0 | 1];
+					gradX1[i] = GRAD_2D[g1];
+					gradY1[i] = GRAD_2D[g1 | 1];
+				}
+				if (columnGradients != null) {
+					SpreadColumnGradients(columnGradients, cellX, minCellX, w, gradX0, gradY0, gradX1, gradY1);
+				}
+				cachedCellY = cy;
+				haveCellRow = true;
+			}
+			if (columnGradients != null) {
+				vectorKernel.fillRow(columnGradients, xs, xd0, xd1, w, ys, yd0, yd1, out, offset + row * stride);
+				continue;
+			}
+			for (int i = 0; i < latticeWidth; i++) {
+				termY0[i] = yd0 * gradY0[i];
+				termY1[i] = yd1 * gradY1[i];
+			}
+
+			int index = offset + row * stride;
+			int col = 0;
+			while (col < w) {
+				int c = cellX[col] - minCellX;
+				float gx00 = gradX0[c];
+				float gx10 = gradX0[c + 1];
+				float gx01 = gradX1[c];
+				float gx11 = gradX1[c + 1];
+				float ty00 = termY0[c];
+				float ty10 = termY0[c + 1];
+				float ty01 = termY1[c];
+				float ty11 = termY1[c + 1];
+
+				for (int end = runEnd[col]; col < end; col++) {
+					float xf0 = Lerp(xd0[col] * gx00 + ty00, xd1[col] * gx10 + ty10, xs[col]);
+					float xf1 = Lerp(xd0[col] * gx01 + ty01, xd1[col] * gx11 + ty11, xs[col]);
+
+					out[index + col] = Lerp(xf0, xf1, ys);
+				}
+			}
+		}
+	}
+
+	// Fills out[channel][offset + row * stride + col] with GetPerlin(x0 + col, y0 + row) of a generator
+	// seeded with seeds[channel], for several independently seeded channels at once. The channels share
+	// the frequency and interpolation of this generator, so the lattice cells, distances and interpolation
+	// weights of the columns are computed once for all of them. For every band of rows in the same cell
+	// row, a single walk over its lattice points hashes the gradients of every channel: the coordinate part
+	// of the Prime hash of a point is computed once and only combined with each channel's seed, and the
+	// Permutation hash looks up each channel's row of the table once per band. The band is then filled
+	// one channel after the other, which keeps the working set of a row as small as for a single channel.
+	// Every channel is bit-identical to GetPerlin with its seed.
+	// With the Permutation hash the channel seeds pick offsets into this generator's tables instead.
+	public void FillPerlinChannels2D(float[][] out, int[] seeds, int offset, int x0, int y0, int w, int h, int stride) {
+		if (w <= 0 || h <= 0) return;
+
+		int[] cellX = new int[w];
+		int[] runEnd = new int[w];
+		float[] xs = new float[w];
+		float[] xd0 = new float[w];
+		float[] xd1 = new float[w];
+
+		int minCellX = Integer.MAX_VALUE;
+		int maxCellX = Integer.MIN_VALUE;
+		for (int col = 0; col < w; col++) {
+			float x = (float) (x0 + col) * m_frequency;
+			int cx = FastFloor(x);
+			cellX[col] = cx;
+			xs[col] = InterpAxis(x - cx);
+			xd0[col] = x - cx;
+			xd1[col] = xd0[col] - 1;
+			minCellX = Math.min(minCellX, cx);
+			maxCellX = Math.max(maxCellX, cx);
+		}
+		for (int col = w - 1; col >= 0; col--) {
+			runEnd[col] = (col + 1 < w && cellX[col + 1] == cellX[col]) ? runEnd[col + 1] : col + 1;
+		}
+
+		// Row interpolation weights and distances, shared by the channels as well
+		float[] ys = new float[h];
+		float[] yd0 = new float[h];
+		int[] cellY = new int[h];
+		for (int row = 0; row < h; row++) {
+			float y = (float) (y0 + row) * m_frequency;
+			cellY[row] = FastFloor(y);
+			ys[row] = InterpAxis(y - cellY[row]);
+			yd0[row] = y - cellY[row];
+		}
+
+		int channels = seeds.length;
+		int latticeWidth = maxCellX - minCellX + 2;
+		float[][] gradX0 = new float[channels][latticeWidth];
+		float[][] gradY0 = new float[channels][latticeWidth];
+		float[][] gradX1 = new float[channels][latticeWidth];
+		float[][] gradY1 = new float[channels][latticeWidth];
+		float[] termY0 = new float[latticeWidth];
+		float[] termY1 = new float[latticeWidth];
+		int[] permRow0 = new int[channels];
+		int[] permRow1 = new int[channels];
+		VectorPerlin.Kernel vectorKernel = VectorPerlin.kernel();
+		float[] columnGradients = vectorKernel != null && w >= vectorKernel.lanes() ? new float[8 * w] : null;
+
+		int bandStart = 0;
+		while (bandStart < h) {
+			int cy = cellY[bandStart];
+			int bandEnd = bandStart + 1;
+			while (bandEnd < h && cellY[bandEnd] == cy) {
+				bandEnd++;
+			}
+			HashCellRow(seeds, minCellX, latticeWidth, cy, permRow0, permRow1, gradX0, gradY0, gradX1, gradY1);
+
+			for (int channel = 0; channel < channels; channel++) {
+				float[] channelOut = out[channel];
+				if (columnGradients != null) {
+					SpreadColumnGradients(columnGradients, cellX, minCellX, w, gradX0[channel], gradY0[channel],
+							gradX1[channel], gradY1[channel]);
+				}
+				for (int row = bandStart; row < bandEnd; row++) {
+					int index = offset + row * stride;
+					float yd1 = yd0[row] - 1;
+					if (columnGradients != null) {
+						vectorKernel.fillRow(columnGradients, xs, xd0, xd1, w, ys[row], yd0[row], yd1, channelOut, index);
+						continue;
+					}
+					FillPerlinChannelRow(channelOut, index, w, cellX, minCellX, runEnd, xs, xd0, xd1, ys[row], yd0[row],
+							yd1, latticeWidth, gradX0[channel], gradY0[channel], gradX1[channel], gradY1[channel], termY0,
+							termY1);
+				}
+			}
+			bandStart = bandEnd;
+		}
+	}
+
+	// Fills a row of one channel of FillPerlinChannels2D with the scalar kernel, from the gradients of
+	// the channel's cell row
+	private static void FillPerlinChannelRow(float[] out, int index, int w, int[] cellX, int minCellX, int[] runEnd,
+			float[] xs, float[] xd0, float[] xd1, float ys, float yd0, float yd1, int latticeWidth,
+			float[] gradX0, float[] gradY0, float[] gradX1, float[] gradY1, float[] termY0, float[] termY1) {
+		for (int i = 0; i < latticeWidth; i++) {
+			termY0[i] = yd0 * gradY0[i];
+			termY1[i] = yd1 * gradY1[i];
+		}
+
+		int col = 0;
+		while (col < w) {
+			int c = cellX[col] - minCellX;
+			float gx00 = gradX0[c];
+			float gx10 = gradX0[c + 1];
+			float gx01 = gradX1[c];
+			float gx11 = gradX1[c + 1];
+			float ty00 = termY0[c];
+			float ty10 = termY0[c + 1];
+			float ty01 = termY1[c];
+			float ty11 = termY1[c + 1];
+
+			for (int end = runEnd[col]; col < end; col++) {
+				float xf0 = Lerp(xd0[col] * gx00 + ty00, xd1[col] * gx10 + ty10, xs[col]);
+				float xf1 = Lerp(xd0[col] * gx01 + ty01, xd1[col] * gx11 + ty11, xs[col]);
+
+				out[index + col] = Lerp(xf0, xf1, ys);
+			}
+		}
+	}
+
+	// Hashes the gradients of every channel at the lattice points minCellX to minCellX + latticeWidth - 1
+	// of the rows cy and cy + 1, in one walk over the points, into [channel][point]. The results are those
+	// of GradIndex2D with each channel's seed.
+	private void HashCellRow(int[] seeds, int minCellX, int latticeWidth, int cy, int[] permRow0, int[] permRow1,
+			float[][] gradX0, float[][] gradY0, float[][] gradX1, float[][] gradY1) {
+		int channels = seeds.length;
+		if (m_hashType == HashType.Permutation) {
+			for (int channel = 0; channel < channels; channel++) {
+				int seedOffset = (seeds[channel] - m_permSeed) & PERM_MASK;
+				permRow0[channel] = m_perm[(cy & PERM_MASK) + seedOffset];
+				permRow1[channel] = m_perm[((cy + 1) & PERM_MASK) + seedOffset];
+			}
+			for (int i = 0; i < latticeWidth; i++) {
+				int x = (minCellX + i) & PERM_MASK;
+				for (int channel = 0; channel < channels; channel++) {
+					StoreGradients(m_permHash[x + permRow0[channel]], m_permHash[x + permRow1[channel]], i,
+							gradX0[channel], gradY0[channel], gradX1[channel], gradY1[channel]);
+				}
+			}
+			return;
+		}
+
+		int yHash0 = Y_PRIME * cy;
+		int yHash1 = Y_PRIME * (cy + 1);
+		for (int i = 0; i < latticeWidth; i++) {
+			int xHash = X_PRIME * (minCellX + i);
+			for (int channel = 0; channel < channels; channel++) {
+				int seed = seeds[channel] ^ xHash;
+				StoreGradients(FinishPrimeHash(seed ^ yHash0), FinishPrimeHash(seed ^ yHash1), i,
+						gradX0[channel], gradY0[channel], gradX1[channel], gradY1[channel]);
+			}
+		}
+	}
+
+	// Stores the gradients of the hashes of lattice point i in the rows cy and cy + 1
+	private static void StoreGradients(int hash0, int hash1, int i, float[] gradX0, float[] gradY0,
+			float[] gradX1, float[] gradY1) {
+		int g0 = (hash0 & 7) << 1;
+		int g1 = (hash1 & 7) << 1;
+		gradX0[i] = GRAD_2D[g0];
+		gradY0[i] = GRAD_2D[g0 | 1];
+		gradX1[i] = GRAD_2D[g1];
+		gradY1[i] = GRAD_2D[g1 | 1];
+	}
+
+	// Spreads the corner gradients of a cell row over the columns, in the layout of VectorPerlin.Kernel,
+	// so the vector kernel only does contiguous loads
+	private static void SpreadColumnGradients(float[] columnGradients, int[] cellX, int minCellX, int w,
+			float[] gradX0, float[] gradY0, float[] gradX1, float[] gradY1) {
+		for (int col = 0; col < w; col++) {
+			int c = cellX[col] - minCellX;
+			columnGradients[col] = gradX0[c];
+			columnGradients[w + col] = gradY0[c];
+			columnGradients[2 * w + col] = gradX0[c + 1];
+			columnGradients[3 * w + col] = gradY0[c + 1];
+			columnGradients[4 * w + col] = gradX1[c];
+			columnGradients[5 * w + col] = gradY1[c];
+			columnGradients[6 * w + col] = gradX1[c + 1];
+			columnGradients[7 * w + col] = gradY1[c + 1];
+		}
+	}
+
+	private float InterpAxis(float t) {
+		switch (m_interp) {
+			default:
+			case Linear:
+				return t;
+			case Hermite:
+				return InterpHermiteFunc(t);
+			case Quintic:
+				return InterpQuinticFunc(t);
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.spacegeneration;
+
+/**
+ * How a universe is generated from its seed. A seed always makes the same universe for as
+ * long as it is generated with the same version.
+ * <ul>
+ * <li>v1 draws everything from one java.util.Random per region, planets and then stars, and
+ * every moon from a Random of its planet, so nothing can be generated on its own.</li>
+ * <li>v2 derives every region, planet, star and moon directly from the universe seed with
+ * {@link CounterRandom}. Each of them is computed in constant time, independently of the
+ * others.</li>
+ * </ul>
+ */
+public enum GenerationVersion {
+    v1("Generation v1"),
+    v2("Generation v2");
+
+    private final String displayName;
+
+    GenerationVersion(String displayName) {
+        this.displayName = displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,213 @@
+package com.spacegeneration;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Draws a {@link GlobeTexture} as a globe that spins around its axis, seen from far away, in
+ * the middle of a view of a fixed size. The axis is tilted towards the viewer by the given
+ * angle.
+ * <p>
+ * The ray of every pixel of the globe's disc is cast against the sphere once, when the
+ * renderer is created, rows in parallel on a fork/join pool, and the latitude and longitude
+ * it hits are kept as the texture row and the column in 16.16 fixed point. Spinning the globe only adds to the longitude, so a
+ * frame is a table lookup per pixel, without trigonometry or noise. Pixels outside the disc
+ * are never written. Rows are drawn in parallel on a fork/join pool.
+ */
+public final class GlobeRenderer {
+
+    static final int ROWS_PER_TASK = 32;
+    static final float DISC_FRACTION = 0.9f;
+
+    private final int viewWidth;
+    private final int viewHeight;
+    private final int textureWidth;
+    private final int textureHeight;
+    private final int radius;
+    private final int[] rowStart;
+    private final int[] rowEnd;
+    private final int[] rowFirstPixel;
+    private final int[] texelRows;
+    private final int[] longitudes;
+    private final double cosTilt;
+    private final double sinTilt;
+
+    /**
+     * Casts the rays of a view of the given size onto a globe that fills DISC_FRACTION of
+     * its smaller side, for textures of the given size, on the common fork/join pool.
+     */
+    public GlobeRenderer(int viewWidth, int viewHeight, int textureWidth, int textureHeight, double tilt) {
+        this(ForkJoinPool.commonPool(), viewWidth, viewHeight, textureWidth, textureHeight, tilt);
+    }
+
+    /**
+     * Casts the rays like the constructor above, on the given pool.
+     */
+    public GlobeRenderer(ForkJoinPool pool, int viewWidth, int viewHeight, int textureWidth, int textureHeight,
+            double tilt) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.textureWidth = textureWidth;
+        this.textureHeight = textureHeight;
+        this.radius = Math.max(1, (int) (Math.min(viewWidth, viewHeight) * DISC_FRACTION / 2));
+        this.rowStart = new int[viewHeight];
+        this.rowEnd = new int[viewHeight];
+        this.rowFirstPixel = new int[viewHeight + 1];
+
+        double centreX = viewWidth / 2.0;
+        double centreY = viewHeight / 2.0;
+        int pixels = 0;
+        for (int y = 0; y < viewHeight; y++) {
+            double dy = (y + 0.5 - centreY) / radius;
+            double halfWidth = (Math.abs(dy) < 1)? Math.sqrt(1 - dy * dy) * radius : 0;
+            rowStart[y] = Math.max(0, (int) Math.ceil(centreX - halfWidth - 0.5));
+            rowEnd[y] = Math.min(viewWidth, (int) Math.ceil(centreX + halfWidth - 0.5));
+            rowEnd[y] = Math.max(rowStart[y], rowEnd[y]);
+            rowFirstPixel[y] = pixels;
+            pixels += rowEnd[y] - rowStart[y];
+        }
+        rowFirstPixel[viewHeight] = pixels;
+
+        this.texelRows = new int[pixels];
+        this.longitudes = new int[pixels];
+        this.cosTilt = Math.cos(tilt);
+        this.sinTilt = Math.sin(tilt);
+        pool.invoke(new RayTask(0, viewHeight));
+    }
+
+    /**
+     * Casts the rays of a single row of the disc.
+     */
+    private void castRow(int y) {
+        double centreX = viewWidth / 2.0;
+        double up = -(y + 0.5 - viewHeight / 2.0) / radius;
+        for (int x = rowStart[y]; x < rowEnd[y]; x++) {
+            double right = (x + 0.5 - centreX) / radius;
+            double toward = Math.sqrt(Math.max(0, 1 - right * right - up * up));
+            // Tilts the hit point back into the frame of the planet, whose axis is y
+            double axis = up * cosTilt - toward * sinTilt;
+            double depth = up * sinTilt + toward * cosTilt;
+            double latitude = Math.asin(Math.max(-1, Math.min(1, axis)));
+            double longitude = Math.atan2(depth, right);
+            longitude = (longitude < 0)? longitude + 2 * Math.PI : longitude;
+
+            int pixel = rowFirstPixel[y] + x - rowStart[y];
+            int v = (int) ((latitude / Math.PI + 0.5) * textureHeight);
+            texelRows[pixel] = Math.min(textureHeight - 1, v) * textureWidth;
+            longitudes[pixel] = (int) (longitude / (2 * Math.PI) * textureWidth * 65536);
+        }
+    }
+
+    public int getViewWidth() {
+        return viewWidth;
+    }
+
+    public int getViewHeight() {
+        return viewHeight;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Returns the number of pixels of the globe's disc, the pixels a frame writes.
+     */
+    public int getDiscPixels() {
+        return texelRows.length;
+    }
+
+    /**
+     * Draws the texture spun by the given fraction of a turn into out[y * viewWidth + x] on
+     * the common fork/join pool.
+     */
+    public void render(GlobeTexture texture, double turns, byte[] out) {
+        render(ForkJoinPool.commonPool(), texture, turns, out);
+    }
+
+    public void render(ForkJoinPool pool, GlobeTexture texture, double turns, byte[] out) {
+        if (texture.getWidth() != textureWidth || texture.getHeight() != textureHeight) {
+            throw new IllegalArgumentException("The renderer was made for " + textureWidth + "x" + textureHeight
+                    + " textures, not " + texture.getWidth() + "x" + texture.getHeight());
+        }
+        double fraction = turns - Math.floor(turns);
+        int spin = (int) (fraction * textureWidth * 65536);
+        pool.invoke(new RowTask(texture.getColorIndices(), spin, out, 0, viewHeight));
+    }
+
+    /**
+     * Draws a single row of the disc.
+     */
+    private void renderRow(byte[] texels, int spin, byte[] out, int y) {
+        int mask = textureWidth - 1;
+        int pixel = rowFirstPixel[y];
+        int index = y * viewWidth + rowStart[y];
+        for (int x = rowStart[y]; x < rowEnd[y]; x++, pixel++, index++) {
+            out[index] = texels[texelRows[pixel] + (((longitudes[pixel] + spin) >>> 16) & mask)];
+        }
+    }
+
+    /**
+     * Splits the rows in halves until at most {@value #ROWS_PER_TASK} are left, whose rays
+     * are then cast directly.
+     */
+    private final class RayTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int firstRow;
+        private final int lastRow;
+
+        RayTask(int firstRow, int lastRow) {
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (lastRow - firstRow > ROWS_PER_TASK) {
+                int split = (firstRow + lastRow) >>> 1;
+                invokeAll(new RayTask(firstRow, split), new RayTask(split, lastRow));
+                return;
+            }
+
+            for (int y = firstRow; y < lastRow; y++) {
+                castRow(y);
+            }
+        }
+    }
+
+    /**
+     * Splits the rows in halves until at most {@value #ROWS_PER_TASK} are left, which are
+     * then drawn directly.
+     */
+    private final class RowTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] texels;
+        private final int spin;
+        private final byte[] out;
+        private final int firstRow;
+        private final int lastRow;
+
+        RowTask(byte[] texels, int spin, byte[] out, int firstRow, int lastRow) {
+            this.texels = texels;
+            this.spin = spin;
+            this.out = out;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (lastRow - firstRow > ROWS_PER_TASK) {
+                int split = (firstRow + lastRow) >>> 1;
+                invokeAll(new RowTask(texels, spin, out, firstRow, split), new RowTask(texels, spin, out, split, lastRow));
+                return;
+            }
+
+            for (int y = firstRow; y < lastRow; y++) {
+                renderRow(texels, spin, out, y);
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.spacegeneration;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The land of a whole planet as an equirectangular texture of colour indices: texel (u, v)
+ * is the land at longitude 360 * (u + 0.5) / width degrees east and latitude
+ * 180 * (v + 0.5) / height - 90 degrees, with v = 0 at the south pole.
+ * <p>
+ * Flat land wraps badly around a sphere, so the land is 3D fractal Perlin noise sampled on the
+ * surface of the planet, a sphere whose equator is width noise units long, so its features
+ * are as large as those of the flat land. Moisture and temperature are 3D Perlin noise of the
+ * same seeds and frequency as the flat land's, and every texel is classified with the height
+ * range of the whole texture. Rows are generated in parallel on a fork/join pool; every texel
+ * only depends on its own coordinates, so the texture is the same however the rows were
+ * scheduled.
+ * <p>
+ * The width has to be a power of two, so a longitude wraps around with a mask.
+ */
+public final class GlobeTexture {
+
+    static final int ROWS_PER_TASK = 16;
+
+    private final int seed;
+    private final int width;
+    private final int height;
+    private final byte[] colorIndices;
+    private final float minimum;
+    private final float range;
+
+    GlobeTexture(int seed, int width, int height, byte[] colorIndices, float minimum, float range) {
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.colorIndices = colorIndices;
+        this.minimum = minimum;
+        this.range = range;
+    }
+
+    /**
+     * Generates the texture of the given seed and octaves on the common fork/join pool.
+     */
+    public static GlobeTexture generate(int seed, int octaves, BiomeClassifier classifier, int width, int height) {
+        return generate(ForkJoinPool.commonPool(), seed, octaves, classifier, width, height);
+    }
+
+    public static GlobeTexture generate(ForkJoinPool pool, int seed, int octaves, BiomeClassifier classifier,
+            int width, int height) {
+        if (width <= 0 || (width & (width - 1)) != 0) {
+            throw new IllegalArgumentException("The width must be a power of two, not " + width);
+        }
+        FastNoise noise = new FastNoise(seed);
+        noise.SetFractalOctaves(octaves);
+        float[] heights = new float[width * height];
+        float[] moisture = new float[width * height];
+        float[] temperature = new float[width * height];
+        pool.invoke(new RowTask(noise.GetConfig(), seed, width, height, heights, moisture, temperature, 0, height));
+
+        // The height range is chosen like the flat land's, from the lowest height, or 0 if
+        // that is lower, to the highest height, or 0 if that is higher
+        float lowest = 0;
+        float highest = 0;
+        for (float value : heights) {
+            lowest = (value < lowest)? value : lowest;
+            highest = (value > highest)? value : highest;
+        }
+        HeightColorTable colorTable = classifier.colorTable(lowest, highest - lowest);
+        byte[] colorIndices = new byte[width * height];
+        for (int i = 0; i < colorIndices.length; i++) {
+            colorIndices[i] = (byte) colorTable.classifyIndex(heights[i], moisture[i], temperature[i]);
+        }
+        return new GlobeTexture(seed, width, height, colorIndices, lowest, highest - lowest);
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public float getMinimum() {
+        return minimum;
+    }
+
+    public float getRange() {
+        return range;
+    }
+
+    /**
+     * Returns the colour index of every texel, row by row. The array must not be changed.
+     */
+    public byte[] getColorIndices() {
+        return colorIndices;
+    }
+
+    public int getSizeInBytes() {
+        return colorIndices.length;
+    }
+
+    /**
+     * Splits the rows in halves until at most {@value #ROWS_PER_TASK} are left, which are
+     * then sampled with FastNoise instances of the task's own.
+     */
+    private static final class RowTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final NoiseConfig config;
+        private final int seed;
+        private final int width;
+        private final int height;
+        private final float[] heights;
+        private final float[] moisture;
+        private final float[] temperature;
+        private final int firstRow;
+        private final int lastRow;
+
+        RowTask(NoiseConfig config, int seed, int width, int height, float[] heights, float[] moisture,
+                float[] temperature, int firstRow, int lastRow) {
+            this.config = config;
+            this.seed = seed;
+            this.width = width;
+            this.height = height;
+            this.heights = heights;
+            this.moisture = moisture;
+            this.temperature = temperature;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (lastRow - firstRow > ROWS_PER_TASK) {
+                int split = (firstRow + lastRow) >>> 1;
+                invokeAll(new RowTask(config, seed, width, height, heights, moisture, temperature, firstRow, split),
+                        new RowTask(config, seed, width, height, heights, moisture, temperature, split, lastRow));
+                return;
+            }
+
+            FastNoise land = new FastNoise(config);
+            FastNoise wet = new FastNoise(seed + LandGenerationJob.MOISTURE_SEED_OFFSET);
+            wet.SetFrequency(LandGenerationJob.CLIMATE_FREQUENCY);
+            FastNoise warm = new FastNoise(seed + LandGenerationJob.TEMPERATURE_SEED_OFFSET);
+            warm.SetFrequency(LandGenerationJob.CLIMATE_FREQUENCY);
+            double radius = width / (2 * Math.PI);
+            float[] cosLongitude = new float[width];
+            float[] sinLongitude = new float[width];
+            for (int u = 0; u < width; u++) {
+                double longitude = 2 * Math.PI * (u + 0.5) / width;
+                cosLongitude[u] = (float) Math.cos(longitude);
+                sinLongitude[u] = (float) Math.sin(longitude);
+            }
+            for (int v = firstRow; v < lastRow; v++) {
+                double latitude = Math.PI * (v + 0.5) / height - Math.PI / 2;
+                float y = (float) (radius * Math.sin(latitude));
+                float ring = (float) (radius * Math.cos(latitude));
+                for (int u = 0; u < width; u++) {
+                    float x = ring * cosLongitude[u];
+                    float z = ring * sinLongitude[u];
+                    int index = v * width + u;
+                    heights[index] = land.GetPerlinFractal(x, y, z);
+                    moisture[index] = wet.GetPerlin(x, y, z);
+                    temperature[index] = warm.GetPerlin(x, y, z);
+                }
+            }
+        }
+    }
+}
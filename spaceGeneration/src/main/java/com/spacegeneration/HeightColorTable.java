@@ -0,0 +1,165 @@
+package com.spacegeneration;
+
+/**
+ * Height to colour lookup of a {@link BiomeClassifier} for one height range, built for every
+ * range a land is shown with. The range is split into {@value #BUCKETS} buckets and every
+ * bucket of every biome stores at most one layer boundary with the colour indices below and
+ * above it, so classifying a pixel is a bucket index, one comparison and two array reads
+ * instead of a scan over the layers.
+ * <p>
+ * The boundaries are the same as the classifier's height > minimum + (range * layerValue)
+ * comparisons, down to the last float: a boundary is stored as the largest float that is not
+ * above it. The rare bucket that holds more than one boundary, for layers closer together
+ * than a bucket, falls back to the classifier's scan.
+ */
+public final class HeightColorTable {
+
+    static final int BUCKETS = 4096;
+
+    private final BiomeClassifier classifier;
+    private final float minimum;
+    private final float range;
+    private final float highest;
+    private final float scale;
+    private final int[] colorRgb;
+
+    /**
+     * Three ints per bucket, at 3 * (biome * BUCKETS + bucket): the bits of the threshold and
+     * the colour indices at or below and above it, kept together so a lookup reads one cache line.
+     * A NaN threshold marks a bucket that needs the scan.
+     */
+    private final int[] buckets;
+
+    HeightColorTable(BiomeClassifier classifier, double[][] layerValues, int[][] layerIndex, int[] colorRgb,
+            float minimum, float range) {
+        this.classifier = classifier;
+        this.colorRgb = colorRgb;
+        this.minimum = minimum;
+        this.range = range;
+        this.highest = floatAtOrBelow(minimum + (double) range);
+        this.scale = (range > 0)? BUCKETS / range : 0;
+        this.buckets = new int[3 * layerValues.length * BUCKETS];
+
+        for (int biome = 0; biome < layerValues.length; biome++) {
+            double[] values = layerValues[biome];
+            float[] boundaries = new float[values.length];
+            int[] first = new int[values.length];
+            int[] last = new int[values.length];
+            for (int layer = 0; layer < values.length; layer++) {
+                boundaries[layer] = floatAtOrBelow(minimum + (range * values[layer]));
+                // Heights up to the boundary are in buckets up to first, heights above it from last on
+                first[layer] = bucket(boundaries[layer]);
+                last[layer] = bucket(Math.nextUp(boundaries[layer]));
+            }
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                fillBucket(3 * (biome * BUCKETS + bucket), bucket, boundaries, first, last, layerIndex[biome]);
+            }
+        }
+    }
+
+    /**
+     * Works out the colours of one bucket by scanning the layers the way the classifier does,
+     * but for all heights of the bucket at once: a layer takes the whole bucket, none of it,
+     * or splits it at its boundary.
+     */
+    private void fillBucket(int index, int bucket, float[] boundaries, int[] first, int[] last, int[] colors) {
+        float split = Float.POSITIVE_INFINITY;
+        int lower = BiomeClassifier.NO_LAYER_INDEX;
+        int layer = 0;
+        for (; layer < boundaries.length; layer++) {
+            if (last[layer] > bucket) {
+                lower = colors[layer];
+                break;
+            }
+            if (first[layer] < bucket) { continue; }
+
+            split = boundaries[layer];
+            lower = colors[layer];
+            break;
+        }
+
+        int upper = lower;
+        if (split != Float.POSITIVE_INFINITY) {
+            upper = BiomeClassifier.NO_LAYER_INDEX;
+            for (layer++; layer < boundaries.length; layer++) {
+                // Only heights above split are left, a boundary at or below it takes none of them
+                if (boundaries[layer] <= split || first[layer] < bucket) { continue; }
+                if (last[layer] > bucket) {
+                    upper = colors[layer];
+                    break;
+                }
+                split = Float.NaN;
+                break;
+            }
+        }
+        buckets[index] = Float.floatToRawIntBits(split);
+        buckets[index + 1] = lower;
+        buckets[index + 2] = upper;
+    }
+
+    public float getMinimum() {
+        return minimum;
+    }
+
+    public float getRange() {
+        return range;
+    }
+
+    /**
+     * Returns the ARGB colour of a pixel, exactly like BiomeClassifier.classify with this
+     * table's minimum and range.
+     */
+    public int classify(float height, float moisture, float temperature) {
+        return colorRgb[classifyIndex(height, moisture, temperature)];
+    }
+
+    /**
+     * Returns the colour index of a pixel, exactly like BiomeClassifier.classifyIndex with
+     * this table's minimum and range.
+     */
+    public int classifyIndex(float height, float moisture, float temperature) {
+        int index = 3 * (classifier.biomeOf(moisture, temperature) * BUCKETS + bucket(height));
+        float threshold = Float.intBitsToFloat(buckets[index]);
+        if (threshold != threshold) {
+            return classifier.classifyIndex(height, minimum, range, moisture, temperature);
+        }
+        return buckets[(height > threshold)? index + 2 : index + 1];
+    }
+
+    /**
+     * Returns the height clamped to the table's range, so a height below or above every
+     * height the table was made for takes the colour of its lowest or highest height instead
+     * of no layer at all.
+     */
+    public float clampHeight(float height) {
+        return Math.min(Math.max(height, minimum), highest);
+    }
+
+    /**
+     * Classifies the pixels from (inclusive) to to (exclusive) of row-major height, moisture
+     * and temperature arrays into out.
+     */
+    public void classify(float[] heights, float[] moisture, float[] temperature, int[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = classify(heights[i], moisture[i], temperature[i]);
+        }
+    }
+
+    /**
+     * The bucket of a height, clamped to the table. It never decreases as the height grows,
+     * which is what lets a bucket be described by the boundaries it holds.
+     */
+    private int bucket(float height) {
+        int bucket = (int) ((height - minimum) * scale);
+        return Math.min(Math.max(bucket, 0), BUCKETS - 1);
+    }
+
+    /**
+     * The largest float that is not above value, so height > value and height > result
+     * agree for every float height.
+     */
+    private static float floatAtOrBelow(double value) {
+        float rounded = (float) value;
+        return (rounded > value)? Math.nextDown(rounded) : rounded;
+    }
+}
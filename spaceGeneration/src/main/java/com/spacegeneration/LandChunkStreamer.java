@@ -0,0 +1,234 @@
+package com.spacegeneration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Generates the land of an unbounded planet surface in square chunks of
+ * {@value #CHUNK_SIZE} x {@value #CHUNK_SIZE} pixels, around whatever part of it is being
+ * looked at. Chunk (chunkX, chunkY) of level of detail lod covers the pixels chunkX *
+ * {@value #CHUNK_SIZE} to chunkX * {@value #CHUNK_SIZE} + {@value #CHUNK_SIZE} - 1 across,
+ * and likewise down, where every pixel is 2^lod units of the surface, so each zoom step out
+ * has its own level. Chunks of level 0 at the origin are the land a {@link LandGenerationJob}
+ * of the same seed generates, classified with the same height range. Heights of other chunks
+ * that fall outside that range are clamped to it, like the heights of the land are.
+ * <p>
+ * The chunks wanted are set with {@link #request}, nearest to the middle of the requested
+ * area first, and generated one at a time on the executor. Requesting another area drops the
+ * chunks that were wanted before but not started. Finished chunks are kept in a least
+ * recently used cache of at most maxChunks chunks and handed to the listener.
+ * <p>
+ * The streamer may be used from any thread. The listener is called on the executor's thread.
+ */
+public final class LandChunkStreamer {
+
+    static final int CHUNK_SIZE = 256;
+
+    /**
+     * Receives every chunk once it is generated.
+     */
+    public interface Listener {
+
+        /**
+         * Called with the colour indices of a chunk, row by row. The array is shared with the
+         * cache and must not be changed.
+         */
+        void chunkFinished(LandChunkStreamer streamer, int chunkX, int chunkY, int lod, byte[] colorIndices);
+    }
+
+    private final int seed;
+    private final NoiseConfig config;
+    private final HeightColorTable colorTable;
+    private final NoiseTileCache tileCache;
+    private final Executor executor;
+    private final Listener listener;
+    private final Map<ChunkKey, byte[]> chunks;
+    private List<ChunkKey> wanted = new ArrayList<ChunkKey>();
+    private boolean working;
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a streamer for the land of the given seed and octaves, whose layers are scaled
+     * to the height range that starts at minimum. The tile cache may be null.
+     */
+    public LandChunkStreamer(int seed, int octaves, float minimum, float range, BiomeClassifier classifier,
+            NoiseTileCache tileCache, final int maxChunks, Executor executor, Listener listener) {
+        FastNoise noise = new FastNoise(seed);
+        noise.SetFractalOctaves(octaves);
+        this.seed = seed;
+        this.config = noise.GetConfig();
+        this.colorTable = classifier.colorTable(minimum, range);
+        this.tileCache = tileCache;
+        this.executor = executor;
+        this.listener = listener;
+        this.chunks = new LinkedHashMap<ChunkKey, byte[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChunkKey, byte[]> eldest) {
+                return size() > maxChunks;
+            }
+        };
+    }
+
+    /**
+     * Returns the colour indices of a chunk if it has been generated and is still cached,
+     * or null. The array must not be changed.
+     */
+    public synchronized byte[] getChunk(int chunkX, int chunkY, int lod) {
+        return chunks.get(new ChunkKey(chunkX, chunkY, lod));
+    }
+
+    public synchronized int getCachedChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Wants every chunk of the given level from firstChunk to lastChunk, both included, that
+     * is not cached yet, in place of the chunks wanted before.
+     */
+    public void request(int firstChunkX, int firstChunkY, int lastChunkX, int lastChunkY, int lod) {
+        final double middleX = (firstChunkX + lastChunkX) / 2.0;
+        final double middleY = (firstChunkY + lastChunkY) / 2.0;
+        List<ChunkKey> missing = new ArrayList<ChunkKey>();
+        synchronized (this) {
+            if (cancelled) { return; }
+            for (int chunkY = firstChunkY; chunkY <= lastChunkY; chunkY++) {
+                for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++) {
+                    ChunkKey key = new ChunkKey(chunkX, chunkY, lod);
+                    if (!chunks.containsKey(key)) {
+                        missing.add(key);
+                    }
+                }
+            }
+            Collections.sort(missing, new Comparator<ChunkKey>() {
+                @Override
+                public int compare(ChunkKey first, ChunkKey second) {
+                    return Double.compare(first.distanceSquared(middleX, middleY), second.distanceSquared(middleX, middleY));
+                }
+            });
+            wanted = missing;
+            if (working || wanted.isEmpty()) { return; }
+            working = true;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                generateWanted();
+            }
+        });
+    }
+
+    /**
+     * Stops generating chunks. Chunks that are cached can still be read.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        wanted = new ArrayList<ChunkKey>();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns true while chunks are wanted or being generated.
+     */
+    public synchronized boolean isBusy() {
+        return working;
+    }
+
+    /**
+     * Generates the wanted chunks until there are none left. If generating a chunk or the
+     * listener throws, the streamer stops working, so the next request starts it again.
+     */
+    private void generateWanted() {
+        boolean finished = false;
+        try {
+            while (true) {
+                ChunkKey key;
+                synchronized (this) {
+                    if (cancelled || wanted.isEmpty()) {
+                        working = false;
+                        finished = true;
+                        return;
+                    }
+                    key = wanted.remove(0);
+                    if (chunks.containsKey(key)) { continue; }
+                }
+                byte[] colorIndices = generate(key.chunkX, key.chunkY, key.lod);
+                synchronized (this) {
+                    chunks.put(key, colorIndices);
+                }
+                listener.chunkFinished(this, key.chunkX, key.chunkY, key.lod, colorIndices);
+            }
+        } finally {
+            if (!finished) {
+                synchronized (this) {
+                    working = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates the colour indices of a chunk with every octave, without caching them.
+     */
+    byte[] generate(int chunkX, int chunkY, int lod) {
+        int step = 1 << lod;
+        int x0 = chunkX * CHUNK_SIZE;
+        int y0 = chunkY * CHUNK_SIZE;
+        ProgressiveFractal land = new ProgressiveFractal(config, x0, y0, CHUNK_SIZE, CHUNK_SIZE, step, tileCache);
+        while (land.addOctave()) {
+            continue;
+        }
+
+        float[] moisture = new float[CHUNK_SIZE * CHUNK_SIZE];
+        float[] temperature = new float[CHUNK_SIZE * CHUNK_SIZE];
+        FastNoise climate = new FastNoise(seed);
+        climate.SetFrequency(LandGenerationJob.CLIMATE_FREQUENCY * step);
+        climate.FillPerlinChannels2D(new float[][] {moisture, temperature},
+                new int[] {seed + LandGenerationJob.MOISTURE_SEED_OFFSET, seed + LandGenerationJob.TEMPERATURE_SEED_OFFSET},
+                0, x0, y0, CHUNK_SIZE, CHUNK_SIZE, CHUNK_SIZE);
+
+        byte[] colorIndices = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        for (int i = 0; i < colorIndices.length; i++) {
+            colorIndices[i] = (byte) colorTable.classifyIndex(colorTable.clampHeight(land.getValue(i)), moisture[i], temperature[i]);
+        }
+        return colorIndices;
+    }
+
+    private static final class ChunkKey {
+        final int chunkX;
+        final int chunkY;
+        final int lod;
+
+        ChunkKey(int chunkX, int chunkY, int lod) {
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+            this.lod = lod;
+        }
+
+        double distanceSquared(double x, double y) {
+            return (chunkX - x) * (chunkX - x) + (chunkY - y) * (chunkY - y);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ChunkKey)) { return false; }
+
+            ChunkKey key = (ChunkKey) other;
+            return chunkX == key.chunkX && chunkY == key.chunkY && lod == key.lod;
+        }
+
+        @Override
+        public int hashCode() {
+            return (chunkX * 31 + chunkY) * 31 + lod;
+        }
+    }
+}
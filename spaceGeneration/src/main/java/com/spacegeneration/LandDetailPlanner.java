@@ -0,0 +1,185 @@
+package com.spacegeneration;
+
+/**
+ * Decides how much land detail fits in a latency budget on the machine it runs on. The
+ * planner keeps a running estimate of the noise throughput, in nanoseconds per sample,
+ * measured from octaves that were actually generated, and uses it to pick the sampling step
+ * and the number of octaves of the first frame. Whatever the plan leaves out is meant to be
+ * added in the background afterwards.
+ * <p>
+ * Until the first measurement a small calibration fill is timed, so the very first plan is
+ * usually pessimistic, which errs on the side of a fast first frame.
+ * <p>
+ * A coarse first frame is interpolated back up to every pixel with a
+ * {@link BicubicUpsampler}, so it may be sampled as coarsely as the interpolation error
+ * allows, see {@link #previewStep}, even when a finer step would fit the budget.
+ */
+public final class LandDetailPlanner {
+
+    /**
+     * Sampling steps that may be planned, from full resolution to one sample per 8x8 pixels.
+     */
+    static final int[] SAMPLE_STEPS = {1, 2, 4, 8};
+
+    private static final int CALIBRATION_SIZE = 128;
+    private static final int CALIBRATION_ROUNDS = 3;
+    private static final double SMOOTHING = 0.3;
+
+    /**
+     * The maximum error of bicubic interpolation of one Perlin octave sampled every n pixels,
+     * for an octave of frequency f, is about ERROR_SCALE * (f * n)^ERROR_EXPONENT, fitted to
+     * errors measured over full HD fields, and never more than the octave's amplitude.
+     */
+    private static final double ERROR_SCALE = 4.6;
+    private static final double ERROR_EXPONENT = 3.3;
+
+    private double nanosPerSample;
+
+    /**
+     * The detail chosen for the first frame: land is sampled at every step-th pixel with
+     * the given number of octaves.
+     */
+    public static final class Plan {
+        private final int step;
+        private final int octaves;
+
+        Plan(int step, int octaves) {
+            this.step = step;
+            this.octaves = octaves;
+        }
+
+        public int getStep() {
+            return step;
+        }
+
+        public int getOctaves() {
+            return octaves;
+        }
+    }
+
+    /**
+     * Returns the finest plan for a width x height land that is expected to be generated in
+     * budgetNanos. Resolution comes first: the smallest step that fits a single octave is
+     * used, and as many of the maxOctaves octaves as still fit are added at that step. When
+     * even the coarsest step does not fit, one octave at the coarsest step is returned.
+     */
+    public Plan plan(int width, int height, long budgetNanos, int maxOctaves) {
+        return plan(width, height, budgetNanos, maxOctaves, 1);
+    }
+
+    /**
+     * Returns the finest plan like above, but with a step of at least minStep.
+     */
+    public Plan plan(int width, int height, long budgetNanos, int maxOctaves, int minStep) {
+        if (nanosPerSample <= 0) {
+            calibrate();
+        }
+
+        for (int step : SAMPLE_STEPS) {
+            if (step < minStep) { continue; }
+
+            double octaveNanos = samples(width, height, step) * nanosPerSample;
+            int octaves = (int) Math.min(maxOctaves, budgetNanos / octaveNanos);
+            if (octaves >= 1) {
+                return new Plan(step, octaves);
+            }
+        }
+        return new Plan(SAMPLE_STEPS[SAMPLE_STEPS.length - 1], 1);
+    }
+
+    /**
+     * Returns the coarsest sampling step whose bicubic interpolation of the fractal of the
+     * config is expected to be off by at most maxError anywhere. The estimate adds up the
+     * errors of the octaves, weighted by their share of the fractal, so it depends on the
+     * frequency, octaves, lacunarity, gain and fractal type.
+     */
+    public static int previewStep(NoiseConfig config, float maxError) {
+        int best = 1;
+        for (int step : SAMPLE_STEPS) {
+            if (estimateError(config, step) <= maxError) {
+                best = step;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Estimates the largest difference between the fractal of the config and its bicubic
+     * interpolation from samples every step pixels.
+     */
+    static double estimateError(NoiseConfig config, int step) {
+        if (step <= 1) { return 0; }
+
+        double amplitude = 1;
+        double amplitudeSum = 0;
+        double frequency = config.getFrequency();
+        double error = 0;
+        for (int octave = 0; octave < config.getOctaves(); octave++) {
+            double octaveError = Math.min(ERROR_SCALE * Math.pow(frequency * step, ERROR_EXPONENT), 1);
+            error += amplitude * octaveError;
+            amplitudeSum += amplitude;
+            amplitude *= config.getGain();
+            frequency *= config.getLacunarity();
+        }
+        switch (config.getFractalType()) {
+            case Billow:
+                // Billow doubles every octave and folds it at 0, where interpolation rounds the fold off
+                return 2 * error / amplitudeSum;
+            case RigidMulti:
+                // Ridges are folds too, and the octaves are not divided by their amplitudes
+                return 2 * error;
+            case FBM:
+            default:
+                return error / amplitudeSum;
+        }
+    }
+
+    /**
+     * Adds the next octave to the fractal, timing it to refine the throughput estimate.
+     *
+     * @return the result of {@link ProgressiveFractal#addOctave()}
+     */
+    public boolean addOctave(ProgressiveFractal fractal) {
+        long start = System.nanoTime();
+        boolean added = fractal.addOctave();
+        if (added) {
+            record((long) fractal.getWidth() * fractal.getHeight(), System.nanoTime() - start);
+        }
+        return added;
+    }
+
+    /**
+     * Folds a measurement of samples generated in the given time into the estimate.
+     */
+    public void record(long samples, long nanos) {
+        if (samples <= 0) { return; }
+
+        double measured = Math.max(nanos, 1) / (double) samples;
+        nanosPerSample = nanosPerSample <= 0 ? measured : nanosPerSample + SMOOTHING * (measured - nanosPerSample);
+    }
+
+    /**
+     * Returns the estimated number of noise samples generated per second, or 0 before the
+     * first measurement.
+     */
+    public double getSamplesPerSecond() {
+        return nanosPerSample <= 0 ? 0 : 1e9 / nanosPerSample;
+    }
+
+    private void calibrate() {
+        float[] out = new float[CALIBRATION_SIZE * CALIBRATION_SIZE];
+        FastNoise noise = new FastNoise();
+        noise.SetNoiseType(FastNoise.NoiseType.Perlin);
+        long nanos = 0;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            noise.FillNoise2D(out, 0, 0, 0, CALIBRATION_SIZE, CALIBRATION_SIZE, CALIBRATION_SIZE);
+            nanos = System.nanoTime() - start;
+        }
+        record(out.length, nanos);
+    }
+
+    private static long samples(int width, int height, int step) {
+        return (long) ((width + step - 1) / step) * ((height + step - 1) / step);
+    }
+}
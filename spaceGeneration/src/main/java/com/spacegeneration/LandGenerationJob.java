@@ -0,0 +1,380 @@
+package com.spacegeneration;
+
+import java.io.IOException;
+
+/**
+ * Generates the land of a planet away from the Event Dispatch Thread. The job builds the
+ * fractal land one octave at a time, like the land panel did on its timer: a first frame
+ * with the resolution and octaves the detail planner expects to fit the budget, then the
+ * missing resolution and octaves. After every octave the whole land is rasterized again
+ * into colour indices of the {@link BiomeClassifier} and handed to the listener in bands of
+ * {@value #BAND_ROWS} rows, as soon as each band is done, so the land can be repainted while
+ * it generates.
+ * <p>
+ * Once the land is complete the job keeps only a {@link QuantizedHeightmap} of it and lets
+ * go of the float fractal and climate, which take several times the memory.
+ * <p>
+ * With a {@link TerrainCache}, a land that was completed before is read from the cache and
+ * published band by band without generating any noise, and a newly completed land is stored
+ * in the cache as its final bands are published. The cache only saves time: when it fails,
+ * the land is generated as if there was none.
+ * <p>
+ * A job runs once, on whatever thread calls {@link #run}, and can be cancelled from any
+ * thread. A cancelled job stops at the next band, or within the noise tile being generated
+ * when it is filling an octave, and publishes nothing more.
+ * Jobs sharing a planner or tile cache must run one after another, not at the same time.
+ */
+public final class LandGenerationJob implements Runnable {
+
+    static final int BAND_ROWS = 64;
+    static final float CLIMATE_FREQUENCY = 0.004f;
+    static final int MOISTURE_SEED_OFFSET = 1000;
+    static final int TEMPERATURE_SEED_OFFSET = 2000;
+
+    /**
+     * Version of the code that turns the settings of a land into its heights and colours:
+     * FastNoise, ProgressiveFractal, the climate and the classification of BiomeClassifier.
+     * It is part of the fingerprint of cached lands, so lands cached by a build that generated
+     * them differently are not used. Bump it whenever a change to that code changes the lands
+     * it generates.
+     */
+    static final int GENERATOR_VERSION = 2;
+
+    /**
+     * Receives the land of a job band by band. Bands are published from the job's thread.
+     */
+    public interface Listener {
+
+        /**
+         * Called when the colour indices of rows firstRow to firstRow + rows - 1 are done, in
+         * row-major order. The array belongs to the listener.
+         */
+        void landBandFinished(LandGenerationJob job, int firstRow, int rows, byte[] colorIndices);
+    }
+
+    private final int seed;
+    private final int width;
+    private final int height;
+    private final int octaves;
+    private final int heightBits;
+    private final long budgetNanos;
+    private final BiomeClassifier classifier;
+    private final LandDetailPlanner planner;
+    private final NoiseTileCache tileCache;
+    private final TerrainCache terrainCache;
+    private final Listener listener;
+
+    private volatile boolean cancelled;
+    private volatile ProgressiveFractal land;
+    private volatile ProgressiveFractal refinedLand;
+    private float[] moisture;
+    private float[] temperature;
+    private volatile float minimum;
+    private volatile float range;
+    private volatile QuantizedHeightmap heightmap;
+    private TerrainCache.Writer cacheWriter;
+    private volatile boolean cached;
+    private float previewMaxError;
+    private boolean refine = true;
+
+    /**
+     * Creates a job for a width x height land of the given seed, kept with heightBits (8 or
+     * 16) bits per height once it is complete. The tile and terrain caches may be null.
+     */
+    public LandGenerationJob(int seed, int width, int height, int octaves, int heightBits, long budgetNanos,
+            BiomeClassifier classifier, LandDetailPlanner planner, NoiseTileCache tileCache,
+            TerrainCache terrainCache, Listener listener) {
+        if (heightBits != 8 && heightBits != 16) {
+            throw new IllegalArgumentException("Heights are stored with 8 or 16 bits, not " + heightBits);
+        }
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.octaves = octaves;
+        this.heightBits = heightBits;
+        this.budgetNanos = budgetNanos;
+        this.classifier = classifier;
+        this.planner = planner;
+        this.tileCache = tileCache;
+        this.terrainCache = terrainCache;
+        this.listener = listener;
+    }
+
+    /**
+     * Lets the first frame be sampled as coarsely as the bicubic interpolation of the land
+     * allows with at most this error in height, 0 by default. Must be set before the job runs.
+     */
+    public void setPreviewMaxError(float previewMaxError) {
+        this.previewMaxError = previewMaxError;
+    }
+
+    /**
+     * Whether a coarse first frame is refined to every pixel, true by default. Must be set
+     * before the job runs.
+     */
+    public void setRefine(boolean refine) {
+        this.refine = refine;
+    }
+
+    @Override
+    public void run() {
+        if (cancelled) { return; }
+        FastNoise noise = new FastNoise(seed);
+        noise.SetFractalOctaves(octaves);
+        NoiseConfig config = noise.GetConfig();
+        TerrainCache.Key key = new TerrainCache.Key(seed, width, height, heightBits, fingerprint(config, GENERATOR_VERSION));
+        if (terrainCache != null && publishCachedLand(key)) { return; }
+
+        try {
+            generate(config, key);
+        } finally {
+            if (cacheWriter != null) {
+                cacheWriter.abort();
+                cacheWriter = null;
+            }
+        }
+    }
+
+    private void generate(NoiseConfig config, TerrainCache.Key key) {
+        LandDetailPlanner.Plan plan = planner.plan(width, height, budgetNanos, octaves,
+                LandDetailPlanner.previewStep(config, previewMaxError));
+        int step = plan.getStep();
+        if (step > 1) {
+            // The coarse grid has a border of one sample around the land for the interpolation
+            land = new ProgressiveFractal(config, -1, -1, BicubicUpsampler.gridSize(width, step),
+                    BicubicUpsampler.gridSize(height, step), step, tileCache);
+        } else {
+            land = new ProgressiveFractal(config, width, height, 1, tileCache);
+        }
+        refinedLand = (step > 1 && refine)? new ProgressiveFractal(config, width, height, 1, tileCache) : null;
+        if (cancelled) { return; }
+        createClimate();
+
+        for (int octave = 0; octave < plan.getOctaves() && !cancelled; octave++) {
+            planner.addOctave(land);
+        }
+        if (cancelled) { return; }
+        publishLand(key);
+
+        while (!cancelled) {
+            if (refinedLand != null) {
+                // While a coarse land is shown the octaves go to the full resolution land,
+                // which replaces the coarse one once it has caught up
+                planner.addOctave(refinedLand);
+                if (refinedLand.getCompletedOctaves() < land.getCompletedOctaves()) { continue; }
+                land = refinedLand;
+                refinedLand = null;
+            } else if (!planner.addOctave(land)) {
+                break;
+            }
+            publishLand(key);
+        }
+        if (!cancelled && refinedLand == null && land.getStep() == 1 && land.isComplete()) {
+            keepHeightmap();
+            if (cacheWriter != null) {
+                try {
+                    cacheWriter.commit(heightmap);
+                    cached = true;
+                } catch (IOException e) {
+                    // The land is complete all the same, it is generated again next time
+                }
+                cacheWriter = null;
+            }
+        }
+    }
+
+    /**
+     * Publishes the land of the key from the terrain cache, if it is there.
+     *
+     * @return false if the land has to be generated
+     */
+    private boolean publishCachedLand(TerrainCache.Key key) {
+        TerrainCache.Land cachedLand;
+        try {
+            cachedLand = terrainCache.open(key);
+        } catch (IOException e) {
+            return false;
+        }
+        if (cachedLand == null) { return false; }
+
+        try {
+            minimum = cachedLand.getMinimum();
+            range = cachedLand.getRange();
+            for (int firstRow = 0; firstRow < height && !cancelled; firstRow += BAND_ROWS) {
+                byte[] colorIndices = new byte[Math.min(BAND_ROWS, height - firstRow) * width];
+                cachedLand.readColorIndices(firstRow, colorIndices);
+                listener.landBandFinished(this, firstRow, colorIndices.length / width, colorIndices);
+            }
+            if (!cancelled) {
+                QuantizedHeightmap heights = new QuantizedHeightmap(width, height, heightBits, minimum, range);
+                cachedLand.readHeights(heights);
+                heightmap = heights;
+                cached = true;
+            }
+        } finally {
+            cachedLand.close();
+        }
+        return true;
+    }
+
+    /**
+     * Hashes every setting the land depends on besides its seed, size and height bits, and
+     * the version of the generator.
+     */
+    long fingerprint(NoiseConfig config, int generatorVersion) {
+        long hash = generatorVersion;
+        hash = 31 * hash + classifier.getFingerprint();
+        hash = 31 * hash + config.hashCode();
+        hash = 31 * hash + Float.floatToIntBits(CLIMATE_FREQUENCY);
+        hash = 31 * hash + MOISTURE_SEED_OFFSET;
+        hash = 31 * hash + TEMPERATURE_SEED_OFFSET;
+        return hash;
+    }
+
+    /**
+     * Quantizes the complete land and drops the float fractal and climate.
+     */
+    private void keepHeightmap() {
+        QuantizedHeightmap heights = new QuantizedHeightmap(width, height, heightBits, minimum, range);
+        for (int i = 0; i < width * height; i++) {
+            heights.setHeight(i, land.getValue(i));
+        }
+        heightmap = heights;
+        land = null;
+        moisture = null;
+        temperature = null;
+    }
+
+    /**
+     * Stops the job. Safe to call from any thread, at any time.
+     */
+    public void cancel() {
+        cancelled = true;
+        ProgressiveFractal shown = land;
+        ProgressiveFractal refined = refinedLand;
+        if (shown != null) {
+            shown.cancel();
+        }
+        if (refined != null) {
+            refined.cancel();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns true once the land has all its octaves at full resolution.
+     */
+    public boolean isComplete() {
+        return heightmap != null;
+    }
+
+    /**
+     * Returns true once the complete land was read from or written to the terrain cache.
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Returns the heights of the complete land, or null while it is not complete.
+     */
+    public QuantizedHeightmap getHeightmap() {
+        return heightmap;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * The lowest height of the last published land, or 0 if it is higher.
+     */
+    public float getMinimum() {
+        return minimum;
+    }
+
+    /**
+     * The height range the layers of the last published land were scaled to.
+     */
+    public float getRange() {
+        return range;
+    }
+
+    /**
+     * Generates the moisture and temperature of every pixel, both channels in a single pass.
+     */
+    private void createClimate() {
+        FastNoise climateNoise = new FastNoise(seed);
+        climateNoise.SetFrequency(CLIMATE_FREQUENCY);
+        moisture = new float[width * height];
+        temperature = new float[width * height];
+        climateNoise.FillPerlinChannels2D(new float[][] {moisture, temperature},
+                new int[] {seed + MOISTURE_SEED_OFFSET, seed + TEMPERATURE_SEED_OFFSET},
+                0, 0, 0, width, height, width);
+    }
+
+    /**
+     * Rasterizes the land, interpolating coarse samples up to every pixel, and publishes it
+     * band by band. Layers are scaled to the range from the lowest height, or 0 if that is
+     * lower, to the highest height, or 0 if that is higher, like the land always was, where
+     * a coarse land only counts the samples on the land. Heights are clamped to that range, so
+     * neither the rounding of the range nor interpolation overshooting it leaves a pixel with
+     * no layer. The bands of the complete land also go to the terrain cache.
+     */
+    private void publishLand(TerrainCache.Key key) {
+        ProgressiveFractal shown = land;
+        if (terrainCache != null && shown.getStep() == 1 && shown.isComplete()) {
+            try {
+                cacheWriter = terrainCache.create(key);
+            } catch (IOException e) {
+                cacheWriter = null;
+            }
+        }
+        int step = shown.getStep();
+        int border = (step > 1)? 1 : 0;
+        float[] grid = (step > 1)? new float[shown.getWidth() * shown.getHeight()] : null;
+        float lowest = 0;
+        float highest = 0;
+        for (int j = 0; j < shown.getHeight(); j++) {
+            for (int i = 0; i < shown.getWidth(); i++) {
+                float value = shown.getValue(j * shown.getWidth() + i);
+                if (grid != null) {
+                    grid[j * shown.getWidth() + i] = value;
+                }
+                if (i < border || j < border || (i - border) * step >= width || (j - border) * step >= height) { continue; }
+                lowest = (value < lowest)? value : lowest;
+                highest = (value > highest)? value : highest;
+            }
+        }
+        float shownRange = highest - lowest;
+        minimum = lowest;
+        range = shownRange;
+
+        HeightColorTable colorTable = classifier.colorTable(lowest, shownRange);
+        BicubicUpsampler upsampler = (grid != null)? new BicubicUpsampler(width, step) : null;
+        float[] heights = (grid != null)? new float[BAND_ROWS * width] : null;
+        for (int firstRow = 0; firstRow < height && !cancelled; firstRow += BAND_ROWS) {
+            int rows = Math.min(BAND_ROWS, height - firstRow);
+            if (upsampler != null) {
+                upsampler.upsample(grid, firstRow, rows, heights, 0);
+            }
+            byte[] colorIndices = new byte[rows * width];
+            for (int i = 0; i < rows * width; i++) {
+                int index = firstRow * width + i;
+                float value = (heights != null)? heights[i] : shown.getValue(index);
+                colorIndices[i] = (byte) colorTable.classifyIndex(colorTable.clampHeight(value), moisture[index], temperature[index]);
+            }
+            if (cacheWriter != null) {
+                cacheWriter.writeColorIndices(firstRow, colorIndices);
+            }
+            listener.landBandFinished(this, firstRow, rows, colorIndices);
+        }
+    }
+}
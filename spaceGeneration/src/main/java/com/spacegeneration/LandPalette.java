@@ -0,0 +1,77 @@
+package com.spacegeneration;
+
+import java.awt.Color;
+
+/**
+ * The layers of one land type of landLayerData.json: the layer boundaries as fractions of
+ * the height range and the colour of every layer, decoded to ARGB once. Immutable.
+ */
+public final class LandPalette {
+
+    private final String name;
+    private final double[] layerValues;
+    private final int[] layerRgb;
+
+    /**
+     * Creates a palette from layer boundaries and their ARGB colours.
+     */
+    public LandPalette(String name, double[] layerValues, int[] layerRgb) {
+        if (layerValues.length != layerRgb.length) {
+            throw new IllegalArgumentException(name + " has " + layerValues.length + " layer values but "
+                    + layerRgb.length + " colours");
+        }
+        this.name = name;
+        this.layerValues = layerValues.clone();
+        this.layerRgb = layerRgb.clone();
+    }
+
+    /**
+     * Creates a palette from layer boundaries and their hex colours, like "#0f5e9c".
+     */
+    public LandPalette(String name, double[] layerValues, String[] layerColors) {
+        this(name, layerValues, decode(layerColors));
+    }
+
+    private static int[] decode(String[] colors) {
+        int[] rgb = new int[colors.length];
+        for (int layer = 0; layer < colors.length; layer++) {
+            rgb[layer] = Color.decode(colors[layer]).getRGB();
+        }
+        return rgb;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLayerCount() {
+        return layerValues.length;
+    }
+
+    public double getLayerValue(int layer) {
+        return layerValues[layer];
+    }
+
+    public int getLayerRgb(int layer) {
+        return layerRgb[layer];
+    }
+
+    /**
+     * Returns a copy of the layer boundaries.
+     */
+    public double[] getLayerValues() {
+        return layerValues.clone();
+    }
+
+    /**
+     * Returns a copy of the layer colours.
+     */
+    public int[] getLayerRgb() {
+        return layerRgb.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "LandPalette[" + name + ", " + layerValues.length + " layers]";
+    }
+}
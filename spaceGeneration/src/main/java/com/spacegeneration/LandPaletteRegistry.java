@@ -0,0 +1,177 @@
+package com.spacegeneration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * The land palettes of landLayerData.json, read in a single pass of Jackson's streaming
+ * parser. The palettes of the bundled file are loaded once, the first time they are asked
+ * for, so visiting a planet does no I/O or JSON work.
+ * <p>
+ * The file is an array of land types:
+ * <pre>
+ * [ { "landTypeName": "Regular",
+ *     "landTypeInformation": { "layerValues": [ 0.35, ... ], "landColors": [ "#0f5e9c", ... ] } },
+ *   ... ]
+ * </pre>
+ * Fields the registry does not know are skipped.
+ */
+public final class LandPaletteRegistry {
+
+    static final String RESOURCE = "/landLayerData.json";
+
+    private final List<LandPalette> palettes;
+
+    private LandPaletteRegistry(List<LandPalette> palettes) {
+        this.palettes = Collections.unmodifiableList(new ArrayList<LandPalette>(palettes));
+    }
+
+    /**
+     * Returns the palettes of the bundled landLayerData.json, loading them on first use.
+     *
+     * @throws UncheckedIOException if the bundled file is missing or malformed
+     */
+    public static LandPaletteRegistry getDefault() {
+        return DefaultHolder.REGISTRY;
+    }
+
+    /**
+     * Holds the default registry, so it is loaded on first use and only once.
+     */
+    private static final class DefaultHolder {
+        static final LandPaletteRegistry REGISTRY = load();
+
+        private static LandPaletteRegistry load() {
+            InputStream in = LandPaletteRegistry.class.getResourceAsStream(RESOURCE);
+            if (in == null) {
+                throw new UncheckedIOException(new IOException(RESOURCE + " not found"));
+            }
+            try {
+                try {
+                    return read(in);
+                } finally {
+                    in.close();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Reads the palettes of a land layer file. The stream is not closed.
+     */
+    public static LandPaletteRegistry read(InputStream in) throws IOException {
+        JsonParser parser = new JsonFactory().createParser(in);
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        try {
+            expect(parser, parser.nextToken(), JsonToken.START_ARRAY);
+            List<LandPalette> palettes = new ArrayList<LandPalette>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                palettes.add(readLandType(parser));
+            }
+            return new LandPaletteRegistry(palettes);
+        } finally {
+            parser.close();
+        }
+    }
+
+    private static LandPalette readLandType(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        String name = null;
+        double[] layerValues = null;
+        String[] landColors = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("landTypeName".equals(field)) {
+                name = parser.getValueAsString();
+            } else if ("landTypeInformation".equals(field)) {
+                expect(parser, value, JsonToken.START_OBJECT);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String information = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("layerValues".equals(information)) {
+                        layerValues = readDoubles(parser);
+                    } else if ("landColors".equals(information)) {
+                        landColors = readStrings(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+        if (name == null || layerValues == null || landColors == null) {
+            throw new JsonParseException(parser, "land type " + name + " needs a landTypeName, layerValues and landColors");
+        }
+        try {
+            return new LandPalette(name, layerValues, landColors);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, e.getMessage(), e);
+        }
+    }
+
+    private static double[] readDoubles(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        double[] values = new double[8];
+        int count = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null || !token.isNumeric()) {
+                throw new JsonParseException(parser, "expected a number but found " + token);
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, 2 * count);
+            }
+            values[count++] = parser.getDoubleValue();
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    private static String[] readStrings(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        List<String> values = new ArrayList<String>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            expect(parser, parser.currentToken(), JsonToken.VALUE_STRING);
+            values.add(parser.getText());
+        }
+        return values.toArray(new String[0]);
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws JsonParseException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "expected " + expected + " but found " + actual);
+        }
+    }
+
+    /**
+     * Returns the palettes in file order.
+     */
+    public List<LandPalette> getPalettes() {
+        return palettes;
+    }
+
+    /**
+     * Returns the palette of the named land type, or null when there is none.
+     */
+    public LandPalette get(String name) {
+        for (LandPalette palette : palettes) {
+            if (palette.getName().equals(name)) { return palette; }
+        }
+        return null;
+    }
+}
@@ -18,6 +18,7 @@ import javax.swing.JLayeredPane;
 public class MainFrame extends JFrame implements ComponentListener {
 
     private static final long serialVersionUID = 1L;
+    private static final long TERRAIN_CACHE_BYTES = 1024L * 1024 * 1024;
 
     private int frameHeight = 800;
     private int frameWidth = 800;
@@ -43,7 +44,8 @@ public class MainFrame extends JFrame implements ComponentListener {
         startScreenPanel = new StartScreenPanel(frameWidth, frameHeight, this);
         universePanel = new UniversePanel(frameWidth, frameHeight, this);
         orbitSimulationPanel = new OrbitSimulationPanel(frameWidth, frameHeight, this);
-        landSimulationPanel = new PlanetLandSimulationPanel(frameWidth, frameHeight, this);
+        landSimulationPanel = new PlanetLandSimulationPanel(frameWidth, frameHeight, this,
+                TerrainCache.openDefault(TERRAIN_CACHE_BYTES));
 
         layeredPane.add(startScreenPanel, JLayeredPane.DEFAULT_LAYER);
         layeredPane.add(universePanel, JLayeredPane.POPUP_LAYER);
@@ -83,10 +85,12 @@ public class MainFrame extends JFrame implements ComponentListener {
     /**
      * Start the Space universe simulation.
      * @param universeSeed
+     * @param version how the universe is generated from its seed
+     * @param placement how the planets of every region are placed
      */
-    public void startUniverseSimulation(int universeSeed) {
+    public void startUniverseSimulation(int universeSeed, GenerationVersion version, PlanetPlacement placement) {
         changeVisiblePanel(PanelTypes.spaceEnvironment);
-        universePanel.startUniverseSimulation(universeSeed);
+        universePanel.startUniverseSimulation(universeSeed, version, placement);
     }
 
     /**
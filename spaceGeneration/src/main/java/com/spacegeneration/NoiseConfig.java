@@ -0,0 +1,148 @@
+package com.spacegeneration;
+
+/**
+ * Immutable snapshot of the settings of a {@link FastNoise} generator. A snapshot can be
+ * shared freely between threads, and every thread can build its own FastNoise from it that
+ * will produce exactly the same values as the generator it was taken from.
+ * <p>
+ * Snapshots are created with {@link FastNoise#GetConfig()}.
+ */
+public final class NoiseConfig {
+
+    private final int seed;
+    private final float frequency;
+    private final FastNoise.Interp interp;
+    private final FastNoise.NoiseType noiseType;
+    private final int octaves;
+    private final float lacunarity;
+    private final float gain;
+    private final FastNoise.FractalType fractalType;
+    private final FastNoise.CellularDistanceFunction cellularDistanceFunction;
+    private final FastNoise.CellularReturnType cellularReturnType;
+    private final NoiseConfig cellularNoiseLookup;
+    private final FastNoise.HashType hashType;
+    private final int permutationSeed;
+
+    NoiseConfig(int seed, float frequency, FastNoise.Interp interp, FastNoise.NoiseType noiseType,
+            int octaves, float lacunarity, float gain, FastNoise.FractalType fractalType,
+            FastNoise.CellularDistanceFunction cellularDistanceFunction,
+            FastNoise.CellularReturnType cellularReturnType, NoiseConfig cellularNoiseLookup,
+            FastNoise.HashType hashType, int permutationSeed) {
+        this.seed = seed;
+        this.frequency = frequency;
+        this.interp = interp;
+        this.noiseType = noiseType;
+        this.octaves = octaves;
+        this.lacunarity = lacunarity;
+        this.gain = gain;
+        this.fractalType = fractalType;
+        this.cellularDistanceFunction = cellularDistanceFunction;
+        this.cellularReturnType = cellularReturnType;
+        this.cellularNoiseLookup = cellularNoiseLookup;
+        this.hashType = hashType;
+        this.permutationSeed = permutationSeed;
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    public float getFrequency() {
+        return frequency;
+    }
+
+    public FastNoise.Interp getInterp() {
+        return interp;
+    }
+
+    public FastNoise.NoiseType getNoiseType() {
+        return noiseType;
+    }
+
+    public int getOctaves() {
+        return octaves;
+    }
+
+    public float getLacunarity() {
+        return lacunarity;
+    }
+
+    public float getGain() {
+        return gain;
+    }
+
+    public FastNoise.FractalType getFractalType() {
+        return fractalType;
+    }
+
+    public FastNoise.CellularDistanceFunction getCellularDistanceFunction() {
+        return cellularDistanceFunction;
+    }
+
+    public FastNoise.CellularReturnType getCellularReturnType() {
+        return cellularReturnType;
+    }
+
+    /**
+     * Returns the settings of the generator used for the NoiseLookup cellular return type,
+     * or null when none was set.
+     */
+    public NoiseConfig getCellularNoiseLookup() {
+        return cellularNoiseLookup;
+    }
+
+    public FastNoise.HashType getHashType() {
+        return hashType;
+    }
+
+    /**
+     * Returns the seed the permutation table is built from, the seed itself unless the
+     * snapshot is of a single fractal octave, see FastNoise.SetOctaveSeed.
+     */
+    public int getPermutationSeed() {
+        return permutationSeed;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) { return true; }
+        if (!(other instanceof NoiseConfig)) { return false; }
+
+        NoiseConfig config = (NoiseConfig) other;
+        return seed == config.seed
+                && Float.compare(frequency, config.frequency) == 0
+                && interp == config.interp
+                && noiseType == config.noiseType
+                && octaves == config.octaves
+                && Float.compare(lacunarity, config.lacunarity) == 0
+                && Float.compare(gain, config.gain) == 0
+                && fractalType == config.fractalType
+                && cellularDistanceFunction == config.cellularDistanceFunction
+                && cellularReturnType == config.cellularReturnType
+                && (cellularNoiseLookup == null ? config.cellularNoiseLookup == null
+                        : cellularNoiseLookup.equals(config.cellularNoiseLookup))
+                && hashType == config.hashType
+                && permutationSeed == config.permutationSeed;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = seed;
+        hash = 31 * hash + Float.floatToIntBits(frequency);
+        hash = 31 * hash + interp.ordinal();
+        hash = 31 * hash + noiseType.ordinal();
+        hash = 31 * hash + octaves;
+        hash = 31 * hash + Float.floatToIntBits(lacunarity);
+        hash = 31 * hash + Float.floatToIntBits(gain);
+        hash = 31 * hash + fractalType.ordinal();
+        hash = 31 * hash + cellularDistanceFunction.ordinal();
+        hash = 31 * hash + cellularReturnType.ordinal();
+        hash = 31 * hash + (cellularNoiseLookup == null ? 0 : cellularNoiseLookup.hashCode());
+        hash = 31 * hash + hashType.ordinal();
+        // Only octaves mix it in, so the hash of a whole generator's settings stays what it was
+        if (permutationSeed != seed) {
+            hash = 31 * hash + permutationSeed;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,463 @@
+package com.spacegeneration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A small graph of noise operations built on FastNoise, like "ridged mountains warped by two
+ * simplex fields, added to a continent wherever the continent is above sea level". Graphs are
+ * built from immutable {@link Node}s with the static factory methods and compiled into a
+ * NoiseGraph, which fills rectangles of samples.
+ * <p>
+ * Compiling flattens the graph into a list of instructions over tile sized registers. A fill
+ * walks the rectangle tile by tile and runs every instruction as one tight loop over the
+ * tile, so no full size intermediate buffers are created and every loop does a single kind of
+ * work. Sources sampled on the integer grid are filled with the bulk FastNoise kernels, only
+ * sources below a warp are evaluated point by point at their displaced coordinates.
+ * <p>
+ * The result of a fill is bit-identical to {@link #evaluate(float, float)} at the integer
+ * coordinates. A compiled graph is immutable and may be filled from several threads at once.
+ */
+public final class NoiseGraph {
+
+    static final int TILE_WIDTH = 256;
+    static final int TILE_HEIGHT = 16;
+    private static final int TILE_SAMPLES = TILE_WIDTH * TILE_HEIGHT;
+
+    enum Kind { SOURCE, CONSTANT, SCALE, ADD, MULTIPLY, CLAMP, WARP, SELECT }
+
+    /**
+     * One operation of a noise graph. Nodes are immutable and may be shared by several
+     * parents, and between graphs.
+     */
+    public static final class Node {
+        final Kind kind;
+        final Node first;
+        final Node second;
+        final Node third;
+        final FastNoise noise;
+        final float a;
+        final float b;
+
+        private Node(Kind kind, Node first, Node second, Node third, FastNoise noise, float a, float b) {
+            this.kind = kind;
+            this.first = first;
+            this.second = second;
+            this.third = third;
+            this.noise = noise;
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    /**
+     * Noise of the configured noise type, see FastNoise.GetNoise.
+     */
+    public static Node source(NoiseConfig config) {
+        return new Node(Kind.SOURCE, null, null, null, new FastNoise(config), 0, 0);
+    }
+
+    public static Node constant(float value) {
+        return new Node(Kind.CONSTANT, null, null, null, null, value, 0);
+    }
+
+    /**
+     * The input multiplied by a constant factor.
+     */
+    public static Node scale(Node input, float factor) {
+        return new Node(Kind.SCALE, input, null, null, null, factor, 0);
+    }
+
+    public static Node add(Node left, Node right) {
+        return new Node(Kind.ADD, left, right, null, null, 0, 0);
+    }
+
+    public static Node multiply(Node left, Node right) {
+        return new Node(Kind.MULTIPLY, left, right, null, null, 0, 0);
+    }
+
+    public static Node clamp(Node input, float min, float max) {
+        return new Node(Kind.CLAMP, input, null, null, null, min, max);
+    }
+
+    /**
+     * The input sampled at (x + amplitude * warpX, y + amplitude * warpY), where the warp
+     * fields are sampled at (x, y).
+     */
+    public static Node warp(Node input, Node warpX, Node warpY, float amplitude) {
+        return new Node(Kind.WARP, input, warpX, warpY, null, amplitude, 0);
+    }
+
+    /**
+     * Low where the control is below threshold - falloff, high where it is above
+     * threshold + falloff, and a linear blend of the two in between. With a falloff of 0
+     * the result is low below the threshold and high from the threshold on.
+     */
+    public static Node select(Node control, Node low, Node high, float threshold, float falloff) {
+        return new Node(Kind.SELECT, control, low, high, null, threshold, Math.max(falloff, 0));
+    }
+
+    /**
+     * Compiles the graph that computes the given node.
+     */
+    public static NoiseGraph compile(Node output) {
+        return new Compiler().compile(output);
+    }
+
+    /**
+     * Evaluates a graph at a single point by walking it, which is slow but simple. It is
+     * the reference for the compiled fills.
+     */
+    public static float evaluate(Node node, float x, float y) {
+        switch (node.kind) {
+            case SOURCE:
+                return node.noise.GetNoise(x, y);
+            case CONSTANT:
+                return node.a;
+            case SCALE:
+                return evaluate(node.first, x, y) * node.a;
+            case ADD:
+                return evaluate(node.first, x, y) + evaluate(node.second, x, y);
+            case MULTIPLY:
+                return evaluate(node.first, x, y) * evaluate(node.second, x, y);
+            case CLAMP:
+                return Math.min(Math.max(evaluate(node.first, x, y), node.a), node.b);
+            case WARP:
+                float warpedX = x + node.a * evaluate(node.second, x, y);
+                float warpedY = y + node.a * evaluate(node.third, x, y);
+                return evaluate(node.first, warpedX, warpedY);
+            case SELECT:
+            default:
+                return select(evaluate(node.first, x, y), evaluate(node.second, x, y),
+                        evaluate(node.third, x, y), node.a, node.b);
+        }
+    }
+
+    private static float select(float control, float low, float high, float threshold, float falloff) {
+        if (falloff > 0) {
+            float lower = threshold - falloff;
+            if (control <= lower) { return low; }
+            if (control >= threshold + falloff) { return high; }
+            float t = (control - lower) / (2 * falloff);
+            return low + t * (high - low);
+        }
+        return (control < threshold)? low : high;
+    }
+
+    private enum Op { GRID_SOURCE, POINT_SOURCE, CONSTANT, SCALE, ADD, MULTIPLY, CLAMP, SELECT, GRID_COORDS, WARP_COORD }
+
+    /**
+     * One loop over a tile: reads the registers in sources and writes register target.
+     */
+    private static final class Instruction {
+        final Op op;
+        final int target;
+        final int[] sources;
+        final FastNoise noise;
+        final float a;
+        final float b;
+
+        Instruction(Op op, int target, int[] sources, FastNoise noise, float a, float b) {
+            this.op = op;
+            this.target = target;
+            this.sources = sources;
+            this.noise = noise;
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    private final Node output;
+    private final Instruction[] program;
+    private final int registers;
+    private final int result;
+
+    private NoiseGraph(Node output, Instruction[] program, int registers, int result) {
+        this.output = output;
+        this.program = program;
+        this.registers = registers;
+        this.result = result;
+    }
+
+    /**
+     * Returns the number of tile sized buffers a fill of this graph uses.
+     */
+    public int getRegisterCount() {
+        return registers;
+    }
+
+    public float evaluate(float x, float y) {
+        return evaluate(output, x, y);
+    }
+
+    /**
+     * Fills out[offset + row * stride + col] with the graph's value at (x0 + col, y0 + row).
+     */
+    public void fill(float[] out, int offset, int x0, int y0, int w, int h, int stride) {
+        if (w <= 0 || h <= 0) { return; }
+
+        float[][] tiles = new float[registers][TILE_SAMPLES];
+        for (int tileY = 0; tileY < h; tileY += TILE_HEIGHT) {
+            int tileH = Math.min(TILE_HEIGHT, h - tileY);
+            for (int tileX = 0; tileX < w; tileX += TILE_WIDTH) {
+                int tileW = Math.min(TILE_WIDTH, w - tileX);
+                run(tiles, x0 + tileX, y0 + tileY, tileW, tileH);
+
+                float[] values = tiles[result];
+                for (int row = 0; row < tileH; row++) {
+                    System.arraycopy(values, row * TILE_WIDTH, out, offset + (tileY + row) * stride + tileX, tileW);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the program on one tile. Samples are stored with a row stride of TILE_WIDTH.
+     */
+    private void run(float[][] tiles, int x0, int y0, int w, int h) {
+        int samples = (h - 1) * TILE_WIDTH + w;
+        for (Instruction instruction : program) {
+            float[] target = tiles[instruction.target];
+            int[] sources = instruction.sources;
+            switch (instruction.op) {
+                case GRID_SOURCE:
+                    instruction.noise.FillNoise2D(target, 0, x0, y0, w, h, TILE_WIDTH);
+                    break;
+                case POINT_SOURCE: {
+                    float[] xs = tiles[sources[0]];
+                    float[] ys = tiles[sources[1]];
+                    FastNoise noise = instruction.noise;
+                    for (int i = 0; i < samples; i++) {
+                        target[i] = noise.GetNoise(xs[i], ys[i]);
+                    }
+                    break;
+                }
+                case CONSTANT:
+                    Arrays.fill(target, 0, samples, instruction.a);
+                    break;
+                case SCALE: {
+                    float[] input = tiles[sources[0]];
+                    float factor = instruction.a;
+                    for (int i = 0; i < samples; i++) {
+                        target[i] = input[i] * factor;
+                    }
+                    break;
+                }
+                case ADD: {
+                    float[] left = tiles[sources[0]];
+                    float[] right = tiles[sources[1]];
+                    for (int i = 0; i < samples; i++) {
+                        target[i] = left[i] + right[i];
+                    }
+                    break;
+                }
+                case MULTIPLY: {
+                    float[] left = tiles[sources[0]];
+                    float[] right = tiles[sources[1]];
+                    for (int i = 0; i < samples; i++) {
+                        target[i] = left[i] * right[i];
+                    }
+                    break;
+                }
+                case CLAMP: {
+                    float[] input = tiles[sources[0]];
+                    float min = instruction.a;
+                    float max = instruction.b;
+                    for (int i = 0; i < samples; i++) {
+                        target[i] = Math.min(Math.max(input[i], min), max);
+                    }
+                    break;
+                }
+                case SELECT: {
+                    float[] control = tiles[sources[0]];
+                    float[] low = tiles[sources[1]];
+                    float[] high = tiles[sources[2]];
+                    for (int i = 0; i < samples; i++) {
+                        target[i] = select(control[i], low[i], high[i], instruction.a, instruction.b);
+                    }
+                    break;
+                }
+                case GRID_COORDS:
+                    // a is the axis, 0 for x and 1 for y
+                    for (int row = 0; row < h; row++) {
+                        for (int col = 0; col < w; col++) {
+                            target[row * TILE_WIDTH + col] = (instruction.a == 0)? x0 + col : y0 + row;
+                        }
+                    }
+                    break;
+                case WARP_COORD:
+                default: {
+                    float[] base = tiles[sources[0]];
+                    float[] offset = tiles[sources[1]];
+                    float amplitude = instruction.a;
+                    for (int i = 0; i < samples; i++) {
+                        target[i] = base[i] + amplitude * offset[i];
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Flattens a graph into instructions. Every node is compiled once per coordinate space it
+     * is sampled in, the integer grid or the displaced coordinates below a chain of warps, so
+     * shared nodes are computed once per tile. Each value first gets its own register, then
+     * registers are reused once their last reader has run, so the register count follows the
+     * width of the graph rather than its size.
+     */
+    private static final class Compiler {
+        private final List<Step> steps = new ArrayList<Step>();
+        private final Map<Node, Map<Space, Integer>> values = new IdentityHashMap<Node, Map<Space, Integer>>();
+        private final Space grid = new Space(null, null);
+
+        NoiseGraph compile(Node output) {
+            int result = emit(output, grid);
+
+            int[] lastRead = new int[steps.size()];
+            for (int value = 0; value < steps.size(); value++) {
+                for (int source : steps.get(value).sources) {
+                    lastRead[source] = value;
+                }
+            }
+            lastRead[result] = steps.size();
+
+            int[] register = new int[steps.size()];
+            Deque<Integer> free = new ArrayDeque<Integer>();
+            int registers = 0;
+            Instruction[] program = new Instruction[steps.size()];
+            for (int value = 0; value < steps.size(); value++) {
+                Step step = steps.get(value);
+                int[] sources = new int[step.sources.length];
+                for (int i = 0; i < sources.length; i++) {
+                    sources[i] = register[step.sources[i]];
+                    // Every loop reads index i before writing it, so the target may reuse a source
+                    if (lastRead[step.sources[i]] == value && !free.contains(sources[i])) {
+                        free.push(sources[i]);
+                    }
+                }
+                register[value] = free.isEmpty() ? registers++ : free.pop();
+                program[value] = new Instruction(step.op, register[value], sources, step.noise, step.a, step.b);
+            }
+            return new NoiseGraph(output, program, registers, register[result]);
+        }
+
+        /**
+         * Returns the value of a node in the given space, adding the steps that compute it on
+         * first use.
+         */
+        private int emit(Node node, Space space) {
+            Map<Space, Integer> bySpace = values.get(node);
+            if (bySpace == null) {
+                bySpace = new IdentityHashMap<Space, Integer>();
+                values.put(node, bySpace);
+            }
+            Integer existing = bySpace.get(space);
+            if (existing != null) { return existing; }
+
+            int value;
+            switch (node.kind) {
+                case SOURCE:
+                    if (space == grid) {
+                        value = step(Op.GRID_SOURCE, node.noise, 0, 0);
+                    } else {
+                        value = step(Op.POINT_SOURCE, node.noise, 0, 0, coordinate(space, 0), coordinate(space, 1));
+                    }
+                    break;
+                case CONSTANT:
+                    value = step(Op.CONSTANT, null, node.a, 0);
+                    break;
+                case SCALE:
+                    value = step(Op.SCALE, null, node.a, 0, emit(node.first, space));
+                    break;
+                case ADD:
+                    value = step(Op.ADD, null, 0, 0, emit(node.first, space), emit(node.second, space));
+                    break;
+                case MULTIPLY:
+                    value = step(Op.MULTIPLY, null, 0, 0, emit(node.first, space), emit(node.second, space));
+                    break;
+                case CLAMP:
+                    value = step(Op.CLAMP, null, node.a, node.b, emit(node.first, space));
+                    break;
+                case WARP:
+                    value = emit(node.first, space.warped(node));
+                    break;
+                case SELECT:
+                default:
+                    value = step(Op.SELECT, null, node.a, node.b,
+                            emit(node.first, space), emit(node.second, space), emit(node.third, space));
+                    break;
+            }
+            bySpace.put(space, value);
+            return value;
+        }
+
+        /**
+         * Returns the x (axis 0) or y (axis 1) coordinates of a space. Coordinates of a warped
+         * space are those of its parent space displaced by the warp field of that axis.
+         */
+        private int coordinate(Space space, int axis) {
+            if (space.coordinates[axis] < 0) {
+                if (space.parent == null) {
+                    space.coordinates[axis] = step(Op.GRID_COORDS, null, axis, 0);
+                } else {
+                    Node field = (axis == 0)? space.warp.second : space.warp.third;
+                    int base = coordinate(space.parent, axis);
+                    space.coordinates[axis] = step(Op.WARP_COORD, null, space.warp.a, 0, base, emit(field, space.parent));
+                }
+            }
+            return space.coordinates[axis];
+        }
+
+        private int step(Op op, FastNoise noise, float a, float b, int... sources) {
+            steps.add(new Step(op, sources, noise, a, b));
+            return steps.size() - 1;
+        }
+    }
+
+    private static final class Step {
+        final Op op;
+        final int[] sources;
+        final FastNoise noise;
+        final float a;
+        final float b;
+
+        Step(Op op, int[] sources, FastNoise noise, float a, float b) {
+            this.op = op;
+            this.sources = sources;
+            this.noise = noise;
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    /**
+     * The coordinates a node is sampled at: the integer grid, or the coordinates of a parent
+     * space displaced by a warp node.
+     */
+    private static final class Space {
+        final Space parent;
+        final Node warp;
+        final int[] coordinates = {-1, -1};
+        private final Map<Node, Space> children = new IdentityHashMap<Node, Space>();
+
+        Space(Space parent, Node warp) {
+            this.parent = parent;
+            this.warp = warp;
+        }
+
+        Space warped(Node warpNode) {
+            Space child = children.get(warpNode);
+            if (child == null) {
+                child = new Space(this, warpNode);
+                children.put(warpNode, child);
+            }
+            return child;
+        }
+    }
+}
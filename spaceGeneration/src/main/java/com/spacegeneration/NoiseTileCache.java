@@ -0,0 +1,260 @@
+package com.spacegeneration;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Least recently used cache of generated noise tiles. Noise is split into square tiles of
+ * {@value #TILE_SIZE} x {@value #TILE_SIZE} samples on a grid anchored at (0, 0), and every
+ * tile is kept under the noise settings it was generated with (which include the seed), its
+ * tile coordinates and its level of detail. The cache is bounded by the bytes of tile data it
+ * holds and evicts the least recently used tiles once that bound is passed.
+ * <p>
+ * Filling a rectangle through the cache only generates the tiles that are missing, so
+ * revisiting a planet or growing the land by a few pixels reuses the tiles generated before.
+ * Missing tiles are generated in parallel on the common fork/join pool. The cache may be
+ * shared between threads: its bookkeeping is synchronized, tiles are generated outside the
+ * lock.
+ */
+public final class NoiseTileCache {
+
+    static final int TILE_SIZE = 128;
+    static final long TILE_BYTES = 4L * TILE_SIZE * TILE_SIZE;
+
+    private final long maxBytes;
+    private final LinkedHashMap<TileKey, float[]> tiles = new LinkedHashMap<TileKey, float[]>(16, 0.75f, true);
+    private long sizeInBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache that holds at most maxBytes of tile data, which is rounded down to
+     * whole tiles but always allows at least one.
+     */
+    public NoiseTileCache(long maxBytes) {
+        this.maxBytes = Math.max(maxBytes, TILE_BYTES);
+    }
+
+    /**
+     * Fills out[offset + row * stride + col] with the noise of the configured noise type at
+     * (x0 + col, y0 + row), exactly like FastNoise.FillNoise2D, using cached tiles where
+     * possible. The level of detail only separates tiles in the cache: samples are always
+     * taken at integer coordinates, so coarser levels need their frequency in the config.
+     */
+    public void fill(NoiseConfig config, int lod, float[] out, int offset, int x0, int y0, int w, int h, int stride) {
+        fill(config, lod, out, offset, x0, y0, w, h, stride, ParallelNoiseFill.NEVER_CANCELLED);
+    }
+
+    /**
+     * Fills like above, but every missing tile asks the given check before it is generated
+     * and is skipped once it returns true. Tiles generated before that are still cached.
+     *
+     * @return false if the fill was cancelled before every tile was there, in which case
+     *         nothing was written to the output
+     */
+    public boolean fill(NoiseConfig config, int lod, float[] out, int offset, int x0, int y0, int w, int h, int stride,
+            BooleanSupplier cancelled) {
+        if (w <= 0 || h <= 0) { return true; }
+
+        int firstTileX = Math.floorDiv(x0, TILE_SIZE);
+        int firstTileY = Math.floorDiv(y0, TILE_SIZE);
+        int lastTileX = Math.floorDiv(x0 + w - 1, TILE_SIZE);
+        int lastTileY = Math.floorDiv(y0 + h - 1, TILE_SIZE);
+        int tilesAcross = lastTileX - firstTileX + 1;
+
+        float[][] found = new float[tilesAcross * (lastTileY - firstTileY + 1)][];
+        final List<TileTask> missing = new ArrayList<TileTask>();
+        for (int tileY = firstTileY; tileY <= lastTileY; tileY++) {
+            for (int tileX = firstTileX; tileX <= lastTileX; tileX++) {
+                int index = (tileY - firstTileY) * tilesAcross + tileX - firstTileX;
+                TileKey key = new TileKey(config, tileX, tileY, lod);
+                found[index] = lookup(key);
+                if (found[index] == null) {
+                    missing.add(new TileTask(key, found, index, cancelled));
+                }
+            }
+        }
+        if (missing.size() == 1) {
+            missing.get(0).compute();
+        } else if (!missing.isEmpty()) {
+            ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    invokeAll(missing);
+                }
+            });
+        }
+        for (float[] tile : found) {
+            if (tile == null) { return false; }
+        }
+
+        for (int tileY = firstTileY; tileY <= lastTileY; tileY++) {
+            for (int tileX = firstTileX; tileX <= lastTileX; tileX++) {
+                float[] tile = found[(tileY - firstTileY) * tilesAcross + tileX - firstTileX];
+
+                int tileLeft = tileX * TILE_SIZE;
+                int tileTop = tileY * TILE_SIZE;
+                int fromX = Math.max(x0, tileLeft);
+                int toX = Math.min(x0 + w, tileLeft + TILE_SIZE);
+                int fromY = Math.max(y0, tileTop);
+                int toY = Math.min(y0 + h, tileTop + TILE_SIZE);
+                for (int y = fromY; y < toY; y++) {
+                    System.arraycopy(tile, (y - tileTop) * TILE_SIZE + fromX - tileLeft,
+                            out, offset + (y - y0) * stride + fromX - x0, toX - fromX);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the samples of a tile in row-major order, generating and caching them when the
+     * tile is not cached. The returned array must not be modified.
+     */
+    public float[] getTile(NoiseConfig config, int tileX, int tileY, int lod) {
+        TileKey key = new TileKey(config, tileX, tileY, lod);
+        float[] tile = lookup(key);
+        return tile != null ? tile : generate(key);
+    }
+
+    /**
+     * Returns the cached tile and counts a hit, or counts a miss and returns null.
+     */
+    private synchronized float[] lookup(TileKey key) {
+        float[] tile = tiles.get(key);
+        if (tile != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return tile;
+    }
+
+    private float[] generate(TileKey key) {
+        float[] tile = new float[TILE_SIZE * TILE_SIZE];
+        new FastNoise(key.config).FillNoise2D(tile, 0, key.tileX * TILE_SIZE, key.tileY * TILE_SIZE,
+                TILE_SIZE, TILE_SIZE, TILE_SIZE);
+        put(key, tile);
+        return tile;
+    }
+
+    private synchronized void put(TileKey key, float[] tile) {
+        if (tiles.put(key, tile) == null) {
+            sizeInBytes += TILE_BYTES;
+        }
+
+        Iterator<Map.Entry<TileKey, float[]>> eldest = tiles.entrySet().iterator();
+        while (sizeInBytes > maxBytes && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            sizeInBytes -= TILE_BYTES;
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        tiles.clear();
+        sizeInBytes = 0;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public synchronized int getTileCount() {
+        return tiles.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("NoiseTileCache[%d tiles, %d/%d bytes, %d hits, %d misses, %d evictions]",
+                tiles.size(), sizeInBytes, maxBytes, hits, misses, evictions);
+    }
+
+    /**
+     * Generates one missing tile into its slot of the tiles of a fill, unless the fill was
+     * cancelled.
+     */
+    private final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final TileKey key;
+        private final float[][] found;
+        private final int index;
+        private final BooleanSupplier cancelled;
+
+        TileTask(TileKey key, float[][] found, int index, BooleanSupplier cancelled) {
+            this.key = key;
+            this.found = found;
+            this.index = index;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled.getAsBoolean()) { return; }
+
+            found[index] = generate(key);
+        }
+    }
+
+    /**
+     * Identifies a tile: the noise settings, including the seed, the tile coordinates and
+     * the level of detail.
+     */
+    private static final class TileKey {
+        private final NoiseConfig config;
+        private final int tileX;
+        private final int tileY;
+        private final int lod;
+        private final int hash;
+
+        TileKey(NoiseConfig config, int tileX, int tileY, int lod) {
+            this.config = config;
+            this.tileX = tileX;
+            this.tileY = tileY;
+            this.lod = lod;
+            this.hash = 31 * (31 * (31 * config.hashCode() + tileX) + tileY) + lod;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) { return true; }
+            if (!(other instanceof TileKey)) { return false; }
+
+            TileKey key = (TileKey) other;
+            return hash == key.hash && tileX == key.tileX && tileY == key.tileY && lod == key.lod
+                    && config.equals(key.config);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.spacegeneration;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A float heightmap kept outside the Java heap, for surfaces far larger than the window such
+ * as 32k x 32k map exports. Heights are stored in direct buffers, split into square tiles of
+ * {@value #TILE_SIZE} x {@value #TILE_SIZE} samples that are each stored row by row, so a tile
+ * is one contiguous block that can be written or read in a single pass. Tiles are grouped into
+ * slabs of at most {@value #SLAB_TILES} tiles, one direct buffer each, since a single buffer
+ * cannot hold more than 2 GB.
+ * <p>
+ * The heap only holds the slab objects, a few kilobytes whatever the size of the map. Native
+ * memory is bounded by -XX:MaxDirectMemorySize, which defaults to the maximum heap size, so
+ * maps larger than that need the flag but never a larger -Xmx. The memory is freed by
+ * {@link #release()}, or by the garbage collector if the map is dropped without it.
+ * <p>
+ * Different threads may write different tiles at the same time. Releasing the map while
+ * another thread reads or writes it is not allowed.
+ */
+public final class OffHeapHeightmap implements AutoCloseable {
+
+    static final int TILE_SIZE = 256;
+    static final int SLAB_TILES = 256;
+    static final int TILE_BYTES = 4 * TILE_SIZE * TILE_SIZE;
+
+    private final int width;
+    private final int height;
+    private final int tilesX;
+    private final int tilesY;
+    private volatile ByteBuffer[] slabs;
+
+    /**
+     * Allocates a width x height map with every height at 0.
+     *
+     * @throws OutOfMemoryError if there is not enough direct memory for the map
+     */
+    public OffHeapHeightmap(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("A heightmap needs a positive size, not " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        this.tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+        long tiles = (long) tilesX * tilesY;
+        ByteBuffer[] buffers = new ByteBuffer[(int) ((tiles + SLAB_TILES - 1) / SLAB_TILES)];
+        try {
+            for (int i = 0; i < buffers.length; i++) {
+                long slabTiles = Math.min(SLAB_TILES, tiles - (long) i * SLAB_TILES);
+                buffers[i] = ByteBuffer.allocateDirect((int) slabTiles * TILE_BYTES).order(ByteOrder.nativeOrder());
+            }
+        } catch (OutOfMemoryError e) {
+            for (ByteBuffer buffer : buffers) {
+                DirectBuffers.free(buffer);
+            }
+            throw e;
+        }
+        this.slabs = buffers;
+    }
+
+    /**
+     * Generates the fractal Perlin land of the config into a new width x height map, one tile
+     * at a time, the same land a {@link ProgressiveFractal} of that size completes to. Only a
+     * tile's worth of samples is ever on the heap, so the heap used does not grow with the map.
+     */
+    public static OffHeapHeightmap generate(NoiseConfig config, int width, int height) {
+        OffHeapHeightmap map = new OffHeapHeightmap(width, height);
+        try {
+            for (int tileY = 0; tileY < map.tilesY; tileY++) {
+                for (int tileX = 0; tileX < map.tilesX; tileX++) {
+                    int tileWidth = Math.min(TILE_SIZE, width - tileX * TILE_SIZE);
+                    int tileHeight = Math.min(TILE_SIZE, height - tileY * TILE_SIZE);
+                    ProgressiveFractal tile = new ProgressiveFractal(config, tileX * TILE_SIZE, tileY * TILE_SIZE,
+                            tileWidth, tileHeight, 1, null);
+                    while (tile.addOctave()) {
+                        continue;
+                    }
+                    map.writeTile(tileX, tileY, tile);
+                }
+            }
+        } catch (RuntimeException e) {
+            map.release();
+            throw e;
+        }
+        return map;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTilesX() {
+        return tilesX;
+    }
+
+    public int getTilesY() {
+        return tilesY;
+    }
+
+    /**
+     * The native memory the map holds, including the unused part of the edge tiles.
+     */
+    public long getSizeInBytes() {
+        return (long) tilesX * tilesY * TILE_BYTES;
+    }
+
+    public boolean isReleased() {
+        return slabs == null;
+    }
+
+    public float getHeight(int x, int y) {
+        checkBounds(x, y, 1, 1);
+        return slab(x / TILE_SIZE, y / TILE_SIZE).getFloat(byteIndex(x, y));
+    }
+
+    public void setHeight(int x, int y, float value) {
+        checkBounds(x, y, 1, 1);
+        slab(x / TILE_SIZE, y / TILE_SIZE).putFloat(byteIndex(x, y), value);
+    }
+
+    /**
+     * Stores the heights of a tile, whose sample (x, y) is values[offset + y * stride + x].
+     * Edge tiles only take the samples inside the map.
+     */
+    public void writeTile(int tileX, int tileY, float[] values, int offset, int stride) {
+        ByteBuffer slab = slab(tileX, tileY);
+        int tileWidth = Math.min(TILE_SIZE, width - tileX * TILE_SIZE);
+        int tileHeight = Math.min(TILE_SIZE, height - tileY * TILE_SIZE);
+        int tileStart = tileStart(tileX, tileY);
+        for (int y = 0; y < tileHeight; y++) {
+            int rowStart = tileStart + 4 * y * TILE_SIZE;
+            for (int x = 0; x < tileWidth; x++) {
+                slab.putFloat(rowStart + 4 * x, values[offset + y * stride + x]);
+            }
+        }
+    }
+
+    private void writeTile(int tileX, int tileY, ProgressiveFractal tile) {
+        ByteBuffer slab = slab(tileX, tileY);
+        int tileStart = tileStart(tileX, tileY);
+        for (int y = 0; y < tile.getHeight(); y++) {
+            int rowStart = tileStart + 4 * y * TILE_SIZE;
+            for (int x = 0; x < tile.getWidth(); x++) {
+                slab.putFloat(rowStart + 4 * x, tile.getValue(y * tile.getWidth() + x));
+            }
+        }
+    }
+
+    /**
+     * Copies the heights of the w x h rectangle at (x0, y0) to out[offset + row * stride + col],
+     * a tile at a time.
+     */
+    public void read(int x0, int y0, int w, int h, float[] out, int offset, int stride) {
+        checkBounds(x0, y0, w, h);
+        if (w == 0 || h == 0) { return; }
+        for (int tileY = y0 / TILE_SIZE; tileY <= (y0 + h - 1) / TILE_SIZE; tileY++) {
+            int firstY = Math.max(y0, tileY * TILE_SIZE);
+            int lastY = Math.min(y0 + h, (tileY + 1) * TILE_SIZE);
+            for (int tileX = x0 / TILE_SIZE; tileX <= (x0 + w - 1) / TILE_SIZE; tileX++) {
+                ByteBuffer slab = slab(tileX, tileY);
+                int firstX = Math.max(x0, tileX * TILE_SIZE);
+                int lastX = Math.min(x0 + w, (tileX + 1) * TILE_SIZE);
+                for (int y = firstY; y < lastY; y++) {
+                    int index = offset + (y - y0) * stride - x0;
+                    int byteIndex = byteIndex(firstX, y);
+                    for (int x = firstX; x < lastX; x++, byteIndex += 4) {
+                        out[index + x] = slab.getFloat(byteIndex);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Frees the native memory of the map now. The map cannot be used afterwards; releasing it
+     * again does nothing.
+     */
+    public synchronized void release() {
+        ByteBuffer[] buffers = slabs;
+        slabs = null;
+        if (buffers != null) {
+            for (ByteBuffer buffer : buffers) {
+                DirectBuffers.free(buffer);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+
+    private ByteBuffer slab(int tileX, int tileY) {
+        ByteBuffer[] buffers = slabs;
+        if (buffers == null) {
+            throw new IllegalStateException("The heightmap has been released");
+        }
+        if (tileX < 0 || tileY < 0 || tileX >= tilesX || tileY >= tilesY) {
+            throw new IndexOutOfBoundsException("No tile (" + tileX + ", " + tileY + ") in "
+                    + tilesX + "x" + tilesY + " tiles");
+        }
+        return buffers[(tileY * tilesX + tileX) / SLAB_TILES];
+    }
+
+    private int tileStart(int tileX, int tileY) {
+        return (tileY * tilesX + tileX) % SLAB_TILES * TILE_BYTES;
+    }
+
+    private int byteIndex(int x, int y) {
+        return tileStart(x / TILE_SIZE, y / TILE_SIZE) + 4 * ((y % TILE_SIZE) * TILE_SIZE + x % TILE_SIZE);
+    }
+
+    private void checkBounds(int x0, int y0, int w, int h) {
+        if (x0 < 0 || y0 < 0 || w < 0 || h < 0 || x0 > width - w || y0 > height - h) {
+            throw new IndexOutOfBoundsException(w + "x" + h + " at (" + x0 + ", " + y0 + ") is outside the "
+                    + width + "x" + height + " heightmap");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.spacegeneration;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Fills large rectangles of noise using every available core. The requested rectangle is
+ * split recursively into tiles of at most {@value #TILE_WIDTH} x {@value #TILE_HEIGHT}
+ * samples, small enough for a tile's output and lattice tables to stay in cache, and each
+ * tile is filled with the bulk FastNoise kernels on a fork/join pool.
+ * <p>
+ * All tiles of a fill share one FastNoise, built from an immutable {@link NoiseConfig} for
+ * that fill. Sharing it is safe because the fill methods only read its fields, never write
+ * them. Every sample only depends on its own coordinates, so the result is identical to a
+ * single threaded fill no matter how the work was scheduled.
+ * <p>
+ * A fill can be given a cancellation check, which every tile asks before it is filled. Once
+ * it returns true the remaining tiles are skipped, so a cancelled fill stops within the time
+ * of one tile per thread instead of finishing the whole rectangle.
+ */
+public final class ParallelNoiseFill {
+
+    static final int TILE_WIDTH = 256;
+    static final int TILE_HEIGHT = 64;
+
+    static final BooleanSupplier NEVER_CANCELLED = new BooleanSupplier() {
+        @Override
+        public boolean getAsBoolean() {
+            return false;
+        }
+    };
+
+    private ParallelNoiseFill() {
+    }
+
+    /**
+     * Fills out[row * stride + col] with the noise of the configured noise type at
+     * (x0 + col, y0 + row) on the common fork/join pool.
+     */
+    public static void fill(NoiseConfig config, float[] out, int x0, int y0, int w, int h, int stride) {
+        fill(ForkJoinPool.commonPool(), config, out, x0, y0, w, h, stride);
+    }
+
+    public static void fill(ForkJoinPool pool, NoiseConfig config, float[] out,
+            int x0, int y0, int w, int h, int stride) {
+        fill(pool, new FastNoise(config), out, x0, y0, w, h, stride, NEVER_CANCELLED);
+    }
+
+    /**
+     * Fills like above until the given check returns true, and skips the tiles that were
+     * not filled by then.
+     *
+     * @return false if the fill was cancelled, in which case part of the output may not
+     *         have been written
+     */
+    public static boolean fill(NoiseConfig config, float[] out, int x0, int y0, int w, int h, int stride,
+            BooleanSupplier cancelled) {
+        return fill(ForkJoinPool.commonPool(), new FastNoise(config), out, x0, y0, w, h, stride, cancelled);
+    }
+
+    /**
+     * Fills out[row * stride + col] with the Perlin value at (x0 + col, y0 + row), whatever
+     * the configured noise type is, on the common fork/join pool.
+     */
+    public static void fillPerlin(NoiseConfig config, float[] out, int x0, int y0, int w, int h, int stride) {
+        fillPerlin(ForkJoinPool.commonPool(), config, out, x0, y0, w, h, stride);
+    }
+
+    public static void fillPerlin(ForkJoinPool pool, NoiseConfig config, float[] out,
+            int x0, int y0, int w, int h, int stride) {
+        FastNoise noise = new FastNoise(config);
+        noise.SetNoiseType(FastNoise.NoiseType.Perlin);
+        fill(pool, noise, out, x0, y0, w, h, stride, NEVER_CANCELLED);
+    }
+
+    /**
+     * The tiles only read the noise, but nothing else may change its settings while they
+     * run, which is why only instances built here from a config are passed in.
+     */
+    private static boolean fill(ForkJoinPool pool, FastNoise noise, float[] out,
+            int x0, int y0, int w, int h, int stride, BooleanSupplier cancelled) {
+        if (w > 0 && h > 0) {
+            pool.invoke(new TileTask(noise, out, 0, x0, y0, w, h, stride, cancelled));
+        }
+        return !cancelled.getAsBoolean();
+    }
+
+    /**
+     * Splits the rectangle along tile boundaries until it is a single tile, which is then
+     * filled directly into its part of the output array unless the fill was cancelled.
+     */
+    private static final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FastNoise noise;
+        private final float[] out;
+        private final int offset;
+        private final int x0;
+        private final int y0;
+        private final int width;
+        private final int height;
+        private final int stride;
+        private final BooleanSupplier cancelled;
+
+        TileTask(FastNoise noise, float[] out, int offset, int x0, int y0, int width, int height, int stride,
+                BooleanSupplier cancelled) {
+            this.noise = noise;
+            this.out = out;
+            this.offset = offset;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.width = width;
+            this.height = height;
+            this.stride = stride;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled.getAsBoolean()) { return; }
+
+            if (width <= TILE_WIDTH && height <= TILE_HEIGHT) {
+                noise.FillNoise2D(out, offset, x0, y0, width, height, stride);
+                return;
+            }
+
+            if (width * TILE_HEIGHT >= height * TILE_WIDTH) {
+                int split = splitPoint(width, TILE_WIDTH);
+                invokeAll(new TileTask(noise, out, offset, x0, y0, split, height, stride, cancelled),
+                        new TileTask(noise, out, offset + split, x0 + split, y0, width - split, height, stride, cancelled));
+            } else {
+                int split = splitPoint(height, TILE_HEIGHT);
+                invokeAll(new TileTask(noise, out, offset, x0, y0, width, split, stride, cancelled),
+                        new TileTask(noise, out, offset + split * stride, x0, y0 + split, width, height - split, stride,
+                                cancelled));
+            }
+        }
+
+        /**
+         * Returns the tile boundary closest to the middle of the given length.
+         */
+        private static int splitPoint(int length, int tileSize) {
+            int tiles = (length + tileSize - 1) / tileSize;
+            return (tiles / 2) * tileSize;
+        }
+    }
+}
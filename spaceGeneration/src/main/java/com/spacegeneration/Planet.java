@@ -7,9 +7,16 @@ import java.awt.Color;
  * General object class that is used to store information about a certain planet.
  * This Planet object is located as an object under the PlanetRegion class. All planets
  * are part of a planet which largly decides the planet number, size, etc.
+ * <p>
+ * A Planet of a region is a handle on a row of the {@link PlanetTable} where the region
+ * keeps it, so regions only create one when a planet is asked for, and two handles on the
+ * same row are equal. A Planet made with the public constructor keeps its own values
+ * instead and is only equal to itself.
  */
 public class Planet {
 
+    private PlanetTable table;
+    private int index;
     private int xCoordinate;
     private int yCoordinate;
     private int planetRadius;
@@ -17,6 +24,8 @@ public class Planet {
     private int planetSeed;
     private PlanetRegion regionPlanetIsLocated;
 
+    private static final long MOONS_KEY = 3;
+
     public Planet(int xVal, int yVal, int radius, Color colour, int seed, PlanetRegion region) {
         this.xCoordinate = xVal;
         this.yCoordinate = yVal;
@@ -26,35 +35,90 @@ public class Planet {
         this.regionPlanetIsLocated = region;
     }
 
+    Planet(PlanetTable table, int index, PlanetRegion region) {
+        this.table = table;
+        this.index = index;
+        this.regionPlanetIsLocated = region;
+    }
+
     public int[] getMoons(){
-        Random seed = new Random(planetSeed);
+        if(regionPlanetIsLocated.getGenerationVersion() == GenerationVersion.v2) {
+            return deriveMoons();
+        }
+
+        int planetRadius = getRadius();
+        Random seed = new Random(getPlanetSeed());
         int moonValue = seed.nextInt(9);
-        int totalMoons = (this.planetRadius * moonValue) / this.regionPlanetIsLocated.getMaxPlanetRadius();
+        int totalMoons = (planetRadius * moonValue) / this.regionPlanetIsLocated.getMaxPlanetRadius();
         int[] moonInfo = new int[totalMoons];
         for(int i = 0; i < totalMoons; i++) {
-            int radius = seed.nextInt(this.planetRadius / 2) + 5;
+            int radius = seed.nextInt(planetRadius / 2) + 5;
             moonInfo[i] = radius;
         }
         return moonInfo;
     }
 
+    /**
+     * Derives the moons of a planet of a v2 region from its seed, every moon from its index.
+     */
+    private int[] deriveMoons() {
+        int planetRadius = getRadius();
+        long moonsKey = CounterRandom.key(getPlanetSeed(), MOONS_KEY);
+        int moonValue = CounterRandom.nextInt(moonsKey, 0, 9);
+        int totalMoons = (planetRadius * moonValue) / this.regionPlanetIsLocated.getMaxPlanetRadius();
+        int[] moonInfo = new int[totalMoons];
+        for(int i = 0; i < totalMoons; i++) {
+            moonInfo[i] = CounterRandom.nextInt(moonsKey, i + 1, planetRadius / 2) + 5;
+        }
+        return moonInfo;
+    }
+
     public int getXCoordinate() {
-        return xCoordinate;
+        return (table == null)? xCoordinate : table.getX(index);
     }
 
     public int getYCoordinate() {
-        return yCoordinate;
+        return (table == null)? yCoordinate : table.getY(index);
     }
 
     public int getRadius() {
-        return planetRadius;
+        return (table == null)? planetRadius : table.getRadius(index);
     }
 
+    /**
+     * Returns the planet's colour. A handle on a row of its region shares the Color the
+     * region keeps for drawing, a derived planet makes its own the first time it is asked.
+     */
     public Color getPlanetColour() {
+        if(table == null) { return planetColour; }
+
+        if(table == regionPlanetIsLocated.getPlanets()) {
+            return regionPlanetIsLocated.getPlanetColour(index);
+        }
+        if(planetColour == null) {
+            planetColour = new Color(table.getRgb(index));
+        }
         return planetColour;
     }
 
     public int getPlanetSeed() {
-        return planetSeed;
+        return (table == null)? planetSeed : table.getSeed(index);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(!(other instanceof Planet)) { return false; }
+
+        if(table == null) { return other == this; }
+
+        Planet planet = (Planet) other;
+        return planet.table == table && planet.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        if(table == null) { return System.identityHashCode(this); }
+
+        return System.identityHashCode(table) * 31 + index;
     }
-}
\ No newline at end of file
+}
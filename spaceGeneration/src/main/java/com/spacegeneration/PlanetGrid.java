@@ -0,0 +1,128 @@
+package com.spacegeneration;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the planets of a region, so the planets near a point are found without
+ * looking at the others. The grid's cells are as wide as the largest planet, and a planet is
+ * kept in the cell of its centre, so every planet that reaches within cellSize of a point is
+ * in the cell of that point or in one of the eight around it.
+ * <p>
+ * The grid holds rows of a {@link PlanetTable}. The cells are singly linked lists through
+ * arrays: the first planet of every cell and the next planet of every planet, both as indices
+ * into the planets in the order they were added. Points outside the grid are clamped to its
+ * border cells.
+ */
+final class PlanetGrid {
+
+    private final int x0;
+    private final int y0;
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] firstInCell;
+    private final PlanetTable table;
+    private int[] nextInCell;
+    private int[] planets;
+    private int size;
+
+    /**
+     * Creates an empty grid over the given area with cells of the given size, for planets of
+     * the given table.
+     */
+    PlanetGrid(PlanetTable table, int x0, int y0, int width, int height, int cellSize) {
+        this.table = table;
+        this.x0 = x0;
+        this.y0 = y0;
+        this.cellSize = Math.max(1, cellSize);
+        this.columns = Math.max(1, (width + this.cellSize - 1) / this.cellSize);
+        this.rows = Math.max(1, (height + this.cellSize - 1) / this.cellSize);
+        this.firstInCell = new int[columns * rows];
+        Arrays.fill(firstInCell, -1);
+        this.nextInCell = new int[16];
+        this.planets = new int[16];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds the planet of the given row of the table.
+     */
+    void add(int planet) {
+        if (size == planets.length) {
+            planets = Arrays.copyOf(planets, size * 2);
+            nextInCell = Arrays.copyOf(nextInCell, size * 2);
+        }
+        int cell = row(centreY(planet)) * columns + column(centreX(planet));
+        planets[size] = planet;
+        nextInCell[size] = firstInCell[cell];
+        firstInCell[cell] = size;
+        size++;
+    }
+
+    /**
+     * Returns true if the centre x, y of a candidate of the given radius is closer to the
+     * centre of a planet of the grid than twice the larger of their radii, which keeps planets
+     * apart by at least the size of the larger one. Neither radius may be larger than half a
+     * cell.
+     */
+    boolean overlaps(int x, int y, int radius) {
+        int column = column(x);
+        int row = row(y);
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, column - 1); c <= Math.min(columns - 1, column + 1); c++) {
+                for (int i = firstInCell[r * columns + c]; i != -1; i = nextInCell[i]) {
+                    int planet = planets[i];
+                    long dx = centreX(planet) - x;
+                    long dy = centreY(planet) - y;
+                    long spacing = 2L * Math.max(table.getRadius(planet), radius);
+                    if (dx * dx + dy * dy < spacing * spacing) { return true; }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the row of the planet whose disc holds the given point, or -1. If the discs of
+     * several planets hold it, the lowest of their rows is returned, so in a table sorted by x
+     * the planet of the smallest x wins, whatever cells the planets are in.
+     */
+    int find(int x, int y) {
+        int column = column(x);
+        int row = row(y);
+        int found = -1;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, column - 1); c <= Math.min(columns - 1, column + 1); c++) {
+                for (int i = firstInCell[r * columns + c]; i != -1; i = nextInCell[i]) {
+                    int planet = planets[i];
+                    long dx = centreX(planet) - x;
+                    long dy = centreY(planet) - y;
+                    long radius = table.getRadius(planet);
+                    if (dx * dx + dy * dy < radius * radius && (found == -1 || planet < found)) {
+                        found = planet;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private int column(int x) {
+        return Math.max(0, Math.min(columns - 1, Math.floorDiv(x - x0, cellSize)));
+    }
+
+    private int row(int y) {
+        return Math.max(0, Math.min(rows - 1, Math.floorDiv(y - y0, cellSize)));
+    }
+
+    private int centreX(int planet) {
+        return table.getX(planet) + table.getRadius(planet);
+    }
+
+    private int centreY(int planet) {
+        return table.getY(planet) + table.getRadius(planet);
+    }
+}
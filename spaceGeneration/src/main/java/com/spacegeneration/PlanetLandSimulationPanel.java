@@ -6,56 +6,161 @@ import java.awt.event.KeyEvent;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyListener;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.Random;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import javax.swing.JButton;
 import javax.swing.JPanel;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
 /**
  * This panel is used to simulate the land that the planet has. Uses an opensorce library called
  * FastNoise to create the perlin noise that is used to determin the different landforms that
  * will be displayed for the user.
- * A JSON file contating different land colour palettes are used to determin the land types.
+ * A JSON file contating different land colour palettes are used to determin the land types,
+ * it is read once for the whole application by {@link LandPaletteRegistry}.
+ * Every pixel gets its own land type, its biome, from moisture and temperature noise that is
+ * generated together in one fused pass, see {@link BiomeClassifier}.
+ * <p>
+ * The land is fractal noise that is built one octave at a time. The first frame is generated
+ * within a latency budget, at a coarser resolution and with fewer octaves on slow machines,
+ * and the missing resolution and octaves are added afterwards, repainting the land as it goes.
+ * A coarse first frame is interpolated to every pixel, and is sampled as coarsely as keeps
+ * the interpolated heights within PREVIEW_MAX_ERROR of the real ones.
+ * All of it runs as a {@link LandGenerationJob} on a background thread that hands finished
+ * row bands to the Event Dispatch Thread, so the UI stays responsive while a planet generates.
+ * Leaving the planet, resizing or opening another planet cancels the job. Complete lands are
+ * kept in a {@link TerrainCache} on disk, so revisiting a planet, also after a restart, maps
+ * its land instead of generating it.
+ * <p>
+ * The land is rasterized into landImage by writing the colour index of every pixel straight
+ * into its backing byte array whenever the land changes, so a repaint only draws that image.
+ * Once complete, the heights are kept quantized to LAND_HEIGHT_BITS bits per pixel.
+ * <p>
+ * The land can be explored past the window: WASD or dragging pans and the mouse wheel zooms
+ * out and back in, up to MAX_ZOOM_OUT steps of two. From the first pan or zoom on, the land
+ * is drawn from the chunks of a {@link LandChunkStreamer}, classified with the height range
+ * of the land the planet opened with. A pan shifts the pixels already in the land image and
+ * only fills the strips it exposed, from cached chunks where there are any; the chunks that
+ * are missing are generated in the background, nearest to the middle of the view first, and
+ * drawn as they arrive, on a thread of their own. A zoom stretches or shrinks the land image
+ * as a placeholder until the chunks of the new level are there.
+ * <p>
+ * G switches between the flat land and the planet as a spinning globe. The globe is a
+ * {@link GlobeTexture} of the whole planet, generated in the background the first time it is
+ * shown and kept for the last MAX_GLOBE_TEXTURES seeds, that a {@link GlobeRenderer} draws
+ * into globeImage every frame, without generating any noise. Textures are generated on a
+ * thread of their own, so neither the land nor the chunks wait for them. The renderer casts
+ * its rays once for every size of the panel, in parallel on the common fork/join pool that
+ * also draws the frames, and the globe spins once both are there.
  */
-public class PlanetLandSimulationPanel extends JPanel implements KeyListener, ActionListener {
+public class PlanetLandSimulationPanel extends JPanel
+        implements KeyListener, ActionListener, LandGenerationJob.Listener, LandChunkStreamer.Listener {
     private static final long serialVersionUID = 1L;
 
     MainFrame mainFrame;
     int landWidth;
     int landHeight;
     int landSeed;
-    Random seedGenerator = new Random(0);
 
-    float[][] noiseLand;
-    FastNoise noiseGenerator;
+    LandDetailPlanner detailPlanner = new LandDetailPlanner();
+    ExecutorService landExecutor = backgroundExecutor("land-generation");
+    // Chunks have their own thread, so streaming them while panning never waits for a land
+    ExecutorService chunkExecutor = backgroundExecutor("land-chunks");
+    ExecutorService globeExecutor = backgroundExecutor("globe-generation");
+    LandGenerationJob landJob;
+    Future<?> landGeneration;
+    final int LAND_OCTAVES = 5;
+    final int LAND_HEIGHT_BITS = 16;
+    final long FIRST_FRAME_BUDGET_MILLIS = 16;
+    final float PREVIEW_MAX_ERROR = 0.01f;
+    final boolean REFINE_LAND = true;
+    final long LAND_TILE_CACHE_BYTES = 64L * 1024 * 1024;
+    NoiseTileCache landTileCache = new NoiseTileCache(LAND_TILE_CACHE_BYTES);
+    TerrainCache terrainCache;
     float minimumValue = 0;
-    float maximumValue = 0;
     float perlinRange = 0;
 
-    int landType;
-    double[] landLayerValues;
-    String[] landLayerColors;
-    JSONParser jsonParser;
-    final String FILE_DIRECTORY = "/landLayerData.json";
+    final int PAN_PIXELS_PER_FRAME = 12;
+    final int PAN_FRAME_MILLIS = 16;
+    final int MAX_ZOOM_OUT = 6;
+    final int MAX_LAND_CHUNKS = 512;
+    LandChunkStreamer chunkStreamer;
+    int viewX;
+    int viewY;
+    int viewLod;
+    boolean panUp;
+    boolean panLeft;
+    boolean panDown;
+    boolean panRight;
+    Timer panTimer;
+    int dragX;
+    int dragY;
+
+    final int GLOBE_TEXTURE_WIDTH = 2048;
+    final int GLOBE_TEXTURE_HEIGHT = 1024;
+    final int MAX_GLOBE_TEXTURES = 4;
+    final double GLOBE_TILT = Math.toRadians(23.4);
+    final double GLOBE_SECONDS_PER_TURN = 30;
+    final int GLOBE_FRAME_MILLIS = 16;
+    Map<Integer, GlobeTexture> globeTextures = new LinkedHashMap<Integer, GlobeTexture>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, GlobeTexture> eldest) {
+            return size() > MAX_GLOBE_TEXTURES;
+        }
+    };
+    // Seeds whose texture is being generated, so showing their globe again does not queue another
+    Set<Integer> pendingGlobeTextures = new HashSet<Integer>();
+    boolean globeView;
+    GlobeTexture globeTexture;
+    GlobeRenderer globeRenderer;
+    // Whether a renderer is being made, so showing the globe again does not queue another
+    boolean globeRendererPending;
+    BufferedImage globeImage;
+    byte[] globeRaster;
+    Timer globeTimer;
+    long globeStartNanos;
+
+    IndexColorModel landColors;
+    BufferedImage landImage;
+    byte[] landRaster;
+
+    BiomeClassifier biomeClassifier;
 
     JButton closeSimulationBtn;
 
+    /**
+     * Creates the panel without a terrain cache, so every land is generated.
+     */
     public PlanetLandSimulationPanel(int width, int height, MainFrame main) {
+        this(width, height, main, null);
+    }
+
+    /**
+     * Creates the panel with the given terrain cache, or none when it is null.
+     */
+    public PlanetLandSimulationPanel(int width, int height, MainFrame main, TerrainCache terrainCache) {
+        this.terrainCache = terrainCache;
         this.landWidth = width;
         this.landHeight = height;
         this.mainFrame = main;
-        jsonParser = new JSONParser();
 
         setOpaque(true);
         setBackground(Color.BLACK);
@@ -68,113 +173,534 @@ public class PlanetLandSimulationPanel extends JPanel implements KeyListener, Ac
         closeSimulationBtn.addActionListener(this);
         add(closeSimulationBtn);
         addKeyListener(this);
+        panTimer = new Timer(PAN_FRAME_MILLIS, this);
+        globeTimer = new Timer(GLOBE_FRAME_MILLIS, this);
+        MouseAdapter navigation = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragX = e.getX();
+                dragY = e.getY();
+                requestFocusInWindow();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                pan(dragX - e.getX(), dragY - e.getY());
+                dragX = e.getX();
+                dragY = e.getY();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoom(e.getWheelRotation(), e.getX(), e.getY());
+            }
+        };
+        addMouseListener(navigation);
+        addMouseMotionListener(navigation);
+        addMouseWheelListener(navigation);
+
+        biomeClassifier = new BiomeClassifier(LandPaletteRegistry.getDefault().getPalettes());
+        landColors = biomeClassifier.createColorModel();
+    }
+
+    /**
+     * Returns a single daemon thread of the given name for background work of the panel.
+     */
+    private static ExecutorService backgroundExecutor(final String name) {
+        return Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
     }
 
     public void openSimulation(int seed) {
         landSeed = seed;
-        seedGenerator = new Random(seed);
+        stopNavigation();
+        showGlobe(false);
+        viewX = 0;
+        viewY = 0;
+        viewLod = 0;
 
         createPerlinNoise();
-        parseJSONLayerData();
         repaint();
     }
 
     public void closeLandSimulation() {
+        cancelLandGeneration();
+        stopNavigation();
+        showGlobe(false);
         mainFrame.changeVisiblePanel(MainFrame.PanelTypes.orbitSimulation);
-        noiseLand = null;
+        landImage = null;
+        landRaster = null;
     }
 
     public void updateSize(int width, int height) {
         this.landWidth = width;
         this.landHeight = height;
         setBounds(0, 0, width, height);
-        createPerlinNoise();
+        if (globeView) {
+            createGlobeImage();
+            requestGlobeRenderer();
+        }
+        if (chunkStreamer == null) {
+            createPerlinNoise();
+            return;
+        }
+        createLandImage();
+        paintChunks(0, 0, landWidth, landHeight);
+        requestChunks();
+        repaint();
     }
 
+    /**
+     * Starts generating a new fractal land for the current seed and size in the background,
+     * after cancelling the land that was being generated. The land shows up band by band
+     * through {@link #landBandFinished}.
+     */
     private void createPerlinNoise() {
-        noiseGenerator = new FastNoise(landSeed);
-        noiseLand = new float[landWidth][landHeight];
-        for (int x = 0; x < landWidth; x++) {
-            for (int y = 0; y < landHeight; y++) {
-                noiseLand[x][y] = noiseGenerator.GetPerlin(x, y);
-                updateRangeValues(x, y);
+        cancelLandGeneration();
+        createLandImage();
+        landJob = new LandGenerationJob(landSeed, landWidth, landHeight, LAND_OCTAVES, LAND_HEIGHT_BITS,
+                FIRST_FRAME_BUDGET_MILLIS * 1000000, biomeClassifier, detailPlanner, landTileCache, terrainCache, this);
+        landJob.setPreviewMaxError(PREVIEW_MAX_ERROR);
+        landJob.setRefine(REFINE_LAND);
+        landGeneration = landExecutor.submit(landJob);
+    }
+
+    private void createLandImage() {
+        landImage = new BufferedImage(landWidth, landHeight, BufferedImage.TYPE_BYTE_INDEXED, landColors);
+        landRaster = ((DataBufferByte) landImage.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Stops the land that is being generated, if any. Bands it already published but that
+     * were not painted yet are dropped.
+     */
+    private void cancelLandGeneration() {
+        if (landJob != null) {
+            landJob.cancel();
+            landGeneration.cancel(false);
+            landJob = null;
+        }
+    }
+
+    /**
+     * Copies a finished band into the land image on the Event Dispatch Thread and repaints
+     * it, unless its job was cancelled in the meantime.
+     */
+    @Override
+    public void landBandFinished(final LandGenerationJob job, final int firstRow, final int rows, final byte[] colorIndices) {
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                if (job != landJob) { return; }
+
+                System.arraycopy(colorIndices, 0, landRaster, firstRow * landWidth, colorIndices.length);
+                minimumValue = job.getMinimum();
+                perlinRange = job.getRange();
+                repaint(0, firstRow, landWidth, rows);
             }
+        });
+    }
+
+    /**
+     * Switches the land to chunks, the first time it is panned or zoomed, with the height
+     * range of the land shown so far.
+     *
+     * @return false while no land has been shown yet
+     */
+    private boolean startNavigation() {
+        if (chunkStreamer != null) { return true; }
+        if (landJob == null || landRaster == null || landJob.getRange() <= 0) { return false; }
+
+        chunkStreamer = new LandChunkStreamer(landSeed, LAND_OCTAVES, landJob.getMinimum(), landJob.getRange(),
+                biomeClassifier, null, MAX_LAND_CHUNKS, chunkExecutor, this);
+        cancelLandGeneration();
+        return true;
+    }
+
+    private void stopNavigation() {
+        stopNavigationKeys();
+        if (chunkStreamer != null) {
+            chunkStreamer.cancel();
+            chunkStreamer = null;
         }
-        perlinRange = maximumValue - minimumValue;
     }
 
-    private void updateRangeValues(int x, int y) {
-        minimumValue = (noiseLand[x][y] < minimumValue)? noiseLand[x][y]:minimumValue;
-        maximumValue = (noiseLand[x][y] > maximumValue)? noiseLand[x][y]:maximumValue;
+    /**
+     * Shows the planet as a spinning globe, or the flat land again. The globe's texture is
+     * generated in the background when this planet has none yet and it is not already being
+     * generated, so is the renderer when there is none for this size, and the globe starts
+     * spinning once both are there.
+     */
+    void showGlobe(boolean show) {
+        globeView = show;
+        if (!show) {
+            globeTimer.stop();
+            globeImage = null;
+            globeRaster = null;
+            repaint();
+            return;
+        }
+
+        stopNavigationKeys();
+        createGlobeImage();
+        requestGlobeRenderer();
+        globeTexture = globeTextures.get(landSeed);
+        if (globeTexture != null) {
+            startGlobe();
+            return;
+        }
+        final int seed = landSeed;
+        if (!pendingGlobeTextures.add(seed)) {
+            repaint();
+            return;
+        }
+        globeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                GlobeTexture generated = null;
+                try {
+                    generated = GlobeTexture.generate(seed, LAND_OCTAVES, biomeClassifier,
+                            GLOBE_TEXTURE_WIDTH, GLOBE_TEXTURE_HEIGHT);
+                } finally {
+                    globeTextureFinished(seed, generated);
+                }
+            }
+        });
+        repaint();
+    }
+
+    /**
+     * Hands a generated globe texture, or null when generating it failed, to the Event
+     * Dispatch Thread, which shows it if its planet's globe is still wanted.
+     */
+    private void globeTextureFinished(final int seed, final GlobeTexture texture) {
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                pendingGlobeTextures.remove(seed);
+                if (texture == null) { return; }
+
+                globeTextures.put(seed, texture);
+                if (!globeView || landSeed != seed) { return; }
+
+                globeTexture = texture;
+                startGlobe();
+            }
+        });
+    }
+
+    private void createGlobeImage() {
+        globeImage = new BufferedImage(landWidth, landHeight, BufferedImage.TYPE_BYTE_INDEXED, landColors);
+        globeRaster = ((DataBufferByte) globeImage.getRaster().getDataBuffer()).getData();
+        renderGlobe();
+    }
+
+    /**
+     * Makes a renderer for the size of the panel in the background, unless there is one or
+     * one is being made. Casting the rays takes a while, so they are kept for as long as the
+     * size stays.
+     */
+    private void requestGlobeRenderer() {
+        if (globeRendererFits() || globeRendererPending) { return; }
+
+        globeRendererPending = true;
+        final int width = landWidth;
+        final int height = landHeight;
+        ForkJoinPool.commonPool().execute(new Runnable() {
+            @Override
+            public void run() {
+                GlobeRenderer renderer = null;
+                try {
+                    renderer = new GlobeRenderer(width, height, GLOBE_TEXTURE_WIDTH, GLOBE_TEXTURE_HEIGHT, GLOBE_TILT);
+                } finally {
+                    globeRendererFinished(renderer);
+                }
+            }
+        });
     }
 
     /**
-     * Retrieves the JSON file that is located in the resources folder and then parses
-     * the information in the file depending on the chosen landType. Once the landType
-     * has been chosen, the values for each layer and color are then stored in local
-     * variables landLayerValues, landLayerColors.
+     * Hands a renderer, or null when making it failed, to the Event Dispatch Thread, which
+     * starts the globe if its texture is there too. A renderer for a size the panel no longer
+     * has is replaced by one for the new size.
      */
-    private void parseJSONLayerData() {
-        try {
-            InputStream in = this.getClass().getResourceAsStream(FILE_DIRECTORY);
-            InputStreamReader reader = new InputStreamReader(in);
-            Object jsonObj = jsonParser.parse(reader);
-            JSONArray landTypeList = (JSONArray) jsonObj;
-            landType = seedGenerator.nextInt(landTypeList.size());
-            JSONObject chosenLandTypeData = (JSONObject) landTypeList.get(landType);
+    private void globeRendererFinished(final GlobeRenderer renderer) {
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                globeRendererPending = false;
+                if (renderer == null) { return; }
 
-            JSONObject landLayerData = (JSONObject) chosenLandTypeData.get("landTypeInformation");
-            ObjectMapper objectMapper = new ObjectMapper();
-            landLayerValues = objectMapper.readValue(landLayerData.get("layerValues").toString(), double[].class);
-            landLayerColors = objectMapper.readValue(landLayerData.get("landColors").toString(), String[].class);
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        } catch (IOException e) {
-            e.printStackTrace();
-        } catch (ParseException e) {
-            e.printStackTrace();
+                globeRenderer = renderer;
+                if (!globeView) { return; }
+                if (!globeRendererFits()) {
+                    requestGlobeRenderer();
+                } else if (globeTexture != null) {
+                    startGlobe();
+                }
+            }
+        });
+    }
+
+    private boolean globeRendererFits() {
+        return globeRenderer != null && globeRenderer.getViewWidth() == landWidth
+                && globeRenderer.getViewHeight() == landHeight;
+    }
+
+    private void startGlobe() {
+        globeStartNanos = System.nanoTime();
+        if (globeRendererFits()) {
+            renderGlobe();
+            globeTimer.start();
         }
+        repaint();
     }
 
-    private double convertLayerValuesToPerlinRangeValues(double layerValue) {
-        return minimumValue + (perlinRange * layerValue);
+    /**
+     * Draws the globe turned as far as it has spun by now, once its texture and a renderer
+     * for the size of the panel are there.
+     */
+    void renderGlobe() {
+        if (globeTexture == null || !globeRendererFits()) { return; }
+
+        double turns = (System.nanoTime() - globeStartNanos) / 1e9 / GLOBE_SECONDS_PER_TURN;
+        globeRenderer.render(globeTexture, turns, globeRaster);
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
+    private void stopNavigationKeys() {
+        panTimer.stop();
+        panUp = false;
+        panLeft = false;
+        panDown = false;
+        panRight = false;
+    }
 
+    /**
+     * Moves the view by dx, dy pixels. The land image is shifted the other way and only the
+     * strips that come into view are filled.
+     */
+    void pan(int dx, int dy) {
+        if ((dx == 0 && dy == 0) || globeView || !startNavigation()) { return; }
+
+        viewX += dx;
+        viewY += dy;
+        shiftLand(-dx, -dy);
+        if (dy != 0) {
+            int rows = Math.min(Math.abs(dy), landHeight);
+            paintChunks(0, (dy > 0)? landHeight - rows : 0, landWidth, rows);
+        }
+        if (dx != 0) {
+            int columns = Math.min(Math.abs(dx), landWidth);
+            paintChunks((dx > 0)? landWidth - columns : 0, 0, columns, landHeight);
+        }
+        requestChunks();
+        repaint();
+    }
+
+    /**
+     * Zooms out by the given number of steps, or in when negative, keeping the land under the
+     * mouse in place.
+     */
+    void zoom(int steps, int mouseX, int mouseY) {
+        int lod = Math.max(0, Math.min(MAX_ZOOM_OUT, viewLod + steps));
+        if (lod == viewLod || globeView || !startNavigation()) { return; }
+
+        double scale = Math.pow(2, viewLod - lod);
+        int newViewX = (int) Math.floor((viewX + mouseX) * scale) - mouseX;
+        int newViewY = (int) Math.floor((viewY + mouseY) * scale) - mouseY;
+
+        byte[] previous = landRaster.clone();
+        int[] previousColumns = new int[landWidth];
         for (int x = 0; x < landWidth; x++) {
-            for (int y = 0; y < landHeight; y++) {
-                paintLandPixle(x, y, g);
+            previousColumns[x] = (int) Math.floor((newViewX + x) / scale) - viewX;
+        }
+        for (int y = 0; y < landHeight; y++) {
+            int previousY = (int) Math.floor((newViewY + y) / scale) - viewY;
+            boolean inside = previousY >= 0 && previousY < landHeight;
+            for (int x = 0; x < landWidth; x++) {
+                int previousX = previousColumns[x];
+                landRaster[y * landWidth + x] = (inside && previousX >= 0 && previousX < landWidth)
+                        ? previous[previousY * landWidth + previousX] : (byte) BiomeClassifier.NO_LAYER_INDEX;
+            }
+        }
+
+        viewX = newViewX;
+        viewY = newViewY;
+        viewLod = lod;
+        paintChunks(0, 0, landWidth, landHeight);
+        requestChunks();
+        repaint();
+    }
+
+    /**
+     * Moves the pixels of the land image by shiftX, shiftY and clears the ones left behind.
+     */
+    private void shiftLand(int shiftX, int shiftY) {
+        if (Math.abs(shiftX) >= landWidth || Math.abs(shiftY) >= landHeight) {
+            Arrays.fill(landRaster, (byte) BiomeClassifier.NO_LAYER_INDEX);
+            return;
+        }
+        int columns = landWidth - Math.abs(shiftX);
+        int from = Math.max(0, -shiftX);
+        int to = Math.max(0, shiftX);
+        int cleared = (shiftX > 0)? 0 : columns;
+        // Rows are moved in the order that reads every row before it is overwritten
+        int first = (shiftY > 0)? landHeight - 1 : 0;
+        int last = (shiftY > 0)? shiftY : landHeight - 1 + shiftY;
+        int direction = (shiftY > 0)? -1 : 1;
+        for (int y = first; y != last + direction; y += direction) {
+            int row = y * landWidth;
+            System.arraycopy(landRaster, (y - shiftY) * landWidth + from, landRaster, row + to, columns);
+            Arrays.fill(landRaster, row + cleared, row + cleared + Math.abs(shiftX), (byte) BiomeClassifier.NO_LAYER_INDEX);
+        }
+        int clearedRows = (shiftY > 0)? 0 : landHeight + shiftY;
+        Arrays.fill(landRaster, clearedRows * landWidth, (clearedRows + Math.abs(shiftY)) * landWidth,
+                (byte) BiomeClassifier.NO_LAYER_INDEX);
+    }
+
+    /**
+     * Draws the cached chunks that overlap the given part of the view into the land image.
+     */
+    private void paintChunks(int x0, int y0, int w, int h) {
+        if (w <= 0 || h <= 0) { return; }
+
+        int size = LandChunkStreamer.CHUNK_SIZE;
+        for (int chunkY = Math.floorDiv(viewY + y0, size); chunkY <= Math.floorDiv(viewY + y0 + h - 1, size); chunkY++) {
+            for (int chunkX = Math.floorDiv(viewX + x0, size); chunkX <= Math.floorDiv(viewX + x0 + w - 1, size); chunkX++) {
+                byte[] chunk = chunkStreamer.getChunk(chunkX, chunkY, viewLod);
+                if (chunk != null) {
+                    copyChunk(chunkX, chunkY, chunk, x0, y0, w, h);
+                }
             }
         }
     }
 
-    private void paintLandPixle(int x, int y, Graphics g) {
-        for(int layer = 0; layer < landLayerValues.length;layer++) {
-            if(noiseLand[x][y] > convertLayerValuesToPerlinRangeValues(landLayerValues[layer])) { continue; }
+    /**
+     * Copies the part of a chunk of the current level that lies in the given part of the
+     * view into the land image.
+     */
+    private void copyChunk(int chunkX, int chunkY, byte[] chunk, int x0, int y0, int w, int h) {
+        int size = LandChunkStreamer.CHUNK_SIZE;
+        int left = chunkX * size - viewX;
+        int top = chunkY * size - viewY;
+        int firstX = Math.max(x0, left);
+        int lastX = Math.min(x0 + w, left + size);
+        int lastY = Math.min(y0 + h, top + size);
+        for (int y = Math.max(y0, top); y < lastY && firstX < lastX; y++) {
+            System.arraycopy(chunk, (y - top) * size + firstX - left, landRaster, y * landWidth + firstX, lastX - firstX);
+        }
+    }
+
+    /**
+     * Asks for the chunks of the view and of a ring of one chunk around it.
+     */
+    private void requestChunks() {
+        int size = LandChunkStreamer.CHUNK_SIZE;
+        chunkStreamer.request(Math.floorDiv(viewX, size) - 1, Math.floorDiv(viewY, size) - 1,
+                Math.floorDiv(viewX + landWidth - 1, size) + 1, Math.floorDiv(viewY + landHeight - 1, size) + 1, viewLod);
+    }
+
+    /**
+     * Draws a finished chunk on the Event Dispatch Thread, if it is still in view.
+     */
+    @Override
+    public void chunkFinished(final LandChunkStreamer streamer, final int chunkX, final int chunkY, final int lod,
+            final byte[] colorIndices) {
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                if (streamer != chunkStreamer || lod != viewLod) { return; }
+
+                int size = LandChunkStreamer.CHUNK_SIZE;
+                copyChunk(chunkX, chunkY, colorIndices, 0, 0, landWidth, landHeight);
+                repaint(chunkX * size - viewX, chunkY * size - viewY, size, size);
+            }
+        });
+    }
 
-            g.setColor(Color.decode(landLayerColors[layer]));
-            g.fillRect(x, y, 1, 1);
-            break;
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+
+        if (globeView) {
+            if (globeTexture != null && globeImage != null && globeRendererFits()) {
+                g.drawImage(globeImage, 0, 0, null);
+            }
+        } else if (landImage != null) {
+            g.drawImage(landImage, 0, 0, null);
         }
     }
 
     @Override
     public void actionPerformed(ActionEvent e) {
+       if (e.getSource() == panTimer) {
+           int dx = (panRight? PAN_PIXELS_PER_FRAME : 0) - (panLeft? PAN_PIXELS_PER_FRAME : 0);
+           int dy = (panDown? PAN_PIXELS_PER_FRAME : 0) - (panUp? PAN_PIXELS_PER_FRAME : 0);
+           pan(dx, dy);
+           return;
+       }
+       if (e.getSource() == globeTimer) {
+           renderGlobe();
+           repaint();
+           return;
+       }
        String action = e.getActionCommand();
        if(action == closeSimulationBtn.getText()) {
            closeLandSimulation();
        }
     }
 
+    /**
+     * WASD pans the land for as long as the keys are held, a step every frame, and G
+     * switches between the land and the globe.
+     */
     @Override
-    public void keyPressed(KeyEvent e) { }
+    public void keyPressed(KeyEvent e) {
+        if (e.getKeyCode() == KeyEvent.VK_G) {
+            showGlobe(!globeView);
+            return;
+        }
+        if (globeView) { return; }
+
+        setPanKey(e.getKeyCode(), true);
+        if (panUp || panLeft || panDown || panRight) {
+            panTimer.start();
+        }
+    }
 
     @Override
     public void keyTyped(KeyEvent e) { }
 
     @Override
-    public void keyReleased(KeyEvent e) { }
+    public void keyReleased(KeyEvent e) {
+        setPanKey(e.getKeyCode(), false);
+        if (!panUp && !panLeft && !panDown && !panRight) {
+            panTimer.stop();
+        }
+    }
+
+    private void setPanKey(int keyCode, boolean held) {
+        switch (keyCode) {
+            case KeyEvent.VK_W:
+                panUp = held;
+                break;
+            case KeyEvent.VK_A:
+                panLeft = held;
+                break;
+            case KeyEvent.VK_S:
+                panDown = held;
+                break;
+            case KeyEvent.VK_D:
+                panRight = held;
+                break;
+            default:
+                break;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.spacegeneration;
+
+/**
+ * How the planets of a region are placed. Regions use {@link #VERSION} unless another
+ * placement is asked for, so the planets of a seed do not change. The start screen offers
+ * both next to the generation version.
+ * <ul>
+ * <li>VERSION places planets the way their {@link GenerationVersion} does: v1 checks a
+ * candidate only against the planets on a binary search path by x, so some planets overlap,
+ * and v2 puts at most one planet in every cell four of the largest radii wide.</li>
+ * <li>GRID draws as many planets as asked for and checks every candidate against all the
+ * planets placed near it through a {@link PlanetGrid}, so no two planets overlap, and each
+ * check takes constant time however many planets the region has. A region that is too
+ * crowded for more planets stops after {@link PlanetRegion#MAX_REJECTIONS_IN_A_ROW} rejected
+ * candidates. This is the placement for regions many times as dense as the universe.</li>
+ * </ul>
+ */
+public enum PlanetPlacement {
+    VERSION,
+    GRID
+}
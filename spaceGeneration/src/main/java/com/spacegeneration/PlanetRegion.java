@@ -1,161 +1,482 @@
 package com.spacegeneration;
 
-import java.util.Random;
-
-import java.util.List;
-import java.util.ArrayList;
 import java.awt.Color;
+import java.util.Random;
 
 /**
  * PlanetRegion class contains most of the information about thre region, such as the
  * number of planets, the region location, stars, etc. All of the planetRegion information
  * is based off the assigned seed number.
+ * <p>
+ * In {@link GenerationVersion#v1} regions, planets are placed by drawing candidates and
+ * rejecting the ones too close to a planet that was already placed. A candidate is only
+ * checked against the planets on the path of a binary search by x through the planets placed
+ * so far, so some planets of a v1 region do overlap. That check and the draws are kept exactly
+ * as the first version of the generator had them, since rejecting any other candidates would
+ * shift every later draw and change the universe of every seed. A region that is too crowded
+ * for more planets stops placing them after MAX_REJECTIONS_IN_A_ROW rejected candidates
+ * instead of drawing forever, and a region too small for a planet has none instead of
+ * failing; neither happens at the sizes and planet counts of the universe.
+ * <p>
+ * {@link GenerationVersion#v2} regions are split into square cells four of the largest
+ * planet radii wide, and every cell holds a planet or not, by chance, so the region has as
+ * many planets on average as a v1 region. A planet's centre stays a largest radius away from
+ * the sides of its cell, which keeps it at least twice the larger radius away from the
+ * planets of the other cells, so no planet overlaps another and none has to be rejected. Each planet is derived from its
+ * cell, and each star from its index, with {@link CounterRandom}, see {@link #derivePlanet}
+ * and {@link #deriveStar}.
+ * <p>
+ * Either version can instead place its planets with {@link PlanetPlacement#GRID}, which draws
+ * candidates like the version does, from the region's Random or derived from the index of the
+ * candidate, and rejects every candidate too close to a planet already placed, checking the
+ * nine cells of a {@link PlanetGrid} around it. No planet overlaps another, and the region
+ * holds as many planets as it draws until it is too crowded, so it reaches densities the
+ * cells of v2 have no room for.
+ * <p>
+ * Stars are kept column by column, in one array of x coordinates, one of y coordinates and
+ * one of radii, and read with {@link #getStarX}, {@link #getStarY} and {@link #getStarRadius}
+ * from 0 to {@link #getStarCount} - 1, so going through them is a scan of three arrays.
+ * Planets are kept the same way in a {@link PlanetTable}, see {@link #getPlanets}, and
+ * {@link #getPlanet} and {@link #findPlanetByLocation} hand out a {@link Planet} on one of its
+ * rows.
  */
 public class PlanetRegion {
 
-    private int maxPlanets = 20;
-    private int minPlanets = 10;
+    static final int DEFAULT_MAX_PLANETS = 20;
+    static final int DEFAULT_MIN_PLANETS = 10;
+    static final int MAX_REJECTIONS_IN_A_ROW = 100;
+    static final int MIN_STARS = 100;
+    static final int STAR_COUNTS = 900;
+
+    // Keys and draws of v2 regions
+    private static final long REGION_KEY = 0;
+    private static final long PLANETS_KEY = 1;
+    private static final long STARS_KEY = 2;
+    private static final long CANDIDATES_KEY = 3;
+    private static final int CHANCE_DRAW = 0;
+    private static final int RADIUS_DRAW = 1;
+    private static final int X_DRAW = 2;
+    private static final int Y_DRAW = 3;
+    private static final int COLOUR_DRAW = 4;
+    private static final int SEED_DRAW = 7;
+    private static final int STAR_COUNT_DRAW = 0;
+    private static final int PLANET_COUNT_DRAW = 0;
+    // Values of a drawn planet
+    private static final int RADIUS = 0;
+    private static final int X = 1;
+    private static final int Y = 2;
+    private static final int RGB = 3;
+    private static final int SEED = 4;
+    private static final int PLANET_VALUES = 5;
+    private static final int CHANCE_SCALE = 1 << 16;
+    private int maxPlanets;
+    private int minPlanets;
     private int maxPlanetRadius = 25;
     private int minPlanetRadius= 5;
     private int spaceWidth;
     private int spaceHeight;
     private int seedRange = 1000000;
 
+    private GenerationVersion version;
+    private PlanetPlacement placement;
     private Random seed;
     private int regionSeed;
     private int totalPlanets;
+    private long regionKey;
+    private int cellSize;
+    private int cellColumns;
+    private int cellRows;
+    private int planetChance;
 
     private int xRegion;
     private int yRegion;
 
-    private List<Planet> listOfPlanetObject = new ArrayList<Planet>();
-    private int[][] starLocation;
+    private PlanetTable planetTable;
+    private PlanetGrid planetGrid;
+    private Color[] planetColours;
+    private int[] starX;
+    private int[] starY;
+    private byte[] starRadius;
 
-    private enum CoordinateType {
-        x, y
+    public PlanetRegion(int seed, int xLoc, int yLoc, int height, int width) {
+        this(seed, xLoc, yLoc, height, width, GenerationVersion.v1);
     }
 
-    public PlanetRegion(int seed, int xLoc, int yLoc, int height, int width) {
+    public PlanetRegion(int seed, int xLoc, int yLoc, int height, int width, GenerationVersion version) {
+        this(seed, xLoc, yLoc, height, width, version, PlanetPlacement.VERSION);
+    }
+
+    /**
+     * Creates a region with the default number of planets, placed with the given placement.
+     */
+    public PlanetRegion(int seed, int xLoc, int yLoc, int height, int width, GenerationVersion version,
+            PlanetPlacement placement) {
+        this(seed, xLoc, yLoc, height, width, version, DEFAULT_MIN_PLANETS, DEFAULT_MAX_PLANETS, placement);
+    }
+
+    /**
+     * Creates a region that draws from minPlanets to minPlanets + maxPlanets - 1 planets, or
+     * in v2 has that many on average.
+     */
+    PlanetRegion(int seed, int xLoc, int yLoc, int height, int width, GenerationVersion version,
+            int minPlanets, int maxPlanets) {
+        this(seed, xLoc, yLoc, height, width, version, minPlanets, maxPlanets, PlanetPlacement.VERSION);
+    }
+
+    /**
+     * Creates a region that draws from minPlanets to minPlanets + maxPlanets - 1 planets and
+     * places them with the given placement. With {@link PlanetPlacement#VERSION} a v2 region
+     * has that many planets on average instead.
+     */
+    public PlanetRegion(int seed, int xLoc, int yLoc, int height, int width, GenerationVersion version,
+            int minPlanets, int maxPlanets, PlanetPlacement placement) {
+        this.version = version;
+        this.placement = placement;
+        this.minPlanets = minPlanets;
+        this.maxPlanets = maxPlanets;
         this.regionSeed = seed;
-        this.seed = new Random(this.regionSeed);
-        this.totalPlanets = this.seed.nextInt(maxPlanets) + minPlanets;
         this.xRegion = xLoc;
         this.yRegion = yLoc;
         this.spaceHeight = height;
         this.spaceWidth = width;
 
-        createPlanets();
-        createStars();
+        if(version == GenerationVersion.v1) {
+            this.seed = new Random(this.regionSeed);
+            this.totalPlanets = this.seed.nextInt(maxPlanets) + minPlanets;
+            if(placement == PlanetPlacement.GRID) {
+                createGridPlanets();
+            } else {
+                createPlanets();
+            }
+            createStars();
+        } else {
+            this.regionKey = CounterRandom.key(this.regionSeed, REGION_KEY);
+            if(placement == PlanetPlacement.GRID) {
+                this.totalPlanets = CounterRandom.nextInt(regionKey, PLANET_COUNT_DRAW, maxPlanets) + minPlanets;
+                createGridPlanets();
+            } else {
+                createCellPlanets();
+            }
+            createDerivedStars();
+        }
     }
 
     private void createPlanets() {
-        int planetCount = 0;
-        while(planetCount < totalPlanets) {
-            int radius = seed.nextInt(maxPlanetRadius) + minPlanetRadius;
-            int xCoordinate = seed.nextInt(spaceWidth - (2 * radius)) + (xRegion * spaceWidth);
-            int yCoordinate = seed.nextInt(spaceHeight - (2 * radius)) + (yRegion * spaceHeight);
-            Color planetColour = new Color(seed.nextInt(255), seed.nextInt(255), seed.nextInt(255));
-            int planetSeed = seed.nextInt(seedRange);
-            Planet newPlanet = new Planet(xCoordinate, yCoordinate, radius, planetColour, planetSeed, this);
-
-            if(isPlanetOverlappingAnother(newPlanet, 0, listOfPlanetObject.size() - 1)) { continue; }
-
-            addPlanetToSortedxCoordinateList(newPlanet);
-            planetCount++;
+        planetTable = new PlanetTable(totalPlanets);
+        // Rows of the planets placed so far, by x, planets of the same x in the order they were placed in
+        int[] rowsByX = new int[totalPlanets];
+        int[] planet = new int[PLANET_VALUES];
+        int rejectedInARow = 0;
+        while(planetTable.size() < totalPlanets && rejectedInARow < MAX_REJECTIONS_IN_A_ROW) {
+            if(!drawPlanet(planet)
+                    || isPlanetOverlappingAnother(rowsByX, planet[X], planet[Y], planet[RADIUS])) {
+                rejectedInARow++;
+                continue;
+            }
+
+            int placed = planetTable.size();
+            int index = placed;
+            while(index > 0 && planetTable.getX(rowsByX[index - 1]) > planet[X]) {
+                rowsByX[index] = rowsByX[index - 1];
+                index--;
+            }
+            rowsByX[index] = planetTable.add(planet[X], planet[Y], planet[RADIUS], planet[RGB], planet[SEED]);
+            rejectedInARow = 0;
         }
+        sortPlanetsByX();
+    }
+
+    /**
+     * Draws the radius, x, y, colour and seed of the next candidate of a v1 region from its
+     * Random, or returns false if the drawn radius does not fit in the region.
+     */
+    private boolean drawPlanet(int[] planet) {
+        int radius = seed.nextInt(maxPlanetRadius) + minPlanetRadius;
+        if(spaceWidth <= 2 * radius || spaceHeight <= 2 * radius) { return false; }
+
+        planet[RADIUS] = radius;
+        planet[X] = seed.nextInt(spaceWidth - (2 * radius)) + (xRegion * spaceWidth);
+        planet[Y] = seed.nextInt(spaceHeight - (2 * radius)) + (yRegion * spaceHeight);
+        planet[RGB] = packRgb(seed.nextInt(255), seed.nextInt(255), seed.nextInt(255));
+        planet[SEED] = seed.nextInt(seedRange);
+        return true;
+    }
+
+    /**
+     * Derives the radius, x, y, colour and seed of the given candidate of a v2 region, or
+     * returns false if the derived radius does not fit in the region.
+     */
+    private boolean derivePlanetCandidate(long candidatesKey, int candidate, int[] planet) {
+        long candidateKey = CounterRandom.key(candidatesKey, candidate);
+        int radius = CounterRandom.nextInt(candidateKey, RADIUS_DRAW, maxPlanetRadius) + minPlanetRadius;
+        if(spaceWidth <= 2 * radius || spaceHeight <= 2 * radius) { return false; }
+
+        planet[RADIUS] = radius;
+        planet[X] = CounterRandom.nextInt(candidateKey, X_DRAW, spaceWidth - (2 * radius)) + (xRegion * spaceWidth);
+        planet[Y] = CounterRandom.nextInt(candidateKey, Y_DRAW, spaceHeight - (2 * radius)) + (yRegion * spaceHeight);
+        planet[RGB] = packRgb(CounterRandom.nextInt(candidateKey, COLOUR_DRAW, 255),
+                CounterRandom.nextInt(candidateKey, COLOUR_DRAW + 1, 255), CounterRandom.nextInt(candidateKey, COLOUR_DRAW + 2, 255));
+        planet[SEED] = CounterRandom.nextInt(candidateKey, SEED_DRAW, seedRange);
+        return true;
+    }
+
+    /**
+     * Places planets with {@link PlanetPlacement#GRID}: every candidate is checked against the
+     * planets of the grid around it, and placement stops when the region has all of its
+     * planets or after MAX_REJECTIONS_IN_A_ROW rejected candidates.
+     */
+    private void createGridPlanets() {
+        planetTable = new PlanetTable(totalPlanets);
+        PlanetGrid grid = createPlanetGrid();
+        long candidatesKey = CounterRandom.key(regionKey, CANDIDATES_KEY);
+        int[] planet = new int[PLANET_VALUES];
+        int candidate = 0;
+        int rejectedInARow = 0;
+        while(planetTable.size() < totalPlanets && rejectedInARow < MAX_REJECTIONS_IN_A_ROW) {
+            boolean drawn = (version == GenerationVersion.v1)? drawPlanet(planet)
+                    : derivePlanetCandidate(candidatesKey, candidate++, planet);
+            if(!drawn || grid.overlaps(planet[X] + planet[RADIUS], planet[Y] + planet[RADIUS], planet[RADIUS])) {
+                rejectedInARow++;
+                continue;
+            }
+
+            grid.add(planetTable.add(planet[X], planet[Y], planet[RADIUS], planet[RGB], planet[SEED]));
+            rejectedInARow = 0;
+        }
+        sortPlanetsByX();
+    }
+
+    /**
+     * Searches through the placed planets by x, starting in the middle and going left or
+     * right depending on whether the candidate's x is smaller or larger, and returns true if
+     * the centre of a planet on the way is closer to the candidate's centre than twice either
+     * radius. Distances are computed the way the first version of the generator did, so v1
+     * regions reject the same candidates.
+     */
+    private boolean isPlanetOverlappingAnother(int[] rowsByX, int xCoordinate, int yCoordinate, int radius) {
+        int min = 0;
+        int max = planetTable.size() - 1;
+        if(max < 0) { return false; }
+
+        while(true) {
+            int midIndex = (min + max) / 2;
+            int midPlanet = rowsByX[midIndex];
+            int midRadius = planetTable.getRadius(midPlanet);
+            double xDistance = (xCoordinate + radius) - (planetTable.getX(midPlanet) + midRadius);
+            double yDistance = (yCoordinate + radius) - (planetTable.getY(midPlanet) + midRadius);
+            double distanceBetweenPlanets = Math.sqrt(Math.pow(xDistance, 2) + Math.pow(yDistance, 2));
+            if(distanceBetweenPlanets < midRadius * 2 || distanceBetweenPlanets < radius * 2) {
+                return true;
+            } else if(max - min == 0) {
+                return false;
+            } else if(xCoordinate > planetTable.getX(midPlanet)) {
+                min = midIndex + 1;
+            } else {
+                max = midIndex;
+            }
+        }
+    }
+
+    private PlanetGrid createPlanetGrid() {
+        int largestRadius = maxPlanetRadius + minPlanetRadius - 1;
+        return new PlanetGrid(planetTable, xRegion * spaceWidth, yRegion * spaceHeight, spaceWidth, spaceHeight, 2 * largestRadius);
+    }
+
+    /**
+     * Sorts the planets by x, planets of the same x staying in the order they were placed in,
+     * and grids them again in their new rows.
+     */
+    private void sortPlanetsByX() {
+        planetTable.sortByX();
+        planetGrid = createPlanetGrid();
+        for(int planet = 0; planet < planetTable.size(); planet++) {
+            planetGrid.add(planet);
+        }
+    }
+
+    private static int packRgb(int red, int green, int blue) {
+        return (red << 16) | (green << 8) | blue;
     }
 
     private void createStars() {
-        int totalStars = seed.nextInt(900) + 100;
-        starLocation = new int[totalStars][];
+        int totalStars = seed.nextInt(STAR_COUNTS) + MIN_STARS;
+        createStarColumns(totalStars);
         for(int s = 0; s < totalStars; s++) {
-            int starRadius = seed.nextInt(4) + 1;
-            int starX = seed.nextInt(spaceWidth - 2 * starRadius) + (xRegion * spaceWidth);
-            int starY = seed.nextInt(spaceHeight - 2 * starRadius) + (yRegion * spaceHeight);
-            int[] starInfo = {starX, starY, starRadius};
-            starLocation[s] = starInfo;
+            int radius = seed.nextInt(4) + 1;
+            starRadius[s] = (byte) radius;
+            starX[s] = seed.nextInt(spaceWidth - 2 * radius) + (xRegion * spaceWidth);
+            starY[s] = seed.nextInt(spaceHeight - 2 * radius) + (yRegion * spaceHeight);
         }
     }
 
-    private void addPlanetToSortedxCoordinateList(Planet planet) {
-        for(int index = 0; index < listOfPlanetObject.size(); index++) {
-            if(listOfPlanetObject.get(index).getXCoordinate() > planet.getXCoordinate()) {
-                listOfPlanetObject.add(index, planet);
-                return;
-            }
+    private void createCellPlanets() {
+        int largestRadius = maxPlanetRadius + minPlanetRadius - 1;
+        cellSize = 4 * largestRadius;
+        cellColumns = spaceWidth / cellSize;
+        cellRows = spaceHeight / cellSize;
+        int cells = cellColumns * cellRows;
+        double averagePlanets = minPlanets + (maxPlanets - 1) / 2.0;
+        planetChance = (cells == 0)? 0 : (int) Math.min(CHANCE_SCALE, Math.round(averagePlanets / cells * CHANCE_SCALE));
+        planetTable = new PlanetTable((int) Math.ceil(averagePlanets));
+        for(int cell = 0; cell < cells; cell++) {
+            derivePlanet(cell, planetTable);
         }
-        listOfPlanetObject.add(planet);
-    }
-
-    /**
-     * Recurrsive quicksort method that searches through the sorted list of planets
-     * by starting in the middle and pivoting either left or right depending if the
-     * planetToCheck's xCoordinate is larger or smaller.
-     *
-     * @param planetToCheck
-     * @param min
-     * @param max
-     * @return {boolean}
-     */
-    private boolean isPlanetOverlappingAnother(Planet planetToCheck, int min, int max) {
-        if(listOfPlanetObject.size() == 0) { return false; }
-
-        int midIndex = (min + max) / 2;
-        Planet midPlanet = listOfPlanetObject.get(midIndex);
-        int midPlanetX = offSetPlanetCoordinateByRadius(midPlanet, CoordinateType.x);
-        int midPlanetY = offSetPlanetCoordinateByRadius(midPlanet, CoordinateType.y);
-        int planetToCheckX = offSetPlanetCoordinateByRadius(planetToCheck, CoordinateType.x);
-        int planetToCheckY = offSetPlanetCoordinateByRadius(planetToCheck, CoordinateType.y);
-        double distanceBetweenPlanets = calculateDistanceOfTwoObjects(midPlanetX, midPlanetY, planetToCheckX, planetToCheckY);
-        if(distanceBetweenPlanets < midPlanet.getRadius() * 2|| distanceBetweenPlanets < planetToCheck.getRadius() * 2) {
-            return true;
-        } else if(max - min == 0) {
-            return false;
-        } else if(planetToCheck.getXCoordinate() > midPlanet.getXCoordinate()) {
-            return isPlanetOverlappingAnother(planetToCheck, midIndex + 1, max);
-        } else {
-            return isPlanetOverlappingAnother(planetToCheck, min, midIndex );
+        totalPlanets = planetTable.size();
+        // Cells go row by row, the planets are sorted by x like in v1
+        sortPlanetsByX();
+    }
+
+    /**
+     * Derives the planet of the given cell of a v2 region, counted row by row, or returns
+     * null if the cell has none. Throws IllegalStateException for a region whose planets are
+     * not placed in cells, a v1 region or one placed with {@link PlanetPlacement#GRID}.
+     */
+    public Planet derivePlanet(int cell) {
+        if(version != GenerationVersion.v2 || placement != PlanetPlacement.VERSION) {
+            throw new IllegalStateException("Only the planets of a v2 region placed in cells can be derived");
         }
+        PlanetTable planet = new PlanetTable(1);
+        return derivePlanet(cell, planet)? new Planet(planet, 0, this) : null;
     }
 
-    private int offSetPlanetCoordinateByRadius(Planet planet, CoordinateType whichCoordinate) {
-        int originalCoordinate = (whichCoordinate == CoordinateType.x)? planet.getXCoordinate():planet.getYCoordinate();
-        return originalCoordinate + planet.getRadius();
+    /**
+     * Adds the planet of the given cell of a v2 region to the table, if the cell has one.
+     */
+    private boolean derivePlanet(int cell, PlanetTable table) {
+        long planetKey = CounterRandom.key(CounterRandom.key(regionKey, PLANETS_KEY), cell);
+        if(CounterRandom.nextInt(planetKey, CHANCE_DRAW, CHANCE_SCALE) >= planetChance) { return false; }
+
+        int largestRadius = maxPlanetRadius + minPlanetRadius - 1;
+        int room = cellSize - 2 * largestRadius;
+        int radius = CounterRandom.nextInt(planetKey, RADIUS_DRAW, maxPlanetRadius) + minPlanetRadius;
+        int centreX = (cell % cellColumns) * cellSize + largestRadius + CounterRandom.nextInt(planetKey, X_DRAW, room);
+        int centreY = (cell / cellColumns) * cellSize + largestRadius + CounterRandom.nextInt(planetKey, Y_DRAW, room);
+        int planetRgb = packRgb(CounterRandom.nextInt(planetKey, COLOUR_DRAW, 255),
+                CounterRandom.nextInt(planetKey, COLOUR_DRAW + 1, 255), CounterRandom.nextInt(planetKey, COLOUR_DRAW + 2, 255));
+        int planetSeed = CounterRandom.nextInt(planetKey, SEED_DRAW, seedRange);
+        table.add(centreX - radius + (xRegion * spaceWidth), centreY - radius + (yRegion * spaceHeight),
+                radius, planetRgb, planetSeed);
+        return true;
     }
 
-    private double calculateDistanceOfTwoObjects(int x1, int y1, int x2, int y2) {
-        double xDistance = x2 - x1;
-        double yDistance = y2 - y1;
-        double totalDistance = Math.sqrt(Math.pow(xDistance, 2) + Math.pow(yDistance, 2));
-        return totalDistance;
+    private void createDerivedStars() {
+        long starsKey = CounterRandom.key(regionKey, STARS_KEY);
+        int totalStars = CounterRandom.nextInt(starsKey, STAR_COUNT_DRAW, STAR_COUNTS) + MIN_STARS;
+        createStarColumns(totalStars);
+        int[] star = new int[3];
+        for(int s = 0; s < totalStars; s++) {
+            deriveStar(s, star);
+            starX[s] = star[0];
+            starY[s] = star[1];
+            starRadius[s] = (byte) star[2];
+        }
     }
 
-    public Planet findPlanetByLocation(int selectX, int selectY) {
-        for(int j = 0; j < listOfPlanetObject.size(); j++) {
-            Planet jPlanet = listOfPlanetObject.get(j);
-            int planetXCoord = offSetPlanetCoordinateByRadius(jPlanet, CoordinateType.x);
-            int planetyCoord = offSetPlanetCoordinateByRadius(jPlanet, CoordinateType.y);
-            double distanceBetweenTwoPoints = calculateDistanceOfTwoObjects(planetXCoord, planetyCoord, selectX, selectY);
-            if(distanceBetweenTwoPoints < jPlanet.getRadius()) {
-                return jPlanet;
-            }
-            if(planetXCoord > selectX) { break; }
+    private void createStarColumns(int totalStars) {
+        starX = new int[totalStars];
+        starY = new int[totalStars];
+        starRadius = new byte[totalStars];
+    }
+
+    /**
+     * Derives the x, y and radius of the given star of a v2 region. Throws
+     * IllegalStateException for a v1 region, whose stars come from its Random.
+     */
+    public int[] deriveStar(int index) {
+        if(version != GenerationVersion.v2) {
+            throw new IllegalStateException("Only the stars of a v2 region can be derived");
         }
-        return null;
+        int[] star = new int[3];
+        deriveStar(index, star);
+        return star;
+    }
+
+    private void deriveStar(int index, int[] star) {
+        long starKey = CounterRandom.key(CounterRandom.key(regionKey, STARS_KEY), index);
+        int radius = CounterRandom.nextInt(starKey, RADIUS_DRAW, 4) + 1;
+        star[0] = CounterRandom.nextInt(starKey, X_DRAW, spaceWidth - 2 * radius) + (xRegion * spaceWidth);
+        star[1] = CounterRandom.nextInt(starKey, Y_DRAW, spaceHeight - 2 * radius) + (yRegion * spaceHeight);
+        star[2] = radius;
+    }
+
+    /**
+     * Returns the planet whose disc holds the given point, or null. Planets of a v1 region
+     * can overlap, and where they do the planet of the smallest x is returned, the one placed
+     * first if they have the same x.
+     */
+    public Planet findPlanetByLocation(int selectX, int selectY) {
+        int planet = planetGrid.find(selectX, selectY);
+        return (planet == -1)? null : getPlanet(planet);
     }
 
-    public int[][] getStars() {
-        return starLocation;
+    public int getStarCount() {
+        return starX.length;
     }
 
-    public List<Planet> getListOfPlanets() {
-        return listOfPlanetObject;
+    public int getStarX(int star) {
+        return starX[star];
+    }
+
+    public int getStarY(int star) {
+        return starY[star];
+    }
+
+    public int getStarRadius(int star) {
+        return starRadius[star];
+    }
+
+    /**
+     * Returns the planets of the region, sorted by x.
+     */
+    public PlanetTable getPlanets() {
+        return planetTable;
+    }
+
+    public int getPlanetCount() {
+        return planetTable.size();
+    }
+
+    /**
+     * Returns the colour of the given planet of {@link #getPlanets}. The colours are made the
+     * first time one is asked for and kept, so drawing the region does not create a Color
+     * for every planet on every paint.
+     */
+    public Color getPlanetColour(int planet) {
+        if(planetColours == null) {
+            Color[] colours = new Color[planetTable.size()];
+            for(int i = 0; i < colours.length; i++) {
+                colours[i] = new Color(planetTable.getRgb(i));
+            }
+            planetColours = colours;
+        }
+        return planetColours[planet];
+    }
+
+    /**
+     * Returns a handle on the given planet of {@link #getPlanets}.
+     */
+    public Planet getPlanet(int planet) {
+        if(planet < 0 || planet >= planetTable.size()) {
+            throw new IndexOutOfBoundsException("Planet " + planet + " of " + planetTable.size());
+        }
+        return new Planet(planetTable, planet, this);
     }
 
     public int getMaxPlanetRadius() {
         return maxPlanetRadius;
     }
 
+    public GenerationVersion getGenerationVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of cells of a v2 region, each of which may hold a planet.
+     */
+    public int getPlanetCells() {
+        return cellColumns * cellRows;
+    }
+
     public int getRegionSeed() {
         return regionSeed;
     }
@@ -0,0 +1,92 @@
+package com.spacegeneration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generates a rectangle of planet regions at once, a task per region on a fork/join pool.
+ * A region only depends on its own seed and coordinates, so every region is the same as when
+ * it is generated on its own, whatever thread generated it, and the regions come back in the
+ * order the universe lists them in: column by column, from the top of each column down.
+ */
+public final class PlanetRegionBatch {
+
+    private PlanetRegionBatch() {
+    }
+
+    /**
+     * Generates the regions firstX to firstX + columns - 1 across and firstY to firstY +
+     * rows - 1 down on the common fork/join pool. seeds[column * rows + row] is the seed of
+     * the region in that column and row.
+     */
+    public static List<PlanetRegion> generate(int[] seeds, int firstX, int firstY, int columns, int rows,
+            int height, int width, GenerationVersion version, PlanetPlacement placement) {
+        return generate(ForkJoinPool.commonPool(), seeds, firstX, firstY, columns, rows, height, width, version,
+                placement);
+    }
+
+    public static List<PlanetRegion> generate(ForkJoinPool pool, int[] seeds, int firstX, int firstY, int columns,
+            int rows, int height, int width, GenerationVersion version, PlanetPlacement placement) {
+        if (seeds.length != columns * rows) {
+            throw new IllegalArgumentException(seeds.length + " seeds for " + columns + "x" + rows + " regions");
+        }
+        PlanetRegion[] regions = new PlanetRegion[seeds.length];
+        if (regions.length > 0) {
+            pool.invoke(new RegionTask(seeds, firstX, firstY, rows, height, width, version, placement, regions, 0,
+                    regions.length));
+        }
+        return Arrays.asList(regions);
+    }
+
+    /**
+     * Splits the regions in halves until a single one is left, which is then generated into
+     * its place in the output.
+     */
+    private static final class RegionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] seeds;
+        private final int firstX;
+        private final int firstY;
+        private final int rows;
+        private final int height;
+        private final int width;
+        private final GenerationVersion version;
+        private final PlanetPlacement placement;
+        private final PlanetRegion[] regions;
+        private final int from;
+        private final int to;
+
+        RegionTask(int[] seeds, int firstX, int firstY, int rows, int height, int width, GenerationVersion version,
+                PlanetPlacement placement, PlanetRegion[] regions, int from, int to) {
+            this.seeds = seeds;
+            this.firstX = firstX;
+            this.firstY = firstY;
+            this.rows = rows;
+            this.height = height;
+            this.width = width;
+            this.version = version;
+            this.placement = placement;
+            this.regions = regions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int split = (from + to) >>> 1;
+                invokeAll(new RegionTask(seeds, firstX, firstY, rows, height, width, version, placement, regions,
+                        from, split),
+                        new RegionTask(seeds, firstX, firstY, rows, height, width, version, placement, regions,
+                        split, to));
+                return;
+            }
+
+            regions[from] = new PlanetRegion(seeds[from], firstX + from / rows, firstY + from % rows, height, width,
+                    version, placement);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.spacegeneration;
+
+import java.util.Arrays;
+
+/**
+ * The planets of a region, column by column: one array each of x coordinates, y coordinates,
+ * radii, colours packed as 0xRRGGBB and seeds, with planet i in row i of every column. A
+ * region keeps its planets here instead of as a {@link Planet} object each, and hands out a
+ * Planet only as a handle on a row, so drawing and hit-testing go through a few flat arrays.
+ */
+public final class PlanetTable {
+
+    /**
+     * The largest radius a planet in a table can have.
+     */
+    public static final int MAX_RADIUS = Byte.MAX_VALUE;
+
+    private int[] x;
+    private int[] y;
+    private byte[] radius;
+    private int[] rgb;
+    private int[] seed;
+    private int size;
+
+    /**
+     * Creates an empty table with room for the given number of planets, which grows when
+     * more are added.
+     */
+    PlanetTable(int capacity) {
+        capacity = Math.max(1, capacity);
+        x = new int[capacity];
+        y = new int[capacity];
+        radius = new byte[capacity];
+        rgb = new int[capacity];
+        seed = new int[capacity];
+    }
+
+    /**
+     * Adds a planet as the last row and returns its row. Radii are kept in a byte, so they
+     * must be between 0 and {@link #MAX_RADIUS}.
+     */
+    int add(int xCoordinate, int yCoordinate, int planetRadius, int planetRgb, int planetSeed) {
+        if (planetRadius < 0 || planetRadius > MAX_RADIUS) {
+            throw new IllegalArgumentException("A planet radius must be between 0 and " + MAX_RADIUS + ", not " + planetRadius);
+        }
+        if (size == x.length) {
+            resize(size * 2);
+        }
+        x[size] = xCoordinate;
+        y[size] = yCoordinate;
+        radius[size] = (byte) planetRadius;
+        rgb[size] = planetRgb & 0xffffff;
+        seed[size] = planetSeed;
+        return size++;
+    }
+
+    /**
+     * Sorts the rows by x, keeping planets of the same x in the order they were added, and
+     * trims the columns to the planets.
+     */
+    void sortByX() {
+        // x in the high half and the row in the low half, so equal x keep their order
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) x[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] sortedX = new int[size];
+        int[] sortedY = new int[size];
+        byte[] sortedRadius = new byte[size];
+        int[] sortedRgb = new int[size];
+        int[] sortedSeed = new int[size];
+        for (int i = 0; i < size; i++) {
+            int row = (int) keys[i];
+            sortedX[i] = x[row];
+            sortedY[i] = y[row];
+            sortedRadius[i] = radius[row];
+            sortedRgb[i] = rgb[row];
+            sortedSeed[i] = seed[row];
+        }
+        x = sortedX;
+        y = sortedY;
+        radius = sortedRadius;
+        rgb = sortedRgb;
+        seed = sortedSeed;
+    }
+
+    private void resize(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        rgb = Arrays.copyOf(rgb, capacity);
+        seed = Arrays.copyOf(seed, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getX(int planet) {
+        return x[planet];
+    }
+
+    public int getY(int planet) {
+        return y[planet];
+    }
+
+    public int getRadius(int planet) {
+        return radius[planet];
+    }
+
+    /**
+     * Returns the colour of the planet as 0xRRGGBB.
+     */
+    public int getRgb(int planet) {
+        return rgb[planet];
+    }
+
+    public int getSeed(int planet) {
+        return seed[planet];
+    }
+}
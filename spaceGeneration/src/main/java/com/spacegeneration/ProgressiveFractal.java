@@ -0,0 +1,195 @@
+package com.spacegeneration;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Builds a fractal Perlin surface one octave at a time. Every call to {@link #addOctave()}
+ * fills the next octave with the bulk noise kernels and folds it into a running accumulation
+ * buffer, so the surface can be shown after the first octave and refined in place while the
+ * remaining octaves are added.
+ * <p>
+ * Octaves are seeded and combined the same way as FastNoise.GetPerlinFractal for the
+ * configured fractal type, octave count, lacunarity and gain, so a complete surface matches
+ * GetPerlinFractal up to float rounding of the sample coordinates, with either hash type.
+ * Values are read with {@link #getValue(int)} and are scaled for the octaves added so far.
+ * <p>
+ * A surface can also be sampled coarsely, at every step-th integer coordinate, which is how
+ * a quick preview of a large land is made, and octaves can be read through a
+ * {@link NoiseTileCache} so a surface that was generated before is mostly copied, not
+ * generated again.
+ * <p>
+ * Adding octaves is not thread safe, but {@link #cancel()} may be called from any thread.
+ * It also stops an octave that is being filled, between two tiles of the fill, and that
+ * octave is then left out of the surface.
+ */
+public final class ProgressiveFractal {
+
+    private final NoiseConfig config;
+    private final int x0;
+    private final int y0;
+    private final int width;
+    private final int height;
+    private final int step;
+    private final NoiseTileCache tileCache;
+    private final float[] sum;
+    private final float[] octave;
+    private final BooleanSupplier cancelCheck = new BooleanSupplier() {
+        @Override
+        public boolean getAsBoolean() {
+            return cancelled;
+        }
+    };
+
+    private int completedOctaves;
+    private float amplitude = 1;
+    private float amplitudeSum;
+    private float frequency;
+    private volatile boolean cancelled;
+
+    /**
+     * Creates an empty surface of the given size, sampled at the integer coordinates
+     * (0, 0) to (width - 1, height - 1). The noise type of the config is ignored.
+     */
+    public ProgressiveFractal(NoiseConfig config, int width, int height) {
+        this(config, width, height, 1);
+    }
+
+    /**
+     * Creates an empty surface of width x height samples, where sample (x, y) lies at the
+     * coordinates (x * step, y * step).
+     */
+    public ProgressiveFractal(NoiseConfig config, int width, int height, int step) {
+        this(config, width, height, step, null);
+    }
+
+    /**
+     * Creates an empty coarse surface like above whose octaves are filled through the given
+     * tile cache, or generated directly when the cache is null.
+     */
+    public ProgressiveFractal(NoiseConfig config, int width, int height, int step, NoiseTileCache tileCache) {
+        this(config, 0, 0, width, height, step, tileCache);
+    }
+
+    /**
+     * Creates an empty surface of width x height samples whose sample (x, y) lies at the
+     * coordinates ((x0 + x) * step, (y0 + y) * step), so a large surface can be built as
+     * separate pieces that match it exactly.
+     */
+    public ProgressiveFractal(NoiseConfig config, int x0, int y0, int width, int height, int step,
+            NoiseTileCache tileCache) {
+        this.config = config;
+        this.x0 = x0;
+        this.y0 = y0;
+        this.tileCache = tileCache;
+        this.width = width;
+        this.height = height;
+        this.step = step;
+        this.sum = new float[width * height];
+        this.octave = new float[width * height];
+        this.frequency = config.getFrequency() * step;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    public int getOctaves() {
+        return config.getOctaves();
+    }
+
+    public int getCompletedOctaves() {
+        return completedOctaves;
+    }
+
+    public boolean isComplete() {
+        return completedOctaves >= config.getOctaves();
+    }
+
+    /**
+     * Stops the refinement: an octave being filled stops at its next tile and is not added,
+     * later calls to {@link #addOctave()} do nothing, and the octaves added so far stay
+     * readable.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Fills the next octave and adds it to the surface.
+     *
+     * @return false if the surface was already complete or has been cancelled, also while
+     *         the octave was being filled
+     */
+    public boolean addOctave() {
+        if (cancelled || isComplete()) { return false; }
+
+        FastNoise octaveNoise = new FastNoise(config);
+        octaveNoise.SetOctaveSeed(config.getSeed() + completedOctaves);
+        octaveNoise.SetFrequency(frequency);
+        octaveNoise.SetNoiseType(FastNoise.NoiseType.Perlin);
+        boolean filled;
+        if (tileCache != null) {
+            filled = tileCache.fill(octaveNoise.GetConfig(), step, octave, 0, x0, y0, width, height, width, cancelCheck);
+        } else {
+            filled = ParallelNoiseFill.fill(octaveNoise.GetConfig(), octave, x0, y0, width, height, width, cancelCheck);
+        }
+        if (!filled) { return false; }
+
+        if (completedOctaves > 0) {
+            amplitude *= config.getGain();
+        }
+        accumulate();
+        amplitudeSum += amplitude;
+        frequency *= config.getLacunarity();
+        completedOctaves++;
+        return true;
+    }
+
+    private void accumulate() {
+        boolean first = completedOctaves == 0;
+        switch (config.getFractalType()) {
+            case Billow:
+                for (int i = 0; i < sum.length; i++) {
+                    float value = Math.abs(octave[i]) * 2 - 1;
+                    sum[i] = first ? value : sum[i] + value * amplitude;
+                }
+                break;
+            case RigidMulti:
+                for (int i = 0; i < sum.length; i++) {
+                    float value = 1 - Math.abs(octave[i]);
+                    sum[i] = first ? value : sum[i] - value * amplitude;
+                }
+                break;
+            case FBM:
+            default:
+                for (int i = 0; i < sum.length; i++) {
+                    sum[i] = first ? octave[i] : sum[i] + octave[i] * amplitude;
+                }
+                break;
+        }
+    }
+
+    /**
+     * Returns the value at sample index y * width + x with the octaves added so far. FBM and
+     * Billow are divided by the summed amplitudes of those octaves, like FastNoise does for
+     * the complete fractal, so the value range stays the same while refining.
+     */
+    public float getValue(int index) {
+        if (config.getFractalType() == FastNoise.FractalType.RigidMulti) {
+            return sum[index];
+        }
+        return sum[index] * (1 / amplitudeSum);
+    }
+}
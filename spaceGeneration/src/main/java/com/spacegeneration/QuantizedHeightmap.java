@@ -0,0 +1,120 @@
+package com.spacegeneration;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A heightmap stored as one flat row-major array of 8 or 16 bit levels instead of floats.
+ * Heights are normalized to the range from minimum to minimum + range, known after the
+ * min/max pass over the land, and rounded to the nearest of the 2^bits levels, so a stored
+ * height is off by at most half a level, range / (2 * (2^bits - 1)).
+ */
+public final class QuantizedHeightmap {
+
+    private final int width;
+    private final int height;
+    private final int bits;
+    private final float minimum;
+    private final float range;
+    private final int maxLevel;
+    private final double levelsPerHeight;
+    private final double heightPerLevel;
+    private final byte[] bytes;
+    private final short[] shorts;
+
+    /**
+     * Creates a heightmap of the given size, with every height at minimum.
+     *
+     * @param bits 8 or 16
+     */
+    public QuantizedHeightmap(int width, int height, int bits, float minimum, float range) {
+        if (bits != 8 && bits != 16) {
+            throw new IllegalArgumentException("Heights are stored with 8 or 16 bits, not " + bits);
+        }
+        this.width = width;
+        this.height = height;
+        this.bits = bits;
+        this.minimum = minimum;
+        this.range = range;
+        this.maxLevel = (1 << bits) - 1;
+        this.levelsPerHeight = (range > 0)? maxLevel / (double) range : 0;
+        this.heightPerLevel = range / (double) maxLevel;
+        this.bytes = (bits == 8)? new byte[width * height] : null;
+        this.shorts = (bits == 16)? new short[width * height] : null;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    public float getMinimum() {
+        return minimum;
+    }
+
+    public float getRange() {
+        return range;
+    }
+
+    public long getSizeInBytes() {
+        return (long) width * height * bits / 8;
+    }
+
+    /**
+     * Stores the height of the sample at index y * width + x, clamped to the range.
+     */
+    public void setHeight(int index, float value) {
+        int level = (int) Math.min(Math.max(Math.round((value - (double) minimum) * levelsPerHeight), 0), maxLevel);
+        if (bytes != null) {
+            bytes[index] = (byte) level;
+        } else {
+            shorts[index] = (short) level;
+        }
+    }
+
+    /**
+     * Returns the level of the sample at index y * width + x, from 0 to 2^bits - 1.
+     */
+    public int getLevel(int index) {
+        return (bytes != null)? bytes[index] & 0xff : shorts[index] & 0xffff;
+    }
+
+    /**
+     * Returns the height of the sample at index y * width + x, the middle of its level.
+     */
+    public float getHeight(int index) {
+        return (float) (minimum + getLevel(index) * heightPerLevel);
+    }
+
+    public float getHeight(int x, int y) {
+        return getHeight(y * width + x);
+    }
+
+    /**
+     * Copies every level, row by row, to the start of the buffer in the buffer's byte order.
+     */
+    void writeLevels(ByteBuffer out) {
+        if (bytes != null) {
+            out.put(bytes);
+        } else {
+            out.asShortBuffer().put(shorts);
+        }
+    }
+
+    /**
+     * Replaces every level with the ones at the start of the buffer, see {@link #writeLevels}.
+     */
+    void readLevels(ByteBuffer in) {
+        if (bytes != null) {
+            in.get(bytes);
+        } else {
+            in.asShortBuffer().get(shorts);
+        }
+    }
+}
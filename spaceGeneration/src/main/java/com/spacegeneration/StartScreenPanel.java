@@ -1,6 +1,7 @@
 package com.spacegeneration;
 
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
@@ -17,8 +18,10 @@ import java.awt.Graphics;
 
 /**
  * Main Screen that is shown when the program is initially started. The screen
- * is used to insert a seed, if the user chooses to do so. The user is then able
- * to start the universe simulation.
+ * is used to insert a seed, if the user chooses to do so, the generation version,
+ * where v1 keeps the universes of existing seeds, and the planet placement, where GRID
+ * places planets without any overlapping. The user is then able to start the universe
+ * simulation.
  */
 public class StartScreenPanel extends JPanel implements ActionListener {
     private static final long serialVersionUID = 1L;
@@ -30,6 +33,8 @@ public class StartScreenPanel extends JPanel implements ActionListener {
     private JLabel mainTitle;
     private String originalText = "Insert Seed (Optional)";
     private JTextField seedInputField;
+    private JComboBox<GenerationVersion> versionInput;
+    private JComboBox<PlanetPlacement> placementInput;
     private JButton startSimulationBtn;
 
     int totalStars = 800;
@@ -72,9 +77,19 @@ public class StartScreenPanel extends JPanel implements ActionListener {
         constraint.insets = new Insets(30, 0, 0, 0);
         add(seedInputField, constraint);
 
+        versionInput = new JComboBox<GenerationVersion>(GenerationVersion.values());
+        constraint.gridy = 2;
+        constraint.ipady = 0;
+        constraint.insets = new Insets(10, 0, 0, 0);
+        add(versionInput, constraint);
+
+        placementInput = new JComboBox<PlanetPlacement>(PlanetPlacement.values());
+        constraint.gridy = 3;
+        add(placementInput, constraint);
+
         startSimulationBtn = new JButton("Start Space Simulation");
         startSimulationBtn.addActionListener(this);
-        constraint.gridy = 2;
+        constraint.gridy = 4;
         constraint.ipadx = 50;
         constraint.ipady = 30;
         constraint.insets = new Insets(30, 0, 0, 0);
@@ -110,7 +125,8 @@ public class StartScreenPanel extends JPanel implements ActionListener {
                 seedValue += character;
             }
         }
-        mainFrame.startUniverseSimulation(seedValue);
+        mainFrame.startUniverseSimulation(seedValue, (GenerationVersion) versionInput.getSelectedItem(),
+                (PlanetPlacement) placementInput.getSelectedItem());
     }
 
     @Override
@@ -0,0 +1,378 @@
+package com.spacegeneration;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.CRC32;
+
+/**
+ * Directory of complete planet lands, so a planet that was visited before, even in an earlier
+ * run, is mapped from disk instead of generated again. A land only depends on its seed, size
+ * and generation settings, which together make the {@link Key} and the file name. The
+ * version in the header is the version of the file format; the version of the code that
+ * generated a land is part of the settings fingerprint, see
+ * {@link LandGenerationJob#GENERATOR_VERSION}.
+ * <p>
+ * Every file is a header followed by the colour index of every pixel and then the quantized
+ * heights, both row by row:
+ * <pre>
+ * int magic, int version, int width, int height, int seed, int heightBits,
+ * long fingerprint, float minimum, float range, long checksum
+ * byte[width * height] colour indices
+ * byte[width * height * heightBits / 8] height levels
+ * </pre>
+ * The checksum is the CRC32 of the header before it and of everything after it. Files are
+ * memory-mapped both ways: a land is written into a mapped temporary file that is renamed
+ * into place once complete, and a cached land is read straight from its mapping.
+ * <p>
+ * The cache is bounded by the bytes of its files. Once a new land takes it over that bound,
+ * the least recently used lands are deleted, where a land is used when it is written or
+ * opened. Files that do not match their key or checksum are deleted when opened. The cache
+ * may be shared between threads and processes.
+ */
+public final class TerrainCache {
+
+    static final int MAGIC = 0x53474c44;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 48;
+    static final int CHECKSUM_POSITION = 40;
+    static final String SUFFIX = ".land";
+    static final String DIRECTORY_PROPERTY = "spacegeneration.terrainCache";
+
+    private final File directory;
+    private final long maxBytes;
+
+    /**
+     * Uses the given directory, which is created if needed, for at most maxBytes of lands.
+     */
+    public TerrainCache(File directory, long maxBytes) throws IOException {
+        Files.createDirectories(directory.toPath());
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cache in the directory of the spacegeneration.terrainCache system property,
+     * or in .spacegeneration/terrain in the user's home, or null when that directory cannot be
+     * created.
+     */
+    public static TerrainCache openDefault(long maxBytes) {
+        String path = System.getProperty(DIRECTORY_PROPERTY);
+        File directory = (path != null)? new File(path)
+                : Paths.get(System.getProperty("user.home"), ".spacegeneration", "terrain").toFile();
+        try {
+            return new TerrainCache(directory, maxBytes);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the bytes of all the lands in the cache.
+     */
+    public long getSizeInBytes() {
+        long size = 0;
+        for (File file : listLands()) {
+            size += file.length();
+        }
+        return size;
+    }
+
+    /**
+     * Identifies a land: its seed, size and height bits, and a fingerprint of every other
+     * setting it was generated with.
+     */
+    public static final class Key {
+        private final int seed;
+        private final int width;
+        private final int height;
+        private final int heightBits;
+        private final long fingerprint;
+
+        public Key(int seed, int width, int height, int heightBits, long fingerprint) {
+            this.seed = seed;
+            this.width = width;
+            this.height = height;
+            this.heightBits = heightBits;
+            this.fingerprint = fingerprint;
+        }
+
+        long getPayloadBytes() {
+            return (long) width * height * (1 + heightBits / 8);
+        }
+
+        String getFileName() {
+            return String.format("%d-%dx%d-%d-%016x%s", seed, width, height, heightBits, fingerprint, SUFFIX);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) { return false; }
+
+            Key key = (Key) other;
+            return seed == key.seed && width == key.width && height == key.height
+                    && heightBits == key.heightBits && fingerprint == key.fingerprint;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = seed;
+            hash = 31 * hash + width;
+            hash = 31 * hash + height;
+            hash = 31 * hash + heightBits;
+            hash = 31 * hash + (int) (fingerprint ^ (fingerprint >>> 32));
+            return hash;
+        }
+    }
+
+    /**
+     * Maps the cached land of the key, or returns null when there is none or its file is
+     * damaged, in which case the file is deleted. The land must be closed once it has been
+     * read.
+     */
+    public Land open(Key key) throws IOException {
+        File file = new File(directory, key.getFileName());
+        MappedByteBuffer buffer;
+        try {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try {
+                if (channel.size() != HEADER_BYTES + key.getPayloadBytes()) {
+                    buffer = null;
+                } else {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } finally {
+                channel.close();
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (buffer == null || !matches(buffer, key)) {
+            DirectBuffers.free(buffer);
+            Files.deleteIfExists(file.toPath());
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        return new Land(key, buffer);
+    }
+
+    private static boolean matches(ByteBuffer buffer, Key key) {
+        return buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+                && buffer.getInt(8) == key.width && buffer.getInt(12) == key.height
+                && buffer.getInt(16) == key.seed && buffer.getInt(20) == key.heightBits
+                && buffer.getLong(24) == key.fingerprint
+                && buffer.getLong(CHECKSUM_POSITION) == checksum(buffer);
+    }
+
+    private static long checksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        ByteBuffer header = buffer.duplicate();
+        ((Buffer) header).limit(CHECKSUM_POSITION);
+        crc.update(header);
+        crc.update(at(buffer, HEADER_BYTES));
+        return crc.getValue();
+    }
+
+    /**
+     * Returns a view of the buffer from the given position on. Positions are set through
+     * Buffer, so the class files also run on Java 8.
+     */
+    private static ByteBuffer at(ByteBuffer buffer, int position) {
+        ByteBuffer view = buffer.duplicate();
+        ((Buffer) view).position(position);
+        return view.slice();
+    }
+
+    /**
+     * A cached land mapped for reading.
+     */
+    public static final class Land implements AutoCloseable {
+        private final Key key;
+        private MappedByteBuffer buffer;
+
+        private Land(Key key, MappedByteBuffer buffer) {
+            this.key = key;
+            this.buffer = buffer;
+        }
+
+        public float getMinimum() {
+            return buffer.getFloat(32);
+        }
+
+        public float getRange() {
+            return buffer.getFloat(36);
+        }
+
+        /**
+         * Copies the colour indices of the rows from firstRow on to out, which holds whole rows.
+         */
+        public void readColorIndices(int firstRow, byte[] out) {
+            at(buffer, HEADER_BYTES + firstRow * key.width).get(out);
+        }
+
+        /**
+         * Copies the cached heights into a heightmap of the land's size and height bits.
+         */
+        public void readHeights(QuantizedHeightmap heights) {
+            heights.readLevels(at(buffer, HEADER_BYTES + key.width * key.height));
+        }
+
+        /**
+         * Unmaps the land. It cannot be read afterwards.
+         */
+        @Override
+        public void close() {
+            DirectBuffers.free(buffer);
+            buffer = null;
+        }
+    }
+
+    /**
+     * Starts writing the land of the key into a mapped temporary file of the cache. The land
+     * only replaces the cached land of the key once it is committed.
+     */
+    public Writer create(Key key) throws IOException {
+        Path temporary = Files.createTempFile(directory.toPath(), key.getFileName(), ".tmp");
+        try {
+            FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                return new Writer(key, temporary, channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        HEADER_BYTES + key.getPayloadBytes()));
+            } finally {
+                channel.close();
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+
+    /**
+     * A land that is being written. Every row must be written before it is committed.
+     */
+    public final class Writer {
+        private final Key key;
+        private final Path temporary;
+        private MappedByteBuffer buffer;
+
+        private Writer(Key key, Path temporary, MappedByteBuffer buffer) {
+            this.key = key;
+            this.temporary = temporary;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Writes the colour indices of whole rows from firstRow on.
+         */
+        public void writeColorIndices(int firstRow, byte[] colorIndices) {
+            at(buffer, HEADER_BYTES + firstRow * key.width).put(colorIndices);
+        }
+
+        /**
+         * Writes the heights and the header, and moves the land into place in the cache.
+         */
+        public void commit(QuantizedHeightmap heights) throws IOException {
+            heights.writeLevels(at(buffer, HEADER_BYTES + key.width * key.height));
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, key.width);
+            buffer.putInt(12, key.height);
+            buffer.putInt(16, key.seed);
+            buffer.putInt(20, key.heightBits);
+            buffer.putLong(24, key.fingerprint);
+            buffer.putFloat(32, heights.getMinimum());
+            buffer.putFloat(36, heights.getRange());
+            buffer.putLong(CHECKSUM_POSITION, checksum(buffer));
+            DirectBuffers.free(buffer);
+            buffer = null;
+
+            File file = new File(directory, key.getFileName());
+            try {
+                Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            file.setLastModified(System.currentTimeMillis());
+            evict(file);
+        }
+
+        /**
+         * Drops the land without caching it. Does nothing once it was committed.
+         */
+        public void abort() {
+            if (buffer == null) { return; }
+
+            DirectBuffers.free(buffer);
+            buffer = null;
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException e) {
+                temporary.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Deletes the least recently used lands, other than the one just written, until the
+     * cache fits its bound.
+     */
+    private synchronized void evict(File written) {
+        File[] lands = listLands();
+        long size = 0;
+        final long[] used = new long[lands.length];
+        for (int i = 0; i < lands.length; i++) {
+            size += lands[i].length();
+        }
+        Integer[] order = new Integer[lands.length];
+        for (int i = 0; i < lands.length; i++) {
+            order[i] = i;
+            used[i] = lands[i].lastModified();
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                return Long.compare(used[first], used[second]);
+            }
+        });
+        for (int i = 0; i < order.length && size > maxBytes; i++) {
+            File land = lands[order[i]];
+            if (land.equals(written)) { continue; }
+
+            long length = land.length();
+            if (land.delete()) {
+                size -= length;
+            }
+        }
+    }
+
+    private File[] listLands() {
+        File[] lands = directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(SUFFIX);
+            }
+        });
+        return (lands != null)? lands : new File[0];
+    }
+}
@@ -39,6 +39,8 @@ public class UniversePanel extends JPanel implements KeyListener, MouseInputList
 
     private Planet planetHovering;
     private int universeSeed;
+    private GenerationVersion generationVersion = GenerationVersion.v1;
+    private PlanetPlacement planetPlacement = PlanetPlacement.VERSION;
 
     public UniversePanel(int width, int height, MainFrame mainPanel) {
         setOpaque(true);
@@ -57,8 +59,11 @@ public class UniversePanel extends JPanel implements KeyListener, MouseInputList
         regionWidth = width;
     }
 
-    public void startUniverseSimulation(int seedForUniverse) {
+    public void startUniverseSimulation(int seedForUniverse, GenerationVersion version, PlanetPlacement placement) {
         universeSeed = seedForUniverse;
+        generationVersion = version;
+        planetPlacement = placement;
+        allSpaceRegions.clear();
         updateListOfRegionsToLoad();
     }
 
@@ -75,7 +80,9 @@ public class UniversePanel extends JPanel implements KeyListener, MouseInputList
      * visible to the users will be added to the {spaceRegionsToLoad}.
      * <p>
      * New regions that have not been viewed before, will be added to the allSpaceRegions
-     * hashtable for future reference.
+     * hashtable for future reference. Generation v2 derives region seeds from the region
+     * coordinates directly, so they are not kept. The regions themselves are generated
+     * together, in parallel, by {@link PlanetRegionBatch}.
      */
     private void updateListOfRegionsToLoad() {
         spaceRegionsToLoad.clear();
@@ -84,16 +91,26 @@ public class UniversePanel extends JPanel implements KeyListener, MouseInputList
         int startYRegion = calculateRegionIndexFromCoordinateAndSize(spacePosition[1], regionHeight);
         int endXRegion = calculateRegionIndexFromCoordinateAndSize(spacePosition[0] + environmentWidth, regionWidth);
         int endYRegion = calculateRegionIndexFromCoordinateAndSize(spacePosition[1] + environmentHeight, regionHeight);
+        int columns = endXRegion - startXRegion + 1;
+        int rows = endYRegion - startYRegion + 1;
+        int[] regionSeeds = new int[columns * rows];
         for(int xRegion = startXRegion; xRegion <= endXRegion; xRegion++) {
             for(int yRegion = startYRegion; yRegion <= endYRegion; yRegion++) {
-                String regionKeyIndex = createRegionKeyIndex(xRegion, yRegion);
-                if(allSpaceRegions.get(regionKeyIndex) == null) {
-                    allSpaceRegions.put(regionKeyIndex, createSeed(regionKeyIndex));
+                int regionSeed;
+                if(generationVersion == GenerationVersion.v2) {
+                    regionSeed = deriveRegionSeed(xRegion, yRegion);
+                } else {
+                    String regionKeyIndex = createRegionKeyIndex(xRegion, yRegion);
+                    if(allSpaceRegions.get(regionKeyIndex) == null) {
+                        allSpaceRegions.put(regionKeyIndex, createSeed(regionKeyIndex));
+                    }
+                    regionSeed = allSpaceRegions.get(regionKeyIndex);
                 }
-                PlanetRegion regionToAdd = new PlanetRegion(allSpaceRegions.get(regionKeyIndex), xRegion, yRegion, regionHeight, regionWidth);
-                spaceRegionsToLoad.add(regionToAdd);
+                regionSeeds[(xRegion - startXRegion) * rows + yRegion - startYRegion] = regionSeed;
             }
         }
+        spaceRegionsToLoad.addAll(PlanetRegionBatch.generate(regionSeeds, startXRegion, startYRegion, columns, rows,
+                regionHeight, regionWidth, generationVersion, planetPlacement));
     }
 
 
@@ -124,21 +141,23 @@ public class UniversePanel extends JPanel implements KeyListener, MouseInputList
     }
 
     private void drawStarsInRegion(PlanetRegion region, Graphics g) {
-        for(int[] starInfo: region.getStars()) {
-            g.setColor(Color.white);
-            int starLocationX = transformToScreenspace(starInfo[0], spacePosition[0]);
-            int starLocationY = transformToScreenspace(starInfo[1], spacePosition[1]);
-            g.fillArc(starLocationX, starLocationY, starInfo[2], starInfo[2], 0, 360);
+        g.setColor(Color.white);
+        for(int star = 0; star < region.getStarCount(); star++) {
+            int starLocationX = transformToScreenspace(region.getStarX(star), spacePosition[0]);
+            int starLocationY = transformToScreenspace(region.getStarY(star), spacePosition[1]);
+            int starRadius = region.getStarRadius(star);
+            g.fillArc(starLocationX, starLocationY, starRadius, starRadius, 0, 360);
         }
     }
 
     private void drawPlanetsInRegion(PlanetRegion region, Graphics g) {
-        for (Planet planet : region.getListOfPlanets()) {
-            Color planetColor = planet.getPlanetColour();
-            g.setColor(planetColor);
-            int xTransformed = transformToScreenspace(planet.getXCoordinate(), spacePosition[0]);
-            int yTransformed = transformToScreenspace(planet.getYCoordinate(), spacePosition[1]);
-            g.fillArc(xTransformed, yTransformed, planet.getRadius() * 2, planet.getRadius() * 2, 0, 360);
+        PlanetTable planets = region.getPlanets();
+        for(int planet = 0; planet < planets.size(); planet++) {
+            g.setColor(region.getPlanetColour(planet));
+            int xTransformed = transformToScreenspace(planets.getX(planet), spacePosition[0]);
+            int yTransformed = transformToScreenspace(planets.getY(planet), spacePosition[1]);
+            int planetSize = planets.getRadius(planet) * 2;
+            g.fillArc(xTransformed, yTransformed, planetSize, planetSize, 0, 360);
         }
     }
 
@@ -157,15 +176,37 @@ public class UniversePanel extends JPanel implements KeyListener, MouseInputList
 
     /**
      * takes the region key and returns a specific region seed according to the
-     * region key's hashcode and the universe seed.
+     * region key's hashcode and the universe seed. Keys whose hashcode is not positive,
+     * which nextInt used to throw on, use the hashcode without its sign bit, or the next
+     * int when that is 0.
      *
      * @param regionKey
      * @return {int} Region Seed
      */
-    private int createSeed(String regionKey) {
+    static int createSeed(int universeSeed, String regionKey) {
         int regionHashCode = regionKey.hashCode();
         Random seedOfUniverse = new Random(universeSeed);
-        return seedOfUniverse.nextInt(regionHashCode);
+        if(regionHashCode > 0) {
+            return seedOfUniverse.nextInt(regionHashCode);
+        }
+        int bound = regionHashCode & Integer.MAX_VALUE;
+        return (bound > 0)? seedOfUniverse.nextInt(bound) : seedOfUniverse.nextInt();
+    }
+
+    private int createSeed(String regionKey) {
+        return createSeed(universeSeed, regionKey);
+    }
+
+    /**
+     * Derives the seed of a generation v2 region from the universe seed and the region's
+     * coordinates.
+     */
+    static int deriveRegionSeed(int universeSeed, int regionX, int regionY) {
+        return CounterRandom.nextInt(CounterRandom.key(CounterRandom.key(universeSeed, regionX), regionY), 0);
+    }
+
+    private int deriveRegionSeed(int regionX, int regionY) {
+        return deriveRegionSeed(universeSeed, regionX, regionY);
     }
 
     /**
@@ -0,0 +1,70 @@
+package com.spacegeneration;
+
+/**
+ * Access point for the optional SIMD Perlin kernel. The kernel lives in src/main/java-vector,
+ * is only built on JDK 17 and newer, and uses the incubating jdk.incubator.vector module, so
+ * it is loaded reflectively. Whenever it cannot be used (older JDK, module not added with
+ * --add-modules, fewer than 8 float lanes, or -Dspacegeneration.vector=false) {@link #kernel()}
+ * returns null and FastNoise keeps using its scalar kernels.
+ * <p>
+ * The vector kernel performs the same float operations in the same order as the scalar
+ * kernel and does not fuse multiply-adds, so its output is bit-identical to GetPerlin:
+ * the documented tolerance, {@link #MAX_ULP_ERROR}, is 0 ULP.
+ */
+final class VectorPerlin {
+
+    /**
+     * Largest difference, in units in the last place, allowed between the vector and the
+     * scalar Perlin kernels.
+     */
+    static final int MAX_ULP_ERROR = 0;
+
+    private static final String KERNEL_CLASS = "com.spacegeneration.VectorPerlinKernel";
+    private static final Kernel KERNEL = loadKernel();
+
+    /**
+     * One row of a Perlin fill. The column arrays hold, for every output column, the
+     * interpolation weight and the distances to the cell's left and right corners, as computed
+     * by FastNoise.FillPerlin2D. The gradient array holds eight blocks of w floats with the
+     * corner gradients of every column: x and y of the lower left, lower right, upper left and
+     * upper right corner, in that order. The row values are the same for every column.
+     */
+    interface Kernel {
+        /**
+         * Returns the number of samples evaluated per vector operation.
+         */
+        int lanes();
+
+        void fillRow(float[] gradients, float[] xs, float[] xd0, float[] xd1, int w,
+                float ys, float yd0, float yd1, float[] out, int index);
+    }
+
+    private VectorPerlin() {
+    }
+
+    /**
+     * Returns the vector kernel, or null when it is not available on this JVM.
+     */
+    static Kernel kernel() {
+        return KERNEL;
+    }
+
+    static boolean isAvailable() {
+        return KERNEL != null;
+    }
+
+    private static Kernel loadKernel() {
+        if (!Boolean.parseBoolean(System.getProperty("spacegeneration.vector", "true"))) {
+            return null;
+        }
+        try {
+            Kernel kernel = (Kernel) Class.forName(KERNEL_CLASS).getDeclaredConstructor().newInstance();
+            return kernel.lanes() >= 8 ? kernel : null;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        } catch (LinkageError e) {
+            // Class compiled for a newer JDK, or jdk.incubator.vector was not added to the module graph
+            return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.spacegeneration;
+
+/**
+ * Helpers shared by the benchmarks.
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Returns the bytes of heap in use after a few collections, so the difference between
+     * two calls is roughly what was retained in between.
+     */
+    static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
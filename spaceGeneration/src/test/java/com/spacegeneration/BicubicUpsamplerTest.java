@@ -0,0 +1,71 @@
+package com.spacegeneration;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BicubicUpsamplerTest {
+
+    private static final int WIDTH = 37;
+    private static final int HEIGHT = 23;
+
+    private static float[] grid(int step, float[] coefficients) {
+        int gridWidth = BicubicUpsampler.gridSize(WIDTH, step);
+        int gridHeight = BicubicUpsampler.gridSize(HEIGHT, step);
+        float[] grid = new float[gridWidth * gridHeight];
+        for (int j = 0; j < gridHeight; j++) {
+            for (int i = 0; i < gridWidth; i++) {
+                grid[j * gridWidth + i] = plane(coefficients, (i - 1) * step, (j - 1) * step);
+            }
+        }
+        return grid;
+    }
+
+    private static float plane(float[] coefficients, int x, int y) {
+        return coefficients[0] + coefficients[1] * x + coefficients[2] * y;
+    }
+
+    @Test
+    public void testPlanesAreReproduced() {
+        float[] coefficients = {0.25f, 0.03f, -0.02f};
+        for (int step : new int[] {1, 2, 3, 4, 8}) {
+            float[] out = new float[WIDTH * HEIGHT];
+            new BicubicUpsampler(WIDTH, step).upsample(grid(step, coefficients), 0, HEIGHT, out, 0);
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    assertEquals("step " + step, plane(coefficients, x, y), out[y * WIDTH + x], 1e-5f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSamplesAreKeptAndBandsMatchTheWholeImage() {
+        int step = 4;
+        int gridWidth = BicubicUpsampler.gridSize(WIDTH, step);
+        float[] grid = new float[gridWidth * BicubicUpsampler.gridSize(HEIGHT, step)];
+        Random random = new Random(5);
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = random.nextFloat();
+        }
+        BicubicUpsampler upsampler = new BicubicUpsampler(WIDTH, step);
+        float[] whole = new float[WIDTH * HEIGHT];
+        upsampler.upsample(grid, 0, HEIGHT, whole, 0);
+        for (int y = 0; y < HEIGHT; y += step) {
+            for (int x = 0; x < WIDTH; x += step) {
+                assertEquals(grid[(y / step + 1) * gridWidth + x / step + 1], whole[y * WIDTH + x], 0f);
+            }
+        }
+
+        float[] bands = new float[3 + WIDTH * HEIGHT];
+        for (int firstRow = 0; firstRow < HEIGHT; firstRow += 5) {
+            int rows = Math.min(5, HEIGHT - firstRow);
+            upsampler.upsample(grid, firstRow, rows, bands, 3 + firstRow * WIDTH);
+        }
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            assertEquals(whole[i], bands[3 + i], 0f);
+        }
+    }
+}
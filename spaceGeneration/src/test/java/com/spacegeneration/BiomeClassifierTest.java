@@ -0,0 +1,71 @@
+package com.spacegeneration;
+
+import java.awt.Color;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BiomeClassifierTest {
+
+    private static final String[] NAMES = {
+        BiomeClassifier.REGULAR, BiomeClassifier.ISLAND, BiomeClassifier.DESERT, BiomeClassifier.SNOWY, BiomeClassifier.ROCKY
+    };
+
+    private BiomeClassifier createClassifier() {
+        double[][] values = new double[NAMES.length][];
+        String[][] colors = new String[NAMES.length][];
+        for (int type = 0; type < NAMES.length; type++) {
+            values[type] = new double[] {0.35, 0.4, 1.0};
+            colors[type] = new String[] {"#00000" + type, "#0000f" + type, "#ffffff"};
+        }
+        return new BiomeClassifier(NAMES, values, colors);
+    }
+
+    @Test
+    public void testClimateSelectsBiome() {
+        BiomeClassifier classifier = createClassifier();
+        assertEquals(BiomeClassifier.SNOWY, classifier.getBiomeName(classifier.biomeOf(0.5f, -0.5f)));
+        assertEquals(BiomeClassifier.DESERT, classifier.getBiomeName(classifier.biomeOf(-0.5f, 0.5f)));
+        assertEquals(BiomeClassifier.ISLAND, classifier.getBiomeName(classifier.biomeOf(0.5f, 0.5f)));
+        assertEquals(BiomeClassifier.ROCKY, classifier.getBiomeName(classifier.biomeOf(-0.5f, 0f)));
+        assertEquals(BiomeClassifier.REGULAR, classifier.getBiomeName(classifier.biomeOf(0.5f, 0f)));
+    }
+
+    @Test
+    public void testHeightUsesLayerBoundariesOfTheBiome() {
+        BiomeClassifier classifier = createClassifier();
+        float minimum = -0.5f;
+        float range = 1f;
+        int snowy = classifier.biomeOf(0f, -0.5f);
+
+        assertEquals(Color.decode("#00000" + snowy).getRGB(), classifier.classify(-0.5f, minimum, range, 0f, -0.5f));
+        assertEquals(Color.decode("#00000" + snowy).getRGB(), classifier.classify(-0.15f, minimum, range, 0f, -0.5f));
+        assertEquals(Color.decode("#0000f" + snowy).getRGB(), classifier.classify(-0.14f, minimum, range, 0f, -0.5f));
+        assertEquals(Color.WHITE.getRGB(), classifier.classify(0.5f, minimum, range, 0f, -0.5f));
+        assertEquals(BiomeClassifier.NO_LAYER_RGB, classifier.classify(0.6f, minimum, range, 0f, -0.5f));
+    }
+
+    @Test
+    public void testMissingLandTypeFallsBackToFirstPalette() {
+        BiomeClassifier classifier = new BiomeClassifier(new String[] {"Regular"},
+                new double[][] {{1.0}}, new String[][] {{"#567d46"}});
+        assertEquals(0, classifier.biomeOf(-0.5f, 0.5f));
+        assertEquals(Color.decode("#567d46").getRGB(), classifier.classify(0f, -1f, 2f, -0.5f, 0.5f));
+    }
+
+    @Test
+    public void testColorIndicesMatchColors() {
+        BiomeClassifier classifier = createClassifier();
+        java.awt.image.IndexColorModel colors = classifier.createColorModel();
+        assertEquals(1 + 3 * NAMES.length, classifier.getColorCount());
+        assertEquals(classifier.getColorCount(), colors.getMapSize());
+        assertEquals(BiomeClassifier.NO_LAYER_RGB, colors.getRGB(BiomeClassifier.NO_LAYER_INDEX));
+
+        for (float height = -0.6f; height < 0.6f; height += 0.01f) {
+            int index = classifier.classifyIndex(height, -0.5f, 1f, -0.5f, 0.5f);
+            assertEquals(classifier.classify(height, -0.5f, 1f, -0.5f, 0.5f), colors.getRGB(index));
+            assertEquals(classifier.getColorRgb(index), colors.getRGB(index));
+        }
+    }
+}
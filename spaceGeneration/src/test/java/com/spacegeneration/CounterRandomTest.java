@@ -0,0 +1,61 @@
+package com.spacegeneration;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CounterRandomTest {
+
+    @Test
+    public void testDrawsOnlyDependOnKeyAndIndex() {
+        long key = CounterRandom.key(CounterRandom.key(42, 7), -3);
+        int[] forward = new int[100];
+        for (int draw = 0; draw < forward.length; draw++) {
+            forward[draw] = CounterRandom.nextInt(key, draw, 1000);
+        }
+        for (int draw = forward.length - 1; draw >= 0; draw--) {
+            assertEquals(forward[draw], CounterRandom.nextInt(CounterRandom.key(CounterRandom.key(42, 7), -3), draw, 1000));
+        }
+    }
+
+    @Test
+    public void testKeysDependOnEveryValueAndTheirOrder() {
+        long key = CounterRandom.key(CounterRandom.key(42, 1), 23);
+        assertNotEquals(key, CounterRandom.key(CounterRandom.key(42, 23), 1));
+        assertNotEquals(key, CounterRandom.key(CounterRandom.key(42, 12), 3));
+        assertNotEquals(key, CounterRandom.key(CounterRandom.key(43, 1), 23));
+        assertNotEquals(CounterRandom.key(0, 0), 0);
+    }
+
+    @Test
+    public void testDrawsAreUniform() {
+        int bound = 10;
+        int draws = 100000;
+        int[] counts = new int[bound];
+        for (int i = 0; i < draws; i++) {
+            // Consecutive keys and consecutive draws must both look random
+            int value = CounterRandom.nextInt(CounterRandom.key(99, i / 10), i % 10, bound);
+            assertTrue(value >= 0 && value < bound);
+            counts[value]++;
+        }
+        for (int count : counts) {
+            assertEquals(draws / bound, count, draws / bound * 0.05);
+        }
+
+        int negative = 0;
+        for (int i = 0; i < draws; i++) {
+            negative += (CounterRandom.nextInt(5, i) < 0)? 1 : 0;
+        }
+        assertEquals(draws / 2, negative, draws * 0.01);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBoundMustBePositive() {
+        CounterRandom.nextInt(CounterRandom.key(42, 7), 0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBoundMustNotBeNegative() {
+        CounterRandom.nextInt(CounterRandom.key(42, 7), 0, -5);
+    }
+}
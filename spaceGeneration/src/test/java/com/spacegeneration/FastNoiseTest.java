@@ -0,0 +1,286 @@
+package com.spacegeneration;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class FastNoiseTest {
+
+    private static final int[] SEEDS = {0, 1337, 453, -87345, 346234};
+
+    @Test
+    public void testFillPerlinMatchesPerPointPerlin() {
+        for (int seed : SEEDS) {
+            FastNoise noise = new FastNoise(seed);
+            assertFillMatchesPerPoint(noise, 0, 0, 317, 211);
+            assertFillMatchesPerPoint(noise, -250, -130, 301, 97);
+        }
+    }
+
+    @Test
+    public void testFillPerlinMatchesPerPointForEveryInterpolation() {
+        for (FastNoise.Interp interp : FastNoise.Interp.values()) {
+            FastNoise noise = new FastNoise(124);
+            noise.SetInterp(interp);
+            noise.SetFrequency(0.037f);
+            assertFillMatchesPerPoint(noise, -64, 15, 200, 120);
+        }
+    }
+
+    @Test
+    public void testFillPerlinRespectsStride() {
+        FastNoise noise = new FastNoise(23515);
+        int stride = 50;
+        float[] out = new float[stride * 10];
+        noise.FillPerlin2D(out, 7, 3, 40, 10, stride);
+        for (int row = 0; row < 10; row++) {
+            for (int col = 40; col < stride; col++) {
+                assertEquals(0f, out[row * stride + col], 0f);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelFillMatchesSingleThreadedFill() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int seed : SEEDS) {
+                FastNoise noise = new FastNoise(seed);
+                int w = 3 * ParallelNoiseFill.TILE_WIDTH + 17;
+                int h = 5 * ParallelNoiseFill.TILE_HEIGHT + 3;
+                float[] serial = new float[w * h];
+                float[] parallel = new float[w * h];
+                noise.FillPerlin2D(serial, -40, 12, w, h, w);
+                ParallelNoiseFill.fillPerlin(pool, noise.GetConfig(), parallel, -40, 12, w, h, w);
+                assertArrayEquals(serial, parallel, 0f);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCancelledParallelFillSkipsRemainingTiles() {
+        FastNoise noise = new FastNoise(87345);
+        noise.SetNoiseType(FastNoise.NoiseType.Perlin);
+        int w = 3 * ParallelNoiseFill.TILE_WIDTH + 17;
+        int h = 5 * ParallelNoiseFill.TILE_HEIGHT + 3;
+        float[] serial = new float[w * h];
+        float[] parallel = new float[w * h];
+        Arrays.fill(parallel, Float.NaN);
+        noise.FillNoise2D(serial, 0, 5, -9, w, h, w);
+        final AtomicInteger checks = new AtomicInteger();
+        boolean filled = ParallelNoiseFill.fill(noise.GetConfig(), parallel, 5, -9, w, h, w, new BooleanSupplier() {
+            @Override
+            public boolean getAsBoolean() {
+                return checks.incrementAndGet() > 2;
+            }
+        });
+
+        assertFalse(filled);
+        int skipped = 0;
+        for (int i = 0; i < parallel.length; i++) {
+            if (Float.isNaN(parallel[i])) {
+                skipped++;
+            } else {
+                assertEquals(serial[i], parallel[i], 0f);
+            }
+        }
+        assertTrue(skipped > 0);
+    }
+
+    @Test
+    public void testConfigSnapshotRecreatesGenerator() {
+        FastNoise noise = new FastNoise(1454);
+        noise.SetFrequency(0.02f);
+        noise.SetInterp(FastNoise.Interp.Hermite);
+        NoiseConfig config = noise.GetConfig();
+        FastNoise copy = new FastNoise(config);
+
+        assertEquals(config, copy.GetConfig());
+        assertEquals(noise.GetPerlin(31, -7), copy.GetPerlin(31, -7), 0f);
+
+        noise.SetSeed(1455);
+        assertEquals(1454, config.getSeed());
+        assertNotEquals(config, noise.GetConfig());
+    }
+
+    @Test
+    public void testEveryNoiseTypeProducesNoise() {
+        for (FastNoise.HashType hashType : FastNoise.HashType.values()) {
+            for (FastNoise.NoiseType type : FastNoise.NoiseType.values()) {
+                FastNoise noise = new FastNoise(87345);
+                noise.SetHashType(hashType);
+                noise.SetNoiseType(type);
+                assertNoiseInRange(hashType + " " + type, noise);
+            }
+        }
+    }
+
+    @Test
+    public void testPermutationHashIsSeededPerInstance() {
+        FastNoise prime = new FastNoise(453);
+        FastNoise permutation = new FastNoise(453);
+        permutation.SetHashType(FastNoise.HashType.Permutation);
+        FastNoise other = new FastNoise(454);
+        other.SetHashType(FastNoise.HashType.Permutation);
+
+        FastNoise copy = new FastNoise(permutation.GetConfig());
+        assertEquals(FastNoise.HashType.Permutation, copy.GetConfig().getHashType());
+        assertNotEquals(prime.GetConfig(), permutation.GetConfig());
+
+        other.SetSeed(453);
+        boolean differsFromPrime = false;
+        for (int i = 0; i < 100; i++) {
+            float value = permutation.GetPerlin(i * 3.7f, i * -1.3f);
+            assertEquals(value, copy.GetPerlin(i * 3.7f, i * -1.3f), 0f);
+            assertEquals(value, other.GetPerlin(i * 3.7f, i * -1.3f), 0f);
+            differsFromPrime |= value != prime.GetPerlin(i * 3.7f, i * -1.3f);
+        }
+        assertTrue(differsFromPrime);
+    }
+
+    @Test
+    public void testFillPerlinMatchesPerPointWithPermutationHash() {
+        for (int seed : SEEDS) {
+            FastNoise noise = new FastNoise(seed);
+            noise.SetHashType(FastNoise.HashType.Permutation);
+            noise.SetFrequency(0.3f);
+            assertFillMatchesPerPoint(noise, -250, -130, 301, 97);
+        }
+    }
+
+    @Test
+    public void testFillNoiseMatchesGetNoiseForEveryNoiseType() {
+        for (FastNoise.NoiseType type : FastNoise.NoiseType.values()) {
+            FastNoise noise = new FastNoise(346234);
+            noise.SetNoiseType(type);
+            noise.SetFrequency(0.023f);
+            int w = 93;
+            int h = 41;
+            float[] out = new float[w * h];
+            noise.FillNoise2D(out, 0, -30, 17, w, h, w);
+            for (int row = 0; row < h; row++) {
+                for (int col = 0; col < w; col++) {
+                    float expected = noise.GetNoise(-30 + col, 17 + row);
+                    assertEquals(type.toString(), Float.floatToIntBits(expected), Float.floatToIntBits(out[row * w + col]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFillPerlinChannelsMatchesPerlinOfEachSeed() {
+        FastNoise noise = new FastNoise(1);
+        noise.SetFrequency(0.031f);
+        noise.SetInterp(FastNoise.Interp.Hermite);
+        int w = 150;
+        int h = 60;
+        int[] seeds = {7, -87345, 1337};
+        float[][] out = new float[seeds.length][w * h];
+        noise.FillPerlinChannels2D(out, seeds, 0, -20, 45, w, h, w);
+
+        for (int channel = 0; channel < seeds.length; channel++) {
+            FastNoise channelNoise = new FastNoise(noise.GetConfig());
+            channelNoise.SetSeed(seeds[channel]);
+            for (int row = 0; row < h; row++) {
+                for (int col = 0; col < w; col++) {
+                    float expected = channelNoise.GetPerlin(-20 + col, 45 + row);
+                    assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(out[channel][row * w + col]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFillPerlinChannelsMatchesEachChannelFilledAlone() {
+        for (FastNoise.HashType hashType : FastNoise.HashType.values()) {
+            FastNoise noise = new FastNoise(1);
+            noise.SetHashType(hashType);
+            noise.SetFrequency(0.2f);
+            int w = 90;
+            int h = 40;
+            int[] seeds = {1, 2, -87345, 600};
+            float[][] out = new float[seeds.length][w * h];
+            noise.FillPerlinChannels2D(out, seeds, 0, -45, 12, w, h, w);
+
+            for (int channel = 0; channel < seeds.length; channel++) {
+                float[][] alone = new float[1][w * h];
+                noise.FillPerlinChannels2D(alone, new int[] {seeds[channel]}, 0, -45, 12, w, h, w);
+                assertArrayEquals(hashType.toString(), alone[0], out[channel], 0f);
+            }
+        }
+    }
+
+    @Test
+    public void testCellularNoiseLookupUsesLookupGenerator() {
+        FastNoise lookup = new FastNoise(5);
+        lookup.SetNoiseType(FastNoise.NoiseType.Perlin);
+        FastNoise noise = new FastNoise(6);
+        noise.SetNoiseType(FastNoise.NoiseType.Cellular);
+        noise.SetCellularReturnType(FastNoise.CellularReturnType.NoiseLookup);
+        noise.SetCellularNoiseLookup(lookup);
+
+        FastNoise copy = new FastNoise(noise.GetConfig());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(noise.GetNoise(i * 13, i * 5), copy.GetNoise(i * 13, i * 5), 0f);
+        }
+    }
+
+    @Test
+    public void testVectorKernelMatchesScalarPerlin() {
+        Assume.assumeTrue(VectorPerlin.isAvailable());
+        float[] frequencies = {0.01f, 0.2f, 1.3f};
+        for (float frequency : frequencies) {
+            FastNoise noise = new FastNoise(-87345);
+            noise.SetFrequency(frequency);
+            // Width is not a multiple of the lane count, so the scalar tail is covered too
+            int w = VectorPerlin.kernel().lanes() * 5 + 3;
+            int h = 40;
+            float[] out = new float[w * h];
+            noise.FillPerlin2D(out, -17, 9, w, h, w);
+            for (int row = 0; row < h; row++) {
+                for (int col = 0; col < w; col++) {
+                    float expected = noise.GetPerlin(-17 + col, 9 + row);
+                    assertEquals(expected, out[row * w + col], VectorPerlin.MAX_ULP_ERROR * Math.ulp(expected));
+                }
+            }
+        }
+    }
+
+    private void assertNoiseInRange(String name, FastNoise noise) {
+        float min2D = Float.MAX_VALUE;
+        float max2D = -Float.MAX_VALUE;
+        float min3D = Float.MAX_VALUE;
+        float max3D = -Float.MAX_VALUE;
+        for (int i = 0; i < 2000; i++) {
+            float value2D = noise.GetNoise(i * 7.3f, i * -3.1f);
+            float value3D = noise.GetNoise(i * 7.3f, i * -3.1f, i * 1.7f);
+            min2D = Math.min(min2D, value2D);
+            max2D = Math.max(max2D, value2D);
+            min3D = Math.min(min3D, value3D);
+            max3D = Math.max(max3D, value3D);
+        }
+        assertTrue(name + " 2D is constant", max2D > min2D);
+        assertTrue(name + " 3D is constant", max3D > min3D);
+        assertTrue(name + " 2D out of range", min2D >= -1.5f && max2D <= 1.5f);
+        assertTrue(name + " 3D out of range", min3D >= -1.5f && max3D <= 1.5f);
+    }
+
+    private void assertFillMatchesPerPoint(FastNoise noise, int x0, int y0, int w, int h) {
+        float[] out = new float[w * h];
+        noise.FillPerlin2D(out, x0, y0, w, h, w);
+        for (int row = 0; row < h; row++) {
+            for (int col = 0; col < w; col++) {
+                float expected = noise.GetPerlin(x0 + col, y0 + row);
+                assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(out[row * w + col]));
+            }
+        }
+    }
+}
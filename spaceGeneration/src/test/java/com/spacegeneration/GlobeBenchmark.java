@@ -0,0 +1,122 @@
+package com.spacegeneration;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Time to generate the globe texture of a planet, and the frame times of the spinning globe
+ * at 1920x1080: drawing a frame on its own, and at 60 frames a second through the land
+ * panel, from when a frame is due until it is painted, which includes waiting for the Event
+ * Dispatch Thread. Run with -Djava.awt.headless=true when there is no display.
+ */
+public final class GlobeBenchmark {
+
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+    private static final int FRAMES = 600;
+
+    private GlobeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final PlanetLandSimulationPanel panel = new PlanetLandSimulationPanel(WIDTH, HEIGHT, null);
+        BiomeClassifier classifier = panel.biomeClassifier;
+        for (int seed = 1; seed <= 3; seed++) {
+            long start = System.nanoTime();
+            GlobeTexture texture = GlobeTexture.generate(seed, panel.LAND_OCTAVES, classifier,
+                    panel.GLOBE_TEXTURE_WIDTH, panel.GLOBE_TEXTURE_HEIGHT);
+            System.out.printf("Seed %d %dx%d texture generated in %7.1f ms, %d KB%n", seed, texture.getWidth(),
+                    texture.getHeight(), (System.nanoTime() - start) / 1e6, texture.getSizeInBytes() / 1024);
+        }
+
+        long start = System.nanoTime();
+        GlobeRenderer renderer = new GlobeRenderer(WIDTH, HEIGHT, panel.GLOBE_TEXTURE_WIDTH, panel.GLOBE_TEXTURE_HEIGHT,
+                panel.GLOBE_TILT);
+        System.out.printf("Rays of %d disc pixels cast in %.1f ms%n", renderer.getDiscPixels(), (System.nanoTime() - start) / 1e6);
+        GlobeTexture texture = GlobeTexture.generate(87345, panel.LAND_OCTAVES, classifier,
+                panel.GLOBE_TEXTURE_WIDTH, panel.GLOBE_TEXTURE_HEIGHT);
+        byte[] out = new byte[WIDTH * HEIGHT];
+        long[] frameTimes = new long[FRAMES];
+        for (int frame = -FRAMES; frame < FRAMES; frame++) {
+            long frameStart = System.nanoTime();
+            renderer.render(texture, frame / 1800.0, out);
+            if (frame >= 0) {
+                frameTimes[frame] = System.nanoTime() - frameStart;
+            }
+        }
+        report("Globe frames drawn", frameTimes, 1000000000L / 60);
+
+        measureSpinning(panel);
+        System.exit(0);
+    }
+
+    /**
+     * Opens a planet, shows its globe once the texture and renderer are there and paints a
+     * frame like the globe timer every 1/60 s.
+     */
+    private static void measureSpinning(final PlanetLandSimulationPanel panel) throws Exception {
+        final long[] showNanos = new long[1];
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                panel.openSimulation(87345);
+                long show = System.nanoTime();
+                panel.showGlobe(true);
+                showNanos[0] = System.nanoTime() - show;
+                // The benchmark paints the frames itself
+                panel.globeTimer.setRepeats(false);
+            }
+        });
+        System.out.printf("showGlobe held the Event Dispatch Thread for %.1f ms%n", showNanos[0] / 1e6);
+        long start = System.nanoTime();
+        final boolean[] ready = new boolean[1];
+        while (!ready[0]) {
+            Thread.sleep(5);
+            SwingUtilities.invokeAndWait(new Runnable() {
+                public void run() {
+                    ready[0] = panel.globeTexture != null && panel.globeRenderer != null;
+                }
+            });
+        }
+        System.out.printf("Globe shown %.1f ms after opening the planet%n", (System.nanoTime() - start) / 1e6);
+
+        final BufferedImage screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        final long frameNanos = 1000000000L / 60;
+        final long[] frameTimes = new long[FRAMES];
+        long next = System.nanoTime();
+        for (int frame = -FRAMES / 4; frame < FRAMES; frame++) {
+            next += frameNanos;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                Thread.sleep(sleep / 1000000, (int) (sleep % 1000000));
+            }
+            final long due = next;
+            final int index = frame;
+            SwingUtilities.invokeAndWait(new Runnable() {
+                public void run() {
+                    panel.renderGlobe();
+                    Graphics g = screen.getGraphics();
+                    panel.paintComponent(g);
+                    g.dispose();
+                    if (index >= 0) {
+                        frameTimes[index] = System.nanoTime() - due;
+                    }
+                }
+            });
+        }
+        report("Globe spinning at 60 fps", frameTimes, frameNanos);
+    }
+
+    private static void report(String name, long[] frameTimes, long frameNanos) {
+        Arrays.sort(frameTimes);
+        int late = 0;
+        for (long time : frameTimes) {
+            late += (time > frameNanos) ? 1 : 0;
+        }
+        System.out.printf("%s, %d frames: %.2f ms median, %.2f ms 99th percentile, %.2f ms at worst, %d frames over %.1f ms%n",
+                name, frameTimes.length, frameTimes[frameTimes.length / 2] / 1e6, frameTimes[frameTimes.length * 99 / 100] / 1e6,
+                frameTimes[frameTimes.length - 1] / 1e6, late, frameNanos / 1e6);
+    }
+}
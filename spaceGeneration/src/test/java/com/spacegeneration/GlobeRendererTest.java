@@ -0,0 +1,95 @@
+package com.spacegeneration;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GlobeRendererTest {
+
+    private static final int VIEW = 101;
+    private static final int WIDTH = 128;
+    private static final int HEIGHT = 64;
+    private static final byte UNWRITTEN = 99;
+
+    /**
+     * Returns a texture whose texels are their column, or their row.
+     */
+    private static GlobeTexture texture(boolean columns) {
+        byte[] texels = new byte[WIDTH * HEIGHT];
+        for (int v = 0; v < HEIGHT; v++) {
+            for (int u = 0; u < WIDTH; u++) {
+                texels[v * WIDTH + u] = (byte) (columns? u : v);
+            }
+        }
+        return new GlobeTexture(1, WIDTH, HEIGHT, texels, 0, 1);
+    }
+
+    private static byte[] render(GlobeRenderer renderer, GlobeTexture texture, double turns) {
+        byte[] out = new byte[VIEW * VIEW];
+        Arrays.fill(out, UNWRITTEN);
+        renderer.render(texture, turns, out);
+        return out;
+    }
+
+    @Test
+    public void testCentreFacesTheViewer() {
+        GlobeRenderer renderer = new GlobeRenderer(VIEW, VIEW, WIDTH, HEIGHT, 0);
+        int centre = (VIEW / 2) * VIEW + VIEW / 2;
+        assertEquals(WIDTH / 4, render(renderer, texture(true), 0)[centre]);
+        byte[] rows = render(renderer, texture(false), 0);
+        assertEquals(HEIGHT / 2, rows[centre]);
+        // The top of the disc is near the north pole, the bottom near the south pole
+        int top = (VIEW / 2 - renderer.getRadius() + 1) * VIEW + VIEW / 2;
+        int bottom = (VIEW / 2 + renderer.getRadius() - 1) * VIEW + VIEW / 2;
+        assertTrue(rows[top] > HEIGHT - 8);
+        assertTrue(rows[bottom] < 8);
+    }
+
+    @Test
+    public void testSpinShiftsTheLongitude() {
+        GlobeRenderer renderer = new GlobeRenderer(VIEW, VIEW, WIDTH, HEIGHT, Math.toRadians(23.4));
+        GlobeTexture texture = texture(true);
+        byte[] still = render(renderer, texture, 0);
+        byte[] quarter = render(renderer, texture, 0.25);
+        for (int i = 0; i < still.length; i++) {
+            if (still[i] == UNWRITTEN) { continue; }
+            assertEquals((still[i] + WIDTH / 4) % WIDTH, quarter[i]);
+        }
+        assertArrayEquals(still, render(renderer, texture, 1));
+        assertArrayEquals(quarter, render(renderer, texture, -0.75));
+    }
+
+    @Test
+    public void testOnlyTheDiscIsWritten() {
+        GlobeRenderer renderer = new GlobeRenderer(VIEW + 60, VIEW, WIDTH, HEIGHT, 0.3);
+        byte[] texels = new byte[WIDTH * HEIGHT];
+        Arrays.fill(texels, (byte) 1);
+        GlobeTexture texture = new GlobeTexture(1, WIDTH, HEIGHT, texels, 0, 1);
+        byte[] out = new byte[(VIEW + 60) * VIEW];
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            renderer.render(single, texture, 0.6, out);
+        } finally {
+            single.shutdown();
+        }
+        int written = 0;
+        for (byte value : out) {
+            written += value;
+        }
+        assertEquals(renderer.getDiscPixels(), written);
+        double area = Math.PI * renderer.getRadius() * renderer.getRadius();
+        assertEquals(area, written, area * 0.02);
+        assertEquals(0, out[0]);
+        assertEquals(0, out[out.length - 1]);
+        assertEquals(1, out[(VIEW / 2) * (VIEW + 60) + (VIEW + 60) / 2]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTextureMustMatch() {
+        new GlobeRenderer(VIEW, VIEW, WIDTH, HEIGHT, 0).render(texture(true), 0, new byte[VIEW * VIEW]);
+        new GlobeRenderer(VIEW, VIEW, WIDTH * 2, HEIGHT, 0).render(texture(true), 0, new byte[VIEW * VIEW]);
+    }
+}
@@ -0,0 +1,65 @@
+package com.spacegeneration;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GlobeTextureTest {
+
+    private static final int SEED = 4242;
+    private static final int OCTAVES = 3;
+    private static final int WIDTH = 128;
+    private static final int HEIGHT = 64;
+
+    private final BiomeClassifier classifier = new BiomeClassifier(LandPaletteRegistry.getDefault().getPalettes());
+
+    @Test
+    public void testParallelTextureMatchesSingleThreaded() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            GlobeTexture serial = GlobeTexture.generate(single, SEED, OCTAVES, classifier, WIDTH, HEIGHT);
+            GlobeTexture split = GlobeTexture.generate(parallel, SEED, OCTAVES, classifier, WIDTH, HEIGHT);
+            assertArrayEquals(serial.getColorIndices(), split.getColorIndices());
+            assertEquals(serial.getMinimum(), split.getMinimum(), 0f);
+            assertEquals(serial.getRange(), split.getRange(), 0f);
+            assertEquals(WIDTH * HEIGHT, split.getSizeInBytes());
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    public void testTexelsAreTheLandOnTheSphere() {
+        GlobeTexture texture = GlobeTexture.generate(SEED, OCTAVES, classifier, WIDTH, HEIGHT);
+        assertTrue(texture.getRange() > 0);
+        FastNoise land = new FastNoise(SEED);
+        land.SetFractalOctaves(OCTAVES);
+        FastNoise wet = new FastNoise(SEED + LandGenerationJob.MOISTURE_SEED_OFFSET);
+        wet.SetFrequency(LandGenerationJob.CLIMATE_FREQUENCY);
+        FastNoise warm = new FastNoise(SEED + LandGenerationJob.TEMPERATURE_SEED_OFFSET);
+        warm.SetFrequency(LandGenerationJob.CLIMATE_FREQUENCY);
+        HeightColorTable colorTable = classifier.colorTable(texture.getMinimum(), texture.getRange());
+
+        double radius = WIDTH / (2 * Math.PI);
+        int[][] texels = {{0, 0}, {WIDTH / 4, HEIGHT / 2}, {WIDTH - 1, HEIGHT - 1}, {77, 13}};
+        for (int[] texel : texels) {
+            double longitude = 2 * Math.PI * (texel[0] + 0.5) / WIDTH;
+            double latitude = Math.PI * (texel[1] + 0.5) / HEIGHT - Math.PI / 2;
+            float ring = (float) (radius * Math.cos(latitude));
+            float x = ring * (float) Math.cos(longitude);
+            float y = (float) (radius * Math.sin(latitude));
+            float z = ring * (float) Math.sin(longitude);
+            int expected = colorTable.classifyIndex(land.GetPerlinFractal(x, y, z), wet.GetPerlin(x, y, z), warm.GetPerlin(x, y, z));
+            assertEquals(expected, texture.getColorIndices()[texel[1] * WIDTH + texel[0]] & 0xff);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWidthMustBeAPowerOfTwo() {
+        GlobeTexture.generate(SEED, OCTAVES, classifier, 100, 50);
+    }
+}
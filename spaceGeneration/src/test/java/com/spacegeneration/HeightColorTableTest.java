@@ -0,0 +1,118 @@
+package com.spacegeneration;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HeightColorTableTest {
+
+    private static final String[] NAMES = {
+        BiomeClassifier.REGULAR, BiomeClassifier.ISLAND, BiomeClassifier.DESERT, BiomeClassifier.SNOWY, BiomeClassifier.ROCKY
+    };
+    private static final float[][] CLIMATES = {{0.5f, 0f}, {0.5f, 0.5f}, {-0.5f, 0.5f}, {0f, -0.5f}, {-0.5f, 0f}};
+
+    /**
+     * Palettes with ordinary layers, layers closer together than a bucket, a layer below the
+     * one before it and a palette whose top layer stops short of the maximum.
+     */
+    private BiomeClassifier createClassifier() {
+        double[][] values = {
+            {0.1, 0.35, 0.4, 0.6, 1.0},
+            {0.3, 0.30001, 0.300015, 0.7, 1.0},
+            {0.5, 0.2, 0.8},
+            {0.25, 0.5, 0.75},
+            {1.0 / 3, 2.0 / 3, 1.0},
+        };
+        String[][] colors = new String[NAMES.length][];
+        for (int type = 0; type < NAMES.length; type++) {
+            colors[type] = new String[values[type].length];
+            for (int layer = 0; layer < values[type].length; layer++) {
+                colors[type][layer] = String.format("#%02x%02x%02x", type * 40, layer * 40, 200);
+            }
+        }
+        return new BiomeClassifier(NAMES, values, colors);
+    }
+
+    private void assertMatchesClassifier(BiomeClassifier classifier, float minimum, float range, float height) {
+        HeightColorTable table = classifier.colorTable(minimum, range);
+        for (float[] climate : CLIMATES) {
+            assertEquals("height " + height, classifier.classify(height, minimum, range, climate[0], climate[1]),
+                    table.classify(height, climate[0], climate[1]));
+        }
+    }
+
+    @Test
+    public void testBoundariesMatchClassifierExactly() {
+        BiomeClassifier classifier = createClassifier();
+        float minimum = -0.7234f;
+        float range = 1.3817f;
+        double[] values = {0.1, 0.35, 0.4, 0.6, 1.0, 0.3, 0.30001, 0.300015, 0.7, 0.5, 0.2, 0.8, 0.25, 0.75, 1.0 / 3, 2.0 / 3};
+        for (double value : values) {
+            float boundary = (float) (minimum + (range * value));
+            for (float height = Math.nextDown(Math.nextDown(boundary)), i = 0; i < 5; i++, height = Math.nextUp(height)) {
+                assertMatchesClassifier(classifier, minimum, range, height);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomHeightsMatchClassifier() {
+        BiomeClassifier classifier = createClassifier();
+        Random random = new Random(1337);
+        float minimum = -0.41f;
+        float range = 0.97f;
+        HeightColorTable table = classifier.colorTable(minimum, range);
+        for (int i = 0; i < 100000; i++) {
+            float height = minimum - 0.1f + random.nextFloat() * (range + 0.2f);
+            float moisture = random.nextFloat() * 2 - 1;
+            float temperature = random.nextFloat() * 2 - 1;
+            assertEquals(classifier.classify(height, minimum, range, moisture, temperature),
+                    table.classify(height, moisture, temperature));
+        }
+    }
+
+    @Test
+    public void testEmptyRangeMatchesClassifier() {
+        BiomeClassifier classifier = createClassifier();
+        for (float height : new float[] {-1f, 0f, Float.MIN_VALUE, 1f}) {
+            assertMatchesClassifier(classifier, 0f, 0f, height);
+        }
+    }
+
+    @Test
+    public void testHeightsAreClampedToTheRange() {
+        BiomeClassifier classifier = createClassifier();
+        float minimum = -0.3172f;
+        float range = 0.6411f;
+        HeightColorTable table = classifier.colorTable(minimum, range);
+        assertEquals(minimum, table.clampHeight(-5f), 0f);
+        assertEquals(0.1f, table.clampHeight(0.1f), 0f);
+        float highest = table.clampHeight(5f);
+        assertTrue(highest <= minimum + (double) range);
+        assertEquals(highest, table.clampHeight(Math.nextUp(highest)), 0f);
+        // The top layer of the first palette reaches the top of the range, so it keeps its colour
+        float[] climate = CLIMATES[0];
+        assertNotEquals(BiomeClassifier.NO_LAYER_INDEX, table.classifyIndex(highest, climate[0], climate[1]));
+        assertEquals(table.classifyIndex(highest, climate[0], climate[1]),
+                table.classifyIndex(table.clampHeight(minimum + range), climate[0], climate[1]));
+    }
+
+    @Test
+    public void testClassifiesArrays() {
+        BiomeClassifier classifier = createClassifier();
+        HeightColorTable table = classifier.colorTable(-1f, 2f);
+        float[] heights = {-1f, -0.5f, 0f, 0.5f, 1f};
+        float[] moisture = {0.5f, 0.5f, -0.5f, 0f, -0.5f};
+        float[] temperature = {0f, 0.5f, 0.5f, -0.5f, 0f};
+        int[] out = new int[heights.length];
+        table.classify(heights, moisture, temperature, out, 1, 4);
+
+        assertEquals(0, out[0]);
+        for (int i = 1; i < 4; i++) {
+            assertEquals(classifier.classify(heights[i], -1f, 2f, moisture[i], temperature[i]), out[i]);
+        }
+        assertEquals(0, out[4]);
+    }
+}
@@ -0,0 +1,148 @@
+package com.spacegeneration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LandChunkStreamerTest {
+
+    private static final int SIZE = LandChunkStreamer.CHUNK_SIZE;
+    private static final int SEED = 77;
+    private static final int OCTAVES = 3;
+
+    private final BiomeClassifier classifier = new BiomeClassifier(LandPaletteRegistry.getDefault().getPalettes());
+
+    /**
+     * Runs the work on the calling thread, so requests are generated before they return.
+     */
+    private static final Executor INLINE = new Executor() {
+        @Override
+        public void execute(Runnable task) {
+            task.run();
+        }
+    };
+
+    private static final class Recorder implements LandChunkStreamer.Listener {
+        final List<int[]> chunks = new ArrayList<int[]>();
+
+        @Override
+        public void chunkFinished(LandChunkStreamer streamer, int chunkX, int chunkY, int lod, byte[] colorIndices) {
+            assertEquals(SIZE * SIZE, colorIndices.length);
+            chunks.add(new int[] {chunkX, chunkY, lod});
+        }
+    }
+
+    @Test
+    public void testChunksMatchTheGeneratedLand() {
+        final int width = SIZE + 44;
+        final int height = SIZE + 3;
+        final byte[] land = new byte[width * height];
+        LandGenerationJob job = new LandGenerationJob(SEED, width, height, OCTAVES, 16, Long.MAX_VALUE,
+                classifier, new LandDetailPlanner(), null, null, new LandGenerationJob.Listener() {
+                    @Override
+                    public void landBandFinished(LandGenerationJob job, int firstRow, int rows, byte[] colorIndices) {
+                        System.arraycopy(colorIndices, 0, land, firstRow * width, colorIndices.length);
+                    }
+                });
+        job.run();
+        assertTrue(job.isComplete());
+
+        LandChunkStreamer streamer = new LandChunkStreamer(SEED, OCTAVES, job.getMinimum(), job.getRange(),
+                classifier, null, 16, INLINE, new Recorder());
+        streamer.request(0, 0, 1, 1, 0);
+        assertEquals(4, streamer.getCachedChunkCount());
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                byte[] chunk = streamer.getChunk(x / SIZE, y / SIZE, 0);
+                assertEquals(land[y * width + x], chunk[(y % SIZE) * SIZE + x % SIZE]);
+            }
+        }
+    }
+
+    @Test
+    public void testNearestChunksComeFirstAndTheCacheIsBounded() {
+        Recorder recorder = new Recorder();
+        LandChunkStreamer streamer = new LandChunkStreamer(SEED, OCTAVES, -0.5f, 1f, classifier, null, 4, INLINE, recorder);
+        streamer.request(-1, -1, 1, 1, 2);
+
+        assertEquals(9, recorder.chunks.size());
+        assertArrayEquals(new int[] {0, 0, 2}, recorder.chunks.get(0));
+        for (int i = 1; i < 5; i++) {
+            int[] chunk = recorder.chunks.get(i);
+            assertEquals(1, Math.abs(chunk[0]) + Math.abs(chunk[1]));
+        }
+        assertEquals(4, streamer.getCachedChunkCount());
+        assertNull(streamer.getChunk(0, 0, 2));
+        int[] last = recorder.chunks.get(8);
+        assertNotNull(streamer.getChunk(last[0], last[1], 2));
+        assertFalse(streamer.isBusy());
+
+        // Only the chunks that are not cached are generated again
+        streamer.request(last[0], last[1], last[0], last[1], 2);
+        assertEquals(9, recorder.chunks.size());
+    }
+
+    @Test
+    public void testCancelledStreamerGeneratesNothing() {
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        Recorder recorder = new Recorder();
+        LandChunkStreamer streamer = new LandChunkStreamer(SEED, OCTAVES, -0.5f, 1f, classifier, null, 4,
+                new Executor() {
+                    @Override
+                    public void execute(Runnable task) {
+                        tasks.add(task);
+                    }
+                }, recorder);
+        streamer.request(0, 0, 2, 0, 0);
+        streamer.request(5, 0, 6, 0, 0);
+        assertEquals(1, tasks.size());
+        assertTrue(streamer.isBusy());
+
+        streamer.cancel();
+        tasks.get(0).run();
+        assertTrue(recorder.chunks.isEmpty());
+        assertFalse(streamer.isBusy());
+    }
+
+    @Test
+    public void testHeightsOutsideTheRangeKeepTheirLayers() {
+        LandChunkStreamer streamer = new LandChunkStreamer(SEED, OCTAVES, -0.01f, 0.02f, classifier, null, 4, INLINE,
+                new Recorder());
+        streamer.request(3, -2, 3, -2, 0);
+        for (byte index : streamer.getChunk(3, -2, 0)) {
+            assertNotEquals(BiomeClassifier.NO_LAYER_INDEX, index);
+        }
+    }
+
+    @Test
+    public void testFailingListenerDoesNotStopStreaming() {
+        final boolean[] failing = {true};
+        final Recorder recorder = new Recorder();
+        LandChunkStreamer streamer = new LandChunkStreamer(SEED, OCTAVES, -0.5f, 1f, classifier, null, 4, INLINE,
+                new LandChunkStreamer.Listener() {
+                    @Override
+                    public void chunkFinished(LandChunkStreamer streamer, int chunkX, int chunkY, int lod, byte[] colorIndices) {
+                        if (failing[0]) {
+                            throw new IllegalStateException("listener failed");
+                        }
+                        recorder.chunkFinished(streamer, chunkX, chunkY, lod, colorIndices);
+                    }
+                });
+        try {
+            streamer.request(0, 0, 1, 0, 0);
+            fail("the listener should have thrown");
+        } catch (IllegalStateException e) {
+            assertFalse(streamer.isBusy());
+        }
+
+        failing[0] = false;
+        streamer.request(0, 0, 1, 0, 0);
+        assertEquals(1, recorder.chunks.size());
+        assertEquals(2, streamer.getCachedChunkCount());
+        assertFalse(streamer.isBusy());
+    }
+}
@@ -0,0 +1,75 @@
+package com.spacegeneration;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LandDetailPlannerTest {
+
+    private static final long BUDGET_NANOS = 16000000;
+
+    @Test
+    public void testFastMachineGetsFullResolutionAndSeveralOctaves() {
+        LandDetailPlanner planner = new LandDetailPlanner();
+        planner.record(1000000, 10000000);
+
+        LandDetailPlanner.Plan plan = planner.plan(800, 800, BUDGET_NANOS, 5);
+        assertEquals(1, plan.getStep());
+        assertEquals(2, plan.getOctaves());
+        assertEquals(5, planner.plan(800, 800, BUDGET_NANOS * 100, 5).getOctaves());
+    }
+
+    @Test
+    public void testSlowMachineGetsCoarserResolution() {
+        LandDetailPlanner planner = new LandDetailPlanner();
+        planner.record(1000, 100000);
+
+        LandDetailPlanner.Plan plan = planner.plan(800, 800, BUDGET_NANOS, 5);
+        assertEquals(2, plan.getStep());
+        assertEquals(1, plan.getOctaves());
+
+        LandDetailPlanner.Plan overBudget = planner.plan(800, 800, 1000, 5);
+        assertEquals(8, overBudget.getStep());
+        assertEquals(1, overBudget.getOctaves());
+    }
+
+    @Test
+    public void testMeasuredOctavesUpdateTheEstimate() {
+        LandDetailPlanner planner = new LandDetailPlanner();
+        assertEquals(0, planner.getSamplesPerSecond(), 0);
+
+        ProgressiveFractal fractal = new ProgressiveFractal(new FastNoise(3).GetConfig(), 64, 64);
+        assertTrue(planner.addOctave(fractal));
+        assertTrue(planner.getSamplesPerSecond() > 0);
+        assertEquals(1, fractal.getCompletedOctaves());
+
+        LandDetailPlanner.Plan plan = new LandDetailPlanner().plan(800, 800, BUDGET_NANOS, 5);
+        assertTrue(plan.getOctaves() >= 1 && plan.getOctaves() <= 5);
+    }
+
+    @Test
+    public void testPreviewStepFollowsFrequencyAndOctaves() {
+        FastNoise noise = new FastNoise(3);
+        noise.SetFractalOctaves(5);
+        assertEquals(2, LandDetailPlanner.previewStep(noise.GetConfig(), 0.01f));
+        assertEquals(1, LandDetailPlanner.previewStep(noise.GetConfig(), 0));
+        assertEquals(4, LandDetailPlanner.previewStep(noise.GetConfig(), 0.05f));
+
+        noise.SetFractalOctaves(1);
+        assertEquals(8, LandDetailPlanner.previewStep(noise.GetConfig(), 0.01f));
+        noise.SetFrequency(0.002f);
+        assertEquals(8, LandDetailPlanner.previewStep(noise.GetConfig(), 0.001f));
+        noise.SetFrequency(0.1f);
+        assertEquals(1, LandDetailPlanner.previewStep(noise.GetConfig(), 0.01f));
+    }
+
+    @Test
+    public void testPlanKeepsTheMinimumStep() {
+        LandDetailPlanner planner = new LandDetailPlanner();
+        planner.record(1000000, 10000000);
+
+        LandDetailPlanner.Plan plan = planner.plan(800, 800, BUDGET_NANOS, 5, 2);
+        assertEquals(2, plan.getStep());
+        assertEquals(5, plan.getOctaves());
+    }
+}
@@ -0,0 +1,182 @@
+package com.spacegeneration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class LandGenerationJobTest {
+
+    private static final int WIDTH = 150;
+    private static final int HEIGHT = LandGenerationJob.BAND_ROWS * 2 + 10;
+    private static final int OCTAVES = 4;
+    private static final int SEED = 453;
+
+    private final BiomeClassifier classifier = new BiomeClassifier(LandPaletteRegistry.getDefault().getPalettes());
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Keeps the land of the bands it receives, and the first row of every band.
+     */
+    private static class Recorder implements LandGenerationJob.Listener {
+        final byte[] raster = new byte[WIDTH * HEIGHT];
+        final List<Integer> firstRows = new ArrayList<Integer>();
+
+        @Override
+        public void landBandFinished(LandGenerationJob job, int firstRow, int rows, byte[] colorIndices) {
+            assertEquals(rows * WIDTH, colorIndices.length);
+            System.arraycopy(colorIndices, 0, raster, firstRow * WIDTH, colorIndices.length);
+            firstRows.add(firstRow);
+        }
+    }
+
+    @Test
+    public void testFinalLandMatchesCompleteFractal() {
+        Recorder recorder = new Recorder();
+        // A budget of 1 ns makes the first frame coarse, so the refinement is covered too
+        LandGenerationJob job = new LandGenerationJob(SEED, WIDTH, HEIGHT, OCTAVES, 16, 1,
+                classifier, new LandDetailPlanner(), null, null, recorder);
+        job.run();
+
+        assertTrue(job.isComplete());
+        assertEquals(16, job.getHeightmap().getBits());
+        int bands = (HEIGHT + LandGenerationJob.BAND_ROWS - 1) / LandGenerationJob.BAND_ROWS;
+        assertTrue(recorder.firstRows.size() >= bands * OCTAVES);
+        assertEquals(0, recorder.firstRows.size() % bands);
+
+        FastNoise noise = new FastNoise(SEED);
+        noise.SetFractalOctaves(OCTAVES);
+        ProgressiveFractal land = new ProgressiveFractal(noise.GetConfig(), WIDTH, HEIGHT);
+        while (land.addOctave()) {
+            assertFalse(land.isCancelled());
+        }
+        float minimum = 0;
+        float maximum = 0;
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            minimum = Math.min(minimum, land.getValue(i));
+            maximum = Math.max(maximum, land.getValue(i));
+        }
+        assertEquals(minimum, job.getMinimum(), 0f);
+        assertEquals(maximum - minimum, job.getRange(), 0f);
+
+        float[] moisture = new float[WIDTH * HEIGHT];
+        float[] temperature = new float[WIDTH * HEIGHT];
+        FastNoise climate = new FastNoise(SEED);
+        climate.SetFrequency(LandGenerationJob.CLIMATE_FREQUENCY);
+        climate.FillPerlinChannels2D(new float[][] {moisture, temperature},
+                new int[] {SEED + LandGenerationJob.MOISTURE_SEED_OFFSET, SEED + LandGenerationJob.TEMPERATURE_SEED_OFFSET},
+                0, 0, 0, WIDTH, HEIGHT, WIDTH);
+        float halfLevel = job.getRange() / (2 * 65535) * 1.001f;
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            assertEquals(classifier.classifyIndex(land.getValue(i), minimum, maximum - minimum,
+                    moisture[i], temperature[i]), recorder.raster[i] & 0xff);
+            assertEquals(land.getValue(i), job.getHeightmap().getHeight(i), halfLevel + 1e-7f);
+        }
+    }
+
+    @Test
+    public void testCachedLandIsNotGeneratedAgain() throws IOException {
+        TerrainCache terrainCache = new TerrainCache(folder.getRoot(), 1 << 26);
+        Recorder generated = new Recorder();
+        LandGenerationJob first = new LandGenerationJob(SEED, WIDTH, HEIGHT, OCTAVES, 16, 1,
+                classifier, new LandDetailPlanner(), null, terrainCache, generated);
+        first.run();
+        assertTrue(first.isCached());
+
+        Recorder read = new Recorder();
+        NoiseTileCache tileCache = new NoiseTileCache(1 << 20);
+        LandGenerationJob second = new LandGenerationJob(SEED, WIDTH, HEIGHT, OCTAVES, 16, 1,
+                classifier, new LandDetailPlanner(), tileCache, terrainCache, read);
+        second.run();
+
+        assertTrue(second.isComplete());
+        assertTrue(second.isCached());
+        assertEquals(0, tileCache.getMisses() + tileCache.getHits());
+        assertArrayEquals(generated.raster, read.raster);
+        assertEquals(Arrays.asList(0, LandGenerationJob.BAND_ROWS, 2 * LandGenerationJob.BAND_ROWS), read.firstRows);
+        assertEquals(first.getMinimum(), second.getMinimum(), 0f);
+        assertEquals(first.getRange(), second.getRange(), 0f);
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            assertEquals(first.getHeightmap().getLevel(i), second.getHeightmap().getLevel(i));
+        }
+
+        LandGenerationJob otherSeed = new LandGenerationJob(SEED + 1, WIDTH, HEIGHT, OCTAVES, 16, 1,
+                classifier, new LandDetailPlanner(), tileCache, terrainCache, new Recorder());
+        otherSeed.run();
+        assertTrue(tileCache.getMisses() > 0);
+    }
+
+    @Test
+    public void testFingerprintCoversTheGeneratorVersion() {
+        LandGenerationJob job = new LandGenerationJob(SEED, WIDTH, HEIGHT, OCTAVES, 16, 1,
+                classifier, new LandDetailPlanner(), null, null, new Recorder());
+        NoiseConfig config = new FastNoise(SEED).GetConfig();
+        assertEquals(job.fingerprint(config, LandGenerationJob.GENERATOR_VERSION),
+                job.fingerprint(config, LandGenerationJob.GENERATOR_VERSION));
+        assertNotEquals(job.fingerprint(config, LandGenerationJob.GENERATOR_VERSION),
+                job.fingerprint(config, LandGenerationJob.GENERATOR_VERSION + 1));
+    }
+
+    @Test
+    public void testPreviewWithoutRefinementIsInterpolated() {
+        Recorder recorder = new Recorder();
+        LandGenerationJob job = new LandGenerationJob(SEED, WIDTH, HEIGHT, OCTAVES, 16, Long.MAX_VALUE,
+                classifier, new LandDetailPlanner(), null, null, recorder);
+        job.setPreviewMaxError(0.02f);
+        job.setRefine(false);
+        job.run();
+
+        assertFalse(job.isComplete());
+        assertNull(job.getHeightmap());
+        int bands = (HEIGHT + LandGenerationJob.BAND_ROWS - 1) / LandGenerationJob.BAND_ROWS;
+        assertEquals(bands, recorder.firstRows.size());
+
+        Recorder exact = new Recorder();
+        new LandGenerationJob(SEED, WIDTH, HEIGHT, OCTAVES, 16, Long.MAX_VALUE,
+                classifier, new LandDetailPlanner(), null, null, exact).run();
+        int different = 0;
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            different += (recorder.raster[i] != exact.raster[i])? 1 : 0;
+        }
+        assertTrue(different + " pixels differ", different < WIDTH * HEIGHT / 50);
+        assertFalse(Arrays.equals(recorder.raster, exact.raster));
+    }
+
+    @Test
+    public void testCancelStopsPublishing() {
+        final List<Integer> firstRows = new ArrayList<Integer>();
+        LandGenerationJob job = new LandGenerationJob(SEED, WIDTH, HEIGHT, OCTAVES, 8, 1,
+                classifier, new LandDetailPlanner(), null, null, new LandGenerationJob.Listener() {
+                    @Override
+                    public void landBandFinished(LandGenerationJob job, int firstRow, int rows, byte[] colorIndices) {
+                        firstRows.add(firstRow);
+                        job.cancel();
+                    }
+                });
+        job.run();
+
+        assertTrue(job.isCancelled());
+        assertFalse(job.isComplete());
+        assertNull(job.getHeightmap());
+        assertEquals(1, firstRows.size());
+    }
+
+    @Test
+    public void testJobCancelledBeforeItRunsPublishesNothing() {
+        Recorder recorder = new Recorder();
+        LandGenerationJob job = new LandGenerationJob(SEED, WIDTH, HEIGHT, OCTAVES, 8, 1,
+                classifier, new LandDetailPlanner(), null, null, recorder);
+        job.cancel();
+        job.run();
+
+        assertTrue(recorder.firstRows.isEmpty());
+    }
+}
@@ -0,0 +1,58 @@
+package com.spacegeneration;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonParseException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LandPaletteRegistryTest {
+
+    private static InputStream json(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDefaultRegistryIsLoadedOnce() {
+        LandPaletteRegistry registry = LandPaletteRegistry.getDefault();
+        assertSame(registry, LandPaletteRegistry.getDefault());
+
+        assertEquals(5, registry.getPalettes().size());
+        LandPalette regular = registry.get(BiomeClassifier.REGULAR);
+        assertEquals(5, regular.getLayerCount());
+        assertEquals(0.35, regular.getLayerValue(0), 0);
+        assertEquals(0xff0f5e9c, regular.getLayerRgb(0));
+        for (String name : new String[] {BiomeClassifier.ISLAND, BiomeClassifier.DESERT, BiomeClassifier.SNOWY, BiomeClassifier.ROCKY}) {
+            assertNotNull(name, registry.get(name));
+        }
+    }
+
+    @Test
+    public void testUnknownFieldsAreSkipped() throws IOException {
+        LandPaletteRegistry registry = LandPaletteRegistry.read(json("[{\"comment\": {\"a\": [1, 2]},"
+                + " \"landTypeInformation\": {\"layerValues\": [0.5, 1], \"extra\": [\"x\"], \"landColors\": [\"#000001\", \"#ffffff\"]},"
+                + " \"landTypeName\": \"Moon\"}]"));
+
+        LandPalette moon = registry.get("Moon");
+        assertEquals(1, registry.getPalettes().size());
+        assertArrayEquals(new double[] {0.5, 1}, moon.getLayerValues(), 0);
+        assertArrayEquals(new int[] {0xff000001, 0xffffffff}, moon.getLayerRgb());
+        assertNull(registry.get("Regular"));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testLayerAndColourCountsMustMatch() throws IOException {
+        LandPaletteRegistry.read(json("[{\"landTypeName\": \"Moon\","
+                + " \"landTypeInformation\": {\"layerValues\": [0.5, 1], \"landColors\": [\"#000001\"]}}]"));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testTruncatedFileIsRejected() throws IOException {
+        LandPaletteRegistry.read(json("[{\"landTypeName\": \"Moon\", \"landTypeInformation\": {\"layerValues\": [0.5"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.spacegeneration;
+
+/**
+ * Speed and quality of the coarse land preview: for every grid step, the time to sample all
+ * octaves on the grid and interpolate it up to every pixel, against sampling every pixel, and
+ * how far the interpolated heights are from the exact ones, next to the error the
+ * {@link LandDetailPlanner} predicts and the share of pixels that get another colour. Also
+ * prints the step the land panel's tolerance picks. Takes the seeds as arguments.
+ */
+public final class LandPreviewBenchmark {
+
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+    private static final int OCTAVES = 5;
+    private static final int[] STEPS = {1, 2, 4, 8, 16};
+    private static final int ROUNDS = 5;
+    // The land panel's PREVIEW_MAX_ERROR
+    private static final float TOLERANCE = 0.01f;
+
+    private LandPreviewBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int[] seeds = (args.length == 0)? new int[] {87345, 1234} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            seeds[i] = Integer.parseInt(args[i]);
+        }
+        BiomeClassifier classifier = new BiomeClassifier(LandPaletteRegistry.getDefault().getPalettes());
+        // Warms up every step, so the first seed is not also measuring the JIT
+        FastNoise noise = new FastNoise(seeds[0]);
+        noise.SetFractalOctaves(OCTAVES);
+        float[] heights = new float[WIDTH * HEIGHT];
+        for (int step : STEPS) {
+            sample(noise.GetConfig(), step, heights);
+        }
+        for (int seed : seeds) {
+            measure(seed, classifier);
+        }
+    }
+
+    private static void measure(int seed, BiomeClassifier classifier) {
+        FastNoise noise = new FastNoise(seed);
+        noise.SetFractalOctaves(OCTAVES);
+        NoiseConfig config = noise.GetConfig();
+        float[] moisture = new float[WIDTH * HEIGHT];
+        float[] temperature = new float[WIDTH * HEIGHT];
+        FastNoise climate = new FastNoise(seed);
+        climate.SetFrequency(LandGenerationJob.CLIMATE_FREQUENCY);
+        climate.FillPerlinChannels2D(new float[][] {moisture, temperature},
+                new int[] {seed + LandGenerationJob.MOISTURE_SEED_OFFSET, seed + LandGenerationJob.TEMPERATURE_SEED_OFFSET},
+                0, 0, 0, WIDTH, HEIGHT, WIDTH);
+
+        float[] exact = new float[WIDTH * HEIGHT];
+        double exactMillis = sample(config, 1, exact);
+        float lowest = 0;
+        float highest = 0;
+        for (float value : exact) {
+            lowest = Math.min(lowest, value);
+            highest = Math.max(highest, value);
+        }
+        HeightColorTable colorTable = classifier.colorTable(lowest, highest - lowest);
+
+        System.out.printf("Seed %d, %dx%d, %d octaves, preview step for %.2f: %d%n", seed, WIDTH, HEIGHT, OCTAVES,
+                TOLERANCE, LandDetailPlanner.previewStep(config, TOLERANCE));
+        float[] heights = new float[WIDTH * HEIGHT];
+        for (int step : STEPS) {
+            double millis = sample(config, step, heights);
+            double worst = 0;
+            double total = 0;
+            int recoloured = 0;
+            for (int i = 0; i < heights.length; i++) {
+                double error = Math.abs(heights[i] - exact[i]);
+                worst = Math.max(worst, error);
+                total += error;
+                if (colorTable.classifyIndex(heights[i], moisture[i], temperature[i])
+                        != colorTable.classifyIndex(exact[i], moisture[i], temperature[i])) {
+                    recoloured++;
+                }
+            }
+            System.out.printf("Step %2d %8.1f ms %5.1fx faster, error %.5f at worst %.6f on average, %.5f predicted, %6.3f%% recoloured%n",
+                    step, millis, exactMillis / millis, worst, total / heights.length,
+                    LandDetailPlanner.estimateError(config, step), 100.0 * recoloured / heights.length);
+        }
+    }
+
+    /**
+     * Samples every octave on a grid of the given step and interpolates it into heights, and
+     * returns the best time of a few rounds.
+     */
+    private static double sample(NoiseConfig config, int step, float[] heights) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            if (step == 1) {
+                ProgressiveFractal land = new ProgressiveFractal(config, WIDTH, HEIGHT);
+                while (land.addOctave()) {
+                    continue;
+                }
+                for (int i = 0; i < heights.length; i++) {
+                    heights[i] = land.getValue(i);
+                }
+            } else {
+                int gridWidth = BicubicUpsampler.gridSize(WIDTH, step);
+                int gridHeight = BicubicUpsampler.gridSize(HEIGHT, step);
+                ProgressiveFractal land = new ProgressiveFractal(config, -1, -1, gridWidth, gridHeight, step, null);
+                while (land.addOctave()) {
+                    continue;
+                }
+                float[] grid = new float[gridWidth * gridHeight];
+                for (int i = 0; i < grid.length; i++) {
+                    grid[i] = land.getValue(i);
+                }
+                new BicubicUpsampler(WIDTH, step).upsample(grid, 0, HEIGHT, heights, 0);
+            }
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+}
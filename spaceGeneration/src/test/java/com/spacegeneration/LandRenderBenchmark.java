@@ -0,0 +1,201 @@
+package com.spacegeneration;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.Future;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Repaint time and allocation of a full HD land, painted pixel by pixel with fillRect like
+ * the land panel used to and blitted from the panel's rasterized land image, and the time to
+ * classify its pixels with and without a colour table. Also measures how long events wait
+ * on the Event Dispatch Thread while a planet generates, and the frame times of panning at
+ * 60 frames a second while chunks stream in. Run with -Djava.awt.headless=true when there is
+ * no display.
+ */
+public final class LandRenderBenchmark {
+
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private LandRenderBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Without a terrain cache planets are generated every time, not read from a cache filled by earlier runs
+        final PlanetLandSimulationPanel panel = new PlanetLandSimulationPanel(WIDTH, HEIGHT, null);
+        for (int seed = 1; seed <= 5; seed++) {
+            measureEventLatency(panel, seed);
+        }
+        measureEventLatency(panel, 87345);
+        final BufferedImage screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        final Graphics g = screen.getGraphics();
+
+        measure("fillRect per pixel", new Runnable() {
+            public void run() {
+                for (int x = 0; x < WIDTH; x++) {
+                    for (int y = 0; y < HEIGHT; y++) {
+                        g.setColor(new Color(panel.landColors.getRGB(panel.landRaster[y * WIDTH + x] & 0xff)));
+                        g.fillRect(x, y, 1, 1);
+                    }
+                }
+            }
+        });
+        measure("Rasterized land blit", new Runnable() {
+            public void run() {
+                panel.paintComponent(g);
+            }
+        });
+        g.dispose();
+
+        final LandGenerationJob job = panel.landJob;
+        final float[] heights = new float[WIDTH * HEIGHT];
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] = job.getHeightmap().getHeight(i);
+        }
+        final float[] moisture = new float[WIDTH * HEIGHT];
+        final float[] temperature = new float[WIDTH * HEIGHT];
+        new FastNoise(87345).FillPerlinChannels2D(new float[][] {moisture, temperature}, new int[] {1, 2},
+                0, 0, 0, WIDTH, HEIGHT, WIDTH);
+        final int[] pixels = new int[WIDTH * HEIGHT];
+        measure("Classify layer scan", new Runnable() {
+            public void run() {
+                for (int i = 0; i < pixels.length; i++) {
+                    pixels[i] = panel.biomeClassifier.classify(heights[i], job.getMinimum(), job.getRange(),
+                            moisture[i], temperature[i]);
+                }
+            }
+        });
+        measure("Classify colour table", new Runnable() {
+            public void run() {
+                panel.biomeClassifier.colorTable(job.getMinimum(), job.getRange())
+                        .classify(heights, moisture, temperature, pixels, 0, pixels.length);
+            }
+        });
+
+        measurePanning(panel, screen);
+        measureRetainedHeap(3840, 2160);
+        System.exit(0);
+    }
+
+    /**
+     * Opens a planet on the Event Dispatch Thread and, until its land is complete, times how
+     * long short events posted every 2 ms wait before they run.
+     */
+    private static void measureEventLatency(final PlanetLandSimulationPanel panel, final int seed) throws Exception {
+        long start = System.nanoTime();
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                panel.openSimulation(seed);
+            }
+        });
+        double openMillis = (System.nanoTime() - start) / 1e6;
+
+        final long[] worst = new long[1];
+        long total = 0;
+        int events = 0;
+        Future<?> generation = panel.landGeneration;
+        while (!generation.isDone()) {
+            final long posted = System.nanoTime();
+            final long[] waited = new long[1];
+            SwingUtilities.invokeAndWait(new Runnable() {
+                public void run() {
+                    waited[0] = System.nanoTime() - posted;
+                }
+            });
+            worst[0] = Math.max(worst[0], waited[0]);
+            total += waited[0];
+            events++;
+            Thread.sleep(2);
+        }
+        generation.get();
+        // Let the last bands reach the image
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+            }
+        });
+        double generationMillis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("Seed %-6d open %6.2f ms, generated in %7.1f ms, %4d events waited %6.3f ms on average, %6.3f ms at worst%n",
+                seed, openMillis, generationMillis, events, events == 0 ? 0 : total / 1e6 / events, worst[0] / 1e6);
+    }
+
+    /**
+     * Pans the open planet diagonally, a step like a held key every 1/60 s, and paints every
+     * frame, while the chunks that come into view are generated. A frame's time runs from
+     * when it was due until it is painted, so it includes waiting for the Event Dispatch
+     * Thread.
+     */
+    private static void measurePanning(final PlanetLandSimulationPanel panel, final BufferedImage screen) throws Exception {
+        final int frames = 600;
+        final long frameNanos = 1000000000L / 60;
+        final long[] frameTimes = new long[frames];
+        long next = System.nanoTime();
+        for (int frame = 0; frame < frames; frame++) {
+            next += frameNanos;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                Thread.sleep(sleep / 1000000, (int) (sleep % 1000000));
+            }
+            final long due = next;
+            final int index = frame;
+            SwingUtilities.invokeAndWait(new Runnable() {
+                public void run() {
+                    panel.pan(panel.PAN_PIXELS_PER_FRAME, panel.PAN_PIXELS_PER_FRAME / 2);
+                    Graphics g = screen.getGraphics();
+                    panel.paintComponent(g);
+                    g.dispose();
+                    frameTimes[index] = System.nanoTime() - due;
+                }
+            });
+        }
+        Arrays.sort(frameTimes);
+        int late = 0;
+        for (long time : frameTimes) {
+            late += (time > frameNanos) ? 1 : 0;
+        }
+        System.out.printf("Panning %d frames: %.2f ms median, %.2f ms 99th percentile, %.2f ms at worst, %d frames over %.1f ms, %d chunks cached%n",
+                frames, frameTimes[frames / 2] / 1e6, frameTimes[frames * 99 / 100] / 1e6, frameTimes[frames - 1] / 1e6,
+                late, frameNanos / 1e6, panel.chunkStreamer.getCachedChunkCount());
+    }
+
+    /**
+     * Heap a complete planet keeps while it is open, without the shared noise tile cache.
+     */
+    private static void measureRetainedHeap(int width, int height) throws Exception {
+        final PlanetLandSimulationPanel panel = new PlanetLandSimulationPanel(width, height, null);
+        long before = Benchmarks.usedHeap();
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                panel.openSimulation(87345);
+            }
+        });
+        panel.landGeneration.get();
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+            }
+        });
+        double megabytes = (Benchmarks.usedHeap() - before - panel.landTileCache.getSizeInBytes()) / 1048576.0;
+        System.out.printf("Open %dx%d planet retains %.1f MB%n", width, height, megabytes);
+    }
+
+    private static void measure(String name, Runnable repaint) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            repaint.run();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            repaint.run();
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / ROUNDS;
+        double kilobytes = (threads.getCurrentThreadAllocatedBytes() - allocated) / 1024.0 / ROUNDS;
+        System.out.printf("%-24s %9.2f ms/repaint %12.1f KB allocated/repaint%n", name, millis, kilobytes);
+    }
+}
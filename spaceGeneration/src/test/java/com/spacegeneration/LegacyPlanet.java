@@ -0,0 +1,28 @@
+package com.spacegeneration;
+
+import java.awt.Color;
+
+/**
+ * A planet laid out the way {@link Planet} was before regions kept their planets in a
+ * {@link PlanetTable}: four ints, a Color and the region, as an object of its own, for the
+ * benchmarks that compare against that layout.
+ */
+final class LegacyPlanet {
+
+    final int xCoordinate;
+    final int yCoordinate;
+    final int planetRadius;
+    final Color planetColour;
+    final int planetSeed;
+    final PlanetRegion region;
+
+    LegacyPlanet(int xCoordinate, int yCoordinate, int planetRadius, Color planetColour, int planetSeed,
+            PlanetRegion region) {
+        this.xCoordinate = xCoordinate;
+        this.yCoordinate = yCoordinate;
+        this.planetRadius = planetRadius;
+        this.planetColour = planetColour;
+        this.planetSeed = planetSeed;
+        this.region = region;
+    }
+}
@@ -0,0 +1,273 @@
+package com.spacegeneration;
+
+/**
+ * Simple timing harness for the noise generation used by the land simulation.
+ * It is not a unit test and is not run by surefire. Run it after a test-compile with:
+ * <p>
+ * java -cp target/classes:target/test-classes com.spacegeneration.NoiseBenchmark
+ * <p>
+ * On JDK 17+ add {@code --add-modules jdk.incubator.vector} to time FillPerlin2D with the SIMD
+ * kernel, or {@code -Dspacegeneration.vector=false} as well to time the scalar kernel.
+ */
+public final class NoiseBenchmark {
+
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int ROUNDS = 30;
+
+    private NoiseBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final FastNoise noise = new FastNoise(87345);
+        final float[] out = new float[WIDTH * HEIGHT];
+
+        double perPoint = time(new Runnable() {
+            public void run() {
+                for (int y = 0; y < HEIGHT; y++) {
+                    for (int x = 0; x < WIDTH; x++) {
+                        out[y * WIDTH + x] = noise.GetPerlin(x, y);
+                    }
+                }
+            }
+        });
+        double bulk = time(new Runnable() {
+            public void run() {
+                noise.FillPerlin2D(out, 0, 0, WIDTH, HEIGHT, WIDTH);
+            }
+        });
+
+        report("GetPerlin per point", perPoint);
+        System.out.println(VectorPerlin.isAvailable()
+                ? "vector kernel: " + VectorPerlin.kernel().lanes() + " lanes" : "vector kernel: not available");
+        report("FillPerlin2D", bulk);
+        System.out.printf("speedup: %.1fx%n", perPoint / bulk);
+
+        benchmarkParallelFill(noise.GetConfig());
+        benchmarkProgressiveFractal();
+        benchmarkChannels();
+        benchmarkNoiseGraph();
+        for (FastNoise.HashType hashType : FastNoise.HashType.values()) {
+            benchmarkNoiseTypes(hashType);
+        }
+    }
+
+    /**
+     * Reports the per-sample cost of every noise type, per point in 2D and 3D and through
+     * the bulk FillNoise2D path, with the given lattice hash.
+     */
+    private static void benchmarkNoiseTypes(FastNoise.HashType hashType) {
+        final int width = 512;
+        final int height = 512;
+        final float[] out = new float[width * height];
+        System.out.printf("%-16s %12s %12s %12s%n", hashType + " hash", "2D ns", "bulk 2D ns", "3D ns");
+        for (FastNoise.NoiseType type : FastNoise.NoiseType.values()) {
+            final FastNoise noise = new FastNoise(87345);
+            noise.SetHashType(hashType);
+            noise.SetNoiseType(type);
+
+            double perPoint2D = time(new Runnable() {
+                public void run() {
+                    for (int y = 0; y < height; y++) {
+                        for (int x = 0; x < width; x++) {
+                            out[y * width + x] = noise.GetNoise(x, y);
+                        }
+                    }
+                }
+            });
+            double bulk2D = time(new Runnable() {
+                public void run() {
+                    noise.FillNoise2D(out, 0, 0, 0, width, height, width);
+                }
+            });
+            double perPoint3D = time(new Runnable() {
+                public void run() {
+                    for (int y = 0; y < height; y++) {
+                        for (int x = 0; x < width; x++) {
+                            out[y * width + x] = noise.GetNoise(x, y, 42);
+                        }
+                    }
+                }
+            });
+            double samples = width * height;
+            System.out.printf("%-16s %12.2f %12.2f %12.2f%n", type,
+                    perPoint2D * 1e6 / samples, bulk2D * 1e6 / samples, perPoint3D * 1e6 / samples);
+        }
+    }
+
+    /**
+     * Compares a serial and a fork/join fill of a 4K surface.
+     */
+    private static void benchmarkParallelFill(final NoiseConfig config) {
+        final int width = 3840;
+        final int height = 2160;
+        final float[] out = new float[width * height];
+        final FastNoise noise = new FastNoise(config);
+
+        double serial = time(new Runnable() {
+            public void run() {
+                noise.FillPerlin2D(out, 0, 0, width, height, width);
+            }
+        });
+        double parallel = time(new Runnable() {
+            public void run() {
+                ParallelNoiseFill.fillPerlin(config, out, 0, 0, width, height, width);
+            }
+        });
+        System.out.printf("4K serial fill   %8.2f ms%n", serial);
+        System.out.printf("4K parallel fill %8.2f ms on %d cores%n", parallel,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Compares the time until the first octave of an 800x800 land can be shown with the time
+     * of the complete fractal, per point and progressively.
+     */
+    private static void benchmarkProgressiveFractal() {
+        final int size = 800;
+        final int octaves = 8;
+        final FastNoise noise = new FastNoise(87345);
+        noise.SetFractalOctaves(octaves);
+        final float[] out = new float[size * size];
+
+        double perPoint = time(new Runnable() {
+            public void run() {
+                for (int y = 0; y < size; y++) {
+                    for (int x = 0; x < size; x++) {
+                        out[y * size + x] = noise.GetPerlinFractal(x, y);
+                    }
+                }
+            }
+        });
+        double firstOctave = time(new Runnable() {
+            public void run() {
+                new ProgressiveFractal(noise.GetConfig(), size, size).addOctave();
+            }
+        });
+        double allOctaves = time(new Runnable() {
+            public void run() {
+                ProgressiveFractal fractal = new ProgressiveFractal(noise.GetConfig(), size, size);
+                for (int i = 0; i < octaves; i++) {
+                    fractal.addOctave();
+                }
+            }
+        });
+        System.out.printf("%d octaves, 800x800: per point %.2f ms, progressive first octave %.2f ms, all %.2f ms%n",
+                octaves, perPoint, firstOctave, allOctaves);
+    }
+
+    /**
+     * Compares three Perlin channels filled separately with the fused multi-channel fill.
+     */
+    private static void benchmarkChannels() {
+        final int[] seeds = {1, 2, 3};
+        final float[][] channels = new float[seeds.length][WIDTH * HEIGHT];
+        final FastNoise noise = new FastNoise(87345);
+
+        double separate = time(new Runnable() {
+            public void run() {
+                for (int channel = 0; channel < seeds.length; channel++) {
+                    noise.SetSeed(seeds[channel]);
+                    noise.FillPerlin2D(channels[channel], 0, 0, WIDTH, HEIGHT, WIDTH);
+                }
+            }
+        });
+        double fused = time(new Runnable() {
+            public void run() {
+                noise.FillPerlinChannels2D(channels, seeds, 0, 0, 0, WIDTH, HEIGHT, WIDTH);
+            }
+        });
+        report("3 channels separately", separate);
+        report("3 channels fused", fused);
+    }
+
+    /**
+     * Warped ridged mountains added to a continent above sea level, once as a compiled graph
+     * and once as the hand written passes over full frame buffers it replaces.
+     */
+    private static void benchmarkNoiseGraph() {
+        FastNoise continent = new FastNoise(87345);
+        continent.SetNoiseType(FastNoise.NoiseType.PerlinFractal);
+        continent.SetFrequency(0.003f);
+        continent.SetFractalOctaves(4);
+        FastNoise warpX = new FastNoise(87346);
+        warpX.SetNoiseType(FastNoise.NoiseType.Simplex);
+        FastNoise warpY = new FastNoise(87347);
+        warpY.SetNoiseType(FastNoise.NoiseType.Simplex);
+        FastNoise mountains = new FastNoise(87348);
+        mountains.SetNoiseType(FastNoise.NoiseType.PerlinFractal);
+        mountains.SetFractalType(FastNoise.FractalType.RigidMulti);
+        mountains.SetFractalOctaves(3);
+        mountains.SetFrequency(0.02f);
+        final float warpAmplitude = 30;
+
+        NoiseGraph.Node land = NoiseGraph.source(continent.GetConfig());
+        NoiseGraph.Node ridges = NoiseGraph.clamp(NoiseGraph.warp(NoiseGraph.source(mountains.GetConfig()),
+                NoiseGraph.source(warpX.GetConfig()), NoiseGraph.source(warpY.GetConfig()), warpAmplitude), -1, 1);
+        NoiseGraph.Node highlands = NoiseGraph.add(land, NoiseGraph.multiply(ridges, NoiseGraph.constant(0.5f)));
+        final NoiseGraph graph = NoiseGraph.compile(NoiseGraph.select(land, NoiseGraph.scale(land, 0.5f), highlands, 0, 0.1f));
+
+        final FastNoise[] noises = {continent, warpX, warpY, mountains};
+        final float[] out = new float[WIDTH * HEIGHT];
+        double multiPass = time(new Runnable() {
+            public void run() {
+                float[] continentValues = new float[WIDTH * HEIGHT];
+                float[] warpXValues = new float[WIDTH * HEIGHT];
+                float[] warpYValues = new float[WIDTH * HEIGHT];
+                float[] ridgeValues = new float[WIDTH * HEIGHT];
+                noises[0].FillNoise2D(continentValues, 0, 0, 0, WIDTH, HEIGHT, WIDTH);
+                noises[1].FillNoise2D(warpXValues, 0, 0, 0, WIDTH, HEIGHT, WIDTH);
+                noises[2].FillNoise2D(warpYValues, 0, 0, 0, WIDTH, HEIGHT, WIDTH);
+                for (int y = 0; y < HEIGHT; y++) {
+                    for (int x = 0; x < WIDTH; x++) {
+                        int i = y * WIDTH + x;
+                        ridgeValues[i] = noises[3].GetNoise(x + warpAmplitude * warpXValues[i], y + warpAmplitude * warpYValues[i]);
+                    }
+                }
+                for (int i = 0; i < out.length; i++) {
+                    ridgeValues[i] = Math.min(Math.max(ridgeValues[i], -1), 1);
+                }
+                for (int i = 0; i < out.length; i++) {
+                    ridgeValues[i] = continentValues[i] + ridgeValues[i] * 0.5f;
+                }
+                for (int i = 0; i < out.length; i++) {
+                    float control = continentValues[i];
+                    float low = continentValues[i] * 0.5f;
+                    if (control <= -0.1f) {
+                        out[i] = low;
+                    } else if (control >= 0.1f) {
+                        out[i] = ridgeValues[i];
+                    } else {
+                        out[i] = low + (control + 0.1f) / 0.2f * (ridgeValues[i] - low);
+                    }
+                }
+            }
+        });
+        double fused = time(new Runnable() {
+            public void run() {
+                graph.fill(out, 0, 0, 0, WIDTH, HEIGHT, WIDTH);
+            }
+        });
+        report("Land graph multi-pass", multiPass);
+        report("Land graph fused", fused);
+    }
+
+    /**
+     * Returns the average milliseconds for one run of the task after warming up the JIT.
+     */
+    static double time(Runnable task) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / ROUNDS;
+    }
+
+    static void report(String name, double millis) {
+        System.out.printf("%-28s %8.2f ms  %6.2f ns/sample%n", name, millis, millis * 1e6 / (WIDTH * HEIGHT));
+    }
+}
@@ -0,0 +1,64 @@
+package com.spacegeneration;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NoiseGraphTest {
+
+    private static NoiseGraph.Node source(int seed, FastNoise.NoiseType type, float frequency) {
+        FastNoise noise = new FastNoise(seed);
+        noise.SetNoiseType(type);
+        noise.SetFrequency(frequency);
+        return NoiseGraph.source(noise.GetConfig());
+    }
+
+    @Test
+    public void testFillMatchesPerPointEvaluation() {
+        NoiseGraph.Node continent = source(1337, FastNoise.NoiseType.PerlinFractal, 0.01f);
+        NoiseGraph.Node warpX = source(1, FastNoise.NoiseType.Simplex, 0.02f);
+        NoiseGraph.Node warpY = source(2, FastNoise.NoiseType.Simplex, 0.02f);
+        NoiseGraph.Node ridges = NoiseGraph.clamp(NoiseGraph.warp(source(3, FastNoise.NoiseType.Perlin, 0.05f),
+                warpX, warpY, 20), -0.4f, 0.6f);
+        NoiseGraph.Node twiceWarped = NoiseGraph.warp(NoiseGraph.warp(source(4, FastNoise.NoiseType.Value, 0.03f),
+                warpY, continent, 5), warpX, NoiseGraph.constant(1), 3);
+        NoiseGraph.Node land = NoiseGraph.add(continent, NoiseGraph.multiply(ridges, NoiseGraph.scale(twiceWarped, 0.5f)));
+        NoiseGraph graph = NoiseGraph.compile(NoiseGraph.select(continent, NoiseGraph.constant(-1), land, 0.1f, 0.05f));
+
+        int w = NoiseGraph.TILE_WIDTH + 45;
+        int h = NoiseGraph.TILE_HEIGHT * 2 + 3;
+        int stride = w + 7;
+        float[] out = new float[5 + h * stride];
+        graph.fill(out, 5, -70, 31, w, h, stride);
+
+        for (int row = 0; row < h; row++) {
+            for (int col = 0; col < w; col++) {
+                assertEquals(graph.evaluate(col - 70, row + 31), out[5 + row * stride + col], 0f);
+            }
+        }
+    }
+
+    @Test
+    public void testSharedNodesAreComputedOnce() {
+        NoiseGraph.Node noise = source(7, FastNoise.NoiseType.Perlin, 0.1f);
+        NoiseGraph.Node sum = noise;
+        for (int i = 0; i < 20; i++) {
+            sum = NoiseGraph.add(sum, noise);
+        }
+        NoiseGraph graph = NoiseGraph.compile(sum);
+
+        assertEquals(2, graph.getRegisterCount());
+        assertEquals(21 * noise.noise.GetNoise(3, 4), graph.evaluate(3, 4), 1e-5f);
+    }
+
+    @Test
+    public void testSelectBlendsWithinFalloff() {
+        NoiseGraph.Node low = NoiseGraph.constant(-1);
+        NoiseGraph.Node high = NoiseGraph.constant(1);
+
+        assertEquals(-1, NoiseGraph.evaluate(NoiseGraph.select(NoiseGraph.constant(-0.2f), low, high, 0, 0.1f), 0, 0), 0f);
+        assertEquals(1, NoiseGraph.evaluate(NoiseGraph.select(NoiseGraph.constant(0.2f), low, high, 0, 0.1f), 0, 0), 0f);
+        assertEquals(0.5f, NoiseGraph.evaluate(NoiseGraph.select(NoiseGraph.constant(0.05f), low, high, 0, 0.1f), 0, 0), 1e-6f);
+        assertEquals(1, NoiseGraph.evaluate(NoiseGraph.select(NoiseGraph.constant(0), low, high, 0, 0), 0, 0), 0f);
+    }
+}
@@ -0,0 +1,120 @@
+package com.spacegeneration;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NoiseTileCacheTest {
+
+    private static final int TILE = NoiseTileCache.TILE_SIZE;
+
+    @Test
+    public void testFillMatchesDirectFill() {
+        NoiseTileCache cache = new NoiseTileCache(Long.MAX_VALUE);
+        FastNoise noise = new FastNoise(1337);
+        noise.SetNoiseType(FastNoise.NoiseType.Perlin);
+        int w = 301;
+        int h = 97;
+        float[] expected = new float[w * h];
+        float[] actual = new float[w * h];
+        noise.FillNoise2D(expected, 0, -150, -40, w, h, w);
+        cache.fill(noise.GetConfig(), 1, actual, 0, -150, -40, w, h, w);
+
+        assertArrayEquals(expected, actual, 0f);
+        assertEquals(0, cache.getHits());
+        assertEquals(cache.getTileCount(), cache.getMisses());
+    }
+
+    @Test
+    public void testCancelledFillWritesNothing() {
+        NoiseTileCache cache = new NoiseTileCache(Long.MAX_VALUE);
+        FastNoise noise = new FastNoise(124);
+        noise.SetNoiseType(FastNoise.NoiseType.Perlin);
+        int w = 4 * TILE;
+        int h = 2 * TILE;
+        float[] out = new float[w * h];
+        Arrays.fill(out, Float.NaN);
+        final AtomicInteger checks = new AtomicInteger();
+        boolean filled = cache.fill(noise.GetConfig(), 1, out, 0, 0, 0, w, h, w, new BooleanSupplier() {
+            @Override
+            public boolean getAsBoolean() {
+                return checks.incrementAndGet() > 3;
+            }
+        });
+
+        assertFalse(filled);
+        for (float value : out) {
+            assertTrue(Float.isNaN(value));
+        }
+        // The tiles generated before the cancel are complete and kept
+        assertEquals(3, cache.getTileCount());
+        float[] expected = new float[w * h];
+        noise.FillNoise2D(expected, 0, 0, 0, w, h, w);
+        assertTrue(cache.fill(noise.GetConfig(), 1, out, 0, 0, 0, w, h, w, ParallelNoiseFill.NEVER_CANCELLED));
+        assertArrayEquals(expected, out, 0f);
+    }
+
+    @Test
+    public void testRevisitAndGrowOnlyGenerateMissingTiles() {
+        NoiseTileCache cache = new NoiseTileCache(Long.MAX_VALUE);
+        NoiseConfig config = new FastNoise(453).GetConfig();
+        float[] out = new float[(2 * TILE + 10) * (2 * TILE + 10)];
+
+        cache.fill(config, 1, out, 0, 0, 0, 2 * TILE, 2 * TILE, 2 * TILE);
+        assertEquals(4, cache.getMisses());
+
+        cache.fill(config, 1, out, 0, 0, 0, 2 * TILE, 2 * TILE, 2 * TILE);
+        assertEquals(4, cache.getHits());
+        assertEquals(4, cache.getMisses());
+
+        cache.fill(config, 1, out, 0, 0, 0, 2 * TILE + 10, 2 * TILE + 10, 2 * TILE + 10);
+        assertEquals(8, cache.getHits());
+        assertEquals(9, cache.getMisses());
+    }
+
+    @Test
+    public void testSeedConfigAndLevelOfDetailAreSeparateEntries() {
+        NoiseTileCache cache = new NoiseTileCache(Long.MAX_VALUE);
+        FastNoise noise = new FastNoise(1);
+        NoiseConfig first = noise.GetConfig();
+        noise.SetSeed(2);
+        NoiseConfig otherSeed = noise.GetConfig();
+        noise.SetFrequency(0.5f);
+        NoiseConfig otherFrequency = noise.GetConfig();
+
+        float[] tile = cache.getTile(first, 0, 0, 1);
+        assertSame(tile, cache.getTile(new FastNoise(first).GetConfig(), 0, 0, 1));
+        assertNotSame(tile, cache.getTile(otherSeed, 0, 0, 1));
+        assertNotSame(tile, cache.getTile(otherFrequency, 0, 0, 1));
+        assertNotSame(tile, cache.getTile(first, 1, 0, 1));
+        assertNotSame(tile, cache.getTile(first, 0, 0, 2));
+        assertEquals(1, cache.getHits());
+        assertEquals(5, cache.getMisses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedTilesAreEvicted() {
+        NoiseTileCache cache = new NoiseTileCache(3 * NoiseTileCache.TILE_BYTES);
+        NoiseConfig config = new FastNoise(7).GetConfig();
+
+        cache.getTile(config, 0, 0, 1);
+        cache.getTile(config, 1, 0, 1);
+        cache.getTile(config, 2, 0, 1);
+        cache.getTile(config, 0, 0, 1);
+        cache.getTile(config, 3, 0, 1);
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(3, cache.getTileCount());
+        assertEquals(3 * NoiseTileCache.TILE_BYTES, cache.getSizeInBytes());
+
+        long misses = cache.getMisses();
+        cache.getTile(config, 0, 0, 1);
+        assertEquals(misses, cache.getMisses());
+        cache.getTile(config, 1, 0, 1);
+        assertEquals(misses + 1, cache.getMisses());
+    }
+}
@@ -0,0 +1,76 @@
+package com.spacegeneration;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OffHeapHeightmapTest {
+
+    private static final int WIDTH = OffHeapHeightmap.TILE_SIZE * 2 + 37;
+    private static final int HEIGHT = OffHeapHeightmap.TILE_SIZE + 5;
+
+    @Test
+    public void testGeneratedMapMatchesCompleteFractal() {
+        FastNoise noise = new FastNoise(2718);
+        noise.SetFractalOctaves(4);
+        ProgressiveFractal land = new ProgressiveFractal(noise.GetConfig(), WIDTH, HEIGHT);
+        while (land.addOctave()) {
+            assertFalse(land.isCancelled());
+        }
+
+        try (OffHeapHeightmap map = OffHeapHeightmap.generate(noise.GetConfig(), WIDTH, HEIGHT)) {
+            assertEquals(3, map.getTilesX());
+            assertEquals(2, map.getTilesY());
+            float[] heights = new float[WIDTH * HEIGHT];
+            map.read(0, 0, WIDTH, HEIGHT, heights, 0, WIDTH);
+            for (int i = 0; i < WIDTH * HEIGHT; i++) {
+                assertEquals(land.getValue(i), heights[i], 0f);
+            }
+            assertEquals(land.getValue(HEIGHT * WIDTH - 1), map.getHeight(WIDTH - 1, HEIGHT - 1), 0f);
+        }
+    }
+
+    @Test
+    public void testReadsAcrossTiles() {
+        try (OffHeapHeightmap map = new OffHeapHeightmap(WIDTH, HEIGHT)) {
+            float[] tile = new float[OffHeapHeightmap.TILE_SIZE * OffHeapHeightmap.TILE_SIZE];
+            for (int tileY = 0; tileY < map.getTilesY(); tileY++) {
+                for (int tileX = 0; tileX < map.getTilesX(); tileX++) {
+                    for (int i = 0; i < tile.length; i++) {
+                        int x = tileX * OffHeapHeightmap.TILE_SIZE + i % OffHeapHeightmap.TILE_SIZE;
+                        int y = tileY * OffHeapHeightmap.TILE_SIZE + i / OffHeapHeightmap.TILE_SIZE;
+                        tile[i] = y * WIDTH + x;
+                    }
+                    map.writeTile(tileX, tileY, tile, 0, OffHeapHeightmap.TILE_SIZE);
+                }
+            }
+            map.setHeight(300, 10, -1f);
+
+            float[] window = new float[2 + 40 * 9];
+            map.read(OffHeapHeightmap.TILE_SIZE - 20, OffHeapHeightmap.TILE_SIZE - 4, 40, 9, window, 2, 40);
+            for (int row = 0; row < 9; row++) {
+                for (int col = 0; col < 40; col++) {
+                    int x = OffHeapHeightmap.TILE_SIZE - 20 + col;
+                    int y = OffHeapHeightmap.TILE_SIZE - 4 + row;
+                    assertEquals(y * WIDTH + x, window[2 + row * 40 + col], 0f);
+                }
+            }
+            assertEquals(-1f, map.getHeight(300, 10), 0f);
+        }
+    }
+
+    @Test
+    public void testReleasedMapCannotBeRead() {
+        OffHeapHeightmap map = new OffHeapHeightmap(10, 10);
+        assertEquals(OffHeapHeightmap.TILE_BYTES, map.getSizeInBytes());
+        map.release();
+        map.release();
+        assertTrue(map.isReleased());
+        try {
+            map.getHeight(0, 0);
+            fail();
+        } catch (IllegalStateException expected) {
+            assertNotNull(expected.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.spacegeneration;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PlanetRegionBatchTest {
+
+    private static final int COLUMNS = 7;
+    private static final int ROWS = 5;
+
+    private static int[] seeds(int firstX, int firstY) {
+        int[] seeds = new int[COLUMNS * ROWS];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = UniversePanel.deriveRegionSeed(2024, firstX + i / ROWS, firstY + i % ROWS);
+        }
+        return seeds;
+    }
+
+    @Test
+    public void testParallelRegionsMatchSerialRegions() {
+        for (GenerationVersion version : GenerationVersion.values()) {
+            for (PlanetPlacement placement : PlanetPlacement.values()) {
+                int[] seeds = seeds(-3, 2);
+                ForkJoinPool pool = new ForkJoinPool(4);
+                List<PlanetRegion> regions;
+                try {
+                    regions = PlanetRegionBatch.generate(pool, seeds, -3, 2, COLUMNS, ROWS, 600, 500, version, placement);
+                } finally {
+                    pool.shutdown();
+                }
+                assertEquals(COLUMNS * ROWS, regions.size());
+                int index = 0;
+                for (int x = -3; x < -3 + COLUMNS; x++) {
+                    for (int y = 2; y < 2 + ROWS; y++) {
+                        PlanetRegion serial = new PlanetRegion(seeds[index], x, y, 600, 500, version, placement);
+                        PlanetRegion parallel = regions.get(index++);
+                        assertEquals(x, parallel.getXRegion());
+                        assertEquals(y, parallel.getYRegion());
+                        assertEquals(version, parallel.getGenerationVersion());
+                        assertRegionsEqual(serial, parallel);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDefaultPlacementKeepsTheRegions() {
+        int[] seeds = seeds(0, 0);
+        List<PlanetRegion> regions = PlanetRegionBatch.generate(seeds, 0, 0, COLUMNS, ROWS, 600, 500,
+                GenerationVersion.v1, PlanetPlacement.VERSION);
+        for (int i = 0; i < seeds.length; i++) {
+            assertRegionsEqual(new PlanetRegion(seeds[i], i / ROWS, i % ROWS, 600, 500, GenerationVersion.v1),
+                    regions.get(i));
+        }
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        assertTrue(PlanetRegionBatch.generate(new int[0], 0, 0, 0, 3, 600, 500, GenerationVersion.v1,
+                PlanetPlacement.VERSION).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSeedsMustMatchTheRegions() {
+        PlanetRegionBatch.generate(new int[5], 0, 0, 2, 3, 600, 500, GenerationVersion.v1, PlanetPlacement.VERSION);
+    }
+
+    private static void assertRegionsEqual(PlanetRegion expected, PlanetRegion actual) {
+        assertEquals(expected.getRegionSeed(), actual.getRegionSeed());
+        assertEquals(expected.getPlanetCount(), actual.getPlanetCount());
+        for (int i = 0; i < expected.getPlanetCount(); i++) {
+            Planet first = expected.getPlanet(i);
+            Planet second = actual.getPlanet(i);
+            assertEquals(first.getXCoordinate(), second.getXCoordinate());
+            assertEquals(first.getYCoordinate(), second.getYCoordinate());
+            assertEquals(first.getRadius(), second.getRadius());
+            assertEquals(first.getPlanetColour(), second.getPlanetColour());
+            assertEquals(first.getPlanetSeed(), second.getPlanetSeed());
+            assertArrayEquals(first.getMoons(), second.getMoons());
+        }
+        assertEquals(expected.getStarCount(), actual.getStarCount());
+        for (int s = 0; s < expected.getStarCount(); s++) {
+            assertEquals(expected.getStarX(s), actual.getStarX(s));
+            assertEquals(expected.getStarY(s), actual.getStarY(s));
+            assertEquals(expected.getStarRadius(s), actual.getStarRadius(s));
+        }
+    }
+}
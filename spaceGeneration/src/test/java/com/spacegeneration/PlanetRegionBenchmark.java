@@ -0,0 +1,107 @@
+package com.spacegeneration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Time to create a 1920x1080 region at the planet density of the universe and at 10 and 100
+ * times that density, with the v1 placement, which checks candidates against the planets on
+ * a binary search path by x like the first generator did, with the cells of generation v2,
+ * and with {@link PlanetPlacement#GRID} for both versions, and how many planets each placed
+ * and how many pairs of them are closer than the spacing between planets. v2 cells can never
+ * be too close, but there are at most as many of them as cells. Last, the time to generate the 48 regions of a 3840x2160 view split into 480x360
+ * regions one after another and with {@link PlanetRegionBatch} on pools of 1 to all available
+ * cores. Everything is run a few rounds before it is measured.
+ */
+public final class PlanetRegionBenchmark {
+
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+    private static final int[] DENSITIES = {1, 10, 100};
+    private static final int SEEDS = 100;
+    private static final int WARMUP_ROUNDS = 3;
+
+    private PlanetRegionBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            measure(round == WARMUP_ROUNDS);
+        }
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            measureBatch(round == WARMUP_ROUNDS);
+        }
+    }
+
+    private static void measureBatch(boolean print) {
+        int columns = 8;
+        int rows = 6;
+        int[] seeds = new int[columns * rows];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = UniversePanel.deriveRegionSeed(87345, i / rows, i % rows);
+        }
+        for (GenerationVersion version : GenerationVersion.values()) {
+            long start = System.nanoTime();
+            for (int round = 0; round < SEEDS / 10; round++) {
+                for (int i = 0; i < seeds.length; i++) {
+                    new PlanetRegion(seeds[i], i / rows, i % rows, 360, 480, version);
+                }
+            }
+            double serialMillis = (System.nanoTime() - start) / 1e6 / (SEEDS / 10);
+            if (print) {
+                System.out.printf("%s %d regions one after another %7.3f ms%n", version, seeds.length, serialMillis);
+            }
+            for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                start = System.nanoTime();
+                for (int round = 0; round < SEEDS / 10; round++) {
+                    PlanetRegionBatch.generate(pool, seeds, 0, 0, columns, rows, 360, 480, version, PlanetPlacement.VERSION);
+                }
+                double millis = (System.nanoTime() - start) / 1e6 / (SEEDS / 10);
+                pool.shutdown();
+                if (print) {
+                    System.out.printf("%s %d regions in a batch on %2d threads %7.3f ms, %4.1fx faster%n", version,
+                            seeds.length, threads, millis, serialMillis / millis);
+                }
+            }
+        }
+    }
+
+    private static void measure(boolean print) {
+        for (int density : DENSITIES) {
+            int minPlanets = PlanetRegion.DEFAULT_MIN_PLANETS * density;
+            int maxPlanets = PlanetRegion.DEFAULT_MAX_PLANETS * density;
+            for (GenerationVersion version : GenerationVersion.values()) {
+                for (PlanetPlacement placement : PlanetPlacement.values()) {
+                    long nanos = 0;
+                    int planets = 0;
+                    int tooClose = 0;
+                    for (int seed = 0; seed < SEEDS; seed++) {
+                        long start = System.nanoTime();
+                        PlanetRegion region = new PlanetRegion(seed, 0, 0, HEIGHT, WIDTH, version, minPlanets, maxPlanets,
+                                placement);
+                        nanos += System.nanoTime() - start;
+                        planets += region.getPlanetCount();
+                        tooClose += countTooClose(region.getPlanets());
+                    }
+                    if (!print) { continue; }
+
+                    System.out.printf("%3dx density, %4d-%4d planets drawn: %s %-7s %8.3f ms %6.1f placed %6.1f too close%n",
+                            density, minPlanets, minPlanets + maxPlanets - 1, version, placement, nanos / 1e6 / SEEDS,
+                            planets / (double) SEEDS, tooClose / (double) SEEDS);
+                }
+            }
+        }
+    }
+
+    private static int countTooClose(PlanetTable planets) {
+        int pairs = 0;
+        for (int i = 0; i < planets.size(); i++) {
+            for (int j = i + 1; j < planets.size(); j++) {
+                double distance = Math.hypot(planets.getX(i) + planets.getRadius(i) - planets.getX(j) - planets.getRadius(j),
+                        planets.getY(i) + planets.getRadius(i) - planets.getY(j) - planets.getRadius(j));
+                pairs += (distance < 2 * Math.max(planets.getRadius(i), planets.getRadius(j)))? 1 : 0;
+            }
+        }
+        return pairs;
+    }
+}
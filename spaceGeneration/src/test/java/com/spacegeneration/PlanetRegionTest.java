@@ -12,6 +12,7 @@ import static org.junit.Assert.*;
 
 import java.util.Collection;
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 
 @RunWith(Parameterized.class)
@@ -20,17 +21,28 @@ public class PlanetRegionTest {
   @Parameterized.Parameter(0)
   public int seed;
 
+  // fingerprints of the 800x800 region of the seed at (1, -1) and of the 1920x1080 region
+  // at (-3, 2), recorded with the generator as it was before generation versions, see fingerprint
+  @Parameterized.Parameter(1)
+  public long v1Fingerprint;
+
+  @Parameterized.Parameter(2)
+  public long v1WideFingerprint;
+
   // creates the test data
   @Parameterized.Parameters(name = "{index}: Test with seed1={0}")
   public static Collection<Object[]> data() {
-      Object[][] data = new Object[][] {{123}, {124}, {453}, {87345}, {1454}, {23515}, {346234}};
+      Object[][] data = new Object[][] {{123, 7115547254307730683L, 2007097994952271846L},
+          {124, -8327354656108001068L, 10416390079332828L}, {453, -2447691565621690633L, 5090769683010125361L},
+          {87345, -7892086087066901483L, 2301879672594866157L}, {1454, -5748810594373420940L, 6157393500161876903L},
+          {23515, 9087249845034928038L, -6497725787252398951L}, {346234, 2205100683143404800L, -3713623422198834555L}};
       return Arrays.asList(data);
   }
 
   @Test
   public void testSortedPlanetList() {
       PlanetRegion region = new PlanetRegion(seed, 0, 0, 800, 800);
-      assertThat(region.getListOfPlanets(), xCoordinatesInIncreasingOrder());
+      assertThat(planets(region), xCoordinatesInIncreasingOrder());
   }
 
   private Matcher<? super List<Planet>> xCoordinatesInIncreasingOrder() {
@@ -70,7 +82,7 @@ public class PlanetRegionTest {
       protected boolean matchesSafely(PlanetRegion planetRegions) {
         int width = planetRegions.getWidth();
         int height = planetRegions.getHeight();
-        for(Planet planet: planetRegions.getListOfPlanets()) {
+        for(Planet planet: planets(planetRegions)) {
           if(planet.getXCoordinate() + planet.getRadius() > width || planet.getXCoordinate() < 0) {
             return false;
           } else if(planet.getYCoordinate() + planet.getRadius() > height || planet.getYCoordinate() < 0) {
@@ -81,4 +93,261 @@ public class PlanetRegionTest {
       }
     };
   }
+
+  @Test
+  public void testPlanetsKeepTheirDistance() {
+      PlanetRegion region = new PlanetRegion(seed, 3, -2, 800, 800, GenerationVersion.v2);
+      assertPlanetsApart(planets(region));
+  }
+
+  @Test
+  public void testCrowdedRegionStopsPlacingPlanets() {
+      PlanetRegion region = new PlanetRegion(seed, 0, 0, 100, 100, GenerationVersion.v1, 1000, 1000);
+      List<Planet> planets = planets(region);
+      assertTrue(planets.size() > 0);
+      assertTrue(planets.size() < 1000);
+      for(Planet planet: planets) {
+          assertTrue(planet.getXCoordinate() >= 0 && planet.getXCoordinate() + 2 * planet.getRadius() <= 100);
+          assertTrue(planet.getYCoordinate() >= 0 && planet.getYCoordinate() + 2 * planet.getRadius() <= 100);
+      }
+  }
+
+  @Test
+  public void testRegionTooSmallForPlanetsIsEmpty() {
+      PlanetRegion region = new PlanetRegion(seed, 0, 0, 10, 800);
+      assertTrue(planets(region).isEmpty());
+      assertTrue(region.getStarCount() >= PlanetRegion.MIN_STARS);
+  }
+
+  @Test
+  public void testFindPlanetByLocation() {
+      PlanetRegion region = new PlanetRegion(seed, -1, 1, 800, 800);
+      for(Planet planet: planets(region)) {
+          int centreX = planet.getXCoordinate() + planet.getRadius();
+          int centreY = planet.getYCoordinate() + planet.getRadius();
+          assertEquals(planet, region.findPlanetByLocation(centreX, centreY));
+          assertEquals(planet, region.findPlanetByLocation(centreX - planet.getRadius() + 1, centreY));
+          assertNotEquals(planet, region.findPlanetByLocation(centreX + planet.getRadius(), centreY + planet.getRadius()));
+      }
+  }
+
+  @Test
+  public void testGridPlacementKeepsDenseRegionsApart() {
+      for(GenerationVersion version: GenerationVersion.values()) {
+          PlanetRegion region = new PlanetRegion(seed, 1, -1, 1080, 1920, version,
+                  100 * PlanetRegion.DEFAULT_MIN_PLANETS, 100 * PlanetRegion.DEFAULT_MAX_PLANETS, PlanetPlacement.GRID);
+          assertEquals(fingerprint(region), fingerprint(new PlanetRegion(seed, 1, -1, 1080, 1920, version,
+                  100 * PlanetRegion.DEFAULT_MIN_PLANETS, 100 * PlanetRegion.DEFAULT_MAX_PLANETS, PlanetPlacement.GRID)));
+          assertTrue(region.getPlanetCount() > 10 * PlanetRegion.DEFAULT_MAX_PLANETS);
+          assertThat(planets(region), xCoordinatesInIncreasingOrder());
+          assertPlanetsApart(planets(region));
+          for(Planet planet: planets(region)) {
+              assertTrue(planet.getXCoordinate() >= 1920 && planet.getXCoordinate() + 2 * planet.getRadius() <= 3840);
+              assertTrue(planet.getYCoordinate() >= -1080 && planet.getYCoordinate() + 2 * planet.getRadius() <= 0);
+          }
+      }
+  }
+
+  @Test
+  public void testGridPlacementPlacesEveryPlanetOfASparseRegion() {
+      for(GenerationVersion version: GenerationVersion.values()) {
+          PlanetRegion region = new PlanetRegion(seed, 0, 0, 800, 800, version,
+                  PlanetRegion.DEFAULT_MIN_PLANETS, 1, PlanetPlacement.GRID);
+          assertEquals(PlanetRegion.DEFAULT_MIN_PLANETS, region.getPlanetCount());
+          assertPlanetsApart(planets(region));
+      }
+  }
+
+  @Test
+  public void testOverlappingPlanetsAreFoundInOrderOfX() {
+      for(int x = 0; x < 20; x++) {
+          // ten times the planets of the universe, so many of them overlap
+          PlanetRegion region = new PlanetRegion(UniversePanel.deriveRegionSeed(seed, x, 0), x, 0, 1080, 1920,
+                  GenerationVersion.v1, 10 * PlanetRegion.DEFAULT_MIN_PLANETS, 10 * PlanetRegion.DEFAULT_MAX_PLANETS);
+          PlanetTable table = region.getPlanets();
+          for(int i = 0; i < table.size(); i++) {
+              int centreX = table.getX(i) + table.getRadius(i);
+              int centreY = table.getY(i) + table.getRadius(i);
+              int first = 0;
+              while(Math.hypot(table.getX(first) + table.getRadius(first) - centreX,
+                      table.getY(first) + table.getRadius(first) - centreY) >= table.getRadius(first)) {
+                  first++;
+              }
+              assertEquals(region.getPlanet(first), region.findPlanetByLocation(centreX, centreY));
+          }
+      }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testV1PlanetsAreNotDerived() {
+      new PlanetRegion(seed, 0, 0, 800, 800, GenerationVersion.v1).derivePlanet(0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testGridPlacedPlanetsAreNotDerived() {
+      new PlanetRegion(seed, 0, 0, 800, 800, GenerationVersion.v2, PlanetRegion.DEFAULT_MIN_PLANETS,
+              PlanetRegion.DEFAULT_MAX_PLANETS, PlanetPlacement.GRID).derivePlanet(0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testV1StarsAreNotDerived() {
+      new PlanetRegion(seed, 0, 0, 800, 800, GenerationVersion.v1).deriveStar(0);
+  }
+
+  private static void assertPlanetsApart(List<Planet> planets) {
+      for(int i = 0; i < planets.size(); i++) {
+          for(int j = i + 1; j < planets.size(); j++) {
+              Planet first = planets.get(i);
+              Planet second = planets.get(j);
+              double distance = Math.hypot(first.getXCoordinate() + first.getRadius() - second.getXCoordinate() - second.getRadius(),
+                      first.getYCoordinate() + first.getRadius() - second.getYCoordinate() - second.getRadius());
+              assertTrue(distance >= 2 * Math.max(first.getRadius(), second.getRadius()));
+          }
+      }
+  }
+
+  @Test
+  public void testStarsAreInsideTheirRegion() {
+      for(GenerationVersion version: GenerationVersion.values()) {
+          PlanetRegion region = new PlanetRegion(seed, -2, 5, 700, 900, version);
+          assertTrue(region.getStarCount() >= PlanetRegion.MIN_STARS);
+          assertTrue(region.getStarCount() < PlanetRegion.MIN_STARS + PlanetRegion.STAR_COUNTS);
+          for(int star = 0; star < region.getStarCount(); star++) {
+              int radius = region.getStarRadius(star);
+              assertTrue(radius >= 1 && radius <= 4);
+              assertTrue(region.getStarX(star) >= -1800 && region.getStarX(star) + 2 * radius <= -900);
+              assertTrue(region.getStarY(star) >= 3500 && region.getStarY(star) + 2 * radius <= 4200);
+          }
+      }
+  }
+
+  @Test
+  public void testV1RegionsAreUnchanged() {
+      assertEquals(v1Fingerprint, fingerprint(new PlanetRegion(seed, 1, -1, 800, 800)));
+      assertEquals(v1Fingerprint, fingerprint(new PlanetRegion(seed, 1, -1, 800, 800, GenerationVersion.v1)));
+      assertEquals(v1WideFingerprint, fingerprint(new PlanetRegion(seed, -3, 2, 1080, 1920)));
+  }
+
+  @Test
+  public void testV2RegionsAreDeterministicAndApart() {
+      PlanetRegion region = new PlanetRegion(seed, 1, -1, 800, 800, GenerationVersion.v2);
+      assertEquals(fingerprint(region), fingerprint(new PlanetRegion(seed, 1, -1, 800, 800, GenerationVersion.v2)));
+      assertNotEquals(fingerprint(region), fingerprint(new PlanetRegion(seed + 1, 1, -1, 800, 800, GenerationVersion.v2)));
+      assertThat(planets(region), xCoordinatesInIncreasingOrder());
+      assertPlanetsApart(planets(region));
+      for(Planet planet: planets(region)) {
+          assertTrue(planet.getXCoordinate() >= 800 && planet.getXCoordinate() + 2 * planet.getRadius() <= 1600);
+          assertTrue(planet.getYCoordinate() >= -800 && planet.getYCoordinate() + 2 * planet.getRadius() <= 0);
+          assertEquals(planet, region.findPlanetByLocation(planet.getXCoordinate() + planet.getRadius(),
+                  planet.getYCoordinate() + planet.getRadius()));
+      }
+  }
+
+  @Test
+  public void testV2PlanetsAndStarsAreDerivedDirectly() {
+      PlanetRegion region = new PlanetRegion(seed, 2, 3, 800, 800, GenerationVersion.v2);
+      int planets = 0;
+      for(int cell = region.getPlanetCells() - 1; cell >= 0; cell--) {
+          Planet derived = region.derivePlanet(cell);
+          if(derived == null) { continue; }
+
+          planets++;
+          Planet found = region.findPlanetByLocation(derived.getXCoordinate() + derived.getRadius(),
+                  derived.getYCoordinate() + derived.getRadius());
+          assertEquals(derived.getXCoordinate(), found.getXCoordinate());
+          assertEquals(derived.getYCoordinate(), found.getYCoordinate());
+          assertEquals(derived.getRadius(), found.getRadius());
+          assertEquals(derived.getPlanetColour(), found.getPlanetColour());
+          assertEquals(derived.getPlanetSeed(), found.getPlanetSeed());
+          assertArrayEquals(found.getMoons(), derived.getMoons());
+      }
+      assertEquals(region.getPlanetCount(), planets);
+      for(int s = region.getStarCount() - 1; s >= 0; s--) {
+          assertArrayEquals(new int[] {region.getStarX(s), region.getStarY(s), region.getStarRadius(s)}, region.deriveStar(s));
+      }
+  }
+
+  @Test
+  public void testV2RegionsHaveAsManyPlanetsAsV1OnAverage() {
+      int planets = 0;
+      int regions = 200;
+      for(int x = 0; x < regions; x++) {
+          int regionSeed = UniversePanel.deriveRegionSeed(seed, x, 0);
+          planets += new PlanetRegion(regionSeed, x, 0, 800, 800, GenerationVersion.v2).getPlanetCount();
+      }
+      double average = PlanetRegion.DEFAULT_MIN_PLANETS + (PlanetRegion.DEFAULT_MAX_PLANETS - 1) / 2.0;
+      assertEquals(average, planets / (double) regions, 1.0);
+  }
+
+  @Test
+  public void testPlanetsAreHandlesOnTheTable() {
+      for(GenerationVersion version: GenerationVersion.values()) {
+          PlanetRegion region = new PlanetRegion(seed, 0, 2, 800, 800, version);
+          PlanetTable table = region.getPlanets();
+          assertEquals(table.size(), region.getPlanetCount());
+          for(int i = 0; i < table.size(); i++) {
+              Planet planet = region.getPlanet(i);
+              assertEquals(planet, region.getPlanet(i));
+              assertEquals(planet.hashCode(), region.getPlanet(i).hashCode());
+              assertEquals(table.getX(i), planet.getXCoordinate());
+              assertEquals(table.getY(i), planet.getYCoordinate());
+              assertEquals(table.getRadius(i), planet.getRadius());
+              assertEquals(0xff000000 | table.getRgb(i), planet.getPlanetColour().getRGB());
+              assertEquals(table.getSeed(i), planet.getPlanetSeed());
+          }
+          if(table.size() > 1) {
+              assertNotEquals(region.getPlanet(0), region.getPlanet(1));
+          }
+      }
+  }
+
+  @Test
+  public void testPlanetColoursAreKeptByTheRegion() {
+      for(GenerationVersion version: GenerationVersion.values()) {
+          PlanetRegion region = new PlanetRegion(seed, 0, 2, 800, 800, version);
+          PlanetTable table = region.getPlanets();
+          for(int i = 0; i < table.size(); i++) {
+              assertEquals(0xff000000 | table.getRgb(i), region.getPlanetColour(i).getRGB());
+              assertSame(region.getPlanetColour(i), region.getPlanetColour(i));
+              assertSame(region.getPlanetColour(i), region.getPlanet(i).getPlanetColour());
+          }
+      }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testNoPlanetPastTheTable() {
+      PlanetRegion region = new PlanetRegion(seed, 0, 0, 800, 800);
+      region.getPlanet(region.getPlanetCount());
+  }
+
+  private static List<Planet> planets(PlanetRegion region) {
+      List<Planet> planets = new ArrayList<Planet>();
+      for(int i = 0; i < region.getPlanetCount(); i++) {
+          planets.add(region.getPlanet(i));
+      }
+      return planets;
+  }
+
+  /**
+   * Hashes every planet, moon and star of the region.
+   */
+  private static long fingerprint(PlanetRegion region) {
+      long hash = 17;
+      for(Planet planet: planets(region)) {
+          hash = hash * 31 + planet.getXCoordinate();
+          hash = hash * 31 + planet.getYCoordinate();
+          hash = hash * 31 + planet.getRadius();
+          hash = hash * 31 + planet.getPlanetColour().getRGB();
+          hash = hash * 31 + planet.getPlanetSeed();
+          for(int moon: planet.getMoons()) {
+              hash = hash * 31 + moon;
+          }
+      }
+      for(int star = 0; star < region.getStarCount(); star++) {
+          hash = hash * 31 + region.getStarX(star);
+          hash = hash * 31 + region.getStarY(star);
+          hash = hash * 31 + region.getStarRadius(star);
+      }
+      return hash;
+  }
 }
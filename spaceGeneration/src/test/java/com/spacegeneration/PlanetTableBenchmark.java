@@ -0,0 +1,160 @@
+package com.spacegeneration;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heap retained by 1000 cached 800x800 regions at the planet density of the universe and at
+ * 10 times that density, and by their planets kept in the {@link PlanetTable} of each region
+ * and as a {@link LegacyPlanet} with its own Color in an ArrayList, like regions kept them
+ * before. Then how many planets a second a draw loop reads going through every planet of the
+ * cached regions, and how many points a second are hit-tested by looking through every planet
+ * of their region, both ways.
+ */
+public final class PlanetTableBenchmark {
+
+    private static final int REGIONS = 1000;
+    private static final int SIZE = 800;
+    private static final int[] DENSITIES = {1, 10};
+    private static final int POINTS = 64;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 20;
+
+    private PlanetTableBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        for (int density : DENSITIES) {
+            measure(density);
+        }
+    }
+
+    private static void measure(int density) {
+        long before = Benchmarks.usedHeap();
+        PlanetRegion[] regions = new PlanetRegion[REGIONS];
+        long planets = 0;
+        for (int i = 0; i < REGIONS; i++) {
+            regions[i] = new PlanetRegion(UniversePanel.deriveRegionSeed(87345, i, 0), i, 0, SIZE, SIZE, GenerationVersion.v1,
+                    PlanetRegion.DEFAULT_MIN_PLANETS * density, PlanetRegion.DEFAULT_MAX_PLANETS * density);
+            planets += regions[i].getPlanetCount();
+        }
+        long regionBytes = Benchmarks.usedHeap() - before;
+
+        before = Benchmarks.usedHeap();
+        PlanetTable[] tables = new PlanetTable[REGIONS];
+        for (int i = 0; i < REGIONS; i++) {
+            PlanetTable planetsOfRegion = regions[i].getPlanets();
+            tables[i] = new PlanetTable(planetsOfRegion.size());
+            for (int p = 0; p < planetsOfRegion.size(); p++) {
+                tables[i].add(planetsOfRegion.getX(p), planetsOfRegion.getY(p), planetsOfRegion.getRadius(p),
+                        planetsOfRegion.getRgb(p), planetsOfRegion.getSeed(p));
+            }
+        }
+        long tableBytes = Benchmarks.usedHeap() - before;
+
+        before = Benchmarks.usedHeap();
+        List<List<LegacyPlanet>> lists = new ArrayList<List<LegacyPlanet>>();
+        for (int i = 0; i < REGIONS; i++) {
+            PlanetTable planetsOfRegion = regions[i].getPlanets();
+            List<LegacyPlanet> list = new ArrayList<LegacyPlanet>();
+            for (int p = 0; p < planetsOfRegion.size(); p++) {
+                list.add(new LegacyPlanet(planetsOfRegion.getX(p), planetsOfRegion.getY(p), planetsOfRegion.getRadius(p),
+                        new Color(planetsOfRegion.getRgb(p)), planetsOfRegion.getSeed(p), regions[i]));
+            }
+            lists.add(list);
+        }
+        long listBytes = Benchmarks.usedHeap() - before;
+
+        System.out.printf("%2dx density, %d regions, %d planets: regions retain %.2f MB, planets as tables %.2f MB, as objects %.2f MB, so %.2f MB with objects%n",
+                density, REGIONS, planets, regionBytes / 1048576.0, tableBytes / 1048576.0, listBytes / 1048576.0,
+                (regionBytes - tableBytes + listBytes) / 1048576.0);
+
+        long sum = 0;
+        long tableDrawNanos = 0;
+        long listDrawNanos = 0;
+        long tableHitNanos = 0;
+        long listHitNanos = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            sum += drawTables(tables);
+            long tableDrawn = System.nanoTime();
+            sum += drawLists(lists);
+            long listDrawn = System.nanoTime();
+            sum += hitTestTables(tables, regions);
+            long tableHit = System.nanoTime();
+            sum += hitTestLists(lists, regions);
+            long listHit = System.nanoTime();
+            if (round >= WARMUP_ROUNDS) {
+                tableDrawNanos += tableDrawn - start;
+                listDrawNanos += listDrawn - tableDrawn;
+                tableHitNanos += tableHit - listDrawn;
+                listHitNanos += listHit - tableHit;
+            }
+        }
+        System.out.printf("%2dx density, planets drawn: tables %.0f M/s, objects %.0f M/s; points hit-tested: tables %.2f M/s, objects %.2f M/s (%d)%n",
+                density, planets * ROUNDS * 1e3 / tableDrawNanos, planets * ROUNDS * 1e3 / listDrawNanos,
+                (double) REGIONS * POINTS * ROUNDS * 1e3 / tableHitNanos, (double) REGIONS * POINTS * ROUNDS * 1e3 / listHitNanos, sum);
+    }
+
+    private static long drawTables(PlanetTable[] tables) {
+        long sum = 0;
+        for (PlanetTable planets : tables) {
+            for (int p = 0; p < planets.size(); p++) {
+                sum += planets.getX(p) + planets.getY(p) + planets.getRadius(p) + planets.getRgb(p);
+            }
+        }
+        return sum;
+    }
+
+    private static long drawLists(List<List<LegacyPlanet>> lists) {
+        long sum = 0;
+        for (List<LegacyPlanet> planets : lists) {
+            for (LegacyPlanet planet : planets) {
+                sum += planet.xCoordinate + planet.yCoordinate + planet.planetRadius + planet.planetColour.getRGB();
+            }
+        }
+        return sum;
+    }
+
+    private static long hitTestTables(PlanetTable[] tables, PlanetRegion[] regions) {
+        long hits = 0;
+        for (int i = 0; i < tables.length; i++) {
+            PlanetTable planets = tables[i];
+            for (int point = 0; point < POINTS; point++) {
+                int x = regions[i].getXRegion() * SIZE + (point * 97) % SIZE;
+                int y = (point * 61) % SIZE;
+                for (int p = 0; p < planets.size(); p++) {
+                    long dx = planets.getX(p) + planets.getRadius(p) - x;
+                    long dy = planets.getY(p) + planets.getRadius(p) - y;
+                    if (dx * dx + dy * dy < planets.getRadius(p) * planets.getRadius(p)) {
+                        hits += p + 1;
+                        break;
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static long hitTestLists(List<List<LegacyPlanet>> lists, PlanetRegion[] regions) {
+        long hits = 0;
+        for (int i = 0; i < lists.size(); i++) {
+            List<LegacyPlanet> planets = lists.get(i);
+            for (int point = 0; point < POINTS; point++) {
+                int x = regions[i].getXRegion() * SIZE + (point * 97) % SIZE;
+                int y = (point * 61) % SIZE;
+                for (int p = 0; p < planets.size(); p++) {
+                    LegacyPlanet planet = planets.get(p);
+                    long dx = planet.xCoordinate + planet.planetRadius - x;
+                    long dy = planet.yCoordinate + planet.planetRadius - y;
+                    if (dx * dx + dy * dy < planet.planetRadius * planet.planetRadius) {
+                        hits += p + 1;
+                        break;
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+}
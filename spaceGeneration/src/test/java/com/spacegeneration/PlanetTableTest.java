@@ -0,0 +1,58 @@
+package com.spacegeneration;
+
+import java.awt.Color;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PlanetTableTest {
+
+    @Test
+    public void testRadiiOutsideAByteAreRejected() {
+        PlanetTable table = new PlanetTable(2);
+        table.add(0, 0, 0, 0, 1);
+        table.add(0, 0, PlanetTable.MAX_RADIUS, 0, 2);
+        assertEquals(PlanetTable.MAX_RADIUS, table.getRadius(1));
+        for (int radius : new int[] {-1, PlanetTable.MAX_RADIUS + 1, 200}) {
+            try {
+                table.add(0, 0, radius, 0, 3);
+                fail("A radius of " + radius + " was added");
+            } catch (IllegalArgumentException expected) {
+                // Not stored as a wrapped byte
+            }
+        }
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void testSortByXKeepsTheOrderOfEqualX() {
+        PlanetTable table = new PlanetTable(1);
+        table.add(30, 1, 5, 0xff0000, 10);
+        table.add(10, 2, 6, 0x00ff00, 11);
+        table.add(30, 3, 7, 0x0000ff, 12);
+        table.add(-5, 4, 8, 0xffffffff, 13);
+        table.sortByX();
+        int[] seeds = {13, 11, 10, 12};
+        for (int i = 0; i < seeds.length; i++) {
+            assertEquals(seeds[i], table.getSeed(i));
+        }
+        assertEquals(0xffffff, table.getRgb(0));
+        assertEquals(3, table.getY(3));
+        assertEquals(7, table.getRadius(3));
+    }
+
+    @Test
+    public void testStandalonePlanetKeepsItsOwnValues() {
+        PlanetRegion region = new PlanetRegion(5, 0, 0, 800, 600, GenerationVersion.v1);
+        Color colour = new Color(12, 34, 56, 78);
+        Planet planet = new Planet(100, 200, 300, colour, 42, region);
+        assertEquals(100, planet.getXCoordinate());
+        assertEquals(200, planet.getYCoordinate());
+        assertEquals(300, planet.getRadius());
+        assertSame(colour, planet.getPlanetColour());
+        assertEquals(42, planet.getPlanetSeed());
+        assertEquals(planet, planet);
+        assertNotEquals(planet, new Planet(100, 200, 300, colour, 42, region));
+    }
+}
@@ -0,0 +1,123 @@
+package com.spacegeneration;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ProgressiveFractalTest {
+
+    private static final int WIDTH = 67;
+    private static final int HEIGHT = 43;
+
+    @Test
+    public void testCompleteFractalMatchesPerlinFractal() {
+        for (FastNoise.FractalType type : FastNoise.FractalType.values()) {
+            FastNoise noise = new FastNoise(1337);
+            noise.SetFractalType(type);
+            noise.SetFractalOctaves(6);
+            noise.SetFrequency(0.05f);
+            ProgressiveFractal fractal = new ProgressiveFractal(noise.GetConfig(), WIDTH, HEIGHT);
+
+            while (fractal.addOctave()) {
+                assertTrue(fractal.getCompletedOctaves() <= 6);
+            }
+            assertTrue(fractal.isComplete());
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    assertEquals(type.toString(), noise.GetPerlinFractal(x, y), fractal.getValue(y * WIDTH + x), 1e-4f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPermutationHashMatchesPerlinFractal() {
+        for (NoiseTileCache cache : new NoiseTileCache[] {null, new NoiseTileCache(Long.MAX_VALUE)}) {
+            FastNoise noise = new FastNoise(1337);
+            noise.SetHashType(FastNoise.HashType.Permutation);
+            noise.SetFractalOctaves(6);
+            noise.SetFrequency(0.05f);
+            ProgressiveFractal fractal = new ProgressiveFractal(noise.GetConfig(), WIDTH, HEIGHT, 1, cache);
+
+            while (fractal.addOctave()) {
+                assertTrue(fractal.getCompletedOctaves() <= 6);
+            }
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    assertEquals(noise.GetPerlinFractal(x, y), fractal.getValue(y * WIDTH + x), 1e-4f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFirstOctaveIsPlainPerlin() {
+        FastNoise noise = new FastNoise(-87345);
+        noise.SetFractalOctaves(8);
+        ProgressiveFractal fractal = new ProgressiveFractal(noise.GetConfig(), WIDTH, HEIGHT);
+
+        assertTrue(fractal.addOctave());
+        assertEquals(1, fractal.getCompletedOctaves());
+        assertFalse(fractal.isComplete());
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals(noise.GetPerlin(x, y), fractal.getValue(y * WIDTH + x), 0f);
+            }
+        }
+    }
+
+    @Test
+    public void testCoarseSurfaceSamplesEveryStepthCoordinate() {
+        FastNoise noise = new FastNoise(346234);
+        noise.SetFractalOctaves(3);
+        ProgressiveFractal full = new ProgressiveFractal(noise.GetConfig(), WIDTH, HEIGHT);
+        ProgressiveFractal coarse = new ProgressiveFractal(noise.GetConfig(), WIDTH / 4, HEIGHT / 4, 4);
+        for (int i = 0; i < 3; i++) {
+            full.addOctave();
+            coarse.addOctave();
+        }
+
+        assertEquals(4, coarse.getStep());
+        for (int y = 0; y < coarse.getHeight(); y++) {
+            for (int x = 0; x < coarse.getWidth(); x++) {
+                assertEquals(full.getValue(y * 4 * WIDTH + x * 4), coarse.getValue(y * coarse.getWidth() + x), 1e-4f);
+            }
+        }
+    }
+
+    @Test
+    public void testCancelKeepsRefinedOctaves() {
+        FastNoise noise = new FastNoise(453);
+        noise.SetFractalOctaves(4);
+        ProgressiveFractal fractal = new ProgressiveFractal(noise.GetConfig(), WIDTH, HEIGHT);
+        fractal.addOctave();
+        fractal.addOctave();
+        float value = fractal.getValue(100);
+
+        fractal.cancel();
+        assertFalse(fractal.addOctave());
+        assertTrue(fractal.isCancelled());
+        assertEquals(2, fractal.getCompletedOctaves());
+        assertEquals(value, fractal.getValue(100), 0f);
+    }
+
+    @Test
+    public void testCancelStopsAnOctaveBeingFilled() throws InterruptedException {
+        FastNoise noise = new FastNoise(23515);
+        noise.SetFractalOctaves(4);
+        final ProgressiveFractal fractal = new ProgressiveFractal(noise.GetConfig(), 2048, 2048);
+        final boolean[] added = new boolean[1];
+        Thread filling = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                added[0] = fractal.addOctave();
+            }
+        });
+        filling.start();
+        fractal.cancel();
+        filling.join();
+
+        assertFalse(added[0]);
+        assertEquals(0, fractal.getCompletedOctaves());
+    }
+}
@@ -0,0 +1,46 @@
+package com.spacegeneration;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QuantizedHeightmapTest {
+
+    @Test
+    public void testHeightsAreWithinHalfALevel() {
+        Random random = new Random(1337);
+        for (int bits : new int[] {8, 16}) {
+            float minimum = -0.63f;
+            float range = 1.41f;
+            QuantizedHeightmap heights = new QuantizedHeightmap(37, 11, bits, minimum, range);
+            float halfLevel = range / (2 * ((1 << bits) - 1));
+            for (int i = 0; i < 37 * 11; i++) {
+                float value = minimum + random.nextFloat() * range;
+                heights.setHeight(i, value);
+                assertEquals(value, heights.getHeight(i), halfLevel * 1.001f + 1e-7f);
+            }
+            assertEquals(37L * 11 * bits / 8, heights.getSizeInBytes());
+        }
+    }
+
+    @Test
+    public void testHeightsOutsideTheRangeAreClamped() {
+        QuantizedHeightmap heights = new QuantizedHeightmap(4, 2, 8, -1f, 2f);
+        heights.setHeight(0, -5f);
+        heights.setHeight(1, 5f);
+        heights.setHeight(2, -1f);
+        heights.setHeight(3, 1f);
+
+        assertEquals(0, heights.getLevel(0));
+        assertEquals(255, heights.getLevel(1));
+        assertEquals(-1f, heights.getHeight(2), 0f);
+        assertEquals(1f, heights.getHeight(3, 0), 1e-6f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOnlyEightAndSixteenBits() {
+        new QuantizedHeightmap(4, 4, 12, 0f, 1f);
+    }
+}
@@ -0,0 +1,96 @@
+package com.spacegeneration;
+
+/**
+ * Heap retained by 1000 cached 800x800 regions, and by their stars kept in the columns of
+ * {@link PlanetRegion} and in an int[3] per star like PlanetRegion kept them before, and how
+ * many stars a second are read going through every star of the cached regions both ways.
+ */
+public final class StarStorageBenchmark {
+
+    private static final int REGIONS = 1000;
+    private static final int SIZE = 800;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 20;
+
+    private StarStorageBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        for (GenerationVersion version : GenerationVersion.values()) {
+            measure(version);
+        }
+    }
+
+    private static void measure(GenerationVersion version) {
+        long before = Benchmarks.usedHeap();
+        PlanetRegion[] regions = new PlanetRegion[REGIONS];
+        long stars = 0;
+        for (int i = 0; i < REGIONS; i++) {
+            regions[i] = new PlanetRegion(UniversePanel.deriveRegionSeed(87345, i, 0), i, 0, SIZE, SIZE, version);
+            stars += regions[i].getStarCount();
+        }
+        long regionBytes = Benchmarks.usedHeap() - before;
+
+        before = Benchmarks.usedHeap();
+        int[][][] starArrays = new int[REGIONS][][];
+        for (int i = 0; i < REGIONS; i++) {
+            starArrays[i] = new int[regions[i].getStarCount()][];
+            for (int s = 0; s < starArrays[i].length; s++) {
+                starArrays[i][s] = new int[] {regions[i].getStarX(s), regions[i].getStarY(s), regions[i].getStarRadius(s)};
+            }
+        }
+        long arrayBytes = Benchmarks.usedHeap() - before;
+
+        before = Benchmarks.usedHeap();
+        Object[] columns = new Object[3 * REGIONS];
+        for (int i = 0; i < REGIONS; i++) {
+            int count = regions[i].getStarCount();
+            columns[3 * i] = new int[count];
+            columns[3 * i + 1] = new int[count];
+            columns[3 * i + 2] = new byte[count];
+        }
+        long columnBytes = Benchmarks.usedHeap() - before;
+
+        System.out.printf("%s %d regions, %d stars: regions retain %.2f MB, stars as columns %.2f MB, as int[3] per star %.2f MB, so %.2f MB with int[3] per star%n",
+                version, REGIONS, stars, regionBytes / 1048576.0, columnBytes / 1048576.0, arrayBytes / 1048576.0,
+                (regionBytes - columnBytes + arrayBytes) / 1048576.0);
+
+        long sum = 0;
+        long columnNanos = 0;
+        long arrayNanos = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            sum += sumColumns(regions);
+            long middle = System.nanoTime();
+            sum += sumArrays(starArrays);
+            long end = System.nanoTime();
+            if (round >= WARMUP_ROUNDS) {
+                columnNanos += middle - start;
+                arrayNanos += end - middle;
+            }
+        }
+        System.out.printf("%s stars read: columns %.0f M/s, int[3] per star %.0f M/s (%d)%n", version,
+                stars * ROUNDS * 1e3 / columnNanos, stars * ROUNDS * 1e3 / arrayNanos, sum);
+        columns[0] = null;
+    }
+
+    private static long sumColumns(PlanetRegion[] regions) {
+        long sum = 0;
+        for (PlanetRegion region : regions) {
+            for (int star = 0; star < region.getStarCount(); star++) {
+                sum += region.getStarX(star) + region.getStarY(star) + region.getStarRadius(star);
+            }
+        }
+        return sum;
+    }
+
+    private static long sumArrays(int[][][] starArrays) {
+        long sum = 0;
+        for (int[][] stars : starArrays) {
+            for (int[] star : stars) {
+                sum += star[0] + star[1] + star[2];
+            }
+        }
+        return sum;
+    }
+}
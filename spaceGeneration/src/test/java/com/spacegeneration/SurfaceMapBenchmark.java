@@ -0,0 +1,84 @@
+package com.spacegeneration;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Generates surface maps of growing size into an {@link OffHeapHeightmap} and reports the
+ * time, the direct memory they hold and the peak heap used while generating them, which
+ * should stay flat whatever the size. Run with a small heap, for example -Xmx128m, and with
+ * -XX:MaxDirectMemorySize above the largest map, 4 GB for 32768x32768; a size whose map does
+ * not fit in the direct memory is reported and skipped. Other sizes can be given as arguments.
+ */
+public final class SurfaceMapBenchmark {
+
+    private static final int[] SIZES = {2048, 4096, 8192, 16384, 32768};
+    private static final int OCTAVES = 4;
+
+    private SurfaceMapBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        FastNoise noise = new FastNoise(87345);
+        noise.SetFractalOctaves(OCTAVES);
+        NoiseConfig config = noise.GetConfig();
+        int[] sizes = SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.printf("Max heap %d MB%n", Runtime.getRuntime().maxMemory() / 1048576);
+        for (int size : sizes) {
+            System.gc();
+            resetPeakHeap();
+            long start = System.nanoTime();
+            OffHeapHeightmap map;
+            try {
+                map = OffHeapHeightmap.generate(config, size, size);
+            } catch (OutOfMemoryError e) {
+                System.out.printf("%5dx%-5d skipped, %d MB do not fit in the direct memory%n", size, size,
+                        (long) size * size * 4 / 1048576);
+                continue;
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%5dx%-5d %6.1f s, %7.1f MB direct, %5.1f MB peak heap%n", size, size, seconds,
+                    directMemory() / 1048576.0, peakHeap() / 1048576.0);
+            map.release();
+            System.out.printf("            released, %7.1f MB direct%n", directMemory() / 1048576.0);
+        }
+    }
+
+    private static long directMemory() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return -1;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * The sum of the peak usage of every heap pool, an upper bound of the peak heap.
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
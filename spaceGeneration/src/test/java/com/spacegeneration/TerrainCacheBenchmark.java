@@ -0,0 +1,70 @@
+package com.spacegeneration;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Planet entry latency, from opening a planet to its complete land reaching the land image,
+ * when the land is generated (cold) and when it is mapped from the {@link TerrainCache}
+ * (warm). Uses a temporary cache directory. Run with -Djava.awt.headless=true when there is
+ * no display.
+ */
+public final class TerrainCacheBenchmark {
+
+    private static final int[] SEEDS = {11, 22, 33, 44, 55};
+
+    private TerrainCacheBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File directory = Files.createTempDirectory("terrain-cache").toFile();
+        try {
+            measure(directory, 1920, 1080);
+            measure(directory, 3840, 2160);
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+        System.exit(0);
+    }
+
+    private static void measure(File directory, int width, int height) throws Exception {
+        final PlanetLandSimulationPanel panel = new PlanetLandSimulationPanel(width, height, null);
+        panel.terrainCache = new TerrainCache(directory, 4L * 1024 * 1024 * 1024);
+        // Warms up the generator, so cold entries are not also measuring the JIT
+        enter(panel, 1);
+        for (String pass : new String[] {"cold", "warm"}) {
+            double total = 0;
+            double worst = 0;
+            for (int seed : SEEDS) {
+                double millis = enter(panel, seed);
+                total += millis;
+                worst = Math.max(worst, millis);
+            }
+            System.out.printf("%dx%d %s entry %8.1f ms on average, %8.1f ms at worst, %d MB cached%n", width, height,
+                    pass, total / SEEDS.length, worst, panel.terrainCache.getSizeInBytes() / 1048576);
+        }
+    }
+
+    /**
+     * Opens the planet and waits until its complete land is in the land image.
+     */
+    private static double enter(final PlanetLandSimulationPanel panel, final int seed) throws Exception {
+        long start = System.nanoTime();
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                panel.openSimulation(seed);
+            }
+        });
+        panel.landGeneration.get();
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+            }
+        });
+        return (System.nanoTime() - start) / 1e6;
+    }
+}
@@ -0,0 +1,101 @@
+package com.spacegeneration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class TerrainCacheTest {
+
+    private static final int WIDTH = 23;
+    private static final int HEIGHT = 9;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void write(TerrainCache cache, TerrainCache.Key key, int bits) throws IOException {
+        QuantizedHeightmap heights = new QuantizedHeightmap(WIDTH, HEIGHT, bits, -0.5f, 1.5f);
+        byte[] colorIndices = new byte[WIDTH * HEIGHT];
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            heights.setHeight(i, -0.5f + 1.5f * i / (WIDTH * HEIGHT));
+            colorIndices[i] = (byte) (i * 7);
+        }
+        TerrainCache.Writer writer = cache.create(key);
+        // Bands may come in any order
+        writer.writeColorIndices(5, Arrays.copyOfRange(colorIndices, 5 * WIDTH, WIDTH * HEIGHT));
+        writer.writeColorIndices(0, Arrays.copyOf(colorIndices, 5 * WIDTH));
+        writer.commit(heights);
+    }
+
+    @Test
+    public void testCommittedLandIsReadBack() throws IOException {
+        TerrainCache cache = new TerrainCache(folder.getRoot(), 1 << 20);
+        for (int bits : new int[] {8, 16}) {
+            TerrainCache.Key key = new TerrainCache.Key(-42, WIDTH, HEIGHT, bits, 0x1234L);
+            assertNull(cache.open(key));
+            write(cache, key, bits);
+
+            try (TerrainCache.Land land = cache.open(key)) {
+                assertNotNull(land);
+                assertEquals(-0.5f, land.getMinimum(), 0f);
+                assertEquals(1.5f, land.getRange(), 0f);
+                byte[] rows = new byte[2 * WIDTH];
+                land.readColorIndices(3, rows);
+                for (int i = 0; i < rows.length; i++) {
+                    assertEquals((byte) ((3 * WIDTH + i) * 7), rows[i]);
+                }
+                QuantizedHeightmap heights = new QuantizedHeightmap(WIDTH, HEIGHT, bits, -0.5f, 1.5f);
+                land.readHeights(heights);
+                for (int i = 0; i < WIDTH * HEIGHT; i++) {
+                    assertEquals(-0.5f + 1.5f * i / (WIDTH * HEIGHT), heights.getHeight(i), 1.5f / (1 << bits));
+                }
+            }
+            assertNull(cache.open(new TerrainCache.Key(-42, WIDTH, HEIGHT, bits, 0x1235L)));
+        }
+        assertEquals(2, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testDamagedLandIsDeleted() throws IOException {
+        TerrainCache cache = new TerrainCache(folder.getRoot(), 1 << 20);
+        TerrainCache.Key key = new TerrainCache.Key(7, WIDTH, HEIGHT, 16, 99L);
+        write(cache, key, 16);
+        File file = folder.getRoot().listFiles()[0];
+        RandomAccessFile damaged = new RandomAccessFile(file, "rw");
+        try {
+            damaged.seek(TerrainCache.HEADER_BYTES + 100);
+            damaged.write(255);
+        } finally {
+            damaged.close();
+        }
+
+        assertNull(cache.open(key));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedLandsAreEvicted() throws IOException {
+        long landBytes = TerrainCache.HEADER_BYTES + 3L * WIDTH * HEIGHT;
+        TerrainCache cache = new TerrainCache(folder.getRoot(), 2 * landBytes);
+        TerrainCache.Key first = new TerrainCache.Key(1, WIDTH, HEIGHT, 16, 0L);
+        TerrainCache.Key second = new TerrainCache.Key(2, WIDTH, HEIGHT, 16, 0L);
+        TerrainCache.Key third = new TerrainCache.Key(3, WIDTH, HEIGHT, 16, 0L);
+        write(cache, first, 16);
+        write(cache, second, 16);
+        new File(folder.getRoot(), first.getFileName()).setLastModified(System.currentTimeMillis() - 20000);
+        new File(folder.getRoot(), second.getFileName()).setLastModified(System.currentTimeMillis() - 10000);
+        cache.open(first).close();
+        write(cache, third, 16);
+
+        assertEquals(2 * landBytes, cache.getSizeInBytes());
+        assertNull(cache.open(second));
+        assertNotNull(cache.open(first));
+        assertNotNull(cache.open(third));
+    }
+}
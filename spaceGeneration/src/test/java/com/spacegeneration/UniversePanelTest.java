@@ -0,0 +1,40 @@
+package com.spacegeneration;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UniversePanelTest {
+
+    @Test
+    public void testV1SeedsAreUnchanged() {
+        for (String key : new String[] {"00", "1-1", "-12", "10-3"}) {
+            assertTrue(key.hashCode() > 0);
+            assertEquals(new Random(87345).nextInt(key.hashCode()), UniversePanel.createSeed(87345, key));
+        }
+    }
+
+    @Test
+    public void testV1SeedOfEveryRegionKey() {
+        int negative = 0;
+        for (int x = -300; x <= 300; x++) {
+            for (int y = -300; y <= 300; y += 7) {
+                String key = Integer.toString(x) + Integer.toString(y);
+                negative += (key.hashCode() <= 0)? 1 : 0;
+                UniversePanel.createSeed(87345, key);
+            }
+        }
+        assertTrue(negative > 0);
+        assertEquals(UniversePanel.createSeed(1, "a"), UniversePanel.createSeed(1, "a"));
+    }
+
+    @Test
+    public void testV2SeedsTellRegionsApart() {
+        // Both regions have the v1 key "123"
+        assertNotEquals(UniversePanel.deriveRegionSeed(87345, 1, 23), UniversePanel.deriveRegionSeed(87345, 12, 3));
+        assertNotEquals(UniversePanel.deriveRegionSeed(87345, 1, 2), UniversePanel.deriveRegionSeed(87345, 2, 1));
+        assertEquals(UniversePanel.deriveRegionSeed(87345, -5, 8), UniversePanel.deriveRegionSeed(87345, -5, 8));
+    }
+}